@@ -19,6 +19,12 @@ public class ConnectionParameters {
     private String catalog;
     private boolean autoTrim = false;
     private Boolean autoCommit;
+    private String manager;
+    private Integer poolSize;
+    private Integer poolMinIdle;
+    private Long poolTimeout;
+    private Integer statementCacheSize;
+    private Integer fetchSize;
 
     /**
      * Retrieves the URL for the database connection.
@@ -168,6 +174,137 @@ public class ConnectionParameters {
         return this;
     }
 
+    /**
+     * Retrieves the name of the {@link ConnectionManager} extension providing
+     * the connections.
+     *
+     * @return The extension name, or {@code null} to use the default one
+     */
+    public String manager() {
+        return manager;
+    }
+
+    /**
+     * Sets the name of the {@link ConnectionManager} extension providing the
+     * connections, such as {@code database-driver-connection} or
+     * {@code database-pool-connection}.
+     *
+     * @param manager The extension name
+     * @return This ConnectionParameters instance
+     */
+    public ConnectionParameters manager(String manager) {
+        this.manager = manager;
+        return this;
+    }
+
+    /**
+     * Retrieves the maximum number of connections kept by a connection pool.
+     *
+     * @return The pool size, or {@code null} to use the pool default
+     */
+    public Integer poolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the maximum number of connections kept by a connection pool.
+     *
+     * @param poolSize The pool size
+     * @return This ConnectionParameters instance
+     */
+    public ConnectionParameters poolSize(int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the minimum number of idle connections kept by a connection
+     * pool.
+     *
+     * @return The minimum idle connections, or {@code null} to use the pool
+     * default
+     */
+    public Integer poolMinIdle() {
+        return poolMinIdle;
+    }
+
+    /**
+     * Sets the minimum number of idle connections kept by a connection pool.
+     *
+     * @param poolMinIdle The minimum idle connections
+     * @return This ConnectionParameters instance
+     */
+    public ConnectionParameters poolMinIdle(int poolMinIdle) {
+        this.poolMinIdle = poolMinIdle;
+        return this;
+    }
+
+    /**
+     * Retrieves the maximum time, in milliseconds, to wait for a connection
+     * from a connection pool.
+     *
+     * @return The timeout, or {@code null} to use the pool default
+     */
+    public Long poolTimeout() {
+        return poolTimeout;
+    }
+
+    /**
+     * Sets the maximum time, in milliseconds, to wait for a connection from a
+     * connection pool.
+     *
+     * @param poolTimeout The timeout
+     * @return This ConnectionParameters instance
+     */
+    public ConnectionParameters poolTimeout(long poolTimeout) {
+        this.poolTimeout = poolTimeout;
+        return this;
+    }
+
+    /**
+     * Retrieves the number of prepared statements cached by each pooled
+     * connection.
+     *
+     * @return The cache size, or {@code null} to use the driver default
+     */
+    public Integer statementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets the number of prepared statements cached by each pooled
+     * connection. A value of {@code 0} disables the cache.
+     *
+     * @param statementCacheSize The cache size
+     * @return This ConnectionParameters instance
+     */
+    public ConnectionParameters statementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the number of rows fetched from the database each time a
+     * query result needs more rows.
+     *
+     * @return The fetch size, or {@code null} to use the driver default
+     */
+    public Integer fetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows fetched from the database each time a query
+     * result needs more rows.
+     *
+     * @param fetchSize The fetch size
+     * @return This ConnectionParameters instance
+     */
+    public ConnectionParameters fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
     /**
      * Returns a string representation of the ConnectionParameters.
      *
@@ -190,6 +327,9 @@ public class ConnectionParameters {
         if (catalog != null) {
             builder.append("catalog").append(equals).append(catalog).append(separator);
         }
+        if (manager != null) {
+            builder.append("manager").append(equals).append(manager).append(separator);
+        }
         return builder.toString().replaceAll(separator + "$", "]");
     }
 }
@@ -35,6 +35,26 @@ public class DatabaseConfigContributor implements ConfigContributor<DatabaseStep
      * Values &lt;= 0 disable timeout.
      */
     public static final String DATABASE_SIMILAR_SEARCH_TIMEOUT_MS = "database.similarSearch.timeout";
+    /**
+     * Max number of records, matching any of the expected values, compared in a
+     * similar-record lookup.
+     */
+    public static final String DATABASE_SIMILAR_SEARCH_CANDIDATES = "database.similarSearch.candidates";
+    /**
+     * Max number of records compared in a similar-record lookup when no record
+     * matching any of the expected values is similar enough. Values &lt;= 0
+     * disable the limit.
+     */
+    public static final String DATABASE_SIMILAR_SEARCH_SCAN_LIMIT = "database.similarSearch.scanLimit";
+    /**
+     * Max number of rows inserted or deleted with a single JDBC batch.
+     */
+    public static final String DATABASE_BATCH_SIZE = "database.batchSize";
+    /**
+     * Max size (bytes) of a query result kept in memory as a step result.
+     * Larger results are stored in a temporary file.
+     */
+    public static final String DATABASE_SELECT_SPOOL_THRESHOLD = "database.select.spoolThreshold";
     private static final String PROPERTY_BASE = "database";
     private static final String DATASOURCE_BASE = "datasource";
     private static final String CONNECTION_URL = "connection.url";
@@ -45,6 +65,12 @@ public class DatabaseConfigContributor implements ConfigContributor<DatabaseStep
     private static final String METADATA_CATALOG = "metadata.catalog";
     private static final String AUTO_TRIM = "autotrim";
     private static final String AUTO_COMMIT = "autocommit";
+    private static final String CONNECTION_MANAGER = "connection.manager";
+    private static final String CONNECTION_POOL_SIZE = "connection.pool.size";
+    private static final String CONNECTION_POOL_MIN_IDLE = "connection.pool.minIdle";
+    private static final String CONNECTION_POOL_TIMEOUT = "connection.pool.timeout";
+    private static final String CONNECTION_POOL_STATEMENT_CACHE_SIZE = "connection.pool.statementCacheSize";
+    private static final String CONNECTION_FETCH_SIZE = "connection.fetchSize";
 
     private static final Configuration DEFAULTS = Configuration.factory().fromPairs(
             DATABASE_XLS_IGNORE_SHEET_PATTERN, "#.*",
@@ -52,7 +78,11 @@ public class DatabaseConfigContributor implements ConfigContributor<DatabaseStep
             DATABASE_CSV_FORMAT, "DEFAULT",
             DATABASE_ENABLE_CLEANUP_UPON_COMPLETION, Boolean.FALSE.toString(),
             DATABASE_HEALTHCHECK, Boolean.TRUE.toString(),
-            DATABASE_SIMILAR_SEARCH_TIMEOUT_MS, Long.toString(10000)
+            DATABASE_SIMILAR_SEARCH_TIMEOUT_MS, Long.toString(10000),
+            DATABASE_SIMILAR_SEARCH_CANDIDATES, Integer.toString(1000),
+            DATABASE_SIMILAR_SEARCH_SCAN_LIMIT, Integer.toString(10000),
+            DATABASE_BATCH_SIZE, Integer.toString(100),
+            DATABASE_SELECT_SPOOL_THRESHOLD, Integer.toString(10 * 1024 * 1024)
     );
 
     /**
@@ -93,6 +123,14 @@ public class DatabaseConfigContributor implements ConfigContributor<DatabaseStep
                 .ifPresent(contributor::setHealthcheck);
         configuration.get(DATABASE_SIMILAR_SEARCH_TIMEOUT_MS, Long.class)
                 .ifPresent(contributor::setSimilarSearchTimeoutMs);
+        configuration.get(DATABASE_SIMILAR_SEARCH_CANDIDATES, Integer.class)
+                .ifPresent(contributor::setSimilarSearchCandidates);
+        configuration.get(DATABASE_SIMILAR_SEARCH_SCAN_LIMIT, Integer.class)
+                .ifPresent(contributor::setSimilarSearchScanLimit);
+        configuration.get(DATABASE_BATCH_SIZE, Integer.class)
+                .ifPresent(contributor::setBatchSize);
+        configuration.get(DATABASE_SELECT_SPOOL_THRESHOLD, Integer.class)
+                .ifPresent(contributor::setSelectSpoolThreshold);
 
         if (databaseConfig.keyStream().anyMatch(k -> k.startsWith(DATASOURCE_BASE))) {
             Configuration datasourceConfig = databaseConfig.inner(DATASOURCE_BASE);
@@ -123,6 +161,13 @@ public class DatabaseConfigContributor implements ConfigContributor<DatabaseStep
         configuration.get(METADATA_CATALOG, String.class).ifPresent(connectionParameters::catalog);
         configuration.get(AUTO_TRIM, Boolean.class).ifPresent(connectionParameters::autoTrim);
         configuration.get(AUTO_COMMIT, Boolean.class).ifPresent(connectionParameters::autoCommit);
+        configuration.get(CONNECTION_MANAGER, String.class).ifPresent(connectionParameters::manager);
+        configuration.get(CONNECTION_POOL_SIZE, Integer.class).ifPresent(connectionParameters::poolSize);
+        configuration.get(CONNECTION_POOL_MIN_IDLE, Integer.class).ifPresent(connectionParameters::poolMinIdle);
+        configuration.get(CONNECTION_POOL_TIMEOUT, Long.class).ifPresent(connectionParameters::poolTimeout);
+        configuration.get(CONNECTION_POOL_STATEMENT_CACHE_SIZE, Integer.class)
+                .ifPresent(connectionParameters::statementCacheSize);
+        configuration.get(CONNECTION_FETCH_SIZE, Integer.class).ifPresent(connectionParameters::fetchSize);
         return connectionParameters;
     }
 
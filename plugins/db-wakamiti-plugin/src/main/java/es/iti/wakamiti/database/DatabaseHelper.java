@@ -10,6 +10,7 @@ import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.api.util.Pair;
 import es.iti.wakamiti.database.dataset.DataSet;
 import es.iti.wakamiti.database.exception.SQLRuntimeException;
+import es.iti.wakamiti.database.jdbc.ResultColumns;
 
 import java.io.IOException;
 import java.sql.*;
@@ -79,44 +80,23 @@ public final class DatabaseHelper {
      * @throws SQLRuntimeException If an SQL exception occurs
      */
     public static String[] format(ResultSet rs) {
+        return formatRow(rs, columns(rs));
+    }
+
+    /**
+     * Formats a result set row into an array of strings, using the already
+     * read columns of the result set.
+     *
+     * @param rs      The result set to format
+     * @param columns The columns of the result set
+     * @return The formatted row as an array of strings
+     * @throws SQLRuntimeException If an SQL exception occurs
+     */
+    public static String[] formatRow(ResultSet rs, ResultColumns columns) {
         try {
-            ResultSetMetaData metadata = rs.getMetaData();
-            String[] row = new String[metadata.getColumnCount()];
-            for (int c = 1; c <= metadata.getColumnCount(); c++) {
-                switch (JDBCType.valueOf(metadata.getColumnType(c))) {
-                    case BOOLEAN:
-                        String v = processColumn(rs.getBoolean(c), rs.wasNull());
-                        row[c - 1] = v;
-                        break;
-                    case DATE:
-                        Calendar calendar1 = Calendar.getInstance();
-                        calendar1.setTimeZone(TimeZone.getDefault());
-                        calendar1.setLenient(true);
-                        Timestamp timestamp1 = rs.getTimestamp(c, calendar1);
-                        if (rs.wasNull()) {
-                            row[c - 1] = null;
-                            break;
-                        }
-                        row[c - 1] = DATE_FORMATTER.format(timestamp1.toLocalDateTime());
-                        break;
-                    case TIMESTAMP:
-                    case TIME:
-                    case TIME_WITH_TIMEZONE:
-                    case TIMESTAMP_WITH_TIMEZONE:
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeZone(TimeZone.getDefault());
-                        calendar.setLenient(true);
-                        Timestamp timestamp = rs.getTimestamp(c, calendar);
-                        if (rs.wasNull()) {
-                            row[c - 1] = null;
-                            break;
-                        }
-                        row[c - 1] = DATE_TIME_FORMATTER.format(timestamp.toLocalDateTime());
-                        break;
-                    default:
-                        String value = processColumn(rs.getString(c), rs.wasNull());
-                        row[c - 1] = value;
-                }
+            String[] row = new String[columns.count()];
+            for (int c = 1; c <= columns.count(); c++) {
+                row[c - 1] = formatValue(rs, c, columns.type(c));
             }
             return row;
         } catch (SQLException e) {
@@ -132,45 +112,23 @@ public final class DatabaseHelper {
      * @throws SQLRuntimeException If an SQL exception occurs
      */
     public static Map<String, String> formatToMap(ResultSet rs) {
+        return formatRowToMap(rs, columns(rs));
+    }
+
+    /**
+     * Formats a result set row into a map of column names to values, using
+     * the already read columns of the result set.
+     *
+     * @param rs      The result set to format
+     * @param columns The columns of the result set
+     * @return The formatted row as a map of column names to values
+     * @throws SQLRuntimeException If an SQL exception occurs
+     */
+    public static Map<String, String> formatRowToMap(ResultSet rs, ResultColumns columns) {
         try {
-            ResultSetMetaData metadata = rs.getMetaData();
             Map<String, String> row = new LinkedHashMap<>();
-            for (int c = 1; c <= metadata.getColumnCount(); c++) {
-                String column = metadata.getColumnName(c);
-                switch (JDBCType.valueOf(metadata.getColumnType(c))) {
-                    case BOOLEAN:
-                        String v = processColumn(rs.getBoolean(c), rs.wasNull());
-                        row.put(column, v);
-                        break;
-                    case DATE:
-                        Calendar calendar1 = Calendar.getInstance();
-                        calendar1.setTimeZone(TimeZone.getDefault());
-                        calendar1.setLenient(true);
-                        Timestamp timestamp1 = rs.getTimestamp(c, calendar1);
-                        if (rs.wasNull()) {
-                            row.put(column, null);
-                            break;
-                        }
-                        row.put(column, DATE_FORMATTER.format(timestamp1.toLocalDateTime()));
-                        break;
-                    case TIMESTAMP:
-                    case TIME:
-                    case TIME_WITH_TIMEZONE:
-                    case TIMESTAMP_WITH_TIMEZONE:
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeZone(TimeZone.getDefault());
-                        calendar.setLenient(true);
-                        Timestamp timestamp = rs.getTimestamp(c, calendar);
-                        if (rs.wasNull()) {
-                            row.put(column, null);
-                            break;
-                        }
-                        row.put(column, DATE_TIME_FORMATTER.format(timestamp.toLocalDateTime()));
-                        break;
-                    default:
-                        String value = processColumn(rs.getString(c), rs.wasNull());
-                        row.put(column, value);
-                }
+            for (int c = 1; c <= columns.count(); c++) {
+                row.put(columns.name(c), formatValue(rs, c, columns.type(c)));
             }
             return row;
         } catch (SQLException e) {
@@ -178,6 +136,44 @@ public final class DatabaseHelper {
         }
     }
 
+    private static ResultColumns columns(ResultSet rs) {
+        try {
+            return ResultColumns.of(rs.getMetaData());
+        } catch (SQLException e) {
+            throw new SQLRuntimeException("Cannot read result set", e);
+        }
+    }
+
+    private static String formatValue(ResultSet rs, int c, JDBCType type) throws SQLException {
+        switch (type) {
+            case BOOLEAN:
+                return processColumn(rs.getBoolean(c), rs.wasNull());
+            case DATE:
+                Calendar calendar1 = Calendar.getInstance();
+                calendar1.setTimeZone(TimeZone.getDefault());
+                calendar1.setLenient(true);
+                Timestamp timestamp1 = rs.getTimestamp(c, calendar1);
+                if (rs.wasNull()) {
+                    return null;
+                }
+                return DATE_FORMATTER.format(timestamp1.toLocalDateTime());
+            case TIMESTAMP:
+            case TIME:
+            case TIME_WITH_TIMEZONE:
+            case TIMESTAMP_WITH_TIMEZONE:
+                Calendar calendar = Calendar.getInstance();
+                calendar.setTimeZone(TimeZone.getDefault());
+                calendar.setLenient(true);
+                Timestamp timestamp = rs.getTimestamp(c, calendar);
+                if (rs.wasNull()) {
+                    return null;
+                }
+                return DATE_TIME_FORMATTER.format(timestamp.toLocalDateTime());
+            default:
+                return processColumn(rs.getString(c), rs.wasNull());
+        }
+    }
+
     private static String processColumn(Object value, boolean wasNull) {
         return wasNull ? null : Objects.toString(value);
     }
@@ -28,7 +28,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 import static es.iti.wakamiti.api.util.JsonUtils.json;
 import static es.iti.wakamiti.database.jdbc.LogUtils.message;
@@ -63,6 +62,15 @@ public class DatabaseStepContributor extends DatabaseSupport implements StepCont
         }
     }
 
+    /**
+     * Removes the temporary files of the query results after scenario execution.
+     */
+    @TearDown(order = 3)
+    public void deleteSpooledResults() {
+        spooledResults.forEach(SpooledResult::delete);
+        spooledResults.clear();
+    }
+
     /**
      * Sets the default database connection parameters.
      *
@@ -1096,8 +1104,7 @@ public class DatabaseStepContributor extends DatabaseSupport implements StepCont
      */
     @Step("db.select.data")
     public Object selectData(Document document) {
-        return json(executeSelect(document.getContent()).stream()
-                .map(nullSymbolMapper).collect(Collectors.toList()));
+        return executeSelect(document.getContent());
     }
 
     /**
@@ -1110,8 +1117,7 @@ public class DatabaseStepContributor extends DatabaseSupport implements StepCont
     public Object selectData(File file) {
         file = resourceLoader().absolutePath(file);
         assertFileExists(file);
-        return json(executeSelect(resourceLoader().readFileAsString(file)).stream()
-                .map(nullSymbolMapper).collect(Collectors.toList()));
+        return executeSelect(resourceLoader().readFileAsString(file));
     }
 
     /**
@@ -22,6 +22,7 @@ import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.delete.Delete;
 import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Values;
 import net.sf.jsqlparser.statement.update.UpdateSet;
 import net.sf.jsqlparser.util.cnfexpression.MultiAndExpression;
 import org.apache.commons.text.similarity.LevenshteinDistance;
@@ -32,6 +33,8 @@ import org.slf4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.JDBCType;
 import java.sql.SQLTimeoutException;
 import java.time.Duration;
 import java.time.Instant;
@@ -42,6 +45,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static es.iti.wakamiti.database.DatabaseHelper.*;
@@ -64,6 +68,7 @@ public class DatabaseSupport {
     protected static final String GIVEN_WHERE_CLAUSE = "the given WHERE clause";
     protected static final String ERROR_CLOSING_DATASET = "Error closing dataset";
     protected static final double SIMILARITY_THRESHOLD = 0.7;
+    protected static final int VERIFICATION_BATCH_SIZE = 100;
     protected static final LevenshteinDistance LEVENSHTEIN_DISTANCE = new LevenshteinDistance();
     protected static final Logger LOGGER = WakamitiLogger.forName("es.iti.wakamiti.database");
     protected final Map<String, ConnectionProvider> connections = new HashMap<>();
@@ -75,8 +80,13 @@ public class DatabaseSupport {
     protected boolean enableCleanupUponCompletion;
     protected boolean healthcheck;
     protected long similarSearchTimeoutMs = 10_000L;
+    protected int similarSearchCandidates = 1000;
+    protected int similarSearchScanLimit = 10_000;
+    protected int batchSize = 100;
+    protected int selectSpoolThreshold = 10 * 1024 * 1024;
+    protected final List<SpooledResult> spooledResults = new ArrayList<>();
     protected UnaryOperator<Map<String, String>> nullSymbolMapper = map ->
-            map.entrySet().stream().collect(MapUtils.toMap(v -> v.equals(nullSymbol) ? null : v));
+            map.entrySet().stream().collect(MapUtils.toMap(v -> v == null || v.equals(nullSymbol) ? null : v));
 
     protected static ResourceLoader resourceLoader() {
         return WakamitiAPI.instance().resourceLoader();
@@ -140,6 +150,46 @@ public class DatabaseSupport {
         this.similarSearchTimeoutMs = timeout;
     }
 
+    /**
+     * Sets the maximum number of records, matching any of the expected values,
+     * compared in a "closest record" lookup.
+     *
+     * @param candidates The number of records; values {@code <= 0} are treated as {@code 1}.
+     */
+    public void setSimilarSearchCandidates(int candidates) {
+        this.similarSearchCandidates = Math.max(candidates, 1);
+    }
+
+    /**
+     * Sets the maximum number of records compared in a "closest record" lookup
+     * when none of the records matching any of the expected values is similar
+     * enough.
+     *
+     * @param scanLimit The number of records; values {@code <= 0} disable the limit.
+     */
+    public void setSimilarSearchScanLimit(int scanLimit) {
+        this.similarSearchScanLimit = Math.max(scanLimit, 0);
+    }
+
+    /**
+     * Sets the maximum number of rows inserted or deleted with a single batch.
+     *
+     * @param batchSize The batch size; values {@code <= 0} are treated as {@code 1}.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Sets the maximum size, in bytes, of a query result kept in memory as a
+     * step result. Larger results are stored in a temporary file.
+     *
+     * @param selectSpoolThreshold The size in bytes; values {@code < 0} are treated as {@code 0}.
+     */
+    public void setSelectSpoolThreshold(int selectSpoolThreshold) {
+        this.selectSpoolThreshold = Math.max(selectSpoolThreshold, 0);
+    }
+
     /**
      * Adds a database connection with the specified alias and parameters.
      *
@@ -257,18 +307,26 @@ public class DatabaseSupport {
 
     /**
      * Executes the given SQL SELECT statement and returns the result as
-     * a list of maps.
+     * a JSON array of objects, one per row, where keys are column names.
+     * <p>
+     * Rows are read from the database cursor one at a time. If the result
+     * exceeds {@link #selectSpoolThreshold} bytes, it is stored in a
+     * temporary file, which is kept until the backend is torn down so the
+     * result can still be referenced by later steps.
      *
      * @param sql The SQL SELECT statement to execute.
-     * @return A list of maps representing the result set, where each map
-     * corresponds to a row, and keys are column names.
+     * @return The result as a {@link com.fasterxml.jackson.databind.JsonNode},
+     * or a {@link SpooledResult} if it is stored in a temporary file.
      */
-    protected List<Map<String, String>> executeSelect(String sql) {
+    protected Object executeSelect(String sql) {
         try (Select<Map<String, String>> select = Database.from(connection()).select(sql)
-                .get(DatabaseHelper::formatToMap)) {
-            return select.map(map -> map.entrySet().stream()
-                            .collect(MapUtils.toMap(v -> Optional.ofNullable(v).orElse(nullSymbol))))
-                    .stream().collect(Collectors.toList());
+                .get(DatabaseHelper::formatRowToMap)) {
+            Object result = SpooledResult.spool(select.map(nullSymbolMapper).stream(), selectSpoolThreshold);
+            if (result instanceof SpooledResult) {
+                spooledResults.add((SpooledResult) result);
+                LOGGER.debug("Query result stored in {}", ((SpooledResult) result).file());
+            }
+            return result;
         }
     }
 
@@ -344,6 +402,39 @@ public class DatabaseSupport {
         return countBy(db, db.parser().sqlSelectCountFrom(normalizedTable, normalizedColumns, values).toString());
     }
 
+    /**
+     * Counts the number of rows in the specified table that match each of the given rows.
+     * <p>
+     * Instead of one query per row, the rows are verified in batches of
+     * {@link #VERIFICATION_BATCH_SIZE} with a single query each.
+     *
+     * @param table The name of the table.
+     * @param rows  The processed rows, as returned by {@link #processRows(DataSet)}.
+     * @return The count of records matching each row, in the same order.
+     */
+    protected long[] countEachBy(String table, List<Pair<String[], Object[]>> rows) {
+        Database db = Database.from(connection());
+        String normalizedTable = db.table(table);
+        long[] counts = new long[rows.size()];
+        for (int from = 0; from < rows.size(); from += VERIFICATION_BATCH_SIZE) {
+            List<Pair<String[], Object[]>> batch =
+                    rows.subList(from, Math.min(rows.size(), from + VERIFICATION_BATCH_SIZE));
+            List<String[]> columns = batch.stream()
+                    .map(row -> Stream.of(row.key()).map(c -> db.column(normalizedTable, c)).toArray(String[]::new))
+                    .collect(Collectors.toList());
+            List<Object[]> values = batch.stream().map(Pair::value).collect(Collectors.toList());
+            String sql = db.parser().sqlSelectCountEachFrom(normalizedTable, columns, values).toString();
+            try (Select<String[]> select = db.select(sql).get(DatabaseHelper::formatRow)) {
+                String[] result = select.stream().findFirst().orElseGet(() -> new String[0]);
+                for (int i = 0; i < batch.size(); i++) {
+                    counts[from + i] = i < result.length && result[i] != null
+                            ? new BigDecimal(result[i].trim()).longValue() : 0L;
+                }
+            }
+        }
+        return counts;
+    }
+
     /**
      * Counts the number of rows in the specified table that match the given SQL WHERE clause.
      *
@@ -365,7 +456,7 @@ public class DatabaseSupport {
      * @return The count of rows returned by the query.
      */
     private long countBy(Database db, String sql) {
-        try (Select<String[]> select = db.select(sql).get(DatabaseHelper::format)) {
+        try (Select<String[]> select = db.select(sql).get(DatabaseHelper::formatRow)) {
             return select.stream().findFirst().map(v -> v[0]).map(Long::parseLong).orElse(0L);
         }
     }
@@ -379,8 +470,12 @@ public class DatabaseSupport {
      * Search flow:
      * <ol>
      *   <li>Normalize table/column names according to the current JDBC dialect.</li>
-     *   <li>Perform a full table scan.</li>
-     *   <li>Compute Levenshtein-based score for each row.</li>
+     *   <li>Read up to {@link #similarSearchCandidates} records matching any of the
+     *   expected values, those matching more values first.</li>
+     *   <li>If none of them is similar enough, read up to {@link #similarSearchScanLimit}
+     *   records of the table.</li>
+     *   <li>Compute Levenshtein-based score for each row, keeping only the best one and
+     *   discarding the rows that cannot beat it as soon as possible.</li>
      *   <li>Return the best candidate above {@link #SIMILARITY_THRESHOLD}.</li>
      * </ol>
      * Timeout and SQL timeout are honored in every stage. If timeout is reached,
@@ -395,34 +490,30 @@ public class DatabaseSupport {
     protected Optional<Map<String, String>> similarBy(String table, String[] columns, Object[] values) {
         Database db = Database.from(connection());
         String normalizedTable = db.table(table);
-        String[] formattedColumns = Stream.of(columns)
-                .map(c -> db.parser().format(db.column(normalizedTable, c)))
+        String[] normalizedColumns = Stream.of(columns)
+                .map(c -> db.column(normalizedTable, c))
+                .toArray(String[]::new);
+        String[] formattedColumns = Stream.of(normalizedColumns)
+                .map(c -> db.parser().format(c))
+                .toArray(String[]::new);
+        String[] expected = Stream.of(values)
+                .map(v -> normalizeSimilarityValue(v == null ? null : DatabaseHelper.toString(v)))
                 .toArray(String[]::new);
         long deadlineNanos = similarSearchDeadlineNanos();
 
         try {
             throwIfSimilarSearchTimedOut(deadlineNanos);
-            String sql = db.parser().sqlSelectFrom(db.parser().format(normalizedTable), formattedColumns).toString();
-            try (Select<String[]> select = selectForSimilarSearch(db, sql).get(DatabaseHelper::format)) {
-                Optional<Record> result = select
-                        .map(row -> {
-                            throwIfSimilarSearchTimedOut(deadlineNanos);
-                            Record candidate = scoreRecord(row, values);
-                            throwIfSimilarSearchTimedOut(deadlineNanos);
-                            return candidate;
-                        })
-                        .filter(candidate -> {
-                            throwIfSimilarSearchTimedOut(deadlineNanos);
-                            return candidate.score() > SIMILARITY_THRESHOLD;
-                        })
-                        .reduce((rec1, rec2) -> {
-                            throwIfSimilarSearchTimedOut(deadlineNanos);
-                            return rec1.score() > rec2.score() ? rec1 : rec2;
-                        });
-                throwIfSimilarSearchTimedOut(deadlineNanos);
-                result.ifPresent(rec -> LOGGER.trace("Found {}", rec));
-                return result.map(rec -> toMap(formattedColumns, rec.data()));
+            String formattedTable = db.parser().format(normalizedTable);
+            Optional<Record> result = db.parser().sqlSelectSimilarFrom(formattedTable, normalizedColumns, values)
+                    .flatMap(sql -> similarCandidate(db, sql.toString(), similarSearchCandidates, expected,
+                            deadlineNanos));
+            if (result.isEmpty()) {
+                String sql = db.parser().sqlSelectFrom(formattedTable, formattedColumns).toString();
+                result = similarCandidate(db, sql, similarSearchScanLimit, expected, deadlineNanos);
             }
+            throwIfSimilarSearchTimedOut(deadlineNanos);
+            result.ifPresent(rec -> LOGGER.trace("Found {}", rec));
+            return result.map(rec -> toMap(formattedColumns, rec.data()));
         } catch (SimilarSearchTimeoutException e) {
             logSimilarSearchTimeout(table);
             return Optional.empty();
@@ -436,38 +527,95 @@ public class DatabaseSupport {
     }
 
     /**
-     * Calculates average similarity score for one candidate row.
+     * Reads the records of the given query, up to the given number, and returns
+     * the best candidate above {@link #SIMILARITY_THRESHOLD}.
+     * <p>
+     * Only the candidates improving the best score so far are kept, and once a
+     * candidate matches every value the remaining rows are skipped without scoring.
+     *
+     * @param db active database wrapper
+     * @param sql SQL select statement
+     * @param maxRows maximum number of rows read, or {@code 0} for no limit
+     * @param expected normalized expected values
+     * @param deadlineNanos absolute timeout deadline in nanoseconds
+     * @return the best candidate, or empty if no row is similar enough
+     */
+    private Optional<Record> similarCandidate(
+            Database db, String sql, int maxRows, String[] expected, long deadlineNanos) {
+        double[] best = {SIMILARITY_THRESHOLD};
+        try (Select<String[]> select = selectForSimilarSearch(db, sql).maxRows(maxRows).get(DatabaseHelper::formatRow)) {
+            return select
+                    .map(row -> {
+                        throwIfSimilarSearchTimedOut(deadlineNanos);
+                        if (best[0] >= 1.0) {
+                            return null;
+                        }
+                        Record candidate = scoreRecord(row, expected, best[0]);
+                        if (candidate != null) {
+                            best[0] = candidate.score();
+                        }
+                        return candidate;
+                    })
+                    .reduce((rec1, rec2) -> {
+                        throwIfSimilarSearchTimedOut(deadlineNanos);
+                        return rec2;
+                    });
+        }
+    }
+
+    /**
+     * Calculates average similarity score for one candidate row, giving up as
+     * soon as the row cannot exceed the given score.
      *
      * @param rowValues actual values read from DB candidate
-     * @param values expected values from assertion context
-     * @return {@link Record} carrying original data and computed score
+     * @param expected normalized expected values from assertion context
+     * @param minScore score to exceed
+     * @return {@link Record} carrying original data and computed score, or
+     * {@code null} if the score does not exceed {@code minScore}
      */
-    private Record scoreRecord(String[] rowValues, Object[] values) {
+    private Record scoreRecord(String[] rowValues, String[] expected, double minScore) {
+        double required = minScore * expected.length;
         double score = 0;
-        for (int i = 0; i < values.length; i++) {
-            score += similarityScore(values[i], rowValues[i]);
+        for (int i = 0; i < expected.length; i++) {
+            int remaining = expected.length - i - 1;
+            double columnScore = similarityScore(expected[i], rowValues[i], required - score - remaining);
+            if (columnScore < 0) {
+                return null;
+            }
+            score += columnScore;
         }
-        score /= values.length;
-        return new Record(rowValues, score);
+        score /= expected.length;
+        return score > minScore ? new Record(rowValues, score) : null;
     }
 
     /**
      * Computes normalized Levenshtein similarity in range {@code [0.0, 1.0]}.
      * <p>
-     * Both values are normalized to uppercase and trimmed to minimize noise
-     * from case and edge spaces.
+     * The actual value is normalized to uppercase and trimmed, as the expected one,
+     * to minimize noise from case and edge spaces. The distance is computed only up
+     * to the one that still reaches the given minimum similarity.
      *
-     * @param expectedValue expected value from step/dataset
+     * @param expected normalized expected value from step/dataset
      * @param rowValue actual value from DB candidate
-     * @return similarity where {@code 1.0} means exact match after normalization
+     * @param minScore minimum similarity needed
+     * @return similarity where {@code 1.0} means exact match after normalization,
+     * or {@code -1} if it is lower than {@code minScore}
      */
-    private double similarityScore(Object expectedValue, String rowValue) {
-        String expected = normalizeSimilarityValue(expectedValue == null ? null : DatabaseHelper.toString(expectedValue));
+    private double similarityScore(String expected, String rowValue, double minScore) {
         String actual = normalizeSimilarityValue(rowValue);
         int maxLength = Math.max(expected.length(), actual.length());
-        double distance = LEVENSHTEIN_DISTANCE.apply(expected, actual);
         if (maxLength == 0) return 1.0;
-        return (maxLength - distance) / maxLength;
+        if (minScore > 1.0) return -1;
+        int distance;
+        if (minScore <= 0) {
+            distance = LEVENSHTEIN_DISTANCE.apply(expected, actual);
+        } else {
+            int maxDistance = (int) Math.floor((1.0 - minScore) * maxLength);
+            if (Math.abs(expected.length() - actual.length()) > maxDistance) return -1;
+            distance = new LevenshteinDistance(maxDistance).apply(expected, actual);
+            if (distance < 0) return -1;
+        }
+        return (maxLength - (double) distance) / maxLength;
     }
 
     private String normalizeSimilarityValue(String value) {
@@ -598,7 +746,7 @@ public class DatabaseSupport {
      * @return A list of pairs containing the processed columns and values for each row.
      */
     protected List<Pair<String[], Object[]>> processRows(DataSet dataSet) {
-        List<Pair<String[], Object[]>> rows = new LinkedList<>();
+        List<Pair<String[], Object[]>> rows = new ArrayList<>();
         while (dataSet.nextRow()) {
             rows.add(processRow(dataSet.table(), dataSet.columns(),
                     Stream.of(dataSet.values()).map(DatabaseHelper::toString).toArray(String[]::new)));
@@ -613,19 +761,21 @@ public class DatabaseSupport {
      */
     protected void assertNonEmpty(DataSet dataSet) {
         List<Pair<String[], Object[]>> rows = processRows(dataSet);
-        for (Pair<String[], Object[]> row : rows) {
-            if (!matcherNonEmpty().test(countBy(dataSet.table(), row.key(), row.value()))) {
-                similarBy(dataSet.table(), row.key(), row.value()).ifPresentOrElse(result ->
-                                assertThat(result)
-                                        .as("The closest record")
-                                        .containsExactlyEntriesOf(toMap(row.key(),
-                                                Stream.of(row.value()).map(DatabaseHelper::toString).toArray(String[]::new))),
-                        () -> fail(message(
-                                ERROR_ASSERT_SOME_RECORD_EXPECTED,
-                                toMap(row.key(), row.value()),
-                                Database.from(connection()).table(dataSet.table()), "it doesn't"
-                        )));
-            }
+        List<Pair<String[], Object[]>> missing =
+                rowsNotMatching(rows, countEachBy(dataSet.table(), rows), matcherNonEmpty());
+        if (!missing.isEmpty()) {
+            logRowsNotMatching(dataSet.table(), rows, missing, "do not exist");
+            Pair<String[], Object[]> row = missing.get(0);
+            similarBy(dataSet.table(), row.key(), row.value()).ifPresentOrElse(result ->
+                            assertThat(result)
+                                    .as("The closest record")
+                                    .containsExactlyEntriesOf(toMap(row.key(),
+                                            Stream.of(row.value()).map(DatabaseHelper::toString).toArray(String[]::new))),
+                    () -> fail(message(
+                            ERROR_ASSERT_SOME_RECORD_EXPECTED,
+                            toMap(row.key(), row.value()),
+                            Database.from(connection()).table(dataSet.table()), "it doesn't"
+                    )));
         }
     }
 
@@ -636,14 +786,16 @@ public class DatabaseSupport {
      */
     protected void assertEmpty(DataSet dataSet) {
         List<Pair<String[], Object[]>> rows = processRows(dataSet);
-        for (Pair<String[], Object[]> row : rows) {
-            if (!matcherEmpty().test(countBy(dataSet.table(), row.key(), row.value()))) {
-                fail(message(
-                        ERROR_ASSERT_NO_RECORD_EXPECTED,
-                        toMap(row.key(), row.value()),
-                        Database.from(connection()).table(dataSet.table()), "it does"
-                ));
-            }
+        List<Pair<String[], Object[]>> found =
+                rowsNotMatching(rows, countEachBy(dataSet.table(), rows), matcherEmpty());
+        if (!found.isEmpty()) {
+            logRowsNotMatching(dataSet.table(), rows, found, "exist");
+            Pair<String[], Object[]> row = found.get(0);
+            fail(message(
+                    ERROR_ASSERT_NO_RECORD_EXPECTED,
+                    toMap(row.key(), row.value()),
+                    Database.from(connection()).table(dataSet.table()), "it does"
+            ));
         }
     }
 
@@ -655,10 +807,7 @@ public class DatabaseSupport {
      */
     protected void assertCount(DataSet dataSet, Assertion<Long> matcher) {
         List<Pair<String[], Object[]>> rows = processRows(dataSet);
-        long count = rows
-                .stream()
-                .mapToLong(row -> countBy(dataSet.table(), row.key(), row.value()))
-                .sum();
+        long count = LongStream.of(countEachBy(dataSet.table(), rows)).sum();
         if (!matcher.test(count)) {
             fail(message(
                     ERROR_ASSERT_SOME_RECORD_EXPECTED,
@@ -680,9 +829,7 @@ public class DatabaseSupport {
         List<Pair<String[], Object[]>> rows = processRows(dataSet);
         AtomicLong count = new AtomicLong(0);
         assertAsync(() -> {
-            count.set(rows.stream()
-                    .mapToLong(row -> countBy(dataSet.table(), row.key(), row.value()))
-                    .sum());
+            count.set(LongStream.of(countEachBy(dataSet.table(), rows)).sum());
             return matcher.test(count.get());
         }, duration, () -> fail(message(
                 ERROR_ASSERT_SOME_RECORD_EXPECTED,
@@ -723,15 +870,13 @@ public class DatabaseSupport {
         AtomicReference<Pair<String[], Object[]>> currentRow = new AtomicReference<>();
 
         Temporal start = Instant.now();
+        AtomicReference<List<Pair<String[], Object[]>>> failedRows = new AtomicReference<>(List.of());
         assertAsync(() -> {
-            for (Pair<String[], Object[]> row : rows) {
-                if (!matcherNonEmpty().test(countBy(dataSet.table(), row.key(), row.value()))) {
-                    currentRow.set(row);
-                    return false;
-                }
-            }
-            return true;
+            failedRows.set(rowsNotMatching(rows, countEachBy(dataSet.table(), rows), matcherNonEmpty()));
+            failedRows.get().stream().findFirst().ifPresent(currentRow::set);
+            return failedRows.get().isEmpty();
         }, duration, () -> {
+            logRowsNotMatching(dataSet.table(), rows, failedRows.get(), "do not exist");
             Pair<String[], Object[]> processed = currentRow.get();
             similarBy(dataSet.table(), processed.key(), processed.value()).ifPresentOrElse(row ->
                             assertThat(row)
@@ -757,18 +902,55 @@ public class DatabaseSupport {
         AtomicReference<Pair<String[], Object[]>> currentRow = new AtomicReference<>();
 
         Temporal start = Instant.now();
+        AtomicReference<List<Pair<String[], Object[]>>> failedRows = new AtomicReference<>(List.of());
         assertAsync(() -> {
-            for (Pair<String[], Object[]> row : rows) {
-                if (!matcherEmpty().test(countBy(dataSet.table(), row.key(), row.value()))) {
-                    currentRow.set(row);
-                    return false;
-                }
-            }
-            return true;
-        }, duration, failNoRecordExpected(dataSet.table(), currentRow));
+            failedRows.set(rowsNotMatching(rows, countEachBy(dataSet.table(), rows), matcherEmpty()));
+            failedRows.get().stream().findFirst().ifPresent(currentRow::set);
+            return failedRows.get().isEmpty();
+        }, duration, () -> {
+            logRowsNotMatching(dataSet.table(), rows, failedRows.get(), "exist");
+            failNoRecordExpected(dataSet.table(), currentRow).run();
+        });
         return Duration.between(start, Instant.now());
     }
 
+    /**
+     * Selects the rows whose count of matching records does not satisfy the given matcher.
+     *
+     * @param rows    The processed rows.
+     * @param counts  The count of matching records of each row.
+     * @param matcher The assertion to be applied to each count.
+     * @return The rows not satisfying the matcher, in the same order.
+     */
+    private List<Pair<String[], Object[]>> rowsNotMatching(
+            List<Pair<String[], Object[]>> rows, long[] counts, Assertion<Long> matcher) {
+        List<Pair<String[], Object[]>> result = new LinkedList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (!matcher.test(counts[i])) {
+                result.add(rows.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Logs every failed row when more than one row fails the assertion, since
+     * only the first one is reported in the error message.
+     *
+     * @param table  The name of the table.
+     * @param rows   The processed rows.
+     * @param failed The rows failing the assertion.
+     * @param reason The reason of the failure.
+     */
+    private void logRowsNotMatching(
+            String table, List<Pair<String[], Object[]>> rows, List<Pair<String[], Object[]>> failed, String reason) {
+        if (failed.size() > 1) {
+            LOGGER.error("{} of {} expected rows {} in table {}: {}", failed.size(), rows.size(), reason,
+                    Database.from(connection()).table(table),
+                    failed.stream().map(row -> toMap(row.key(), row.value())).collect(Collectors.toList()));
+        }
+    }
+
     /**
      * Creates a runnable action to fail the assertion when some record is expected but not found.
      *
@@ -810,34 +992,138 @@ public class DatabaseSupport {
         List<Map<String, String>> results = new LinkedList<>();
         Database db = Database.from(connection());
         String table = db.table(dataSet.table());
-        while (dataSet.nextRow()) {
-            Map<String, Object> row = db.processData(dataSet.table(),
-                    dataSet.rowAsMap().entrySet().stream().collect(MapUtils.toMap(DatabaseHelper::toString)));
-            net.sf.jsqlparser.statement.insert.Insert insert = db.parser().toInsert(table, row);
-            try (Update update = db.update(insert.toString()).execute()) {
-                PostCleanUpStatementVisitorAdapter adapter = new PostCleanUpStatementVisitorAdapter();
-                insert.accept(adapter);
-                Optional<DataSet> result = adapter.getResult();
-
-                if (result.isPresent() && addCleanUpOperation) {
-                    cleanUpOperations.addFirst(() -> {
-                        try (DataSet ds = result.get().copy()) {
-                            deleteDataSet(ds, false);
-                        } catch (IOException e) {
-                            LOGGER.error(ERROR_CLOSING_DATASET, e);
-                        }
-                    });
+        Map<String, JDBCType> types = db.columnTypes(table);
+        List<Map<String, Object>> rows = new ArrayList<>(batchSize);
+        SelectedRows inserted = new SelectedRows(table);
+        List<String> columns = null;
+        Batch batch = null;
+        try {
+            while (dataSet.nextRow()) {
+                Map<String, Object> row = db.processData(dataSet.table(),
+                        dataSet.rowAsMap().entrySet().stream().collect(MapUtils.toMap(DatabaseHelper::toString)));
+                if (batch == null) {
+                    columns = new ArrayList<>(row.keySet());
+                    batch = db.batch(db.parser().toBatchInsert(table, columns).toString(),
+                            columns.stream().map(types::get).toArray(JDBCType[]::new)).prepare();
+                }
+                batch.add(columns.stream().map(row::get).toArray());
+                rows.add(row);
+                if (rows.size() >= batchSize) {
+                    insertBatch(db, table, batch, rows, inserted, results);
                 }
-                result.map(DatabaseHelper::read).ifPresent(list ->
-                        results.addAll(
-                                list.stream().map(m -> m.entrySet().stream().collect(MapUtils.toMap(DatabaseHelper::toString)))
-                                        .collect(Collectors.toList())
-                        ));
             }
+            if (batch != null) {
+                insertBatch(db, table, batch, rows, inserted, results);
+            }
+        } finally {
+            if (batch != null) {
+                batch.close();
+            }
+        }
+
+        if (addCleanUpOperation && !inserted.isEmpty()) {
+            cleanUpOperations.addFirst(() -> {
+                try (DataSet ds = inserted.toDataSet()) {
+                    deleteDataSet(ds, false);
+                } catch (IOException e) {
+                    LOGGER.error(ERROR_CLOSING_DATASET, e);
+                }
+            });
         }
         return results;
     }
 
+    /**
+     * Executes the pending rows of an insert batch and reads the inserted records back,
+     * in the same order as the rows.
+     * <p>
+     * The records are read by primary key when every row provides it. Otherwise, they
+     * are read by the values of the rows, discarding the records with the same values
+     * that already existed before the insertion.
+     *
+     * @param db       The database instance.
+     * @param table    The name of the table.
+     * @param batch    The insert batch.
+     * @param rows     The processed rows of the batch, cleared afterwards.
+     * @param inserted The inserted records, to be removed upon completion.
+     * @param results  The inserted records, as returned by the step.
+     */
+    private void insertBatch(Database db, String table, Batch batch, List<Map<String, Object>> rows,
+                             SelectedRows inserted, List<Map<String, String>> results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> pk = db.primaryKey(table).collect(Collectors.toList());
+        List<Map<String, Object>> keys = rows;
+        List<Object[]> existing = new LinkedList<>();
+        if (!pk.isEmpty() && rows.stream().allMatch(row -> pk.stream().allMatch(c -> row.get(c) != null))) {
+            keys = rows.stream()
+                    .map(row -> pk.stream().collect(Collectors.toMap(c -> c, row::get, (a, b) -> a, LinkedHashMap::new)))
+                    .collect(Collectors.toList());
+        } else {
+            try (MapDataSet ds = doSelect(db.parser().toSelect(table, rows))) {
+                existing.addAll(Arrays.asList(ds.allValues()));
+            }
+        }
+        batch.execute();
+        try (MapDataSet ds = doSelect(db.parser().toSelect(table, keys))) {
+            Object[][] values = sortAsRows(keys, Stream.of(ds.allValues())
+                    .filter(record -> !removeFirst(existing, record))
+                    .toArray(Object[][]::new));
+            try (MapDataSet records = new MapDataSet(ds.table(), ds.columns(), values, nullSymbol)) {
+                inserted.add(records);
+                results.addAll(DatabaseHelper.read(records.copy()).stream()
+                        .map(m -> m.entrySet().stream().collect(MapUtils.toMap(DatabaseHelper::toString)))
+                        .collect(Collectors.toList()));
+            }
+        }
+        rows.clear();
+    }
+
+    /**
+     * Sorts the records selected by the given rows as the rows themselves. The
+     * records are expected to be sorted by the first row they match, so the records
+     * matching equal rows are distributed among them.
+     *
+     * @param rows    The rows.
+     * @param records The selected records.
+     * @return The sorted records, or the same records if there is not one record
+     * per row.
+     */
+    private static Object[][] sortAsRows(List<Map<String, Object>> rows, Object[][] records) {
+        if (records.length != rows.size()) {
+            return records;
+        }
+        Map<Map<String, Object>, Integer> first = new HashMap<>();
+        int[] offsets = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            offsets[first.computeIfAbsent(rows.get(i), k -> first.size())]++;
+        }
+        for (int i = 0, offset = 0; i < first.size(); i++) {
+            int count = offsets[i];
+            offsets[i] = offset;
+            offset += count;
+        }
+        return rows.stream().map(row -> records[offsets[first.get(row)]++]).toArray(Object[][]::new);
+    }
+
+    /**
+     * Removes the first record equal to the given one.
+     *
+     * @param records The records.
+     * @param record  The record to remove.
+     * @return {@code true} if a record has been removed, {@code false} otherwise.
+     */
+    private static boolean removeFirst(List<Object[]> records, Object[] record) {
+        for (Iterator<Object[]> it = records.iterator(); it.hasNext(); ) {
+            if (Arrays.equals(it.next(), record)) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Deletes rows from the given DataSet from the database table.
      *
@@ -849,15 +1135,67 @@ public class DatabaseSupport {
 
         Database db = Database.from(connection());
         String table = db.table(dataSet.table());
-        while (dataSet.nextRow()) {
-            Map<String, Object> row = db.processData(dataSet.table(),
-                    dataSet.rowAsMap().entrySet().stream().collect(MapUtils.toMap(DatabaseHelper::toString)));
-            net.sf.jsqlparser.statement.delete.Delete delete = db.parser().toDelete(table, row);
-            if (addCleanUpOperation) {
-                delete.accept(new PreCleanUpStatementVisitorAdapter());
+        Map<String, JDBCType> types = db.columnTypes(table);
+        List<Map<String, Object>> rows = new ArrayList<>(batchSize);
+        SelectedRows deleted = addCleanUpOperation ? new SelectedRows(table) : null;
+        Map<String, Batch> batches = new LinkedHashMap<>();
+        try {
+            while (dataSet.nextRow()) {
+                rows.add(db.processData(dataSet.table(),
+                        dataSet.rowAsMap().entrySet().stream().collect(MapUtils.toMap(DatabaseHelper::toString))));
+                if (rows.size() >= batchSize) {
+                    deleteBatch(db, table, types, batches, rows, deleted);
+                }
+            }
+            deleteBatch(db, table, types, batches, rows, deleted);
+        } finally {
+            batches.values().forEach(Batch::close);
+        }
+
+        if (deleted != null && !deleted.isEmpty()) {
+            cleanUpOperations.addFirst(() -> {
+                try (DataSet ds = deleted.toDataSet()) {
+                    insertDataSet(ds, false);
+                } catch (IOException e) {
+                    LOGGER.error(ERROR_CLOSING_DATASET, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deletes the given rows using batches. Rows with the same kind of
+     * conditions share the same batch.
+     *
+     * @param db      The database instance.
+     * @param table   The name of the table.
+     * @param types   The column types of the table.
+     * @param batches The delete batches by statement.
+     * @param rows    The processed rows to delete, cleared afterwards.
+     * @param deleted The deleted records, to be restored upon completion, or
+     *                {@code null} if no clean-up operation is required.
+     */
+    private void deleteBatch(Database db, String table, Map<String, JDBCType> types, Map<String, Batch> batches,
+                             List<Map<String, Object>> rows, SelectedRows deleted) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (deleted != null) {
+            try (MapDataSet ds = doSelect(db.parser().toSelect(table, rows))) {
+                deleted.add(ds);
             }
-            db.update(delete.toString()).execute().close();
         }
+        for (Map<String, Object> row : rows) {
+            Batch batch = batches.computeIfAbsent(db.parser().toBatchDelete(table, row).toString(), sql ->
+                    db.batch(sql, row.entrySet().stream()
+                            .filter(e -> db.parser().isParameter(e.getValue()))
+                            .map(e -> types.get(e.getKey()))
+                            .toArray(JDBCType[]::new)
+                    ).prepare());
+            batch.add(row.values().stream().filter(db.parser()::isParameter).toArray());
+        }
+        batches.values().forEach(Batch::execute);
+        rows.clear();
     }
 
     /**
@@ -948,7 +1286,7 @@ public class DatabaseSupport {
     private MapDataSet doSelect(net.sf.jsqlparser.statement.select.Select select) {
         String table = ((net.sf.jsqlparser.statement.select.PlainSelect) select).getFromItem().toString();
         Database db = Database.from(connection());
-        try (Select<Object[]> s = db.select(select.toString()).get(DatabaseHelper::format)) {
+        try (Select<Object[]> s = db.select(select.toString()).get(DatabaseHelper::formatRow)) {
             String[] columns = s.getColumnNames();
             Object[][] values = s.stream().toArray(Object[][]::new);
             return new MapDataSet(db.table(table), columns, values, nullSymbol);
@@ -1034,6 +1372,34 @@ public class DatabaseSupport {
 
     }
 
+    /**
+     * The records read from a table before or after a batch operation,
+     * accumulated to register a single clean-up operation.
+     */
+    private class SelectedRows {
+
+        private final String table;
+        private final List<Object[]> values = new LinkedList<>();
+        private String[] columns;
+
+        private SelectedRows(String table) {
+            this.table = table;
+        }
+
+        private void add(MapDataSet dataSet) {
+            columns = dataSet.columns();
+            values.addAll(Arrays.asList(dataSet.allValues()));
+        }
+
+        private boolean isEmpty() {
+            return values.isEmpty();
+        }
+
+        private DataSet toDataSet() {
+            return new MapDataSet(table, columns, values.toArray(Object[][]::new), nullSymbol);
+        }
+    }
+
     /**
      * An adapter class for post-cleanup operations in SQL statements.
      */
@@ -1058,7 +1424,10 @@ public class DatabaseSupport {
             if (insert.getSelect() instanceof PlainSelect) {
                 try (Select<Object[]> select = db.select(insert.getSelect().toString()).get()) {
                     AtomicReference<String[]> cols = new AtomicReference<>();
-                    values = select.stream().map(row -> db.parser().toValues(row)).flatMap(v -> {
+                    // the selected rows are read before running other queries on the same connection
+                    List<Values> selected = select.stream().map(row -> db.parser().toValues(row))
+                            .collect(Collectors.toList());
+                    values = selected.stream().flatMap(v -> {
                         insert.setSelect(v);
                         try (MapDataSet ds = db.parser()
                                 .toSelect(insert)
@@ -0,0 +1,274 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.database;
+
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import es.iti.commons.jext.Extension;
+import es.iti.wakamiti.api.util.WakamitiLogger;
+import es.iti.wakamiti.database.jdbc.DatabaseType;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Manages JDBC connections using a HikariCP connection pool for each
+ * distinct set of connection parameters, so physical connections are
+ * reused across test cases and shared by concurrent ones.
+ * <p>
+ * Pooled connections are validated with the health check query of the
+ * database type, and the prepared statement cache of the driver is enabled
+ * when a statement cache size is given.
+ *
+ * @see ConnectionParameters#manager(String)
+ */
+@Extension(provider = "es.iti.wakamiti", name = "database-pool-connection", version = "2.6",
+        priority = Extension.NORMAL_PRIORITY + 1)
+public class PooledConnectionManager implements ConnectionManager {
+
+    private static final Logger LOGGER = WakamitiLogger.forClass(PooledConnectionManager.class);
+    private static final Map<List<Object>, HikariDataSource> POOLS = new ConcurrentHashMap<>();
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PooledConnectionManager::closePools));
+    }
+
+    /**
+     * Gets a snapshot of the usage of every connection pool.
+     *
+     * @return The metrics of each pool, by pool name
+     */
+    public static Map<String, PoolMetrics> metrics() {
+        Map<String, PoolMetrics> metrics = new LinkedHashMap<>();
+        POOLS.values().forEach(pool -> metrics.put(pool.getPoolName(), PoolMetrics.of(pool)));
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Closes every connection pool, along with their physical connections.
+     */
+    public static void closePools() {
+        POOLS.values().forEach(HikariDataSource::close);
+        POOLS.clear();
+    }
+
+    /**
+     * Borrows a JDBC connection from the pool of the provided connection
+     * parameters, creating the pool if needed.
+     *
+     * @param parameters The connection parameters
+     * @return A pooled JDBC connection
+     * @throws SQLException If the connection cannot be obtained within the
+     *                      pool timeout
+     */
+    @Override
+    public Connection obtainConnection(ConnectionParameters parameters) throws SQLException {
+        validateParameters(parameters);
+        HikariDataSource pool;
+        try {
+            pool = POOLS.computeIfAbsent(key(parameters), key -> createPool(parameters));
+        } catch (RuntimeException e) {
+            throw new SQLException("Cannot create the connection pool for " + parameters.url()
+                    + ": " + e.getMessage(), e);
+        }
+        Connection connection = pool.getConnection();
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Borrowed connection from {} | {}", pool.getPoolName(), PoolMetrics.of(pool));
+        }
+        return connection;
+    }
+
+    /**
+     * Returns the given JDBC connection to its pool.
+     *
+     * @param connection The pooled JDBC connection
+     * @throws SQLException If an SQL exception occurs
+     */
+    @Override
+    public void releaseConnection(Connection connection) throws SQLException {
+        try {
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException | RuntimeException e) {
+            throw new SQLException("Problem releasing JDBC connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps using the current connection unless it is closed, without
+     * validating it against the database on every statement.
+     * <p>
+     * Connections are validated by the pool when they are borrowed, and the
+     * pool evicts and closes any connection that fails with a fatal error,
+     * so a closed connection is returned to its pool and replaced by a new
+     * one.
+     *
+     * @param connection The current pooled connection
+     * @param parameters The connection parameters
+     * @return A pooled JDBC connection
+     * @throws SQLException If a new connection cannot be obtained
+     */
+    @Override
+    public Connection refreshConnection(
+            Connection connection,
+            ConnectionParameters parameters
+    ) throws SQLException {
+        if (!connection.isClosed()) {
+            return connection;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.trace("Cannot close stale connection: {}", e.getMessage());
+        }
+        return obtainConnection(parameters);
+    }
+
+    private HikariDataSource createPool(ConnectionParameters parameters) {
+        DatabaseType type = DatabaseType.fromUrl(parameters.url());
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("wakamiti-db-" + POOL_COUNT.incrementAndGet());
+        config.setJdbcUrl(parameters.url());
+        config.setUsername(parameters.username());
+        config.setPassword(parameters.password());
+        Optional.ofNullable(parameters.driver()).ifPresent(config::setDriverClassName);
+        Optional.ofNullable(parameters.autoCommit()).ifPresent(config::setAutoCommit);
+        Optional.ofNullable(parameters.poolSize()).ifPresent(config::setMaximumPoolSize);
+        Optional.ofNullable(parameters.poolMinIdle()).ifPresent(config::setMinimumIdle);
+        Optional.ofNullable(parameters.poolTimeout()).ifPresent(config::setConnectionTimeout);
+        Optional.ofNullable(parameters.statementCacheSize())
+                .map(type::statementCacheProperties)
+                .ifPresent(properties -> properties.forEach(config::addDataSourceProperty));
+        config.setConnectionTestQuery(type.healthCheck());
+        HikariDataSource pool = new HikariDataSource(config);
+        LOGGER.debug("Created connection pool {} for {} (maximum size {})",
+                pool.getPoolName(), parameters.url(), pool.getMaximumPoolSize());
+        return pool;
+    }
+
+    private static List<Object> key(ConnectionParameters parameters) {
+        return Arrays.asList(
+                parameters.url(),
+                parameters.username(),
+                parameters.password(),
+                parameters.driver(),
+                parameters.autoCommit(),
+                parameters.poolSize(),
+                parameters.poolMinIdle(),
+                parameters.poolTimeout(),
+                parameters.statementCacheSize()
+        );
+    }
+
+    /**
+     * Validates the provided connection parameters.
+     *
+     * @param parameters The connection parameters to validate
+     * @throws IllegalArgumentException If any of the connection parameters are null
+     */
+    private void validateParameters(ConnectionParameters parameters) {
+        if (parameters == null) {
+            throw new IllegalArgumentException("Database connection parameters have not been set");
+        }
+        if (parameters.url() == null) {
+            throw new IllegalArgumentException("Database connection url has not been set");
+        }
+        if (parameters.username() == null) {
+            throw new IllegalArgumentException("Database connection username has not been set");
+        }
+    }
+
+
+    /**
+     * Snapshot of the usage of a connection pool.
+     */
+    public static final class PoolMetrics {
+
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int pending;
+        private final int maximum;
+
+        private PoolMetrics(int active, int idle, int total, int pending, int maximum) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.pending = pending;
+            this.maximum = maximum;
+        }
+
+        private static PoolMetrics of(HikariDataSource pool) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean == null) {
+                return new PoolMetrics(0, 0, 0, 0, pool.getMaximumPoolSize());
+            }
+            return new PoolMetrics(
+                    bean.getActiveConnections(),
+                    bean.getIdleConnections(),
+                    bean.getTotalConnections(),
+                    bean.getThreadsAwaitingConnection(),
+                    pool.getMaximumPoolSize()
+            );
+        }
+
+        /**
+         * @return The number of connections in use
+         */
+        public int active() {
+            return active;
+        }
+
+        /**
+         * @return The number of connections available in the pool
+         */
+        public int idle() {
+            return idle;
+        }
+
+        /**
+         * @return The number of physical connections opened by the pool
+         */
+        public int total() {
+            return total;
+        }
+
+        /**
+         * @return The number of threads waiting for a connection
+         */
+        public int pending() {
+            return pending;
+        }
+
+        /**
+         * @return The maximum number of connections of the pool
+         */
+        public int maximum() {
+            return maximum;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, total=%d, pending=%d, maximum=%d",
+                    active, idle, total, pending, maximum);
+        }
+    }
+
+}
@@ -9,6 +9,7 @@ package es.iti.wakamiti.database;
 import es.iti.wakamiti.database.jdbc.DatabaseType;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.*;
+import net.sf.jsqlparser.expression.operators.arithmetic.Addition;
 import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
@@ -25,6 +26,7 @@ import net.sf.jsqlparser.statement.select.*;
 import net.sf.jsqlparser.statement.update.Update;
 import net.sf.jsqlparser.statement.update.UpdateSet;
 import net.sf.jsqlparser.util.cnfexpression.MultiAndExpression;
+import net.sf.jsqlparser.util.cnfexpression.MultiOrExpression;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -50,6 +52,7 @@ public class SQLParser {
 
     private static final String TRIM = "trim";
     private static final String COUNT = "count";
+    private static final String SUM = "sum";
     private static final Map<Class<?>, java.util.function.Function<Object, Expression>> CONVERTER = Map.of(
             Integer.class, o -> new LongValue(o.toString()),
             Long.class, o -> new LongValue(o.toString()),
@@ -352,6 +355,43 @@ public class SQLParser {
         return createSelect(new Table(table), new SelectItem<>(new ExpressionList<>(columnList)));
     }
 
+    /**
+     * Constructs a SELECT statement querying specified columns from the records of the
+     * given table that match at least one of the given values, ordered by the number of
+     * matching values, in descending order. Null values are ignored.
+     *
+     * @param table   The name of the table
+     * @param columns An array of column names to be selected
+     * @param values  An array of values to match against the specified columns
+     * @return The constructed SELECT statement, or empty if every value is null
+     */
+    public Optional<Select> sqlSelectSimilarFrom(String table, String[] columns, Object[] values) {
+        List<Expression> conditions = new LinkedList<>();
+        Expression matches = null;
+        for (int i = 0; i < columns.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            conditions.add(equalsTo(new Column(format(columns[i])), toExpression(values[i])));
+            WhenClause whenMatches = new WhenClause()
+                    .withWhenExpression(equalsTo(new Column(format(columns[i])), toExpression(values[i])))
+                    .withThenExpression(new LongValue(1));
+            CaseExpression match = new CaseExpression()
+                    .withWhenClauses(List.of(whenMatches))
+                    .withElseExpression(new LongValue(0));
+            matches = matches == null ? match : new Addition().withLeftExpression(matches).withRightExpression(match);
+        }
+        if (conditions.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Expression> columnList = Stream.of(columns).map(this::format).map(Column::new)
+                .collect(Collectors.toCollection(LinkedList::new));
+        PlainSelect select = createSelect(new Table(table), new MultiOrExpression(conditions),
+                new SelectItem<>(new ExpressionList<>(columnList)));
+        select.addOrderByElements(new OrderByElement().withExpression(matches).withAsc(false));
+        return Optional.of(select);
+    }
+
     /**
      * Constructs a SELECT statement querying the count of all columns from the given table.
      *
@@ -381,6 +421,35 @@ public class SQLParser {
                 createWhere(columnList, new ExpressionList<>(expressions)), new SelectItem<>(count));
     }
 
+    /**
+     * Constructs a SELECT statement that counts, in a single scan of the given table, the
+     * records matching each of the given rows. The result has one column per row, with
+     * the number of matching records (or {@code NULL} when no record matches any row).
+     *
+     * @param table   The name of the table
+     * @param columns The column names of each row
+     * @param values  The values of each row, matched against the column names
+     * @return The constructed SELECT statement
+     */
+    public Select sqlSelectCountEachFrom(String table, List<String[]> columns, List<Object[]> values) {
+        List<SelectItem<?>> items = new LinkedList<>();
+        List<Expression> conditions = new LinkedList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            List<Column> columnList = Stream.of(columns.get(i))
+                    .map(Column::new).collect(Collectors.toCollection(LinkedList::new));
+            Expression[] expressions = Stream.of(values.get(i)).map(this::toExpression).toArray(Expression[]::new);
+            Expression where = createWhere(columnList, new ExpressionList<>(expressions));
+            WhenClause whenMatches = new WhenClause().withWhenExpression(where).withThenExpression(new LongValue(1));
+            CaseExpression matches = new CaseExpression()
+                    .withWhenClauses(List.of(whenMatches))
+                    .withElseExpression(new LongValue(0));
+            items.add(new SelectItem<>(new Function().withName(SUM).withParameters(matches)));
+            conditions.add(where);
+        }
+        return createSelect(new Table(table), new MultiOrExpression(conditions),
+                items.toArray(SelectItem<?>[]::new));
+    }
+
     /**
      * Constructs a DELETE statement for the specified table without any conditions.
      *
@@ -451,6 +520,97 @@ public class SQLParser {
         return delete;
     }
 
+    /**
+     * Constructs a parameterized INSERT statement for the specified table, with a
+     * {@code ?} placeholder for each column, to be executed in batches.
+     *
+     * @param table   The name of the table
+     * @param columns The column names, in the same order as the parameters
+     * @return The constructed INSERT statement
+     */
+    public Insert toBatchInsert(String table, List<String> columns) {
+        Insert insert = new Insert();
+        insert.setTable(new Table(this.format(table)));
+        insert.setColumns(new ExpressionList<>(
+                columns.stream()
+                        .map(this::format)
+                        .map(Column::new)
+                        .collect(Collectors.toCollection(LinkedList::new))
+        ));
+        insert.setSelect(new Values(new ParenthesedExpressionList<>(new ExpressionList<>(
+                columns.stream()
+                        .map(c -> new JdbcParameter())
+                        .collect(Collectors.toCollection(LinkedList::new))
+        ))));
+        return insert;
+    }
+
+    /**
+     * Constructs a parameterized DELETE statement for the specified table, to be
+     * executed in batches. The conditions are the same as in
+     * {@link #toDelete(String, Map)}, but with a {@code ?} placeholder for each
+     * value accepted by {@link #isParameter(Object)}. Rows with the same
+     * placeholders produce the same statement.
+     *
+     * @param table The name of the table
+     * @param where A map representing conditions for deleting records
+     * @return The constructed DELETE statement
+     */
+    public Delete toBatchDelete(String table, Map<String, Object> where) {
+        List<Expression> result = new LinkedList<>();
+        where.forEach((name, value) -> {
+            Column column = new Column(format(name));
+            if (isParameter(value)) {
+                EqualsTo exp = new EqualsTo();
+                exp.setLeftExpression(autoTrim && value instanceof String ? trim(column) : column);
+                exp.setRightExpression(new JdbcParameter());
+                result.add(exp);
+            } else if (value == null) {
+                result.add(isNull(column));
+            } else {
+                result.add(equalsTo(column, toExpression(value)));
+            }
+        });
+        Delete delete = new Delete();
+        delete.setTable(new Table(this.format(table)));
+        delete.setWhere(new MultiAndExpression(result));
+        return delete;
+    }
+
+    /**
+     * Checks whether the given value is passed as a parameter in the batch
+     * statements, or written in the statement instead. Null values and text
+     * representing a date are always written, since they are compared
+     * differently.
+     *
+     * @param value The value
+     * @return {@code true} if the value is a parameter, {@code false} otherwise
+     */
+    public boolean isParameter(Object value) {
+        return value != null && !(value instanceof String && isDateOrDateTime(value.toString()));
+    }
+
+    /**
+     * Constructs a SELECT statement of the records of the specified table that match
+     * any of the given rows, sorted in the same order as the rows they match.
+     *
+     * @param table The name of the table
+     * @param rows  The column-value mappings of each row
+     * @return The constructed SELECT statement
+     */
+    public PlainSelect toSelect(String table, List<Map<String, Object>> rows) {
+        List<Expression> where = rows.stream().map(this::createWhere).collect(Collectors.toList());
+        PlainSelect select = createSelect(new Table(this.format(table)), new MultiOrExpression(where));
+        if (where.size() > 1) {
+            List<WhenClause> order = new LinkedList<>();
+            for (int i = 0; i < where.size(); i++) {
+                order.add(new WhenClause().withWhenExpression(where.get(i)).withThenExpression(new LongValue(i)));
+            }
+            select.addOrderByElements(new OrderByElement().withExpression(new CaseExpression().withWhenClauses(order)));
+        }
+        return select;
+    }
+
     /**
      * Creates a WHERE clause expression based on the given column-value mappings.
      *
@@ -0,0 +1,135 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.database;
+
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.util.JsonUtils;
+import es.iti.wakamiti.api.util.StoredContent;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+
+/**
+ * Rows of a query result, as a JSON array, stored in a temporary file
+ * because they are too large to be kept in memory as the step result.
+ * The rows can be read as many times as needed, and each reading streams
+ * the content from the file, so later steps can still reference them (for
+ * example, {@code ${-1#[0].id}}). The file is removed when the backend is
+ * torn down.
+ *
+ * @see DatabaseConfigContributor#DATABASE_SELECT_SPOOL_THRESHOLD
+ */
+public final class SpooledResult implements StoredContent {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Path file;
+    private final long rows;
+    private final long length;
+
+    private SpooledResult(Path file, long rows) {
+        this.file = file;
+        this.rows = rows;
+        this.length = file.toFile().length();
+    }
+
+    /**
+     * Writes the given rows as a JSON array, keeping it in memory if its
+     * size does not exceed the threshold, or in a temporary file otherwise.
+     * Rows are consumed one at a time.
+     *
+     * @param rows      The rows, as column-value mappings
+     * @param threshold The maximum size in bytes kept in memory
+     * @return The rows as a {@link com.fasterxml.jackson.databind.JsonNode}
+     * if kept in memory, or a {@code SpooledResult} otherwise
+     */
+    static Object spool(Stream<Map<String, String>> rows, int threshold) {
+        DeferredFileOutputStream output = new DeferredFileOutputStream(threshold, "wakamiti-db-", ".json", null);
+        long count = 0;
+        try (output; JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+            generator.writeStartArray();
+            Iterator<Map<String, String>> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeStartObject();
+                for (Map.Entry<String, String> value : iterator.next().entrySet()) {
+                    generator.writeStringField(value.getKey(), value.getValue());
+                }
+                generator.writeEndObject();
+                count++;
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot store the query result", e);
+        }
+        if (output.isInMemory()) {
+            return JsonUtils.json(new ByteArrayInputStream(output.getData()));
+        }
+        return new SpooledResult(output.getFile().toPath(), count);
+    }
+
+    /**
+     * Opens a new stream reading the JSON array from the beginning.
+     *
+     * @return The content stream
+     */
+    @Override
+    public InputStream open() {
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot read the query result stored in {}", file, e);
+        }
+    }
+
+    /**
+     * @return The number of rows
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @return The size of the content, in bytes
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return The temporary file with the content
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Removes the temporary file.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            DatabaseSupport.LOGGER.debug("Cannot delete the temporary file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Query result of %d rows (%d bytes) stored in %s]", rows, length, file);
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.database.jdbc;
+
+
+import es.iti.wakamiti.database.exception.SQLRuntimeException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static es.iti.wakamiti.database.jdbc.LogUtils.debugRows;
+import static es.iti.wakamiti.database.jdbc.LogUtils.traceSQL;
+
+
+/**
+ * Represents a parameterized database update operation executed for many
+ * rows at once, using JDBC batches. The rows added to the batch are sent to
+ * the database together when the batch is executed.
+ */
+public class Batch extends Sentence<PreparedStatement> {
+
+    private final JDBCType[] types;
+    private int pending;
+
+    private Batch(String sql, Database db, PreparedStatement statement, JDBCType[] types) {
+        super(db, statement, sql);
+        this.types = types;
+    }
+
+    /**
+     * Adds a row to the batch.
+     *
+     * @param values The parameter values of the row, in the same order as the
+     *               parameter types
+     * @return The Batch instance
+     */
+    public Batch add(Object... values) {
+        try {
+            traceSQL(sql, Stream.of(values).map(v -> Objects.toString(v, null)).toArray(String[]::new));
+            for (int i = 0; i < values.length; i++) {
+                bind(i + 1, values[i], types[i]);
+            }
+            statement.addBatch();
+            pending++;
+            return this;
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes the rows added since the last execution.
+     *
+     * @return The Batch instance
+     */
+    public Batch execute() {
+        if (pending == 0) {
+            return this;
+        }
+        try {
+            int result = 0;
+            for (int count : statement.executeBatch()) {
+                result += Math.max(count, 0);
+            }
+            pending = 0;
+            debugRows(result);
+            return this;
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    private void bind(int index, Object value, JDBCType type) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, type.getVendorTypeNumber());
+        } else if (value instanceof WakamitiTimestamp && ((WakamitiTimestamp) value).isTrunc()) {
+            statement.setDate(index, new java.sql.Date(((WakamitiTimestamp) value).getTime()));
+        } else if (value instanceof java.sql.Timestamp) {
+            statement.setTimestamp(index, (java.sql.Timestamp) value);
+        } else if (value instanceof BigInteger) {
+            statement.setBigDecimal(index, new BigDecimal((BigInteger) value));
+        } else if (value instanceof String) {
+            statement.setObject(index, value, type.getVendorTypeNumber());
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    /**
+     * Builder class for constructing instances of Batch.
+     */
+    public static final class Builder {
+
+        private final Database db;
+        private final String sql;
+        private final JDBCType[] types;
+
+        Builder(Database db, String sql, JDBCType[] types) {
+            this.db = db;
+            this.sql = sql;
+            this.types = types;
+        }
+
+        /**
+         * Prepares the Batch operation by creating a PreparedStatement.
+         *
+         * @return The prepared Batch instance
+         */
+        public Batch prepare() {
+            try {
+                return new Batch(sql, db, db.connection().prepareStatement(sql, Statement.NO_GENERATED_KEYS), types);
+            } catch (SQLException e) {
+                throw new SQLRuntimeException(e);
+            }
+        }
+
+    }
+
+}
@@ -16,6 +16,8 @@ import org.slf4j.Logger;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -24,19 +26,33 @@ import java.sql.Statement;
 public class ConnectionProvider implements AutoCloseable {
 
     private static final Logger LOGGER = WakamitiLogger.forClass(ConnectionProvider.class);
-    private static final ConnectionManager connectionManager = WakamitiAPI.instance().extensionManager()
+    private static final ConnectionManager defaultConnectionManager = WakamitiAPI.instance().extensionManager()
             .getExtension(ConnectionManager.class)
             .orElseThrow(() -> new WakamitiException("Cannot find a connection manager"));
+    private static final Map<String, ConnectionManager> connectionManagers = new ConcurrentHashMap<>();
     private final ConnectionParameters parameters;
+    private final ConnectionManager connectionManager;
     private Connection connection;
 
     /**
      * Constructs a ConnectionProvider with the given connection parameters.
      *
      * @param parameters The connection parameters.
+     * @throws WakamitiException if the connection manager set in the
+     *                           parameters cannot be found.
      */
     public ConnectionProvider(ConnectionParameters parameters) {
         this.parameters = parameters;
+        this.connectionManager = connectionManager(parameters.manager());
+    }
+
+    private static ConnectionManager connectionManager(String name) {
+        if (name == null) {
+            return defaultConnectionManager;
+        }
+        return connectionManagers.computeIfAbsent(name, x -> WakamitiAPI.instance().extensionManager()
+                .getExtensionThatSatisfyMetadata(ConnectionManager.class, extension -> extension.name().equals(name))
+                .orElseThrow(() -> new WakamitiException("Cannot find the connection manager '{}'", name)));
     }
 
     /**
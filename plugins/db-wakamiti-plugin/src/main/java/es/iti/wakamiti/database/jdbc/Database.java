@@ -263,7 +263,8 @@ public final class Database {
     }
 
     /**
-     * Gets a {@link Select.Builder} from given sql.
+     * Gets a {@link Select.Builder} from given sql, with the fetch size of
+     * the connection parameters.
      *
      * @param sql The select string
      * @return The {@code Select} builder
@@ -271,7 +272,9 @@ public final class Database {
     public Select.Builder select(String sql) {
         sql = sql.replaceAll(";$", "");
         traceSQL(sql);
-        return new Select.Builder(this, sql);
+        Select.Builder builder = new Select.Builder(this, sql);
+        Optional.ofNullable(connection.parameters().fetchSize()).ifPresent(builder::fetchSize);
+        return builder;
     }
 
     /**
@@ -284,6 +287,18 @@ public final class Database {
         return new Update.Builder(this, sql);
     }
 
+    /**
+     * Gets a {@link Batch.Builder} from given parameterized sql.
+     *
+     * @param sql   The update operation string, with a {@code ?} placeholder
+     *              for each parameter
+     * @param types The type of each parameter
+     * @return The {@code Batch} builder
+     */
+    public Batch.Builder batch(String sql, JDBCType... types) {
+        return new Batch.Builder(this, sql, types);
+    }
+
     /**
      * Gets a {@link Call.Builder} from given sql.
      *
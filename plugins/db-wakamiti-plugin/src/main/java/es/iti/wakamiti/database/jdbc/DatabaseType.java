@@ -11,6 +11,8 @@ import es.iti.wakamiti.database.jdbc.format.DefaultSqlFormat;
 import es.iti.wakamiti.database.jdbc.format.SqlFormat;
 import es.iti.wakamiti.database.jdbc.format.SqlServerFormat;
 
+import java.util.Map;
+
 
 /**
  * Enumeration representing various database types along with their respective health check SQL queries.
@@ -86,4 +88,38 @@ public enum DatabaseType {
     public SqlFormat formatter() {
         return this.format;
     }
+
+    /**
+     * Retrieves the driver properties that enable the prepared statement
+     * cache of each connection, for the drivers that support it.
+     *
+     * @param size the number of cached statements per connection; {@code 0}
+     *             disables the cache
+     * @return the driver properties, empty if the driver has no statement cache
+     */
+    public Map<String, String> statementCacheProperties(int size) {
+        String value = String.valueOf(size);
+        switch (this) {
+            case MYSQL:
+            case MARIADB:
+                return Map.of(
+                        "cachePrepStmts", String.valueOf(size > 0),
+                        "prepStmtCacheSize", value,
+                        "prepStmtCacheSqlLimit", "2048"
+                );
+            case POSTGRESQL:
+                return Map.of("preparedStatementCacheQueries", value);
+            case ORACLE:
+                return Map.of("oracle.jdbc.implicitStatementCacheSize", value);
+            case SQLSERVER:
+                return Map.of(
+                        "disableStatementPooling", String.valueOf(size == 0),
+                        "statementPoolingCacheSize", value
+                );
+            case DB2:
+                return Map.of("maxStatements", value);
+            default:
+                return Map.of();
+        }
+    }
 }
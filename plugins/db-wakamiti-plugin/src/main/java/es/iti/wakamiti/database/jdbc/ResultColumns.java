@@ -0,0 +1,93 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.database.jdbc;
+
+
+import es.iti.wakamiti.database.exception.SQLRuntimeException;
+
+import java.sql.JDBCType;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+
+/**
+ * Column names and types of a {@link java.sql.ResultSet}, read once from its
+ * metadata, so they are not requested to the driver for every row.
+ * <p>
+ * Column indexes start at {@code 1}, as in JDBC.
+ */
+public final class ResultColumns {
+
+    private final String[] names;
+    private final JDBCType[] types;
+
+    private ResultColumns(String[] names, JDBCType[] types) {
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * Reads the columns of the given result set metadata. Column types
+     * unknown by {@link JDBCType} are considered {@link JDBCType#OTHER}.
+     *
+     * @param metadata The result set metadata
+     * @return The result set columns
+     * @throws SQLRuntimeException If the metadata cannot be read
+     */
+    public static ResultColumns of(ResultSetMetaData metadata) {
+        try {
+            int count = metadata.getColumnCount();
+            String[] names = new String[count];
+            JDBCType[] types = new JDBCType[count];
+            for (int c = 1; c <= count; c++) {
+                names[c - 1] = metadata.getColumnName(c);
+                types[c - 1] = jdbcType(metadata.getColumnType(c));
+            }
+            return new ResultColumns(names, types);
+        } catch (SQLException e) {
+            throw new SQLRuntimeException("Cannot read metadata", e);
+        }
+    }
+
+    private static JDBCType jdbcType(int type) {
+        try {
+            return JDBCType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            return JDBCType.OTHER;
+        }
+    }
+
+    /**
+     * @return The number of columns
+     */
+    public int count() {
+        return names.length;
+    }
+
+    /**
+     * @param column The column index, starting at {@code 1}
+     * @return The column name
+     */
+    public String name(int column) {
+        return names[column - 1];
+    }
+
+    /**
+     * @param column The column index, starting at {@code 1}
+     * @return The column type
+     */
+    public JDBCType type(int column) {
+        return types[column - 1];
+    }
+
+    /**
+     * @return A copy of the column names, in order
+     */
+    public String[] names() {
+        return names.clone();
+    }
+
+}
@@ -9,18 +9,17 @@ package es.iti.wakamiti.database.jdbc;
 import es.iti.wakamiti.database.exception.SQLRuntimeException;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static es.iti.wakamiti.database.jdbc.LogUtils.traceResultRow;
 
@@ -28,14 +27,17 @@ import static es.iti.wakamiti.database.jdbc.LogUtils.traceResultRow;
 /**
  * Represents an SQL SELECT statement that retrieves data from a database.
  * It provides methods for mapping, filtering, reducing, and streaming the results.
+ * <p>
+ * Results are read lazily from the database cursor, so they can be consumed
+ * only once, and only while the {@code Select} is open.
  *
  * @param <T> The type of the result retrieved by the SELECT statement
  */
 public class Select<T> extends Sentence<Statement> {
 
     private final ResultSet resultset;
+    private final ResultColumns columns;
     private final Function<ResultSet, Optional<T>> mapper;
-    private BinaryOperator<T> reducer;
 
     /**
      * Constructs a new Select object with the provided parameters.
@@ -44,12 +46,15 @@ public class Select<T> extends Sentence<Statement> {
      * @param sql       The SQL query string
      * @param statement The SQL statement object
      * @param resultset The result set obtained from executing the SQL query
+     * @param columns   The columns of the result set
      * @param mapper    The mapper function to convert result set rows to objects of type T
      */
-    private Select(Database db, String sql, Statement statement, ResultSet resultset, Function<ResultSet, Optional<T>> mapper) {
+    private Select(Database db, String sql, Statement statement, ResultSet resultset, ResultColumns columns,
+                   Function<ResultSet, Optional<T>> mapper) {
         super(db, statement, sql);
         this.mapper = mapper;
         this.resultset = resultset;
+        this.columns = columns;
     }
 
     /**
@@ -59,26 +64,14 @@ public class Select<T> extends Sentence<Statement> {
      * @param db        The database connection
      * @param statement The SQL statement object
      * @param resultset The result set obtained from executing the SQL query
-     * @return A new Select object
-     */
-    private static Select<Object[]> create(String sql, Database db, Statement statement, ResultSet resultset) {
-        return new Select<>(db, sql, statement, resultset, Select::defaultMap);
-    }
-
-    /**
-     * Creates a new Select object with the provided parameters.
-     *
-     * @param sql       The SQL query string
-     * @param db        The database connection
-     * @param statement The SQL statement object
-     * @param resultset The result set obtained from executing the SQL query
+     * @param columns   The columns of the result set
      * @param mapper    The mapper function to convert result set rows to objects of type T
      * @param <T>       The type of the result retrieved by the SELECT statement
      * @return A new Select object
      */
-    private static <T> Select<T> create(
-            String sql, Database db, Statement statement, ResultSet resultset, Function<ResultSet, Optional<T>> mapper) {
-        return new Select<>(db, sql, statement, resultset, mapper);
+    private static <T> Select<T> create(String sql, Database db, Statement statement, ResultSet resultset,
+                                        ResultColumns columns, Function<ResultSet, Optional<T>> mapper) {
+        return new Select<>(db, sql, statement, resultset, columns, mapper);
     }
 
     /**
@@ -90,25 +83,33 @@ public class Select<T> extends Sentence<Statement> {
      */
     protected static Optional<Object[]> defaultMap(ResultSet rs) {
         try {
-            ResultSetMetaData metadata = rs.getMetaData();
-            Object[] row = IntStream.range(1, metadata.getColumnCount() + 1).mapToObj(i -> {
-                try {
-                    return rs.getObject(i);
-                } catch (SQLException e) {
-                    try {
-                        throw new SQLRuntimeException("Cannot read value of: " + metadata.getColumnName(i), e);
-                    } catch (SQLException ignored) {
-                        throw new SQLRuntimeException("Cannot read value of column index: " + i, e);
-                    }
-
-                }
-            }).toArray();
-            return Optional.of(row);
+            return defaultMap(rs, ResultColumns.of(rs.getMetaData()));
         } catch (SQLException e) {
             throw new SQLRuntimeException(e);
         }
     }
 
+    /**
+     * Maps a ResultSet row to an array of Objects, using the already read
+     * columns of the result set.
+     *
+     * @param rs      The ResultSet containing the row data
+     * @param columns The columns of the result set
+     * @return An Optional containing the mapped row as an array of Objects
+     * @throws SQLRuntimeException If an SQL error occurs during mapping
+     */
+    protected static Optional<Object[]> defaultMap(ResultSet rs, ResultColumns columns) {
+        Object[] row = new Object[columns.count()];
+        for (int i = 1; i <= row.length; i++) {
+            try {
+                row[i - 1] = rs.getObject(i);
+            } catch (SQLException e) {
+                throw new SQLRuntimeException("Cannot read value of: " + columns.name(i), e);
+            }
+        }
+        return Optional.of(row);
+    }
+
     /**
      * Establish a mapper of the current {@code Select} {@link ResultSet}.
      *
@@ -117,7 +118,7 @@ public class Select<T> extends Sentence<Statement> {
      * @return A new {@link Select} with the given mapper
      */
     public <R> Select<R> map(Function<T, R> mapper) {
-        return new Select<>(db, sql, statement, resultset, rs -> this.mapper.apply(rs).map(mapper));
+        return new Select<>(db, sql, statement, resultset, columns, rs -> this.mapper.apply(rs).map(mapper));
     }
 
     /**
@@ -127,7 +128,7 @@ public class Select<T> extends Sentence<Statement> {
      * @return A new Select object with the specified filter applied
      */
     public Select<T> filter(Predicate<T> filter) {
-        return new Select<>(db, sql, statement, resultset, rs -> this.mapper.apply(rs).filter(filter));
+        return new Select<>(db, sql, statement, resultset, columns, rs -> this.mapper.apply(rs).filter(filter));
     }
 
     /**
@@ -137,8 +138,7 @@ public class Select<T> extends Sentence<Statement> {
      * @return An Optional containing the result of applying the reducer, or empty if the result set is empty
      */
     public Optional<T> reduce(BinaryOperator<T> reducer) {
-        this.reducer = reducer;
-        return stream().findFirst();
+        return stream().reduce(reducer);
     }
 
     /**
@@ -159,40 +159,45 @@ public class Select<T> extends Sentence<Statement> {
      * @return An array of column names
      */
     public String[] getColumnNames() {
-        try {
-            ResultSetMetaData md = resultset.getMetaData();
-            String[] columns = new String[md.getColumnCount()];
-            for (int i = 0; i < columns.length; ++i) {
-                columns[i] = md.getColumnName(i + 1);
-            }
-            return columns;
-        } catch (SQLException e) {
-            throw new SQLRuntimeException("Cannot read metadata", e);
-        }
+        return columns.names();
     }
 
     /**
-     * Returns a stream of the processed {@code Select} result.
+     * Returns the columns of the result set.
+     *
+     * @return The result set columns
+     */
+    public ResultColumns columns() {
+        return columns;
+    }
+
+    /**
+     * Returns a stream of the processed {@code Select} result. Rows are read
+     * from the database cursor as the stream is consumed, so the stream must
+     * be consumed before closing this {@code Select}.
      *
      * @return The result stream
      */
     public Stream<T> stream() {
-        try {
-            List<T> results = new LinkedList<>();
-            while (resultset.next()) {
-                mapper.apply(resultset).ifPresent(row -> {
-                    if (reducer != null && !results.isEmpty()) {
-                        results.set(0, reducer.apply(results.get(0), row));
-                    } else {
-                        traceResultRow(row);
-                        results.add(row);
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (resultset.next()) {
+                        Optional<T> row = mapper.apply(resultset);
+                        if (row.isPresent()) {
+                            traceResultRow(row.get());
+                            action.accept(row.get());
+                            return true;
+                        }
                     }
-                });
+                    return false;
+                } catch (SQLException | SQLRuntimeException e) {
+                    throw new SQLRuntimeException("Error reading result", e);
+                }
             }
-            return results.stream();
-        } catch (SQLException | SQLRuntimeException e) {
-            throw new SQLRuntimeException("Error reading result", e);
-        }
+        }, false);
     }
 
     /**
@@ -203,6 +208,8 @@ public class Select<T> extends Sentence<Statement> {
         private final Database db;
         private final String sql;
         private int queryTimeoutSeconds;
+        private int maxRows;
+        private int fetchSize;
 
         /**
          * Constructs a new Builder instance with the specified Database and SQL query.
@@ -226,6 +233,31 @@ public class Select<T> extends Sentence<Statement> {
             return this;
         }
 
+        /**
+         * Sets the maximum number of rows read by this SELECT execution. The
+         * limit is applied by the JDBC driver, so exceeding rows are not
+         * transferred from the database.
+         *
+         * @param rows maximum number of rows; values lower than 1 mean no limit
+         * @return this builder
+         */
+        public Builder maxRows(int rows) {
+            this.maxRows = Math.max(0, rows);
+            return this;
+        }
+
+        /**
+         * Sets the number of rows fetched from the database each time the
+         * cursor needs more rows.
+         *
+         * @param rows number of rows; values lower than 1 leave the driver default
+         * @return this builder
+         */
+        public Builder fetchSize(int rows) {
+            this.fetchSize = Math.max(0, rows);
+            return this;
+        }
+
         /**
          * Executes the SQL query and returns a Select instance with the
          * ResultSet mapped to Object arrays.
@@ -234,7 +266,7 @@ public class Select<T> extends Sentence<Statement> {
          * @throws SQLRuntimeException If an SQL error occurs during execution
          */
         public Select<Object[]> get() {
-            return execute(Select::defaultMap);
+            return execute(columns -> rs -> defaultMap(rs, columns));
         }
 
         /**
@@ -247,7 +279,21 @@ public class Select<T> extends Sentence<Statement> {
          * @throws SQLRuntimeException If an SQL error occurs during execution
          */
         public <R> Select<R> get(Function<ResultSet, R> mapper) {
-            return execute(rs -> Optional.ofNullable(mapper.apply(rs)));
+            return execute(columns -> rs -> Optional.ofNullable(mapper.apply(rs)));
+        }
+
+        /**
+         * Executes the SQL query and returns a Select instance with the
+         * ResultSet mapped using the specified mapper function, which
+         * receives the columns of the result set, read only once.
+         *
+         * @param mapper The mapper function to map ResultSet rows to a custom type
+         * @param <R>    The type returned by the mapper function
+         * @return A Select instance with the mapped ResultSet
+         * @throws SQLRuntimeException If an SQL error occurs during execution
+         */
+        public <R> Select<R> get(RowMapper<R> mapper) {
+            return execute(columns -> rs -> Optional.ofNullable(mapper.map(rs, columns)));
         }
 
         /**
@@ -255,36 +301,44 @@ public class Select<T> extends Sentence<Statement> {
          * <p>
          * It guarantees:
          * <ul>
-         *   <li>statement timeout is configured before running the query,</li>
+         *   <li>statement timeout, row limit and fetch size are configured before running the query,</li>
          *   <li>statement is closed on failure to avoid resource leaks.</li>
          * </ul>
          *
-         * @param mapper row-mapping function
+         * @param mapper row-mapping function, given the result set columns
          * @param <R> mapped row type
          * @return open {@link Select} instance containing statement and result set
          */
-        private <R> Select<R> execute(Function<ResultSet, Optional<R>> mapper) {
+        private <R> Select<R> execute(Function<ResultColumns, Function<ResultSet, Optional<R>>> mapper) {
             Statement statement = null;
             try {
                 statement = db.connection().createStatement();
                 configureStatement(statement);
-                return Select.create(sql, db, statement, statement.executeQuery(sql), mapper);
-            } catch (SQLException e) {
+                ResultSet resultset = statement.executeQuery(sql);
+                ResultColumns columns = ResultColumns.of(resultset.getMetaData());
+                return Select.create(sql, db, statement, resultset, columns, mapper.apply(columns));
+            } catch (SQLException | SQLRuntimeException e) {
                 closeQuietly(statement);
                 throw new SQLRuntimeException("Error executing statement", e);
             }
         }
 
         /**
-         * Applies optional JDBC query timeout to the statement.
+         * Applies optional JDBC query timeout, row limit and fetch size to the statement.
          *
          * @param statement JDBC statement to configure
-         * @throws SQLException if JDBC driver rejects timeout configuration
+         * @throws SQLException if JDBC driver rejects the configuration
          */
         private void configureStatement(Statement statement) throws SQLException {
             if (queryTimeoutSeconds > 0) {
                 statement.setQueryTimeout(queryTimeoutSeconds);
             }
+            if (maxRows > 0) {
+                statement.setMaxRows(maxRows);
+            }
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
         }
 
         /**
@@ -304,4 +358,23 @@ public class Select<T> extends Sentence<Statement> {
         }
     }
 
+
+    /**
+     * Maps the current row of a result set, given its columns.
+     *
+     * @param <R> The mapped row type
+     */
+    @FunctionalInterface
+    public interface RowMapper<R> {
+
+        /**
+         * Maps the current row of the result set.
+         *
+         * @param rs      The result set, positioned at the row
+         * @param columns The columns of the result set
+         * @return The mapped row, or {@code null} to skip it
+         */
+        R map(ResultSet rs, ResultColumns columns);
+    }
+
 }
@@ -60,6 +60,15 @@ public class WakamitiTimestamp extends java.sql.Timestamp {
         return new WakamitiTimestamp(java.sql.Timestamp.valueOf(time).getTime(), trunc);
     }
 
+    /**
+     * Checks whether the timestamp represents a date, without time.
+     *
+     * @return {@code true} for date-only, {@code false} for date-time
+     */
+    public boolean isTrunc() {
+        return trunc;
+    }
+
     /**
      * Returns a string representation of the Timestamp, formatted based on the
      * truncation preference.
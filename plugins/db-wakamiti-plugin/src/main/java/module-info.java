@@ -9,6 +9,7 @@ import es.iti.wakamiti.api.extensions.StepContributor;
 import es.iti.wakamiti.database.DatabaseConfigContributor;
 import es.iti.wakamiti.database.DatabaseStepContributor;
 import es.iti.wakamiti.database.DriverConnectionManager;
+import es.iti.wakamiti.database.PooledConnectionManager;
 import es.iti.wakamiti.database.ConnectionManager;
 
 
@@ -36,9 +37,12 @@ module es.iti.wakamiti.db {
     requires org.apache.commons.lang3;
     requires org.apache.commons.collections4;
     requires org.apache.groovy;
+    requires com.zaxxer.hikari;
+    requires com.fasterxml.jackson.core;
+    requires com.fasterxml.jackson.databind;
 
     provides StepContributor with DatabaseStepContributor;
     provides ConfigContributor with DatabaseConfigContributor;
-    provides ConnectionManager with DriverConnectionManager;
+    provides ConnectionManager with DriverConnectionManager, PooledConnectionManager;
 
 }
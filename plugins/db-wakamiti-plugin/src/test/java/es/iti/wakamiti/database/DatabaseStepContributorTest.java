@@ -13,6 +13,8 @@ import es.iti.wakamiti.api.WakamitiStepRunContext;
 import es.iti.wakamiti.api.imconfig.Configuration;
 import es.iti.wakamiti.api.plan.DataTable;
 import es.iti.wakamiti.api.plan.Document;
+import es.iti.wakamiti.api.util.JsonUtils;
+import es.iti.wakamiti.api.util.StoredContent;
 import es.iti.wakamiti.api.util.MatcherAssertion;
 import es.iti.wakamiti.api.util.WakamitiLogger;
 import es.iti.wakamiti.core.Wakamiti;
@@ -26,6 +28,8 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -277,6 +281,53 @@ public class DatabaseStepContributorTest {
         assertThat((ArrayNode) result).isEmpty();
     }
 
+    @Test
+    public void testSelectDataWhenResultExceedsSpoolThreshold() throws IOException {
+        // Prepare
+        Configuration config = configContributor.defaultConfiguration().appendFromPairs(
+                "database.connection.url", URL,
+                "database.connection.username", USER,
+                "database.connection.password", PASS,
+                "database.metadata.healthcheck", "false",
+                "database.select.spoolThreshold", "10"
+        );
+        configContributor.configurer().configure(contributor, config);
+        createContext(config);
+
+        String sql = "SELECT * FROM client WHERE id = 1";
+
+        // Act
+        Object result = contributor.selectData(new Document(sql));
+        LOGGER.debug("Result: {}", result);
+
+        // Check
+        Database db = Database.from(contributor.connection());
+        String table = db.table("client");
+        assertThat(result).isInstanceOf(SpooledResult.class).isInstanceOf(StoredContent.class);
+        SpooledResult spooled = (SpooledResult) result;
+        assertThat(spooled.rows()).isEqualTo(1);
+        assertThat(spooled).hasToString(String.format("[Query result of 1 rows (%d bytes) stored in %s]",
+                spooled.length(), spooled.file()));
+        try (InputStream content = spooled.open()) {
+            JsonNode rows = JsonUtils.json(content);
+            assertThat(rows).hasSize(1);
+            assertThat(rows.get(0).get(db.column(table, "first_name")).asText()).isEqualTo("Rosa");
+        }
+
+        // Act
+        SpooledResult next = (SpooledResult) contributor.selectData(new Document(sql));
+
+        // Check
+        assertThat(spooled.file()).exists();
+
+        // Act
+        contributor.deleteSpooledResults();
+
+        // Check
+        assertThat(spooled.file()).doesNotExist();
+        assertThat(next.file()).doesNotExist();
+    }
+
     @Test(expected = SQLRuntimeException.class)
     public void testSelectDataWhenTableNotExist() {
         // Prepare
@@ -462,7 +513,7 @@ public class DatabaseStepContributorTest {
         contributor.cleanUp();
 
         // Check
-        assertThat(contributor.cleanUpOperations).hasSize(2);
+        assertThat(contributor.cleanUpOperations).hasSize(1);
 
         Database db = Database.from(contributor.connection());
         String table = db.table("client");
@@ -496,6 +547,60 @@ public class DatabaseStepContributorTest {
         }
     }
 
+    @Test
+    public void testInsertFromDataTableWhenUnorderedKeys() {
+        // Prepare
+        Configuration config = configContributor.defaultConfiguration().appendFromPairs(
+                "database.connection.url", URL,
+                "database.connection.username", USER,
+                "database.connection.password", PASS,
+                "database.metadata.healthcheck", "false"
+        );
+        configContributor.configurer().configure(contributor, config);
+        createContext(config);
+
+        Table client = Table.CLIENT;
+
+        // Act
+        JsonNode inserted = (JsonNode) contributor.insertFromDataTable(client.table(), new DataTable(new String[][]{
+                client.columns(),
+                new String[]{"5", "Elca", "Puio", "1", "<null>", "<null>"},
+                new String[]{"4", "Ester", "Colero", "1", "2000-02-01", "<null>"},
+                new String[]{"6", "Ester", "Colero", "1", "2000-02-01", "<null>"}
+        }));
+
+        // Check
+        String id = Database.from(contributor.connection()).column("client", "id");
+        assertThat(inserted).isInstanceOf(ArrayNode.class).hasSize(3);
+        assertThat(inserted).extracting(node -> node.get(id).asText()).containsExactly("5", "4", "6");
+    }
+
+    @Test
+    public void testInsertFromDataTableWhenExistingRowsWithSameValues() {
+        // Prepare
+        Configuration config = configContributor.defaultConfiguration().appendFromPairs(
+                "database.connection.url", URL,
+                "database.connection.username", USER,
+                "database.connection.password", PASS,
+                "database.metadata.healthcheck", "false"
+        );
+        configContributor.configurer().configure(contributor, config);
+        createContext(config);
+
+        // Act
+        JsonNode inserted = (JsonNode) contributor.insertFromDataTable("other", new DataTable(new String[][]{
+                new String[]{"something"},
+                new String[]{"12"},
+                new String[]{"47"},
+                new String[]{"12"}
+        }));
+
+        // Check
+        String something = Database.from(contributor.connection()).column("other", "something");
+        assertThat(inserted).isInstanceOf(ArrayNode.class).hasSize(3);
+        assertThat(inserted).extracting(node -> node.get(something).asText()).containsExactly("12", "47", "12");
+    }
+
     @Test(expected = SQLRuntimeException.class)
     public void testInsertFromDataTableWhenTableNotExist() {
         // Prepare
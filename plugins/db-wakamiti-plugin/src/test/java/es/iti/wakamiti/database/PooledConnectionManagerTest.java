@@ -0,0 +1,205 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.database;
+
+
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.imconfig.Configuration;
+import es.iti.wakamiti.database.jdbc.ConnectionProvider;
+import es.iti.wakamiti.database.jdbc.DatabaseType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+
+public class PooledConnectionManagerTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final String PASS = "";
+
+    private final PooledConnectionManager manager = new PooledConnectionManager();
+
+    @After
+    public void tearDown() {
+        PooledConnectionManager.closePools();
+    }
+
+    @Test
+    public void testObtainConnectionWhenReleasedWithSuccess() throws SQLException {
+        // prepare
+        ConnectionParameters parameters = parameters().poolSize(2).poolMinIdle(0);
+
+        // act
+        Connection first = manager.obtainConnection(parameters);
+        try (Statement statement = first.createStatement()) {
+            statement.execute("SET @reused = 1");
+        }
+        manager.releaseConnection(first);
+        Connection second = manager.obtainConnection(parameters);
+
+        // check
+        try (Statement statement = second.createStatement();
+             ResultSet result = statement.executeQuery("SELECT @reused")) {
+            assertThat(result.next()).isTrue();
+            assertThat(result.getInt(1)).isEqualTo(1);
+        }
+        assertThat(PooledConnectionManager.metrics()).hasSize(1).allSatisfy((name, metrics) -> {
+            assertThat(metrics.active()).isEqualTo(1);
+            assertThat(metrics.total()).isEqualTo(1);
+            assertThat(metrics.maximum()).isEqualTo(2);
+        });
+        manager.releaseConnection(second);
+        assertThat(PooledConnectionManager.metrics().values())
+                .singleElement().extracting(PooledConnectionManager.PoolMetrics::active).isEqualTo(0);
+    }
+
+    @Test
+    public void testObtainConnectionWhenDifferentParametersWithSuccess() throws SQLException {
+        // prepare
+        ConnectionParameters parameters = parameters();
+        ConnectionParameters other = parameters().poolSize(3);
+
+        // act
+        Connection first = manager.obtainConnection(parameters);
+        Connection second = manager.obtainConnection(other);
+        Connection third = manager.obtainConnection(parameters);
+
+        // check
+        assertThat(PooledConnectionManager.metrics().values())
+                .extracting(PooledConnectionManager.PoolMetrics::active)
+                .containsExactlyInAnyOrder(2, 1);
+        manager.releaseConnection(first);
+        manager.releaseConnection(second);
+        manager.releaseConnection(third);
+    }
+
+    @Test
+    public void testObtainConnectionWhenPoolIsExhaustedWithError() throws SQLException {
+        // prepare
+        ConnectionParameters parameters = parameters().poolSize(1).poolTimeout(250);
+        Connection connection = manager.obtainConnection(parameters);
+
+        // act
+        try {
+            assertThatThrownBy(() -> manager.obtainConnection(parameters))
+                    // check
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("Connection is not available");
+        } finally {
+            manager.releaseConnection(connection);
+        }
+    }
+
+    @Test
+    public void testRefreshConnectionWhenOpenWithoutValidation() throws SQLException {
+        // prepare
+        ConnectionParameters parameters = parameters();
+        Connection pooled = manager.obtainConnection(parameters);
+        Connection connection = (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("isValid")) {
+                        throw new AssertionError("The connection should not be validated");
+                    }
+                    return method.invoke(pooled, args);
+                }
+        );
+
+        // act
+        try {
+            // check
+            assertThat(manager.refreshConnection(connection, parameters)).isSameAs(connection);
+        } finally {
+            manager.releaseConnection(pooled);
+        }
+    }
+
+    @Test
+    public void testRefreshConnectionWhenClosedWithSuccess() throws SQLException {
+        // prepare
+        ConnectionParameters parameters = parameters().poolSize(1).poolTimeout(250);
+        Connection connection = manager.obtainConnection(parameters);
+        connection.close();
+
+        // act
+        Connection refreshed = manager.refreshConnection(connection, parameters);
+
+        // check
+        try {
+            assertThat(refreshed).isNotSameAs(connection);
+            assertThat(refreshed.isClosed()).isFalse();
+            assertThat(PooledConnectionManager.metrics().values())
+                    .singleElement().extracting(PooledConnectionManager.PoolMetrics::active).isEqualTo(1);
+        } finally {
+            manager.releaseConnection(refreshed);
+        }
+    }
+
+    @Test
+    public void testConnectionProviderWhenPoolManagerWithSuccess() {
+        // prepare
+        DatabaseConfigContributor configContributor = new DatabaseConfigContributor();
+        DatabaseStepContributor contributor = new DatabaseStepContributor();
+        Configuration config = configContributor.defaultConfiguration().appendFromPairs(
+                "database.connection.url", URL,
+                "database.connection.username", USER,
+                "database.connection.password", PASS,
+                "database.connection.manager", "database-pool-connection",
+                "database.connection.pool.size", "4",
+                "database.connection.pool.statementCacheSize", "50"
+        );
+
+        // act
+        configContributor.configurer().configure(contributor, config);
+
+        // check
+        try {
+            assertThat(contributor.connection().parameters().poolSize()).isEqualTo(4);
+            assertThat(contributor.connection().parameters().statementCacheSize()).isEqualTo(50);
+            assertThat(PooledConnectionManager.metrics().values())
+                    .singleElement().extracting(PooledConnectionManager.PoolMetrics::maximum).isEqualTo(4);
+        } finally {
+            contributor.releaseConnection();
+        }
+    }
+
+    @Test
+    public void testConnectionProviderWhenUnknownManagerWithError() {
+        // prepare
+        ConnectionParameters parameters = parameters().manager("unknown");
+
+        // act
+        assertThatThrownBy(() -> new ConnectionProvider(parameters))
+                // check
+                .isInstanceOf(WakamitiException.class)
+                .hasMessage("Cannot find the connection manager 'unknown'");
+    }
+
+    @Test
+    public void testStatementCachePropertiesWithSuccess() {
+        assertThat(DatabaseType.MYSQL.statementCacheProperties(100))
+                .contains(entry("cachePrepStmts", "true"), entry("prepStmtCacheSize", "100"));
+        assertThat(DatabaseType.POSTGRESQL.statementCacheProperties(0))
+                .containsExactly(entry("preparedStatementCacheQueries", "0"));
+        assertThat(DatabaseType.H2.statementCacheProperties(100)).isEmpty();
+    }
+
+    private static ConnectionParameters parameters() {
+        return new ConnectionParameters().url(URL).username(USER).password(PASS);
+    }
+
+}
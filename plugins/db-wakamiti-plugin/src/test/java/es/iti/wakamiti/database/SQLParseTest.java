@@ -29,12 +29,15 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static es.iti.wakamiti.api.util.StringUtils.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -299,6 +302,53 @@ public class SQLParseTest {
         assertEquals("SELECT count(*) FROM T", result.toString());
     }
 
+    @Test
+    public void testSqlSelectCountEachFromWithSuccess() {
+        Select result = parser(false).sqlSelectCountEachFrom("T",
+                List.of(new String[] {"A", "B"}, new String[] {"A"}),
+                List.of(new Object[] {"abc", 1}, new Object[] {null}));
+        LOGGER.debug("Result: {}", result);
+        assertEquals("SELECT sum(CASE WHEN (A = 'abc' AND B = 1) THEN 1 ELSE 0 END), "
+                + "sum(CASE WHEN (A IS NULL) THEN 1 ELSE 0 END) "
+                + "FROM T WHERE ((A = 'abc' AND B = 1) OR (A IS NULL))", result.toString());
+    }
+
+    @Test
+    public void testSqlSelectSimilarFromWithSuccess() {
+        Optional<Select> result = parser(true).sqlSelectSimilarFrom("T",
+                new String[] {"A", "B", "C"}, new Object[] {"abc", null, 1});
+        LOGGER.debug("Result: {}", result);
+        assertTrue(result.isPresent());
+        assertEquals("SELECT A, B, C FROM T WHERE (trim(A) = 'abc' OR C = 1) "
+                + "ORDER BY CASE WHEN trim(A) = 'abc' THEN 1 ELSE 0 END + CASE WHEN C = 1 THEN 1 ELSE 0 END DESC",
+                result.get().toString());
+    }
+
+    @Test
+    public void testSqlSelectSimilarFromWhenAllValuesAreNullWithSuccess() {
+        Optional<Select> result = parser(false).sqlSelectSimilarFrom("T",
+                new String[] {"A", "B"}, new Object[] {null, null});
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    public void testToBatchInsertWithSuccess() {
+        Insert result = parser(false).toBatchInsert("T", List.of("A", "B"));
+        LOGGER.debug("Result: {}", result);
+        assertEquals("INSERT INTO T (A, B) VALUES (?, ?)", result.toString());
+    }
+
+    @Test
+    public void testToBatchDeleteWithSuccess() {
+        Map<String, Object> where = new LinkedHashMap<>();
+        where.put("A", "abc");
+        where.put("B", null);
+        where.put("C", 1);
+        Delete result = parser(true).toBatchDelete("T", where);
+        LOGGER.debug("Result: {}", result);
+        assertEquals("DELETE FROM T WHERE (trim(A) = ? AND B IS NULL AND C = ?)", result.toString());
+    }
+
     @Test
     public void testSqlDeleteFromWithSuccess() {
         Delete result = parser(false).toDelete("T");
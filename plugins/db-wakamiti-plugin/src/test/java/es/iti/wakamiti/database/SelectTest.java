@@ -0,0 +1,118 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.database;
+
+
+import es.iti.wakamiti.database.jdbc.ConnectionProvider;
+import es.iti.wakamiti.database.jdbc.Database;
+import es.iti.wakamiti.database.jdbc.Select;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class SelectTest {
+
+    private static final String URL = "jdbc:h2:mem:select_test;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final String PASS = "";
+    private static Connection h2;
+
+    @BeforeClass
+    public static void setup() throws SQLException {
+        h2 = DriverManager.getConnection(URL, USER, PASS);
+        h2.createStatement().execute("CREATE TABLE numbers (id INT PRIMARY KEY, name VARCHAR(20))");
+        h2.createStatement().execute(
+                "INSERT INTO numbers SELECT X, CONCAT('Number ', X) FROM SYSTEM_RANGE(1, 1000)");
+    }
+
+    @AfterClass
+    public static void shutdown() throws SQLException {
+        h2.close();
+    }
+
+    @Test
+    public void testStreamWhenPartiallyConsumedWithSuccess() {
+        // prepare
+        ConnectionProvider connection = new ConnectionProvider(parameters());
+        AtomicInteger mapped = new AtomicInteger();
+
+        // act
+        try (Select<String[]> select = Database.from(connection).select("SELECT * FROM numbers ORDER BY id")
+                .get((rs, columns) -> {
+                    mapped.incrementAndGet();
+                    return DatabaseHelper.formatRow(rs, columns);
+                })) {
+            long count = select.stream().limit(3).count();
+
+            // check
+            assertThat(count).isEqualTo(3);
+            assertThat(mapped).hasValue(3);
+            assertThat(select.getColumnNames()).containsExactly("ID", "NAME");
+            assertThat(select.columns().type(1)).isEqualTo(JDBCType.INTEGER);
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testReduceWithSuccess() {
+        // prepare
+        ConnectionProvider connection = new ConnectionProvider(parameters());
+
+        // act
+        try (Select<Map<String, String>> select = Database.from(connection).select("SELECT * FROM numbers")
+                .get(DatabaseHelper::formatRowToMap)) {
+            Map<String, String> result = select
+                    .reduce((row1, row2) -> Integer.parseInt(row1.get("ID")) > Integer.parseInt(row2.get("ID"))
+                            ? row1 : row2)
+                    .orElseThrow();
+
+            // check
+            assertThat(result).containsEntry("ID", "1000").containsEntry("NAME", "Number 1000");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testSelectWhenFetchSizeWithSuccess() {
+        // prepare
+        ConnectionProvider connection = new ConnectionProvider(parameters().fetchSize(50));
+        AtomicInteger fetchSize = new AtomicInteger();
+
+        // act
+        try (Select<Object[]> select = Database.from(connection).select("SELECT * FROM numbers").get()) {
+            select.peek(rs -> {
+                try {
+                    fetchSize.set(rs.getStatement().getFetchSize());
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            // check
+            assertThat(fetchSize).hasValue(50);
+            assertThat(select.stream().count()).isEqualTo(1000);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static ConnectionParameters parameters() {
+        return new ConnectionParameters().url(URL).username(USER).password(PASS);
+    }
+
+}
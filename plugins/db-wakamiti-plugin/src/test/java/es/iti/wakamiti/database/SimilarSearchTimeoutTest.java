@@ -218,4 +218,53 @@ public class SimilarSearchTimeoutTest {
                 new Object[]{noPkName, noPkDesc}
         )).isEmpty();
     }
+
+    @Test
+    public void testSimilarSearchWhenSomeValueMatchesBeyondScanLimit() throws SQLException {
+        insertRows(3000, "Description for record %d");
+
+        Configuration config = configContributor.defaultConfiguration().appendFromPairs(
+                "database.connection.url", URL,
+                "database.connection.username", USER,
+                "database.connection.password", PASS,
+                "database.similarSearch.candidates", "10",
+                "database.similarSearch.scanLimit", "100"
+        );
+        configContributor.configurer().configure(contributor, config);
+
+        Optional<Map<String, String>> result = contributor.similarBy(
+                "perf_table",
+                new String[]{"name", "description"},
+                new Object[]{"Name 2999", "Description for recrd 2999"}
+        );
+
+        assertThat(result).hasValueSatisfying(row -> assertThat(row)
+                .containsValues("Name 2999", "Description for record 2999"));
+    }
+
+    @Test
+    public void testSimilarSearchWhenNoValueMatchesRespectsScanLimit() throws SQLException {
+        insertRows(3000, "Description for record %d");
+        Object[] values = {"Nam 2999", "Description for recrd 2999"};
+
+        Configuration config = configContributor.defaultConfiguration().appendFromPairs(
+                "database.connection.url", URL,
+                "database.connection.username", USER,
+                "database.connection.password", PASS,
+                "database.similarSearch.scanLimit", "100"
+        );
+        configContributor.configurer().configure(contributor, config);
+        Optional<Map<String, String>> limited = contributor.similarBy(
+                "perf_table", new String[]{"name", "description"}, values);
+
+        configContributor.configurer().configure(contributor, config.appendFromPairs(
+                "database.similarSearch.scanLimit", "0"
+        ));
+        Optional<Map<String, String>> unlimited = contributor.similarBy(
+                "perf_table", new String[]{"name", "description"}, values);
+
+        assertThat(limited).hasValueSatisfying(row -> assertThat(row).doesNotContainValue("Name 2999"));
+        assertThat(unlimited).hasValueSatisfying(row -> assertThat(row)
+                .containsValues("Name 2999", "Description for record 2999"));
+    }
 }
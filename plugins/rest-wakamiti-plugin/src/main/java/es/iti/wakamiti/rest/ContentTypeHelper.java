@@ -14,6 +14,12 @@ import es.iti.commons.jext.ExtensionPoint;
 import es.iti.wakamiti.api.datatypes.Assertion;
 import es.iti.wakamiti.api.plan.Document;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
 
 /**
  * @author Luis Iñesta Gelabert - linesta@iti.es | luiinge@gmail.com
@@ -34,12 +40,20 @@ public interface ContentTypeHelper {
         throw new UnsupportedOperationException("Not implemented for content type " + contentType());
     }
 
+    default void assertContent(String expected, InputStream actual, Charset charset, MatchMode matchMode) {
+        try {
+            assertContent(expected, new String(actual.readAllBytes(), charset), matchMode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     default void assertContent(
             Document expected,
             ExtractableResponse<Response> response,
             MatchMode matchMode
     ) {
-        assertContent(expected.getContent(), response.asString(), matchMode);
+        assertContent(expected.getContent(), response, matchMode);
     }
 
     default void assertContent(
@@ -47,7 +61,16 @@ public interface ContentTypeHelper {
             ExtractableResponse<Response> response,
             MatchMode matchMode
     ) {
-        assertContent(expected, response.asString(), matchMode);
+        Optional<SpooledContent> spooled = SpooledContent.of(response.response());
+        if (spooled.isPresent()) {
+            try (InputStream actual = spooled.get().open()) {
+                assertContent(expected, actual, RestSupport.charsetOf(response.response()), matchMode);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            assertContent(expected, response.asString(), matchMode);
+        }
     }
 
     default <T> void assertFragment(
@@ -62,4 +85,12 @@ public interface ContentTypeHelper {
     default void assertContentSchema(String expectedSchema, String content) {
         throw new UnsupportedOperationException("Not implemented for content type " + contentType());
     }
+
+    default void assertContentSchema(String expectedSchema, InputStream content, Charset charset) {
+        try {
+            assertContentSchema(expectedSchema, new String(content.readAllBytes(), charset));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
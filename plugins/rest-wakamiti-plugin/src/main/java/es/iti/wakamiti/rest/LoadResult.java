@@ -0,0 +1,179 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest;
+
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Aggregated figures of a request sent several times concurrently: the
+ * number of responses for each HTTP code and the distribution of the
+ * response times.
+ * <p>
+ * The response times are recorded in microseconds with three significant
+ * digits, so the percentiles keep an error below 0.1%.
+ */
+public class LoadResult {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 95, 99};
+
+    private final int requests;
+    private final int concurrency;
+    private final Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private volatile String firstFailure;
+    private volatile Duration elapsed = Duration.ZERO;
+
+    LoadResult(int requests, int concurrency) {
+        this.requests = requests;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Records a received response.
+     *
+     * @param statusCode The HTTP code of the response
+     * @param nanos      The time between sending the request and receiving
+     *                   the whole response, in nanoseconds
+     */
+    void record(int statusCode, long nanos) {
+        latencies.recordValue(Math.max(1, nanos / 1000));
+        statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a request failed without a response.
+     *
+     * @param error The cause of the failure
+     */
+    void fail(Throwable error) {
+        if (firstFailure == null) {
+            firstFailure = String.valueOf(error.getMessage());
+        }
+        failures.increment();
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return The number of requests sent
+     */
+    public int requests() {
+        return requests;
+    }
+
+    /**
+     * @return The number of requests sent at the same time
+     */
+    public int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return The number of requests failed without a response
+     */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * @param statusCode The HTTP code
+     * @return The number of responses with the given HTTP code
+     */
+    public long responses(int statusCode) {
+        LongAdder count = statusCodes.get(statusCode);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * @return The number of responses for each HTTP code, ordered by code
+     */
+    public SortedMap<Integer, Long> statusCodes() {
+        SortedMap<Integer, Long> result = new TreeMap<>();
+        statusCodes.forEach((code, count) -> result.put(code, count.sum()));
+        return Collections.unmodifiableSortedMap(result);
+    }
+
+    /**
+     * Gets the response time below which the given percentage of the
+     * responses were received.
+     *
+     * @param percentile The percentage, between {@code 0} and {@code 100}
+     * @return The response time, or {@link Duration#ZERO} if there were no
+     * responses
+     */
+    public Duration percentile(double percentile) {
+        if (latencies.getTotalCount() == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(latencies.getValueAtPercentile(percentile) * 1000);
+    }
+
+    /**
+     * @return The time taken to send every request and receive every
+     * response
+     */
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return The number of responses received per second
+     */
+    public double throughput() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? 0 : latencies.getTotalCount() * 1000.0 / millis;
+    }
+
+    /**
+     * @return The figures as a map, used as the result of the step
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        for (double percentile : REPORTED_PERCENTILES) {
+            latency.put(String.format("p%.0f", percentile), percentile(percentile).toMillis());
+        }
+        latency.put("max", percentile(100).toMillis());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("concurrency", concurrency);
+        result.put("statusCodes", statusCodes());
+        result.put("failures", failures());
+        if (firstFailure != null) {
+            result.put("firstFailure", firstFailure);
+        }
+        result.put("latencyMillis", latency);
+        result.put("elapsedMillis", elapsed.toMillis());
+        result.put("throughput", Math.round(throughput() * 100) / 100.0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "requests=%d, concurrency=%d, statusCodes=%s, failures=%d, p50=%dms, p95=%dms, p99=%dms, "
+                        + "max=%dms, elapsed=%dms",
+                requests, concurrency, statusCodes(), failures(), percentile(50).toMillis(),
+                percentile(95).toMillis(), percentile(99).toMillis(), percentile(100).toMillis(), elapsed.toMillis()
+        );
+    }
+
+}
@@ -50,6 +50,7 @@ public class RestConfigContributor implements ConfigContributor<RestStepContribu
     public static final String OAUTH2_CLIENT_SECRET = "rest.oauth2.clientSecret";
     public static final String OAUTH2_DEFAULT_PARAMETERS = "rest.oauth2.parameters";
     public static final String OAUTH2_CACHED = "rest.oauth2.cached";
+    public static final String OAUTH2_REFRESH_RATIO = "rest.oauth2.refreshRatio";
 
     // RestAssured config
     public static final String MULTIPART_SUBTYPE = "rest.config.multipart.subtype";
@@ -60,6 +61,10 @@ public class RestConfigContributor implements ConfigContributor<RestStepContribu
     public static final String REDIRECT_REJECT_RELATIVE = "rest.config.redirect.rejectRelative";
     public static final String REDIRECT_MAX = "rest.config.redirect.max";
 
+    public static final String CONNECTION_MAX_PER_ROUTE = "rest.config.connection.maxPerRoute";
+    public static final String CONNECTION_MAX_TOTAL = "rest.config.connection.maxTotal";
+    public static final String RESPONSE_SPOOL_THRESHOLD = "rest.config.response.spoolThreshold";
+
     private static void config(RestAssuredConfig config) {
         RestAssured.config = config;
     }
@@ -71,7 +76,11 @@ public class RestConfigContributor implements ConfigContributor<RestStepContribu
                 CONTENT_TYPE, "JSON",
                 FAILURE_HTTP_CODE_THRESHOLD, "500",
                 OAUTH2_CACHED, "false",
-                TIMEOUT, "60000"
+                OAUTH2_REFRESH_RATIO, "0.8",
+                TIMEOUT, "60000",
+                CONNECTION_MAX_PER_ROUTE, String.valueOf(RestConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_ROUTE),
+                CONNECTION_MAX_TOTAL, String.valueOf(RestConnectionPool.DEFAULT_MAX_CONNECTIONS),
+                RESPONSE_SPOOL_THRESHOLD, String.valueOf(RestConnectionPool.DEFAULT_SPOOL_THRESHOLD)
         );
     }
 
@@ -94,12 +103,19 @@ public class RestConfigContributor implements ConfigContributor<RestStepContribu
                 .ifPresent(contributor::setHttpCodeAssertion);
         configuration.get(TIMEOUT, Integer.class).map(Duration::ofMillis)
                 .ifPresent(contributor::setTimeout);
+        configuration.get(CONNECTION_MAX_PER_ROUTE, Integer.class)
+                .ifPresent(RestConnectionPool::setMaxConnectionsPerRoute);
+        configuration.get(CONNECTION_MAX_TOTAL, Integer.class)
+                .ifPresent(RestConnectionPool::setMaxConnections);
+        configuration.get(RESPONSE_SPOOL_THRESHOLD, Integer.class)
+                .ifPresent(RestConnectionPool::setSpoolThreshold);
 
         Oauth2ProviderConfig oauth2Provider = contributor.oauth2Provider.configuration();
         configuration.get(OAUTH2_URL, URL.class).ifPresent(oauth2Provider::url);
         configuration.get(OAUTH2_CLIENT_ID, String.class).ifPresent(oauth2Provider::clientId);
         configuration.get(OAUTH2_CLIENT_SECRET, String.class).ifPresent(oauth2Provider::clientSecret);
         configuration.get(OAUTH2_CACHED, Boolean.class).ifPresent(oauth2Provider::cacheAuth);
+        configuration.get(OAUTH2_REFRESH_RATIO, Double.class).ifPresent(oauth2Provider::refreshRatio);
         configuration.inner(OAUTH2_DEFAULT_PARAMETERS).asMap().forEach(oauth2Provider::addParameter);
 
         configuration.get(MULTIPART_SUBTYPE, String.class).ifPresent(contributor::setMultipartSubtype);
@@ -123,7 +139,9 @@ public class RestConfigContributor implements ConfigContributor<RestStepContribu
 
     private void restassuredConfigure() {
         RestAssured.reset();
-        config(RestAssured.config().logConfig(new LogConfig().defaultStream(RestAssuredLogger.getPrintStream())));
+        config(RestAssured.config()
+                .logConfig(new LogConfig().defaultStream(RestAssuredLogger.getPrintStream()))
+                .httpClient(RestConnectionPool.httpClientConfig()));
         RestAssured.useRelaxedHTTPSValidation();
     }
 
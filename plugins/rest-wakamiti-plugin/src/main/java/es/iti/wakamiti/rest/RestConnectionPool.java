@@ -0,0 +1,141 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest;
+
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+
+
+/**
+ * Keep-alive connection pool shared by every REST backend, so that
+ * consecutive requests to the same host reuse their open connections
+ * instead of opening a new one for each request.
+ * <p>
+ * RestAssured only accepts clients based on the deprecated
+ * {@link DefaultHttpClient}, so the pool uses the connection manager
+ * compatible with it.
+ */
+@SuppressWarnings("deprecation")
+final class RestConnectionPool {
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    public static final int DEFAULT_MAX_CONNECTIONS = 200;
+    public static final int DEFAULT_SPOOL_THRESHOLD = 10 * 1024 * 1024;
+
+    private static final PoolingClientConnectionManager MANAGER = new PoolingClientConnectionManager();
+    private static final DefaultHttpClient CLIENT = new PooledHttpClient();
+    private static volatile int spoolThreshold = DEFAULT_SPOOL_THRESHOLD;
+
+    static {
+        MANAGER.setDefaultMaxPerRoute(DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        MANAGER.setMaxTotal(DEFAULT_MAX_CONNECTIONS);
+    }
+
+    private RestConnectionPool() {
+        // utility class
+    }
+
+    /**
+     * Creates a RestAssured client configuration using the shared client.
+     *
+     * @return The client configuration
+     */
+    static HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> CLIENT)
+                .reuseHttpClientInstance();
+    }
+
+    /**
+     * Sets the maximum number of open connections to the same host.
+     *
+     * @param max The maximum number of connections
+     */
+    static void setMaxConnectionsPerRoute(int max) {
+        MANAGER.setDefaultMaxPerRoute(max);
+    }
+
+    /**
+     * Sets the maximum number of open connections to any host.
+     *
+     * @param max The maximum number of connections
+     */
+    static void setMaxConnections(int max) {
+        MANAGER.setMaxTotal(max);
+    }
+
+    /**
+     * Sets the maximum size of a response body kept in memory. Larger
+     * bodies are stored in a temporary file.
+     *
+     * @param threshold The maximum size in bytes
+     * @see SpooledContent
+     */
+    static void setSpoolThreshold(int threshold) {
+        spoolThreshold = threshold;
+    }
+
+
+    /**
+     * Client keeping the cookies of each request apart, as if every request
+     * used its own client.
+     * <p>
+     * The response content is read as soon as it is received, so the
+     * connection returns to the pool even if the response body is never
+     * accessed afterwards. Bodies larger than the spool threshold are
+     * stored in a temporary file instead of in memory.
+     */
+    private static final class PooledHttpClient extends DefaultHttpClient {
+
+        private PooledHttpClient() {
+            super(MANAGER);
+        }
+
+        @Override
+        protected HttpContext createHttpContext() {
+            HttpContext context = super.createHttpContext();
+            context.setAttribute(ClientContext.COOKIE_STORE, new BasicCookieStore());
+            return context;
+        }
+
+        @Override
+        public CloseableHttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+            return spool(super.execute(request, context));
+        }
+
+        @Override
+        public CloseableHttpResponse execute(HttpHost target, HttpRequest request, HttpContext context)
+                throws IOException {
+            return spool(super.execute(target, request, context));
+        }
+
+        private CloseableHttpResponse spool(CloseableHttpResponse response) throws IOException {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming()) {
+                try {
+                    response.setEntity(SpooledContent.spool(entity, spoolThreshold));
+                } finally {
+                    EntityUtils.consume(entity);
+                }
+            }
+            return response;
+        }
+    }
+
+}
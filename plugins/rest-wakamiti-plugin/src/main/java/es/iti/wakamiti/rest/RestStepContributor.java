@@ -8,16 +8,18 @@ package es.iti.wakamiti.rest;
 
 import es.iti.commons.jext.Extension;
 import es.iti.wakamiti.api.annotations.I18nResource;
+import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.api.annotations.Step;
+import es.iti.wakamiti.api.annotations.TearDown;
 import es.iti.wakamiti.api.datatypes.Assertion;
 import es.iti.wakamiti.api.extensions.StepContributor;
 import es.iti.wakamiti.api.plan.DataTable;
 import es.iti.wakamiti.api.plan.Document;
+import es.iti.wakamiti.api.util.JsonUtils;
 import es.iti.wakamiti.api.util.MatcherAssertion;
 import es.iti.wakamiti.api.util.ResourceLoader;
 import es.iti.wakamiti.api.util.http.oauth.GrantType;
 import io.restassured.RestAssured;
-import io.restassured.config.HttpClientConfig;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import org.apache.commons.io.IOUtils;
@@ -50,6 +52,15 @@ public class RestStepContributor extends RestSupport implements StepContributor
     private static final String USERNAME_PARAM = "username";
     private static final String PASSWORD_PARAM = "password";
 
+    /**
+     * Removes the temporary files of the response bodies after scenario execution.
+     */
+    @TearDown
+    public void deleteSpooledContents() {
+        spooledContents.forEach(SpooledContent::delete);
+        spooledContents.clear();
+    }
+
     /**
      * Sets the content type for the request.
      * Accepted values are:
@@ -208,7 +219,7 @@ public class RestStepContributor extends RestSupport implements StepContributor
     public void setTimeout(Duration duration) {
         config(
                 RestAssured.config()
-                        .httpClient(HttpClientConfig.httpClientConfig()
+                        .httpClient(RestAssured.config().getHttpClientConfig()
                                 .setParam("http.socket.timeout", (int) duration.toMillis())
                                 .setParam("http.connection.timeout", (int) duration.toMillis()))
         );
@@ -580,6 +591,18 @@ public class RestStepContributor extends RestSupport implements StepContributor
         return executePostSubject();
     }
 
+    @Step(value = "rest.execute.load.GET.subject", args = {"requests:int", "concurrency:int"})
+    public Object executeLoadGetSubject(Integer requests, Integer concurrency) {
+        executeLoad(RequestSpecification::get, null, requests, concurrency);
+        return JsonUtils.json(loadResult.toMap());
+    }
+
+    @Step(value = "rest.execute.load.POST.data.from.document", args = {"requests:int", "concurrency:int"})
+    public Object executeLoadPostDataUsingDocument(Integer requests, Integer concurrency, Document document) {
+        executeLoad(RequestSpecification::post, document.getContent(), requests, concurrency);
+        return JsonUtils.json(loadResult.toMap());
+    }
+
     @Step("rest.execute.DELETE.data.from.document")
     public Object executeDeleteDataUsingDocument(Document document) {
         executeRequest(RequestSpecification::delete, document.getContent());
@@ -733,4 +756,25 @@ public class RestStepContributor extends RestSupport implements StepContributor
         assertContentSchema(readFile(file));
     }
 
+    @Step(value = "rest.assert.load.latency", args = {"percentile:int", "matcher:duration-assertion"})
+    public void assertLoadLatency(Integer percentile, Assertion<Duration> assertion) {
+        assertLoadResultNotNull();
+        if (percentile < 0 || percentile > 100) {
+            throw new WakamitiException("The percentile must be between 0 and 100");
+        }
+        Assertion.assertThat(loadResult.percentile(percentile), assertion);
+    }
+
+    @Step(value = "rest.assert.load.HTTP.code.count", args = {"code:int", "matcher:long-assertion"})
+    public void assertLoadResponsesWithHttpCode(Integer code, Assertion<Long> assertion) {
+        assertLoadResultNotNull();
+        Assertion.assertThat(loadResult.responses(code), assertion);
+    }
+
+    @Step(value = "rest.assert.load.failures", args = "long-assertion")
+    public void assertLoadFailures(Assertion<Long> assertion) {
+        assertLoadResultNotNull();
+        Assertion.assertThat(loadResult.failures(), assertion);
+    }
+
 }
@@ -12,27 +12,46 @@ import es.iti.wakamiti.api.datatypes.Assertion;
 import es.iti.wakamiti.api.plan.DataTable;
 import es.iti.wakamiti.api.plan.Document;
 import es.iti.wakamiti.api.util.*;
+import es.iti.wakamiti.api.util.http.oauth.AccessToken;
 import es.iti.wakamiti.api.util.http.oauth.Oauth2Provider;
+import es.iti.wakamiti.api.util.http.oauth.Oauth2Provider.AccessTokenRetriever;
 import es.iti.wakamiti.api.util.http.oauth.Oauth2ProviderConfig;
 import es.iti.wakamiti.rest.log.RestAssuredLogger;
 import io.restassured.RestAssured;
 import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
 import io.restassured.http.ContentType;
 import io.restassured.http.Header;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
+import io.restassured.response.ResponseOptions;
 import io.restassured.response.ValidatableResponse;
 import io.restassured.specification.RequestSpecification;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.xmlbeans.XmlObject;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.slf4j.Logger;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +64,9 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public class RestSupport {
 
     public static final Logger LOGGER = WakamitiLogger.forName("es.iti.wakamiti.rest");
+    private static final RestAssuredLogger LOG_FILTER = new RestAssuredLogger();
+    private static final AtomicInteger LOAD_THREAD_COUNT = new AtomicInteger();
+    private static final Pattern CHARSET = Pattern.compile("(?i);\\s*charset\\s*=\\s*\"?([^\";\\s]+)");
 
 
     protected final Map<ContentType, ContentTypeHelper> contentTypeValidators = WakamitiAPI.instance()
@@ -60,34 +82,83 @@ public class RestSupport {
     protected Matcher<Integer> httpCodeAssertion;
     protected Response response;
     protected ValidatableResponse validatableResponse;
-    protected Oauth2Provider oauth2Provider = new Oauth2Provider().setRetriever(this::retrieveOauthToken);
+    protected LoadResult loadResult;
+    protected Oauth2Provider oauth2Provider = new Oauth2Provider().setRetriever(new AccessTokenRetriever() {
+        @Override
+        public String get(Oauth2ProviderConfig config) {
+            return retrieve(config).value();
+        }
+
+        @Override
+        public AccessToken retrieve(Oauth2ProviderConfig config) {
+            return retrieveOauthToken(config);
+        }
+    });
     protected Optional<Consumer<RequestSpecification>> authSpecification = Optional.empty();
     protected List<Consumer<RequestSpecification>> specifications = new LinkedList<>();
+    protected final Set<SpooledContent> spooledContents = ConcurrentHashMap.newKeySet();
+    private final Filter spoolFilter = SpooledContent.filter(spooledContents::add);
+    private RequestSpecification baseSpecification;
+    private int baseSpecificationSize = -1;
+    private RestAssuredConfig baseSpecificationConfig;
 
     protected static void config(RestAssuredConfig config) {
         RestAssured.config = config;
     }
 
     protected RequestSpecification newRequest() {
+        resetResponse();
+        return attachLogger(authenticatedRequest());
+    }
+
+    private void resetResponse() {
         response = null;
         validatableResponse = null;
-        RequestSpecification request = RestAssured.given()
-                .accept(ContentType.ANY)
-                .header("Accept-Language", "*");
+    }
 
-        specifications.forEach(specification -> specification.accept(request));
+    private RequestSpecification authenticatedRequest() {
+        RequestSpecification request = RestAssured.given().spec(baseSpecification()).filter(spoolFilter);
         authSpecification.ifPresent(specification -> specification.accept(request));
-        return attachLogger(request);
+        return request;
+    }
+
+    /**
+     * Gets the specification with the default headers and the stored
+     * request settings, which is merged into every new request. Since the
+     * settings are only appended, the specification is built again only when
+     * a setting is added or the RestAssured configuration changes.
+     *
+     * @return The base specification
+     */
+    private RequestSpecification baseSpecification() {
+        if (baseSpecification == null
+                || baseSpecificationSize != specifications.size()
+                || baseSpecificationConfig != RestAssured.config()) {
+            RequestSpecification specification = RestAssured.given()
+                    .accept(ContentType.ANY)
+                    .header("Accept-Language", "*");
+            specifications.forEach(it -> it.accept(specification));
+            baseSpecification = specification;
+            baseSpecificationSize = specifications.size();
+            baseSpecificationConfig = RestAssured.config();
+        }
+        return baseSpecification;
     }
 
+    /**
+     * Attaches the request logging and the response logger. The response is
+     * only logged by {@link RestAssuredLogger}, which does not read the body
+     * when it is spooled, since the RestAssured response logging would load
+     * the whole body into memory.
+     *
+     * @param request The request
+     * @return The same request
+     */
     private RequestSpecification attachLogger(RequestSpecification request) {
-        RestAssuredLogger logFilter = new RestAssuredLogger();
         if (LOGGER.isDebugEnabled()) {
-            request.log().all().filter(logFilter);
-            request.expect().log().all();
+            request.log().all().filter(LOG_FILTER);
         } else {
-            request.log().ifValidationFails().filter(logFilter);
-            request.expect().log().ifValidationFails();
+            request.log().ifValidationFails().filter(LOG_FILTER);
         }
         return request;
     }
@@ -119,16 +190,19 @@ public class RestSupport {
                 .statusCode(httpCodeAssertion);
     }
 
-    protected String retrieveOauthToken(Oauth2ProviderConfig oauth2ProviderConfig) {
+    protected AccessToken retrieveOauthToken(Oauth2ProviderConfig oauth2ProviderConfig) {
         RequestSpecification request = RestAssured.given().contentType(ContentType.URLENC)
                 .auth().preemptive()
                 .basic(oauth2ProviderConfig.clientId(), oauth2ProviderConfig.clientSecret())
                 .formParams(oauth2ProviderConfig.parameters());
-        return attachLogger(request)
+        JsonPath body = attachLogger(request)
                 .with().post(oauth2ProviderConfig.url())
                 .then().statusCode(200)
                 .body(ACCESS_TOKEN, Matchers.notNullValue())
-                .extract().body().jsonPath().getString(ACCESS_TOKEN);
+                .extract().body().jsonPath();
+        String expiresIn = body.getString(AccessToken.EXPIRES_IN);
+        return AccessToken.of(body.getString(ACCESS_TOKEN),
+                NumberUtils.isDigits(expiresIn) ? Long.valueOf(expiresIn) : null);
     }
 
     protected void executeRequest(BiFunction<RequestSpecification, String, Response> function) {
@@ -144,6 +218,90 @@ public class RestSupport {
         this.validatableResponse = commonResponseAssertions(response);
     }
 
+    /**
+     * Sends the current request several times, keeping at most the given
+     * number of requests in flight, and aggregates the HTTP codes and the
+     * response times of every response.
+     * <p>
+     * The request is prepared once, including the authentication, and each
+     * execution merges it into a new request. The responses are not logged
+     * individually, and their bodies are discarded.
+     *
+     * @param function    The request method
+     * @param body        The request body, or {@code null} if none
+     * @param requests    The number of requests to send
+     * @param concurrency The number of requests sent at the same time
+     */
+    protected void executeLoad(
+            BiFunction<RequestSpecification, String, Response> function,
+            String body,
+            int requests,
+            int concurrency
+    ) {
+        if (requests < 1 || concurrency < 1) {
+            throw new WakamitiException("The number of requests and the concurrency must be greater than zero");
+        }
+        resetResponse();
+        RequestSpecification template = authenticatedRequest();
+        String uri = uri();
+        LoadResult result = new LoadResult(requests, concurrency);
+        AtomicInteger pending = new AtomicInteger(requests);
+        Callable<Void> worker = () -> {
+            while (pending.getAndDecrement() > 0) {
+                RequestSpecification request = RestAssured.given().spec(template);
+                if (body != null) {
+                    request.body(body);
+                }
+                sendLoadRequest(function, request, uri, result);
+            }
+            return null;
+        };
+        int threads = Math.min(requests, concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "wakamiti-rest-load-" + LOAD_THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            executor.invokeAll(Collections.nCopies(threads, worker));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WakamitiException("The load execution of {} was interrupted", uri, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        result.finish(Duration.ofNanos(System.nanoTime() - start));
+        LOGGER.info("Load execution of {}: {}", uri, result);
+        this.loadResult = result;
+    }
+
+    private void sendLoadRequest(
+            BiFunction<RequestSpecification, String, Response> function,
+            RequestSpecification request,
+            String uri,
+            LoadResult result
+    ) {
+        long start = System.nanoTime();
+        try {
+            Response loadResponse = function.apply(request, uri);
+            result.record(loadResponse.statusCode(), System.nanoTime() - start);
+            SpooledContent.of(loadResponse).ifPresent(spooled -> {
+                spooled.delete();
+                spooledContents.remove(spooled);
+            });
+        } catch (RuntimeException e) {
+            LOGGER.debug("Load request to {} failed: {}", uri, e.getMessage());
+            result.fail(e);
+        }
+    }
+
+    protected void assertLoadResultNotNull() {
+        if (loadResult == null) {
+            throw new WakamitiException("The load execution has not been performed");
+        }
+    }
+
     protected void assertFileExists(File file) {
         if (!file.exists()) {
             throw new WakamitiException("File '{}' not found", file.getAbsolutePath());
@@ -172,7 +330,8 @@ public class RestSupport {
     }
 
     protected Object parsedResponse() {
-        Object body = doTry(
+        Optional<SpooledContent> spooled = SpooledContent.of(response);
+        Object body = spooled.isPresent() ? spooled.get().toString() : doTry(
                 () -> XmlUtils.xml(response.body().asString()),
                 () -> JsonUtils.json(response.body().asString()),
                 () -> response.body().asString()
@@ -262,7 +421,38 @@ public class RestSupport {
 
     protected void assertContentSchema(String expectedSchema) {
         ContentTypeHelper helper = contentTypeHelperForResponse();
-        helper.assertContentSchema(expectedSchema, validatableResponse.extract().asString());
+        Charset charset = charsetOf(response);
+        Optional<SpooledContent> spooled = SpooledContent.of(response);
+        if (spooled.isPresent()) {
+            try (InputStream content = spooled.get().open()) {
+                helper.assertContentSchema(expectedSchema, content, charset);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            helper.assertContentSchema(expectedSchema, validatableResponse.extract().asInputStream(), charset);
+        }
+    }
+
+    /**
+     * Gets the charset of the given response body, the same way as
+     * RestAssured does to read it as a string: the one declared in the
+     * content type, or else the default one for the content type.
+     *
+     * @param response The response
+     * @return The charset of the body
+     */
+    static Charset charsetOf(ResponseOptions<?> response) {
+        String contentType = Objects.toString(response.contentType(), "");
+        java.util.regex.Matcher declared = CHARSET.matcher(contentType);
+        if (declared.find()) {
+            try {
+                return Charset.forName(declared.group(1));
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                LOGGER.debug("Unknown charset in content type {}", contentType);
+            }
+        }
+        return Charset.forName(RestAssured.config().getDecoderConfig().defaultCharsetForContentType(contentType));
     }
 
     protected void assertSubtype(String subtype) {
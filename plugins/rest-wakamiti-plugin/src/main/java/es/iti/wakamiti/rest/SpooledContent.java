@@ -0,0 +1,233 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest;
+
+
+import es.iti.wakamiti.api.WakamitiException;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.response.ResponseOptions;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+
+/**
+ * Response body stored in a temporary file, because it is too large to be
+ * kept in memory. The body can be read as many times as needed, and each
+ * reading streams the content from the file.
+ * <p>
+ * Bodies are only spooled for the requests passing through the filter
+ * returned by {@link #filter(Consumer)}, which hands over every temporary
+ * file so it can be removed once it is no longer needed. Other responses
+ * are kept in memory.
+ *
+ * @see RestConfigContributor#RESPONSE_SPOOL_THRESHOLD
+ */
+public final class SpooledContent {
+
+    private static final ThreadLocal<Consumer<SpooledContent>> COLLECTOR = new ThreadLocal<>();
+    private static final Map<ResponseOptions<?>, SpooledContent> RESPONSES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Path file;
+    private final long length;
+
+    private SpooledContent(Path file) {
+        this.file = file;
+        this.length = file.toFile().length();
+    }
+
+    /**
+     * Gets the spooled body of the given response, if any.
+     *
+     * @param response The response
+     * @return The spooled body, or empty if the body is kept in memory
+     */
+    public static Optional<SpooledContent> of(ResponseOptions<?> response) {
+        return Optional.ofNullable(RESPONSES.get(response));
+    }
+
+    /**
+     * Creates a filter that allows the response body of the request to be
+     * spooled, and links the spooled body to the response. It runs right
+     * before the request is sent, so the other filters can already see the
+     * spooled body.
+     *
+     * @param consumer The consumer of every temporary file created, in charge
+     *                 of removing it
+     * @return The filter
+     */
+    public static OrderedFilter filter(Consumer<SpooledContent> consumer) {
+        return new SpoolFilter(consumer);
+    }
+
+    /**
+     * Reads the whole content of the given entity, keeping it in memory if
+     * its size does not exceed the threshold, or in a temporary file
+     * otherwise. The content is always kept in memory if the request has not
+     * passed through a spool filter.
+     *
+     * @param entity    The response entity
+     * @param threshold The maximum size in bytes kept in memory
+     * @return An entity with the read content
+     * @throws IOException if the content cannot be read
+     */
+    static HttpEntity spool(HttpEntity entity, int threshold) throws IOException {
+        Consumer<SpooledContent> collector = COLLECTOR.get();
+        DeferredFileOutputStream output = new DeferredFileOutputStream(
+                collector == null ? Integer.MAX_VALUE : threshold, "wakamiti-rest-", ".tmp", null);
+        try (output) {
+            entity.writeTo(output);
+        }
+        AbstractHttpEntity result;
+        if (output.isInMemory()) {
+            result = new ByteArrayEntity(output.getData());
+        } else {
+            SpooledContent content = new SpooledContent(output.getFile().toPath());
+            collector.accept(content);
+            result = new SpooledEntity(content);
+        }
+        result.setContentType(entity.getContentType());
+        result.setContentEncoding(entity.getContentEncoding());
+        return result;
+    }
+
+    /**
+     * Opens a new stream reading the content from the beginning.
+     *
+     * @return The content stream
+     */
+    public InputStream open() {
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot read the response body stored in {}", file, e);
+        }
+    }
+
+    /**
+     * @return The size of the content, in bytes
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return The temporary file with the content
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Removes the temporary file.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            RestSupport.LOGGER.debug("Cannot delete the temporary file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Response body of %d bytes stored in %s]", length, file);
+    }
+
+
+    private static final class SpooledEntity extends AbstractHttpEntity {
+
+        private final SpooledContent content;
+
+        private SpooledEntity(SpooledContent content) {
+            this.content = content;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return content.length();
+        }
+
+        @Override
+        public InputStream getContent() {
+            return content.open();
+        }
+
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+            try (InputStream input = content.open()) {
+                input.transferTo(output);
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+
+    private static final class SpoolFilter implements OrderedFilter {
+
+        private final Consumer<SpooledContent> consumer;
+
+        private SpoolFilter(Consumer<SpooledContent> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Response filter(
+                FilterableRequestSpecification requestSpec,
+                FilterableResponseSpecification responseSpec,
+                FilterContext ctx
+        ) {
+            AtomicReference<SpooledContent> spooled = new AtomicReference<>();
+            COLLECTOR.set(content -> {
+                consumer.accept(content);
+                spooled.set(content);
+            });
+            Response response;
+            try {
+                response = ctx.next(requestSpec, responseSpec);
+            } finally {
+                COLLECTOR.remove();
+            }
+            if (spooled.get() != null) {
+                RESPONSES.put(response, spooled.get());
+            }
+            return response;
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    }
+
+}
@@ -12,13 +12,17 @@ import es.iti.wakamiti.api.datatypes.Assertion;
 import es.iti.wakamiti.api.util.MatcherAssertion;
 import es.iti.wakamiti.rest.ContentTypeHelper;
 import es.iti.wakamiti.rest.MatchMode;
+import es.iti.wakamiti.rest.SpooledContent;
 import io.restassured.http.ContentType;
 import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
-import org.hamcrest.MatcherAssert;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchema;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Optional;
 
 
 /**
@@ -45,6 +49,11 @@ public class JSONHelper implements ContentTypeHelper {
         diff.assertContent(expected, actual, matchMode);
     }
 
+    @Override
+    public void assertContent(String expected, InputStream actual, Charset charset, MatchMode matchMode) {
+        diff.assertContent(expected, actual, charset, matchMode);
+    }
+
     @Override
     public void assertContent(
             String fragment,
@@ -52,9 +61,20 @@ public class JSONHelper implements ContentTypeHelper {
             ExtractableResponse<Response> response,
             MatchMode mode
     ) {
-        assertContent(expected, response.jsonPath().getObject(fragment, JsonNode.class).toString(), mode);
+        Optional<JsonNode> node = SpooledContent.of(response.response())
+                .flatMap(spooled -> select(fragment, spooled));
+        if (node.isPresent()) {
+            assertContent(expected, node.get().toString(), mode);
+        } else {
+            assertContent(expected, response.jsonPath().getObject(fragment, JsonNode.class).toString(), mode);
+        }
     }
 
+    /**
+     * When the response body is spooled, simple fragments holding a text,
+     * a boolean or an integer are checked while streaming the body. The
+     * value is converted to the same type used by RestAssured.
+     */
     @Override
     public <T> void assertFragment(
             String fragment,
@@ -62,12 +82,48 @@ public class JSONHelper implements ContentTypeHelper {
             Class<T> dataType,
             Assertion<T> assertion
     ) {
-        response.body(fragment, MatcherAssertion.asMatcher(assertion));
+        Optional<JsonNode> node = SpooledContent.of(response.extract().response())
+                .flatMap(spooled -> select(fragment, spooled))
+                .filter(it -> it.isTextual() || it.isBoolean() || it.isIntegralNumber() || it.isNull());
+        if (node.isPresent()) {
+            Object value = valueOf(node.get());
+            if (!assertion.test(value)) {
+                throw new AssertionError(String.format(
+                        "JSON path %s doesn't match.%nExpected: %s%n  Actual: %s",
+                        fragment, assertion.description(), value
+                ));
+            }
+        } else {
+            response.body(fragment, MatcherAssertion.asMatcher(assertion));
+        }
     }
 
     @Override
     public void assertContentSchema(String expectedSchema, String content) {
-        MatcherAssert.assertThat(content, matchesJsonSchema(expectedSchema));
+        SchemaCache.assertJsonSchema(expectedSchema, content);
+    }
+
+    private static Optional<JsonNode> select(String fragment, SpooledContent spooled) {
+        try (InputStream content = spooled.open()) {
+            return StreamingPath.json(fragment, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object valueOf(JsonNode node) {
+        if (node.isNull()) {
+            return null;
+        } else if (node.isTextual()) {
+            return node.textValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.canConvertToInt()) {
+            return node.intValue();
+        } else if (node.canConvertToLong()) {
+            return node.longValue();
+        }
+        return node.bigIntegerValue();
     }
 
 }
\ No newline at end of file
@@ -17,10 +17,19 @@ import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.rest.MatchMode;
 import org.junit.ComparisonFailure;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -32,6 +41,8 @@ import static es.iti.wakamiti.rest.MatchMode.*;
  */
 public class JsonXmlDiff {
 
+    private static final JsonNumEquivalence NUM_EQUIVALENCE = new JsonNumEquivalence();
+
     private final ObjectMapper mapper;
 
 
@@ -72,16 +83,45 @@ public class JsonXmlDiff {
         }
     }
 
+    /**
+     * Compares the expected content with an actual content read from a
+     * stream, so the actual content is parsed directly without being
+     * copied into a string first. Since the actual content is expected to
+     * be large, the differences are reported without including it.
+     *
+     * @param expected  The expected content
+     * @param actual    The actual content
+     * @param charset   The charset of the actual content
+     * @param matchMode The comparison mode
+     * @throws AssertionError if the contents do not match
+     */
+    public void assertContent(String expected, InputStream actual, Charset charset, MatchMode matchMode) {
+        try {
+            List<String> errors = new ArrayList<>();
+            JsonNode expectedJson = mapper.readTree(expected);
+            JsonNode actualJson = mapper.readTree(new InputStreamReader(actual, charset));
+            compareJsonNode(matchMode, expectedJson, actualJson, "", errors);
+            if (!errors.isEmpty()) {
+                throw new AssertionError(errorMessage(errors));
+            }
+        } catch (IOException e) {
+            throw new WakamitiException(e);
+        }
+    }
+
     private void throwExceptionIfHasErrors(List<String> errors, String expected, String actual)
             throws ComparisonFailure, JsonProcessingException {
         if (!errors.isEmpty()) {
-            var message = errors.stream().collect(Collectors.joining(
-                    "\n\t-", "The expected and actual responses have differences:\n\t-", "\n"
-            ));
-            throw new ComparisonFailure(message, format(expected), format(actual));
+            throw new ComparisonFailure(errorMessage(errors), format(expected), format(actual));
         }
     }
 
+    private static String errorMessage(List<String> errors) {
+        return errors.stream().collect(Collectors.joining(
+                "\n\t-", "The expected and actual responses have differences:\n\t-", "\n"
+        ));
+    }
+
     private String format(String content) throws JsonProcessingException {
         return mapper.writeValueAsString(mapper.readTree(content));
     }
@@ -123,7 +163,7 @@ public class JsonXmlDiff {
             compareJsonArray(matchMode, expectedNode, actualNode, prefix, errors);
         } else if (expectedNode.isContainerNode()) {
             compareJsonObject(matchMode, expectedNode, actualNode, prefix, errors);
-        } else if (expectedNode.isValueNode() && !new JsonNumEquivalence().equivalent(expectedNode, actualNode)) {
+        } else if (expectedNode.isValueNode() && !NUM_EQUIVALENCE.equivalent(expectedNode, actualNode)) {
             errors.add(
                     segmentExpected + ": '" + expectedNode.asText() +
                             "', actual: '" + actualNode.asText() + "'"
@@ -203,16 +243,11 @@ public class JsonXmlDiff {
             List<String> errors,
             MatchMode mode
     ) {
-        boolean currentElementMatch;
+        ElementIndex index = new ElementIndex(actualNode, mode);
         for (int i = 0; i < expectedNode.size(); i++) {
-            currentElementMatch = false;
-            for (int j = 0; j < actualNode.size() && !currentElementMatch; j++) {
-                if (compareJsonNode(mode, expectedNode.get(i), actualNode.get(j), prefix + "[" + i + "]")) {
-                    currentElementMatch = true;
-                }
-            }
-            if (!currentElementMatch) {
-                compareJsonNode(mode, expectedNode.get(i), actualNode.get(i), prefix + "[" + i + "]", errors);
+            String elementPrefix = prefix + "[" + i + "]";
+            if (!index.anyMatch(expectedNode.get(i), elementPrefix)) {
+                compareJsonNode(mode, expectedNode.get(i), actualNode.get(i), elementPrefix, errors);
                 return;
             }
         }
@@ -231,10 +266,10 @@ public class JsonXmlDiff {
         var actualFields = asList(actualNode.fieldNames());
 
         var missingExpectedFields = expectedFields.stream()
-                .filter(Predicate.not(actualFields::contains))
+                .filter(Predicate.not(actualNode::has))
                 .collect(Collectors.toList());
         var nonExpectedActualFields = actualFields.stream()
-                .filter(Predicate.not(expectedFields::contains))
+                .filter(Predicate.not(expectedNode::has))
                 .collect(Collectors.toList());
 
         if (!missingExpectedFields.isEmpty()) {
@@ -271,4 +306,129 @@ public class JsonXmlDiff {
         }
     }
 
-}
\ No newline at end of file
+
+
+    /**
+     * Structural hash of a node, consistent with the comparison in
+     * {@link MatchMode#STRICT_ANY_ORDER} mode: equivalent numbers have the
+     * same hash, and the order of the object fields and the array elements
+     * is ignored.
+     */
+    private static int structuralHash(JsonNode node) {
+        if (node.isNumber()) {
+            return node.decimalValue().stripTrailingZeros().hashCode();
+        }
+        int hash = node.getNodeType().hashCode();
+        if (node.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                hash += field.getKey().hashCode() ^ structuralHash(field.getValue());
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                hash += structuralHash(element);
+            }
+        } else {
+            hash = 31 * hash + node.asText().hashCode();
+        }
+        return hash;
+    }
+
+
+    /**
+     * Hash index of the elements of an array, used to find the elements
+     * that may match a given one without comparing it against every
+     * element of the array.
+     * <p>
+     * In {@link MatchMode#STRICT_ANY_ORDER} mode the elements are grouped by
+     * their {@link #structuralHash(JsonNode)}. In {@link MatchMode#LOOSE}
+     * mode, an element can have more fields than expected, so the elements
+     * are grouped by the hash of the simple value fields of the expected
+     * element. When no candidate matches, every element is compared, so the
+     * result is always the same as comparing each pair of elements.
+     */
+    private class ElementIndex {
+
+        private final Set<String> wholeElement = Set.of();
+        private final JsonNode array;
+        private final MatchMode mode;
+        private final Map<Set<String>, Map<Integer, List<Integer>>> buckets = new HashMap<>();
+
+        private ElementIndex(JsonNode array, MatchMode mode) {
+            this.array = array;
+            this.mode = mode;
+        }
+
+        private boolean anyMatch(JsonNode expected, String prefix) {
+            Set<String> projection = projection(expected);
+            Set<Integer> compared = new HashSet<>();
+            if (projection != null) {
+                List<Integer> candidates = buckets.computeIfAbsent(projection, this::group)
+                        .getOrDefault(hash(projection, expected), List.of());
+                for (int candidate : candidates) {
+                    if (compareJsonNode(mode, expected, array.get(candidate), prefix)) {
+                        return true;
+                    }
+                    compared.add(candidate);
+                }
+            }
+            for (int i = 0; i < array.size(); i++) {
+                if (!compared.contains(i) && compareJsonNode(mode, expected, array.get(i), prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Gets the part of the expected element used to find the candidates:
+         * the whole element (an empty set), or the names of its simple value
+         * fields. Returns {@code null} if there is no such part.
+         */
+        private Set<String> projection(JsonNode expected) {
+            if (mode == STRICT_ANY_ORDER || expected.isValueNode()) {
+                return wholeElement;
+            }
+            if (!expected.isObject()) {
+                return null;
+            }
+            Set<String> fields = new TreeSet<>();
+            expected.fields().forEachRemaining(field -> {
+                if (field.getValue().isValueNode()) {
+                    fields.add(field.getKey());
+                }
+            });
+            return fields.isEmpty() ? null : fields;
+        }
+
+        private Map<Integer, List<Integer>> group(Set<String> projection) {
+            Map<Integer, List<Integer>> group = new HashMap<>();
+            for (int i = 0; i < array.size(); i++) {
+                Integer hash = hash(projection, array.get(i));
+                if (hash != null) {
+                    group.computeIfAbsent(hash, k -> new ArrayList<>()).add(i);
+                }
+            }
+            return group;
+        }
+
+        private Integer hash(Set<String> projection, JsonNode node) {
+            if (projection.isEmpty()) {
+                return structuralHash(node);
+            }
+            if (!node.isObject()) {
+                return null;
+            }
+            int hash = 0;
+            for (String field : projection) {
+                JsonNode value = node.get(field);
+                if (value == null || !value.isValueNode()) {
+                    return null;
+                }
+                hash = 31 * hash + structuralHash(value);
+            }
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest.helpers;
+
+
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.util.BoundedCache;
+import io.restassured.module.jsv.JsonSchemaValidator;
+import io.restassured.module.jsv.JsonSchemaValidatorSettings;
+import org.hamcrest.Matcher;
+import org.hamcrest.MatcherAssert;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+
+
+/**
+ * Compiled JSON schemas and XSD schemas shared by every REST backend, so
+ * each schema is compiled only once no matter how many steps validate
+ * against it.
+ * <p>
+ * XSD schemas are kept by the hash of their content, and the XML content is
+ * validated directly from a stream. JSON schemas are validated with a single
+ * schema factory, which keeps the validators already compiled for any
+ * schema with the same content.
+ */
+final class SchemaCache {
+
+    private static final int MAX_SCHEMAS = 128;
+    private static final JsonSchemaValidatorSettings JSON_SETTINGS = new JsonSchemaValidatorSettings();
+    private static final BoundedCache<String, Schema> XSD_SCHEMAS = new BoundedCache<>(MAX_SCHEMAS);
+
+    private SchemaCache() {
+        // utility class
+    }
+
+    /**
+     * Validates the given JSON content against a JSON schema.
+     *
+     * @param schema  The JSON schema
+     * @param content The JSON content
+     * @throws AssertionError if the content does not match the schema
+     */
+    @SuppressWarnings("unchecked")
+    static void assertJsonSchema(String schema, String content) {
+        Matcher<Object> matcher = (Matcher<Object>) JsonSchemaValidator.matchesJsonSchema(schema).using(JSON_SETTINGS);
+        MatcherAssert.assertThat(content, matcher);
+    }
+
+    /**
+     * Validates the given XML content against a XSD schema.
+     *
+     * @param schema  The XSD schema
+     * @param content The XML content
+     * @throws AssertionError if the content does not match the schema
+     */
+    static void assertXsdSchema(String schema, StreamSource content) {
+        Schema xsdSchema = XSD_SCHEMAS.computeIfAbsent(hash(schema), key -> compileXsdSchema(schema));
+        try {
+            xsdSchema.newValidator().validate(content);
+        } catch (SAXException e) {
+            throw new AssertionError(String.format(
+                    "Expected: The content to match the given XSD schema.%n     but: %s", e.getMessage()
+            ), e);
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot read the content to validate", e);
+        }
+    }
+
+    /**
+     * @return The statistics of the compiled XSD schemas
+     */
+    static BoundedCache.Stats xsdSchemaStats() {
+        return XSD_SCHEMAS.stats();
+    }
+
+    private static Schema compileXsdSchema(String schema) {
+        try {
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                    .newSchema(new StreamSource(new StringReader(schema)));
+        } catch (SAXException e) {
+            throw new WakamitiException("Invalid XSD schema: {}", e.getMessage(), e);
+        }
+    }
+
+    private static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return String.format("%064x", new BigInteger(1, digest.digest(content.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
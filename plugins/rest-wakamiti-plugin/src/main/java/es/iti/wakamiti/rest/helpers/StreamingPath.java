@@ -0,0 +1,313 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest.helpers;
+
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.iti.wakamiti.api.WakamitiException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Evaluates simple paths over a JSON or XML content while it is being read,
+ * skipping every branch outside the path, so only the selected fragment is
+ * kept in memory.
+ * <p>
+ * Only paths made of names and positive indexes (like {@code data.items[2].name}
+ * or {@code [0].id}) are evaluated. Any other path, as well as the paths
+ * selecting several nodes or no node at all, are not resolved here, and
+ * should be evaluated with the complete GPath engine instead.
+ */
+final class StreamingPath {
+
+    private static final Pattern SEGMENT = Pattern.compile("([A-Za-z_$][\\w$-]*)?((?:\\[\\d+])*)");
+    private static final Pattern INDEX = Pattern.compile("\\[(\\d+)]");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final XMLInputFactory XML_INPUT = XMLInputFactory.newFactory();
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newFactory();
+
+    static {
+        XML_INPUT.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XML_INPUT.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private StreamingPath() {
+        // utility class
+    }
+
+    /**
+     * Selects the JSON node located at the given path.
+     *
+     * @param path    The path
+     * @param content The JSON content
+     * @return The selected node, or empty if the path cannot be resolved
+     * to a single node while streaming
+     */
+    static Optional<JsonNode> json(String path, InputStream content) {
+        Optional<List<Step>> steps = parse(path);
+        if (steps.isEmpty()) {
+            return Optional.empty();
+        }
+        try (JsonParser parser = MAPPER.getFactory().createParser(content)) {
+            JsonToken token = parser.nextToken();
+            for (Step step : steps.get()) {
+                if (step.name != null) {
+                    if (token != JsonToken.START_OBJECT || !moveToField(parser, step.name)) {
+                        return Optional.empty();
+                    }
+                    token = parser.nextToken();
+                }
+                for (int index : step.indexes) {
+                    if (token != JsonToken.START_ARRAY || !moveToElement(parser, index)) {
+                        return Optional.empty();
+                    }
+                    token = parser.currentToken();
+                }
+            }
+            return token == null ? Optional.empty() : Optional.of(MAPPER.readTree(parser));
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot read the JSON content: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Selects the XML element located at the given path, where the first
+     * segment is the name of the root element.
+     *
+     * @param path    The path
+     * @param content The XML content
+     * @return The selected element, or empty if the path cannot be resolved
+     * to a single element while streaming
+     */
+    static Optional<String> xml(String path, InputStream content) {
+        Optional<List<Step>> steps = parse(path);
+        if (steps.isEmpty() || steps.get().isEmpty() || steps.get().get(0).name == null
+                || !steps.get().get(0).indexes.isEmpty()) {
+            return Optional.empty();
+        }
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT.createXMLStreamReader(content);
+            reader.nextTag();
+            if (!reader.getLocalName().equals(steps.get().get(0).name)) {
+                return Optional.empty();
+            }
+            List<Step> children = steps.get().subList(1, steps.get().size());
+            if (children.stream().anyMatch(step -> step.name == null || step.indexes.size() > 1)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(selectXml(reader, children, 0, new int[children.size()]).element);
+        } catch (XMLStreamException e) {
+            throw new WakamitiException("Cannot read the XML content: {}", e.getMessage(), e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private static Optional<List<Step>> parse(String path) {
+        List<Step> steps = new ArrayList<>();
+        String trimmed = path.trim();
+        if (trimmed.isEmpty()) {
+            return Optional.of(steps);
+        }
+        for (String segment : trimmed.split("\\.", -1)) {
+            Matcher matcher = SEGMENT.matcher(segment);
+            if (segment.isEmpty() || !matcher.matches() || (matcher.group(1) == null && !steps.isEmpty())) {
+                return Optional.empty();
+            }
+            List<Integer> indexes = new ArrayList<>();
+            Matcher index = INDEX.matcher(matcher.group(2));
+            while (index.find()) {
+                indexes.add(Integer.parseInt(index.group(1)));
+            }
+            steps.add(new Step(matcher.group(1), indexes));
+        }
+        return Optional.of(steps);
+    }
+
+    private static boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (parser.getCurrentName().equals(name)) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static boolean moveToElement(JsonParser parser, int index) throws IOException {
+        for (int i = 0; ; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (i == index) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    /*
+     * Selects the element at the given steps among the children of the
+     * current element, consuming the events up to its end. Steps without
+     * index select every child with the same name, so a second match
+     * makes the result ambiguous. As in GPath, the index of a step applies
+     * to every element matched so far by that step (not only to the
+     * children of a single parent), so the counts are kept per step
+     * across the whole content.
+     */
+    private static XmlResult selectXml(XMLStreamReader reader, List<Step> steps, int position, int[] counts)
+            throws XMLStreamException {
+        if (position == steps.size()) {
+            return new XmlResult(copyElement(reader), false);
+        }
+        Step step = steps.get(position);
+        Integer index = step.indexes.isEmpty() ? null : step.indexes.get(0);
+        XmlResult result = XmlResult.NONE;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return result;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            boolean matches = reader.getLocalName().equals(step.name)
+                    && (index == null || counts[position]++ == index);
+            if (!matches) {
+                skipElement(reader);
+            } else if (result.element != null) {
+                return XmlResult.AMBIGUOUS;
+            } else {
+                result = selectXml(reader, steps, position + 1, counts);
+                if (result.ambiguous) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String copyElement(XMLStreamReader reader) throws XMLStreamException {
+        StringWriter output = new StringWriter();
+        XMLStreamWriter writer = XML_OUTPUT.createXMLStreamWriter(output);
+        int depth = 0;
+        int event = reader.getEventType();
+        do {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    writer.writeStartElement(
+                            nullToEmpty(reader.getPrefix()),
+                            reader.getLocalName(),
+                            nullToEmpty(reader.getNamespaceURI())
+                    );
+                    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                        writer.writeNamespace(nullToEmpty(reader.getNamespacePrefix(i)), reader.getNamespaceURI(i));
+                    }
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        writer.writeAttribute(
+                                nullToEmpty(reader.getAttributePrefix(i)),
+                                nullToEmpty(reader.getAttributeNamespace(i)),
+                                reader.getAttributeLocalName(i),
+                                reader.getAttributeValue(i)
+                        );
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    writer.writeEndElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    writer.writeCharacters(reader.getText());
+                    break;
+                default:
+                    break;
+            }
+            if (depth > 0) {
+                event = reader.next();
+            }
+        } while (depth > 0);
+        writer.close();
+        return output.toString();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+                // Ignored exception
+            }
+        }
+    }
+
+
+    private static final class Step {
+
+        private final String name;
+        private final List<Integer> indexes;
+
+        private Step(String name, List<Integer> indexes) {
+            this.name = name;
+            this.indexes = indexes;
+        }
+    }
+
+
+    private static final class XmlResult {
+
+        private static final XmlResult NONE = new XmlResult(null, false);
+        private static final XmlResult AMBIGUOUS = new XmlResult(null, true);
+
+        private final String element;
+        private final boolean ambiguous;
+
+        private XmlResult(String element, boolean ambiguous) {
+            this.element = element;
+            this.ambiguous = ambiguous;
+        }
+    }
+
+}
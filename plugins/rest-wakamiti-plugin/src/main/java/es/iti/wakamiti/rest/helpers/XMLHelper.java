@@ -11,6 +11,7 @@ import es.iti.wakamiti.api.datatypes.Assertion;
 import es.iti.wakamiti.api.util.MatcherAssertion;
 import es.iti.wakamiti.rest.ContentTypeHelper;
 import es.iti.wakamiti.rest.MatchMode;
+import es.iti.wakamiti.rest.SpooledContent;
 import io.restassured.common.mapper.ObjectDeserializationContext;
 import io.restassured.http.ContentType;
 import io.restassured.path.xml.config.XmlPathConfig;
@@ -19,10 +20,17 @@ import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
 import org.apache.xmlbeans.XmlObject;
-import org.hamcrest.MatcherAssert;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Optional;
 
 import static es.iti.wakamiti.api.util.XmlUtils.xml;
-import static io.restassured.matcher.RestAssuredMatchers.matchesXsd;
 
 
 /**
@@ -50,6 +58,11 @@ public class XMLHelper implements ContentTypeHelper {
         diff.assertContent(expected, actual, matchMode);
     }
 
+    @Override
+    public void assertContent(String expected, InputStream actual, Charset charset, MatchMode matchMode) {
+        diff.assertContent(expected, actual, charset, matchMode);
+    }
+
     @Override
     public void assertContent(
             String fragment,
@@ -57,7 +70,13 @@ public class XMLHelper implements ContentTypeHelper {
             ExtractableResponse<Response> response,
             MatchMode mode
     ) {
-        assertContent(expected, response.xmlPath(config).getObject(fragment, XmlObject.class).toString(), mode);
+        Optional<String> element = SpooledContent.of(response.response())
+                .flatMap(spooled -> select(fragment, spooled));
+        if (element.isPresent()) {
+            assertContent(expected, element.get(), mode);
+        } else {
+            assertContent(expected, response.xmlPath(config).getObject(fragment, XmlObject.class).toString(), mode);
+        }
     }
 
     @Override
@@ -72,7 +91,20 @@ public class XMLHelper implements ContentTypeHelper {
 
     @Override
     public void assertContentSchema(String expectedSchema, String content) {
-        MatcherAssert.assertThat(content, matchesXsd(expectedSchema));
+        SchemaCache.assertXsdSchema(expectedSchema, new StreamSource(new StringReader(content)));
+    }
+
+    @Override
+    public void assertContentSchema(String expectedSchema, InputStream content, Charset charset) {
+        SchemaCache.assertXsdSchema(expectedSchema, new StreamSource(new InputStreamReader(content, charset)));
+    }
+
+    private static Optional<String> select(String fragment, SpooledContent spooled) {
+        try (InputStream content = spooled.open()) {
+            return StreamingPath.xml(fragment, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @SuppressWarnings("unchecked")
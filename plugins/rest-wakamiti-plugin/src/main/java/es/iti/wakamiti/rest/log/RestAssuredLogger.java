@@ -6,6 +6,7 @@
 package es.iti.wakamiti.rest.log;
 
 
+import es.iti.wakamiti.rest.SpooledContent;
 import io.restassured.filter.Filter;
 import io.restassured.filter.FilterContext;
 import io.restassured.http.ContentType;
@@ -20,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.Optional;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -62,7 +64,11 @@ public class RestAssuredLogger implements Filter {
             builder.append(toString(headers));
         }
 
-        if (ContentType.fromContentType(response.contentType()) != null) {
+        Optional<SpooledContent> spooled = SpooledContent.of(response);
+        if (spooled.isPresent()) {
+            builder.append(System.lineSeparator()).append(System.lineSeparator());
+            builder.append(spooled.get());
+        } else if (ContentType.fromContentType(response.contentType()) != null) {
             String responseBodyToAppend = new Prettifier().getPrettifiedBodyIfPossible(response, response.body());
 
             if (!isBlank(responseBodyToAppend)) {
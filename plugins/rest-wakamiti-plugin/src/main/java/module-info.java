@@ -21,6 +21,7 @@ module es.iti.wakamiti.rest {
     requires rest.assured;
     requires rest.assured.common;
     requires json.schema.validator;
+    requires java.xml;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.dataformat.xml;
     requires org.apache.xmlbeans;
@@ -29,6 +30,7 @@ module es.iti.wakamiti.rest {
     requires org.apache.commons.io;
     requires com.google.common;
     requires jackson.coreutils.equivalence;
+    requires HdrHistogram;
 
     uses ConfigContributor;
     uses StepContributor;
@@ -45,6 +45,7 @@ public class RestConfigContributorTest {
         assertThat(RestAssured.config.getRedirectConfig().allowsCircularRedirects()).isFalse();
         assertThat(RestAssured.config.getRedirectConfig().rejectRelativeRedirects()).isFalse();
         assertThat(RestAssured.config.getRedirectConfig().maxRedirects()).isEqualTo(100);
+        assertThat(RestAssured.config.getHttpClientConfig().isConfiguredToReuseTheSameHttpClientInstance()).isTrue();
     }
 
     @Test
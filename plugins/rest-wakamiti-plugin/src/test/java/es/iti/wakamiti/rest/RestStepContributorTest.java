@@ -26,24 +26,29 @@ import org.mockserver.logging.MockServerLogger;
 import org.mockserver.matchers.Times;
 import org.mockserver.model.*;
 import org.mockserver.socket.tls.KeyStoreFactory;
+import org.mockserver.verify.VerificationTimes;
 
 import javax.net.ssl.HttpsURLConnection;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static es.iti.wakamiti.rest.TestUtil.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -83,14 +88,14 @@ public class RestStepContributorTest {
     }
 
     @Before
-    public void beforeEach() throws NoSuchFieldException, IllegalAccessException {
+    public void beforeEach() throws ReflectiveOperationException {
         configurator.configurer().configure(contributor, configurator.defaultConfiguration().appendFromPairs(
                 RestConfigContributor.BASE_URL, BASE_URL
         ));
         RestAssured.config = RestAssured.config().multiPartConfig(
                 RestAssured.config().getMultiPartConfig().defaultBoundary("asdf1234")
         );
-        keys().clear();
+        clearCachedTokens();
         client.reset();
     }
 
@@ -659,8 +664,7 @@ public class RestStepContributorTest {
      * {@link RestStepContributor#executeGetSubject()}
      */
     @Test
-    public void testSetBearerAuthClientWithSuccess()
-            throws NoSuchFieldException, IllegalAccessException, MalformedURLException {
+    public void testSetBearerAuthClientWithSuccess() throws MalformedURLException {
         // prepare
         String token = "1234567890";
 
@@ -687,7 +691,7 @@ public class RestStepContributorTest {
         JsonNode result = (JsonNode) contributor.executeGetSubject();
 
         // check
-        assertThat(keys()).containsValue(token);
+        assertThat(cachedToken()).contains(token);
         assertThat(result).isNotNull();
         assertThat(JsonUtils.readStringValue(result, "statusCode")).isEqualTo("404");
     }
@@ -697,8 +701,7 @@ public class RestStepContributorTest {
      * {@link RestStepContributor#executeGetSubject()}
      */
     @Test
-    public void testSetBearerAuthClientWhenScopeWithSuccess()
-            throws MalformedURLException, NoSuchFieldException, IllegalAccessException {
+    public void testSetBearerAuthClientWhenScopeWithSuccess() throws MalformedURLException {
         // prepare
         String token = "1234567890";
 
@@ -726,7 +729,7 @@ public class RestStepContributorTest {
         JsonNode result = (JsonNode) contributor.executeGetSubject();
 
         // check
-        assertThat(keys()).containsValue(token);
+        assertThat(cachedToken()).contains(token);
         assertThat(result).isNotNull();
         assertThat(JsonUtils.readStringValue(result, "statusCode")).isEqualTo("404");
     }
@@ -770,13 +773,50 @@ public class RestStepContributorTest {
         verify(contributor, times(1)).retrieveOauthToken(any());
     }
 
+    /**
+     * Test {@link RestStepContributor#setBearerAuthClient()} and
+     * {@link RestStepContributor#executeGetSubject()}
+     */
+    @Test
+    public void testSetBearerAuthClientWhenCachedTokenExpiresWithSuccess()
+            throws MalformedURLException, InterruptedException {
+        // prepare
+        contributor.oauth2Provider.configuration().url(new URL(BASE_URL.concat("/token")));
+        contributor.oauth2Provider.configuration().clientId("WEB_APP");
+        contributor.oauth2Provider.configuration().clientSecret("ytv8923yy9234y96");
+        contributor.oauth2Provider.configuration().cacheAuth(true).refreshRatio(0.2);
+
+        for (String token : List.of("1234567890", "0987654321")) {
+            mockServer(
+                    request()
+                            .withPath("/token")
+                            .withBody(params(param("grant_type", "client_credentials")))
+                    ,
+                    response(json(map("access_token", token, "expires_in", 1)))
+                            .withStatusCode(200)
+                            .withContentType(MediaType.APPLICATION_JSON)
+            );
+        }
+
+        // act
+        contributor.setBearerAuthClient();
+        contributor.executeGetSubject();
+        Thread.sleep(500);
+        contributor.executeGetSubject();
+
+        // check
+        verify(contributor, times(2)).retrieveOauthToken(any());
+        assertThat(cachedToken()).contains("0987654321");
+        client.verify(request().withPath("/token"), VerificationTimes.exactly(2));
+        client.verify(request().withHeader("Authorization", "Bearer 0987654321"), VerificationTimes.once());
+    }
+
     /**
      * Test {@link RestStepContributor#setBearerAuthPassword(String, String)} and
      * {@link RestStepContributor#executeGetSubject()}
      */
     @Test
-    public void testSetBearerAuthPasswordWithSuccess()
-            throws MalformedURLException, NoSuchFieldException, IllegalAccessException {
+    public void testSetBearerAuthPasswordWithSuccess() throws MalformedURLException {
         // prepare
         String token = "1234567890";
 
@@ -805,7 +845,7 @@ public class RestStepContributorTest {
         JsonNode result = (JsonNode) contributor.executeGetSubject();
 
         // check
-        assertThat(keys()).containsValue(token);
+        assertThat(cachedToken()).contains(token);
         assertThat(result).isNotNull();
         assertThat(JsonUtils.readStringValue(result, "statusCode")).isEqualTo("404");
     }
@@ -816,8 +856,7 @@ public class RestStepContributorTest {
      * {@link RestStepContributor#executeGetSubject()}
      */
     @Test
-    public void testSetBearerAuthPasswordWhenScopeWithSuccess()
-            throws MalformedURLException, NoSuchFieldException, IllegalAccessException {
+    public void testSetBearerAuthPasswordWhenScopeWithSuccess() throws MalformedURLException {
         // prepare
         String token = "1234567890";
 
@@ -847,7 +886,7 @@ public class RestStepContributorTest {
         JsonNode result = (JsonNode) contributor.executeGetSubject();
 
         // check
-        assertThat(keys()).containsValue(token);
+        assertThat(cachedToken()).contains(token);
         assertThat(result).isNotNull();
         assertThat(JsonUtils.readStringValue(result, "statusCode")).isEqualTo("404");
     }
@@ -2076,11 +2115,420 @@ public class RestStepContributorTest {
         // An error should be thrown
     }
 
+    /**
+     * Test {@link RestStepContributor#executeGetSubject()} when the response
+     * body exceeds the spool threshold
+     */
+    @Test
+    public void testJsonResponseWhenSpooledWithSuccess() {
+        // prepare
+        spoolThreshold(16);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"data\":{\"total\":2,\"items\":[{\"name\":\"Susan\",\"active\":true},"
+                                + "{\"name\":\"John\",\"active\":false}]}}")
+        );
+
+        // act
+        JsonNode result = (JsonNode) contributor.executeGetSubject();
+
+        // check
+        assertThat(SpooledContent.of(contributor.response)).isPresent()
+                .get().satisfies(spooled -> assertThat(spooled.file()).exists());
+        assertThat(JsonUtils.readStringValue(result, "body")).startsWith("[Response body of 92 bytes");
+        contributor.assertBodyStrictComparison(new Document(
+                "{\"data\":{\"total\":2,\"items\":[{\"name\":\"Susan\",\"active\":true},"
+                        + "{\"name\":\"John\",\"active\":false}]}}"
+        ));
+        contributor.assertBodyFragmentAsText("data.items[1].name", new MatcherAssertion<>(equalTo("John")));
+        contributor.assertBodyFragmentAsInteger("data.total", new MatcherAssertion<>(equalTo(2)));
+        contributor.assertBodyFragmentStrict("data.items[0]", new Document("{\"name\":\"Susan\",\"active\":true}"));
+        contributor.assertBodyFragmentLoose("data", new Document("{\"total\":2}"));
+        assertThat(SpooledContent.of(contributor.response)).isPresent();
+        contributor.assertBodyFragmentStrict("data.items.name", new Document("[\"Susan\",\"John\"]"));
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyFragmentAsText(String, Assertion)}
+     * when the response body is spooled
+     */
+    @Test
+    public void testJsonResponseWhenSpooledAndFragmentNotMatchWithError() {
+        // prepare
+        spoolThreshold(16);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"data\":{\"items\":[{\"name\":\"Susan\"},{\"name\":\"John\"}]}}")
+        );
+        contributor.executeGetSubject();
+
+        // act
+        Throwable error = catchThrowable(() -> contributor.assertBodyFragmentAsText(
+                "data.items[1].name", new MatcherAssertion<>(equalTo("Susan"))
+        ));
+
+        // check
+        assertThat(error).isInstanceOf(AssertionError.class)
+                .hasMessageContaining("data.items[1].name")
+                .hasMessageContaining("John");
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyStrictComparison(Document)}
+     * when the response body is spooled
+     */
+    @Test
+    public void testJsonResponseWhenSpooledAndContentNotMatchWithError() {
+        // prepare
+        spoolThreshold(16);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"data\":{\"items\":[{\"name\":\"Susan\"},{\"name\":\"John\"}]}}")
+        );
+        contributor.executeGetSubject();
+
+        // act
+        Throwable error = catchThrowable(() -> contributor.assertBodyStrictComparison(new Document(
+                "{\"data\":{\"items\":[{\"name\":\"Susan\"},{\"name\":\"Maria\"}]}}"
+        )));
+
+        // check
+        assertThat(error).isInstanceOf(AssertionError.class)
+                .hasMessageContaining("data.items[1].name' expected: 'Maria', actual: 'John'");
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyFragmentStrict(String, Document)}
+     * when the response body is spooled
+     */
+    @Test
+    public void testXmlResponseWhenSpooledWithSuccess() {
+        // prepare
+        spoolThreshold(16);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_XML)
+                        .withBody("<data><items><item><name>Susan</name></item><item><name>John</name></item>"
+                                + "</items><total>2</total></data>")
+        );
+
+        // act
+        contributor.executeGetSubject();
+
+        // check
+        assertThat(SpooledContent.of(contributor.response)).isPresent();
+        contributor.assertBodyStrictComparison(new Document(
+                "<data><items><item><name>Susan</name></item><item><name>John</name></item>"
+                        + "</items><total>2</total></data>"
+        ));
+        contributor.assertBodyFragmentStrict("data.items.item[1]", new Document("<item><name>John</name></item>"));
+        contributor.assertBodyFragmentLoose("data", new Document("<data><total>2</total></data>"));
+        contributor.assertBodyFragmentAsText("data.total", new MatcherAssertion<>(equalTo("2")));
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyFragmentStrict(String, Document)}
+     * gives the same result whether the response body is spooled or not
+     * when the indexed elements belong to different parents
+     */
+    @Test
+    public void testXmlFragmentWhenIndexAcrossParentsWithSuccess() {
+        // prepare
+        for (int threshold : new int[]{1024, 16}) {
+            spoolThreshold(threshold);
+            mockServer(
+                    request()
+                            .withPath("/")
+                    ,
+                    response()
+                            .withStatusCode(200)
+                            .withContentType(MediaType.APPLICATION_XML)
+                            .withBody("<root><a><b>x</b></a><a><b>y</b><b>z</b></a></root>")
+            );
+
+            // act
+            contributor.executeGetSubject();
+
+            // check
+            assertThat(SpooledContent.of(contributor.response).isPresent()).isEqualTo(threshold == 16);
+            contributor.assertBodyFragmentStrict("root.a.b[1]", new Document("<b>y</b>"));
+        }
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyContentSchema(Document)}
+     * when the response body is not encoded in UTF-8
+     */
+    @Test
+    public void testJsonSchemaWhenResponseCharsetWithSuccess() {
+        // prepare
+        Document schema = new Document(
+                "{\"type\":\"object\",\"properties\":{\"name\":{\"enum\":[\"José\"]}}}"
+        );
+        for (int threshold : new int[]{1024, 8}) {
+            spoolThreshold(threshold);
+            mockServer(
+                    request()
+                            .withPath("/")
+                    ,
+                    response()
+                            .withStatusCode(200)
+                            .withHeader("Content-Type", "application/json; charset=ISO-8859-1")
+                            .withBody("{\"name\":\"José\"}".getBytes(StandardCharsets.ISO_8859_1))
+            );
+
+            // act
+            contributor.executeGetSubject();
+
+            // check
+            assertThat(SpooledContent.of(contributor.response).isPresent()).isEqualTo(threshold == 8);
+            contributor.assertBodyContentSchema(schema);
+        }
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyStrictComparison(Document)}
+     * when the response body is not encoded in UTF-8
+     */
+    @Test
+    public void testJsonStrictComparisonWhenResponseCharsetWithSuccess() {
+        // prepare
+        Document expected = new Document("{\"name\":\"José\"}");
+        for (int threshold : new int[]{1024, 8}) {
+            spoolThreshold(threshold);
+            mockServer(
+                    request()
+                            .withPath("/")
+                    ,
+                    response()
+                            .withStatusCode(200)
+                            .withHeader("Content-Type", "application/json; charset=ISO-8859-1")
+                            .withBody("{\"name\":\"José\"}".getBytes(StandardCharsets.ISO_8859_1))
+            );
+
+            // act
+            contributor.executeGetSubject();
+
+            // check
+            assertThat(SpooledContent.of(contributor.response).isPresent()).isEqualTo(threshold == 8);
+            contributor.assertBodyStrictComparison(expected);
+        }
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertBodyStrictComparison(Document)}
+     * when the response body is not encoded in UTF-8 and is spooled
+     */
+    @Test
+    public void testXmlStrictComparisonWhenResponseCharsetWithSuccess() {
+        // prepare
+        Document expected = new Document("<item><name>José</name></item>");
+        spoolThreshold(8);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withHeader("Content-Type", "application/xml; charset=ISO-8859-1")
+                        .withBody("<item><name>José</name></item>".getBytes(StandardCharsets.ISO_8859_1))
+        );
+
+        // act
+        contributor.executeGetSubject();
+
+        // check
+        assertThat(SpooledContent.of(contributor.response)).isPresent();
+        contributor.assertBodyStrictComparison(expected);
+    }
+
+    /**
+     * Test {@link RestStepContributor#deleteSpooledContents()} removes the
+     * bodies spooled by every request
+     */
+    @Test
+    public void testWhenTearDownThenSpooledContentIsDeletedWithSuccess() {
+        // prepare
+        spoolThreshold(16);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"name\":\"Susan\",\"ape1\":\"Martin\"}")
+        );
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"name\":\"Susan\",\"ape1\":\"Martin\"}")
+        );
+        contributor.executeGetSubject();
+        SpooledContent first = SpooledContent.of(contributor.response).orElseThrow();
+        contributor.executeGetSubject();
+        SpooledContent second = SpooledContent.of(contributor.response).orElseThrow();
+
+        // act
+        contributor.deleteSpooledContents();
+
+        // check
+        assertThat(first.file()).doesNotExist();
+        assertThat(second.file()).doesNotExist();
+    }
+
+    /**
+     * Test {@link RestStepContributor#executeGetSubject()} keeps the body
+     * spooled by the previous request
+     */
+    @Test
+    public void testWhenNewRequestThenSpooledContentIsKeptWithSuccess() {
+        // prepare
+        spoolThreshold(16);
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"name\":\"Susan\",\"ape1\":\"Martin\"}")
+        );
+        mockServer(
+                request()
+                        .withPath("/")
+                ,
+                response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.APPLICATION_JSON)
+                        .withBody("{\"name\":\"Susan\",\"ape1\":\"Martin\"}")
+        );
+        contributor.executeGetSubject();
+        SpooledContent spooled = SpooledContent.of(contributor.response).orElseThrow();
+
+        // act
+        contributor.executeGetSubject();
+
+        // check
+        assertThat(spooled.file()).exists();
+        assertThat(SpooledContent.of(contributor.response)).get().isNotEqualTo(spooled);
+        contributor.deleteSpooledContents();
+    }
+
+    /**
+     * Test {@link RestStepContributor#executeLoadGetSubject(Integer, Integer)}
+     */
+    @Test
+    public void testLoadGetSubjectWithSuccess() {
+        // prepare
+        client.when(request().withPath("/users"), Times.exactly(15))
+                .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_JSON).withBody("{}"));
+        client.when(request().withPath("/users"))
+                .respond(response().withStatusCode(503).withDelay(TimeUnit.MILLISECONDS, 50));
+        contributor.setService("/users");
+
+        // act
+        JsonNode result = (JsonNode) contributor.executeLoadGetSubject(20, 5);
+
+        // check
+        assertThat(JsonUtils.readStringValue(result, "requests")).isEqualTo("20");
+        assertThat(result.get("statusCodes").get("200").asLong()).isEqualTo(15);
+        assertThat(result.get("statusCodes").get("503").asLong()).isEqualTo(5);
+        contributor.assertLoadResponsesWithHttpCode(200, new MatcherAssertion<>(equalTo(15L)));
+        contributor.assertLoadResponsesWithHttpCode(503, new MatcherAssertion<>(equalTo(5L)));
+        contributor.assertLoadFailures(new MatcherAssertion<>(equalTo(0L)));
+        contributor.assertLoadLatency(100, new MatcherAssertion<>(
+                greaterThanOrEqualTo(Duration.ofMillis(50))
+        ));
+        contributor.assertLoadLatency(50, new MatcherAssertion<>(lessThan(Duration.ofSeconds(5))));
+        client.verify(request().withPath("/users"), VerificationTimes.exactly(20));
+    }
+
+    /**
+     * Test {@link RestStepContributor#executeLoadPostDataUsingDocument(Integer, Integer, Document)}
+     */
+    @Test
+    public void testLoadPostDataWithSuccess() {
+        // prepare
+        client.when(request().withMethod("POST").withPath("/users").withBody("{\"name\":\"Susan\"}"))
+                .respond(response().withStatusCode(201));
+        contributor.setService("/users");
+        contributor.setBearerAuth("token");
+
+        // act
+        contributor.executeLoadPostDataUsingDocument(10, 3, new Document("{\"name\":\"Susan\"}"));
+
+        // check
+        contributor.assertLoadResponsesWithHttpCode(201, new MatcherAssertion<>(equalTo(10L)));
+        client.verify(
+                request().withMethod("POST").withPath("/users").withHeader("Authorization", "Bearer token"),
+                VerificationTimes.exactly(10)
+        );
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertLoadLatency(Integer, Assertion)}
+     */
+    @Test
+    public void testLoadLatencyWithError() {
+        // prepare
+        client.when(request().withPath("/users"))
+                .respond(response().withStatusCode(200).withDelay(TimeUnit.MILLISECONDS, 50));
+        contributor.setService("/users");
+        contributor.executeLoadGetSubject(4, 2);
+
+        // act
+        Throwable error = catchThrowable(() -> contributor.assertLoadLatency(
+                95, new MatcherAssertion<>(lessThan(Duration.ofMillis(10)))
+        ));
+
+        // check
+        assertThat(error).isInstanceOf(AssertionError.class);
+    }
+
+    /**
+     * Test {@link RestStepContributor#assertLoadFailures(Assertion)}
+     */
+    @Test(expected = WakamitiException.class)
+    public void testWhenLoadResultIsNullWithError() {
+        contributor.assertLoadFailures(new MatcherAssertion<>(equalTo(0L)));
+    }
+
 
     private void mockServer(HttpRequest expected, HttpResponse response) {
         client.when(expected, Times.once()).respond(response);
     }
 
+    private void spoolThreshold(int threshold) {
+        configurator.configurer().configure(contributor, configurator.defaultConfiguration().appendFromPairs(
+                RestConfigContributor.BASE_URL, BASE_URL,
+                RestConfigContributor.RESPONSE_SPOOL_THRESHOLD, String.valueOf(threshold)
+        ));
+    }
+
     private DataTable dataTable(String... data) {
         List<String[]> result = new LinkedList<>();
         result.add(new String[]{"name", "value"});
@@ -2090,11 +2538,20 @@ public class RestStepContributorTest {
         return new DataTable(result.toArray(new String[0][0]));
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<List<String>, String> keys() throws NoSuchFieldException, IllegalAccessException {
-        Field field = Oauth2ProviderConfig.class.getDeclaredField("cachedToken");
-        field.setAccessible(true);
-        return ((Map<List<String>, String>) field.get(null));
+    private void clearCachedTokens() throws ReflectiveOperationException {
+        Method clear = Class.forName(Oauth2ProviderConfig.class.getPackageName() + ".AccessTokenStore")
+                .getDeclaredMethod("clear");
+        clear.setAccessible(true);
+        clear.invoke(null);
+    }
+
+    private Optional<String> cachedToken() {
+        boolean cacheAuth = contributor.oauth2Provider.configuration().cacheAuth();
+        try {
+            return contributor.oauth2Provider.configuration().cacheAuth(true).findCachedToken();
+        } finally {
+            contributor.oauth2Provider.configuration().cacheAuth(cacheAuth);
+        }
     }
 
 }
@@ -13,6 +13,9 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static es.iti.wakamiti.api.util.JsonUtils.json;
@@ -233,4 +236,96 @@ public class JsonHelperTest {
         }
     }
 
+    @Test(timeout = 10000)
+    public void testAssertContentWhenStrictAnyOrderAndLargeListWithSuccess() {
+        // prepare
+        String expected = json(users(10000, false)).toString();
+        String actual = json(users(10000, true)).toString();
+
+        // act
+        helper.assertContent(expected, actual, MatchMode.STRICT_ANY_ORDER);
+    }
+
+    @Test(timeout = 10000)
+    public void testAssertContentWhenLooseAndLargeListWithSuccess() {
+        // prepare
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            expected.add(map("name", "User " + (i * 2)));
+        }
+        String actual = json(users(10000, true)).toString();
+
+        // act
+        helper.assertContent(json(expected).toString(), actual, MatchMode.LOOSE);
+    }
+
+    @Test(expected = WakamitiException.class, timeout = 10000)
+    public void testAssertContentWhenStrictAnyOrderAndLargeListWrongDataWithError() {
+        // prepare
+        List<Object> expected = users(10000, false);
+        List<Object> actual = users(10000, false);
+        actual.set(5000, map("id", 5000, "name", "User X", "tags", List.of("a", "b")));
+
+        // act
+        try {
+            helper.assertContent(json(expected).toString(), json(actual).toString(), MatchMode.STRICT_ANY_ORDER);
+        } catch (ComparisonFailure e) {
+            LOG.debug("Result", e);
+            assertThat(e).hasMessageContaining("-segment '[5000].name' expected: 'User 5000', actual: 'User X'");
+            throw new WakamitiException(e);
+        }
+    }
+
+    @Test
+    public void testAssertContentWhenStrictAnyOrderAndEquivalentElementsWithSuccess() {
+        // prepare
+        String expected = json(List.of(
+                map("id", 1.0, "tags", List.of("a", "a", "b")),
+                map("id", 2, "tags", List.of())
+        )).toString();
+        String actual = json(List.of(
+                map("tags", List.of(), "id", 2.00),
+                map("tags", List.of("b", "b", "a"), "id", 1)
+        )).toString();
+
+        // act
+        helper.assertContent(expected, actual, MatchMode.STRICT_ANY_ORDER);
+    }
+
+    @Test
+    public void testAssertContentSchemaWithSuccess() {
+        // prepare
+        String schema = json(map(
+                "type", "object",
+                "required", List.of("id", "name"),
+                "properties", map("id", map("type", "integer"), "name", map("type", "string"))
+        )).toString();
+
+        // act
+        helper.assertContentSchema(schema, SINGLE);
+        helper.assertContentSchema(schema, new ByteArrayInputStream(SINGLE.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testAssertContentSchemaWithError() {
+        // prepare
+        String schema = json(map(
+                "type", "object",
+                "properties", map("id", map("type", "string"))
+        )).toString();
+
+        // act
+        helper.assertContentSchema(schema, SINGLE);
+    }
+
+    private static List<Object> users(int size, boolean reversed) {
+        List<Object> users = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int id = reversed ? size - 1 - i : i;
+            users.add(map("id", id, "name", "User " + id, "tags", List.of("a", "b")));
+        }
+        return users;
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest.helpers;
+
+
+import es.iti.wakamiti.rest.MatchMode;
+import io.restassured.http.ContentType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static es.iti.wakamiti.api.util.JsonUtils.json;
+import static es.iti.wakamiti.api.util.MapUtils.map;
+
+
+/**
+ * Measures the comparison of large arrays of objects in any order, as the
+ * number of elements grows.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Pbenchmark -DskipTests -Dbenchmark=JsonXmlDiffBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonXmlDiffBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int elements;
+
+    private final JsonXmlDiff diff = new JsonXmlDiff(ContentType.JSON);
+    private String expected;
+    private String expectedSubset;
+    private String actual;
+
+
+    @Setup
+    public void setup() {
+        List<Object> users = new ArrayList<>();
+        List<Object> names = new ArrayList<>();
+        for (int i = 0; i < elements; i++) {
+            users.add(map(
+                    "id", i,
+                    "name", "User " + i,
+                    "address", map("city", "City " + (i % 50), "zip", String.valueOf(46000 + i % 100)),
+                    "roles", List.of("reader", i % 2 == 0 ? "writer" : "admin")
+            ));
+            if (i % 2 == 0) {
+                names.add(map("name", "User " + i));
+            }
+        }
+        expected = json(users).toString();
+        expectedSubset = json(names).toString();
+        Collections.shuffle(users, new Random(42));
+        actual = json(users).toString();
+    }
+
+
+    @Benchmark
+    public void strictAnyOrder() {
+        diff.assertContent(expected, actual, MatchMode.STRICT_ANY_ORDER);
+    }
+
+
+    @Benchmark
+    public void loose() {
+        diff.assertContent(expectedSubset, actual, MatchMode.LOOSE);
+    }
+
+}
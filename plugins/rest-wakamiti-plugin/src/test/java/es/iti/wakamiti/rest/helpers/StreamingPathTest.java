@@ -0,0 +1,77 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest.helpers;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class StreamingPathTest {
+
+    private static final String JSON = "{\"data\":{\"skipped\":{\"a\":[1,2,{\"b\":3}]},"
+            + "\"items\":[{\"name\":\"Susan\",\"tags\":[[\"x\"],[\"y\",\"z\"]]},{\"name\":\"John\"}]}}";
+
+    private static final String XML = "<data><skipped><item><name>Nobody</name></item></skipped>"
+            + "<items><item id=\"1\"><name>Susan</name></item><item id=\"2\"><name>John</name></item></items>"
+            + "<total>2</total></data>";
+
+    @Test
+    public void testJsonWithSuccess() {
+        assertThat(StreamingPath.json("data.items[1].name", stream(JSON)))
+                .get().extracting(JsonNode::textValue).isEqualTo("John");
+        assertThat(StreamingPath.json("data.items[0].tags[1][1]", stream(JSON)))
+                .get().extracting(JsonNode::textValue).isEqualTo("z");
+        assertThat(StreamingPath.json("data.items[1]", stream(JSON)))
+                .get().hasToString("{\"name\":\"John\"}");
+        assertThat(StreamingPath.json("[1].id", stream("[{\"id\":1},{\"id\":2}]")))
+                .get().extracting(JsonNode::intValue).isEqualTo(2);
+    }
+
+    @Test
+    public void testJsonWhenNotResolvedWhileStreamingWithSuccess() {
+        assertThat(StreamingPath.json("data.items.name", stream(JSON))).isEmpty();
+        assertThat(StreamingPath.json("data.items[5]", stream(JSON))).isEmpty();
+        assertThat(StreamingPath.json("data.missing", stream(JSON))).isEmpty();
+        assertThat(StreamingPath.json("data.items[-1]", stream(JSON))).isEmpty();
+        assertThat(StreamingPath.json("data.items.size()", stream(JSON))).isEmpty();
+        assertThat(StreamingPath.json("data.items.find { it.name == 'John' }", stream(JSON))).isEmpty();
+    }
+
+    @Test
+    public void testXmlWithSuccess() {
+        assertThat(StreamingPath.xml("data.items.item[1]", stream(XML)))
+                .contains("<item id=\"2\"><name>John</name></item>");
+        assertThat(StreamingPath.xml("data.total", stream(XML)))
+                .contains("<total>2</total>");
+        assertThat(StreamingPath.xml("data.skipped.item.name", stream(XML)))
+                .contains("<name>Nobody</name>");
+        assertThat(StreamingPath.xml("root.a.b[1]", stream("<root><a><b>x</b></a><a><b>y</b><b>z</b></a></root>")))
+                .contains("<b>y</b>");
+        assertThat(StreamingPath.xml("root.a[1].b[0]", stream("<root><a><b>x</b></a><a><b>y</b><b>z</b></a></root>")))
+                .contains("<b>y</b>");
+    }
+
+    @Test
+    public void testXmlWhenNotResolvedWhileStreamingWithSuccess() {
+        assertThat(StreamingPath.xml("data.items.item", stream(XML))).isEmpty();
+        assertThat(StreamingPath.xml("data.items.item.name", stream(XML))).isEmpty();
+        assertThat(StreamingPath.xml("data.items.item[2]", stream(XML))).isEmpty();
+        assertThat(StreamingPath.xml("other.items", stream(XML))).isEmpty();
+        assertThat(StreamingPath.xml("data.items.item[0].@id", stream(XML))).isEmpty();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
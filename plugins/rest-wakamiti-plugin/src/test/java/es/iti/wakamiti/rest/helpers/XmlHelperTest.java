@@ -0,0 +1,56 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.rest.helpers;
+
+
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.util.BoundedCache;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class XmlHelperTest {
+
+    private final XMLHelper helper = new XMLHelper();
+
+    private static final String SCHEMA = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+            + "<xs:element name=\"item\"><xs:complexType><xs:sequence>"
+            + "<xs:element name=\"id\" type=\"xs:integer\"/>"
+            + "</xs:sequence></xs:complexType></xs:element>"
+            + "</xs:schema>";
+
+    @Test
+    public void testAssertContentSchemaWithSuccess() {
+        // prepare
+        String content = "<item><id>1</id></item>";
+        BoundedCache.Stats before = SchemaCache.xsdSchemaStats();
+
+        // act
+        helper.assertContentSchema(SCHEMA, content);
+        helper.assertContentSchema(SCHEMA, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+
+        // check
+        BoundedCache.Stats after = SchemaCache.xsdSchemaStats();
+        assertThat(after.hits() + after.misses()).isEqualTo(before.hits() + before.misses() + 2);
+        assertThat(after.misses()).isLessThanOrEqualTo(before.misses() + 1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testAssertContentSchemaWithError() {
+        helper.assertContentSchema(SCHEMA, "<item><id>one</id></item>");
+    }
+
+    @Test(expected = WakamitiException.class)
+    public void testAssertContentSchemaWhenInvalidSchemaWithError() {
+        helper.assertContentSchema("<xs:schema", "<item><id>1</id></item>");
+    }
+
+}
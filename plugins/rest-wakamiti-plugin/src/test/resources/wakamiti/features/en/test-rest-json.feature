@@ -203,4 +203,13 @@ Feature: REST Test Feature
         """
     And the attached file 'file2' of type 'text/xml' is included with the file '${data.dir}/data/schema.xml'
     When user is created
-    Then the response HTTP code is 204
\ No newline at end of file
+    Then the response HTTP code is 204
+
+  @ID-test-1-8
+  Scenario: Load execution
+    Given a user identified by 'user1'
+    When the user is requested 20 times with a concurrency of 4
+    Then the number of responses with HTTP code 200 is 20
+    And the number of failed requests is 0
+    And the p95 latency is less than 5 seconds
+    And the p100 latency is greater than 0 milliseconds
@@ -0,0 +1,16 @@
+# language: es
+@launcher
+@ID-test-es-1
+Característica: Pruebas de carga REST
+
+  Antecedentes:
+    Dado el servicio REST '/users'
+    Y JSON como el tipo de contenido REST
+
+  @ID-test-es-1-1
+  Escenario: Ejecución de carga
+    Dado un usuario identificado por 'user1'
+    Cuando se ejecuta una carga de 20 consultas sobre el usuario con una concurrencia de 4
+    Entonces el número de respuestas con código HTTP 200 es 20
+    Y el número de peticiones fallidas es 0
+    Y la latencia p95 es menor que 5 segundos
@@ -7,6 +7,7 @@ package es.iti.wakamiti.api;
 
 
 import es.iti.wakamiti.api.plan.PlanNode;
+import es.iti.wakamiti.api.util.BoundedCache;
 import es.iti.wakamiti.api.util.Either;
 import es.iti.wakamiti.api.util.WakamitiLogger;
 import org.slf4j.Logger;
@@ -33,7 +34,8 @@ public class ExpressionMatcher {
     private static final String NAMED_ARGUMENT_REGEX = "\\{(\\w++):(\\w+?-?+\\w++)\\}";
     private static final String UNNAMED_ARGUMENT_REGEX = "\\{(\\w+?-?+\\w++)\\}";
 
-    private static final Map<ExpressionMatcher, String> cache = new HashMap<>();
+    private static final int CACHE_SIZE = 10_000;
+    private static final BoundedCache<ExpressionMatcher, Pattern> cache = new BoundedCache<>(CACHE_SIZE);
 
     private final String translatedDefinition;
     private final WakamitiDataTypeRegistry typeRegistry;
@@ -51,6 +53,8 @@ public class ExpressionMatcher {
 
     /**
      * Retrieves a Matcher for a given translated expression, WakamitiDataTypeRegistry, locale, and model step.
+     * The compiled pattern is cached by definition, locale and type registry,
+     * so it is safe and cheap to call this method repeatedly from any thread.
      *
      * @param translatedDefinition The translated expression to create a Matcher for.
      * @param typeRegistry         The WakamitiDataTypeRegistry for type information.
@@ -67,8 +71,17 @@ public class ExpressionMatcher {
         ExpressionMatcher matcher = new ExpressionMatcher(
                 translatedDefinition, typeRegistry, locale
         );
-        String regex = cache.computeIfAbsent(matcher, ExpressionMatcher::computeRegularExpression);
-        return Pattern.compile(regex).matcher(modelStep.mapValueOrFallback(PlanNode::name));
+        Pattern pattern = cache.computeIfAbsent(matcher, it -> Pattern.compile(it.computeRegularExpression()));
+        return pattern.matcher(modelStep.mapValueOrFallback(PlanNode::name));
+    }
+
+    /**
+     * Gets the usage statistics of the compiled pattern cache.
+     *
+     * @return The current cache statistics.
+     */
+    public static BoundedCache.Stats cacheStats() {
+        return cache.stats();
     }
 
     /**
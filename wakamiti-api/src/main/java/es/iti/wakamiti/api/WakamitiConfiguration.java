@@ -127,6 +127,24 @@ public class WakamitiConfiguration implements ConfigContributor<Void> {
      *  it will use the current directory */
     public static final String WORKING_DIR = "workingDir";
 
+    /** Maximum number of plan nodes executed concurrently. A value of 1 means sequential execution */
+    public static final String EXECUTION_PARALLELISM = "execution.parallelism";
+
+    /** Plan level at which the concurrent execution is applied: either 'feature' or 'scenario' */
+    public static final String EXECUTION_GRANULARITY = "execution.granularity";
+
+    /** Deliver the events published while a plan is running in a separate thread per observer */
+    public static final String EVENTS_ASYNC = "events.async";
+
+    /** Maximum number of pending events per observer, when delivered asynchronously */
+    public static final String EVENTS_QUEUE_SIZE = "events.queueSize";
+
+    /** Maximum number of consecutive events delivered at once to an observer, when delivered asynchronously */
+    public static final String EVENTS_BATCH_SIZE = "events.batchSize";
+
+    /** Policy when the queue of an observer is full: either 'block', 'drop' or 'drop_oldest' */
+    public static final String EVENTS_BACKPRESSURE = "events.backpressure";
+
 
 
     private static final String FAINT = "faint";
@@ -153,6 +171,12 @@ public class WakamitiConfiguration implements ConfigContributor<Void> {
                     LOGS_SHOW_ELAPSED_TIME, Boolean.TRUE.toString(),
                     TREAT_STEPS_AS_TESTS, Boolean.FALSE.toString(),
                     WORKING_DIR, ".",
+                    EXECUTION_PARALLELISM, "1",
+                    EXECUTION_GRANULARITY, "feature",
+                    EVENTS_ASYNC, Boolean.FALSE.toString(),
+                    EVENTS_QUEUE_SIZE, "1024",
+                    EVENTS_BATCH_SIZE, "64",
+                    EVENTS_BACKPRESSURE, "block",
                     "logs.ansi.styles.keyword", "blue",
                     "logs.ansi.styles.source", FAINT,
                     "logs.ansi.styles.time", FAINT,
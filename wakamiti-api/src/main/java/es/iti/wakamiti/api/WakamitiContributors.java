@@ -14,10 +14,11 @@ import es.iti.wakamiti.api.imconfig.Configurable;
 import es.iti.wakamiti.api.imconfig.Configuration;
 import es.iti.wakamiti.api.imconfig.ConfigurationFactory;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
@@ -39,7 +40,7 @@ public class WakamitiContributors {
 
     private static final AtomicBoolean VERSION_WARNED = new AtomicBoolean(false);
     private static final Pattern VERSION_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)(?:\\.\\d+.*)?$");
-    private final List<StepContributor> stepContributors = new LinkedList<>();
+    private final Queue<StepContributor> stepContributors = new ConcurrentLinkedQueue<>();
     private ExtensionManager extensionManager = new ExtensionManager();
 
     public void setClassLoaders(ClassLoader... loaders) {
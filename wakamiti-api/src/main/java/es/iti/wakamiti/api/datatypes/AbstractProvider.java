@@ -13,6 +13,7 @@ import es.iti.wakamiti.api.ExpressionMatcher;
 
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 
@@ -27,8 +28,8 @@ public abstract class AbstractProvider {
     protected static final ResourceLoader resourceLoader = WakamitiAPI.instance().resourceLoader();
 
     private final String resource;
-    private final Map<Locale, ResourceBundle> bundles = new HashMap<>();
-    private final Map<Locale, Map<String, Pattern>> translatedExpressions = new HashMap<>();
+    private final Map<Locale, ResourceBundle> bundles = new ConcurrentHashMap<>();
+    private final Map<Locale, Map<String, Pattern>> translatedExpressions = new ConcurrentHashMap<>();
 
     protected AbstractProvider(final String resource) {
         this.resource = resource;
@@ -7,6 +7,7 @@ package es.iti.wakamiti.api.event;
 
 
 import java.time.Instant;
+import java.util.function.Supplier;
 
 
 /**
@@ -32,8 +33,9 @@ public class Event {
     public static final String REPORT_OUTPUT_FILE_WRITTEN = "REPORT_OUTPUT_FILE_WRITTEN";
 
     private final String type;
-    private final Object data;
     private final Instant instant;
+    private volatile Object data;
+    private volatile Supplier<?> dataSupplier;
 
 
     public Event(String type, Instant instant, Object data) {
@@ -43,12 +45,42 @@ public class Event {
     }
 
 
+    private Event(String type, Instant instant, Supplier<?> dataSupplier) {
+        this.type = type;
+        this.instant = instant;
+        this.dataSupplier = dataSupplier;
+    }
+
+
+    /**
+     * Creates an event whose data is computed the first time it is requested,
+     * so costly data is only built if some observer actually reads it. The
+     * computed value is kept for every subsequent call.
+     *
+     * @param type         The type of the event.
+     * @param instant      The moment the event occurred.
+     * @param dataSupplier The supplier of the data associated with the event.
+     * @return The new event.
+     */
+    public static Event lazy(String type, Instant instant, Supplier<?> dataSupplier) {
+        return new Event(type, instant, dataSupplier);
+    }
+
+
     public String type() {
         return type;
     }
 
 
     public Object data() {
+        if (dataSupplier != null) {
+            synchronized (this) {
+                if (dataSupplier != null) {
+                    data = dataSupplier.get();
+                    dataSupplier = null;
+                }
+            }
+        }
         return data;
     }
 
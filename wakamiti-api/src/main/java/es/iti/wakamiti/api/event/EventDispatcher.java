@@ -9,13 +9,28 @@ package es.iti.wakamiti.api.event;
 import es.iti.wakamiti.api.extensions.EventObserver;
 
 import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 
 /**
  * The {@code EventDispatcher} class manages the distribution of events to registered
  * {@link EventObserver} instances. It allows adding and removing observers and publishing
  * events to those observers.
+ * <p>
+ * By default, events are delivered synchronously in the publishing thread.
+ * When set as asynchronous, the events published while a plan is running
+ * are delivered by a dedicated thread per observer, using bounded queues.
+ * The {@link Event#PLAN_RUN_FINISHED} event acts as a barrier: it is not
+ * published until every pending event has been delivered. Runners must call
+ * {@link #planAborted()} instead when a plan ends without that event.
+ * <p>
+ * A dispatcher may be shared by several plans running at the same time, so
+ * the delivery mode cannot be changed while any plan is running.
  *
  * @author Luis Iñesta Gelabert - linesta@iti.es
  */
@@ -23,6 +38,27 @@ public class EventDispatcher {
 
     private final CopyOnWriteArraySet<EventObserver> observers = new CopyOnWriteArraySet<>();
     private final Clock clock = Clock.systemUTC();
+    private final Map<EventObserver, ObserverQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger runningPlans = new AtomicInteger();
+    private final Object deliveryLock = new Object();
+    private volatile AsyncSettings async;
+
+
+    /**
+     * Policy applied when the queue of an observer is full, for the events
+     * published once per plan node ({@link Event#NODE_RUN_STARTED},
+     * {@link Event#NODE_RUN_FINISHED}, {@link Event#BEFORE_RUN_BACKEND_STEP}
+     * and {@link Event#AFTER_RUN_BACKEND_STEP}). Any other event always
+     * waits until there is room in the queue.
+     */
+    public enum Backpressure {
+        /** Wait until there is room in the queue */
+        BLOCK,
+        /** Discard the new event */
+        DROP,
+        /** Discard the oldest pending event of the same type, or wait if there is none */
+        DROP_OLDEST
+    }
 
     /**
      * Adds an {@link EventObserver} to the list of observers.
@@ -40,6 +76,81 @@ public class EventDispatcher {
      */
     public void removeObserver(EventObserver observer) {
         this.observers.remove(observer);
+        ObserverQueue queue = queues.remove(observer);
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    /**
+     * Sets the asynchronous delivery of the events published while a plan
+     * is running. Any pending event is delivered before changing the
+     * settings. It has no effect if the settings do not change.
+     *
+     * @param queueSize    The maximum number of pending events per observer.
+     * @param batchSize    The maximum number of consecutive events delivered
+     *                     at once to an observer.
+     * @param backpressure The policy applied when the queue of an observer
+     *                     is full.
+     * @throws IllegalArgumentException If the queue size or the batch size
+     *                                  are not positive.
+     * @throws IllegalStateException    If the settings change while a plan
+     *                                  is running.
+     */
+    public void setAsynchronous(int queueSize, int batchSize, Backpressure backpressure) {
+        if (queueSize < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Queue size and batch size must be positive");
+        }
+        AsyncSettings settings = new AsyncSettings(queueSize, batchSize, backpressure);
+        synchronized (deliveryLock) {
+            if (!settings.equals(async)) {
+                checkNoRunningPlans();
+                closeQueues();
+                async = settings;
+            }
+        }
+    }
+
+    /**
+     * Sets the synchronous delivery of events, which is the default
+     * behaviour. Any pending event is delivered before. It has no effect if
+     * the delivery is already synchronous.
+     *
+     * @throws IllegalStateException If the delivery is asynchronous and a
+     *                               plan is running.
+     */
+    public void setSynchronous() {
+        synchronized (deliveryLock) {
+            if (async != null) {
+                checkNoRunningPlans();
+                async = null;
+                closeQueues();
+            }
+        }
+    }
+
+    private void checkNoRunningPlans() {
+        if (runningPlans.get() > 0) {
+            throw new IllegalStateException("Cannot change the event delivery while a plan is running");
+        }
+    }
+
+    /**
+     * Checks whether the events published while a plan is running are
+     * delivered asynchronously.
+     *
+     * @return {@code true} if the delivery is asynchronous.
+     */
+    public boolean isAsynchronous() {
+        return async != null;
+    }
+
+    /**
+     * Waits until every event published so far has been delivered. It has no
+     * effect when the delivery is synchronous.
+     */
+    public void flush() {
+        queues.values().forEach(ObserverQueue::flush);
     }
 
     /**
@@ -49,14 +160,120 @@ public class EventDispatcher {
      * @param data The data associated with the event.
      */
     public void publishEvent(String type, Object data) {
-        Event event = new Event(type, clock.instant(), data);
+        publishEvent(newEvent(type, data));
+    }
+
+    /**
+     * Publishes an already created event to all registered observers that accept
+     * its type. This allows the event to be created at the moment it happens and
+     * dispatched later on.
+     *
+     * @param event The event to publish.
+     * @see #newEvent(String, Object)
+     */
+    public void publishEvent(Event event) {
+        AsyncSettings settings;
+        if (Event.PLAN_RUN_STARTED.equals(event.type())) {
+            synchronized (deliveryLock) {
+                runningPlans.incrementAndGet();
+                settings = async;
+            }
+        } else {
+            settings = async;
+        }
+        if (settings == null) {
+            deliver(event);
+        } else if (runningPlans.get() > 0) {
+            enqueue(event, settings);
+        } else {
+            flush();
+            deliver(event);
+        }
+        if (Event.PLAN_RUN_FINISHED.equals(event.type())) {
+            flush();
+            runningPlans.updateAndGet(running -> Math.max(0, running - 1));
+        }
+    }
+
+    /**
+     * Notifies that a running plan has ended without publishing the
+     * {@link Event#PLAN_RUN_FINISHED} event, for example because it has been
+     * aborted by an error. Every pending event is delivered, and the events
+     * are no longer queued if no other plan is running.
+     */
+    public void planAborted() {
+        flush();
+        runningPlans.updateAndGet(running -> Math.max(0, running - 1));
+    }
+
+    private void deliver(Event event) {
         for (EventObserver observer : this.observers) {
-            if (observer.acceptType(type)) {
+            if (observer.acceptType(event.type())) {
                 observer.eventReceived(event);
             }
         }
     }
 
+    private void enqueue(Event event, AsyncSettings settings) {
+        boolean materialized = false;
+        for (EventObserver observer : this.observers) {
+            if (observer.acceptType(event.type())) {
+                if (!materialized) {
+                    // lazy data must reflect the state at the moment of publishing
+                    event.data();
+                    materialized = true;
+                }
+                queues.computeIfAbsent(observer, it -> new ObserverQueue(
+                        it, settings.queueSize, settings.batchSize, settings.backpressure
+                )).enqueue(event);
+            }
+        }
+    }
+
+    private void closeQueues() {
+        queues.values().forEach(ObserverQueue::close);
+        queues.clear();
+    }
+
+    /**
+     * Creates a new event timestamped with the dispatcher clock, without publishing it.
+     *
+     * @param type The type of the event.
+     * @param data The data associated with the event.
+     * @return The new event.
+     */
+    public Event newEvent(String type, Object data) {
+        return new Event(type, clock.instant(), data);
+    }
+
+    /**
+     * Creates a new event timestamped with the dispatcher clock, whose data
+     * is computed only when some observer requests it.
+     *
+     * @param type         The type of the event.
+     * @param dataSupplier The supplier of the data associated with the event.
+     * @return The new event.
+     * @see Event#lazy(String, java.time.Instant, Supplier)
+     */
+    public Event newLazyEvent(String type, Supplier<?> dataSupplier) {
+        return Event.lazy(type, clock.instant(), dataSupplier);
+    }
+
+    /**
+     * Checks whether any registered observer accepts the specified event type.
+     *
+     * @param type The type of the event.
+     * @return {@code true} if the event would be received by some observer.
+     */
+    public boolean hasObserversFor(String type) {
+        for (EventObserver observer : this.observers) {
+            if (observer.acceptType(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Gets an Iterable containing all registered observers.
      *
@@ -66,4 +283,32 @@ public class EventDispatcher {
         return observers;
     }
 
-}
\ No newline at end of file
+
+    private static final class AsyncSettings {
+
+        private final int queueSize;
+        private final int batchSize;
+        private final Backpressure backpressure;
+
+        private AsyncSettings(int queueSize, int batchSize, Backpressure backpressure) {
+            this.queueSize = queueSize;
+            this.batchSize = batchSize;
+            this.backpressure = backpressure;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof AsyncSettings)) {
+                return false;
+            }
+            AsyncSettings that = (AsyncSettings) other;
+            return queueSize == that.queueSize && batchSize == that.batchSize && backpressure == that.backpressure;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queueSize, batchSize, backpressure);
+        }
+    }
+
+}
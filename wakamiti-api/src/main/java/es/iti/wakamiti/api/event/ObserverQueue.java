@@ -0,0 +1,190 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.event;
+
+
+import es.iti.wakamiti.api.extensions.EventObserver;
+import es.iti.wakamiti.api.util.WakamitiLogger;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+
+/**
+ * Bounded queue of pending events of a single {@link EventObserver}, with
+ * its own worker thread that delivers the events in batches, in the same
+ * order they were published.
+ *
+ * @see EventDispatcher#setAsynchronous(int, int, EventDispatcher.Backpressure)
+ */
+final class ObserverQueue {
+
+    private static final Logger LOGGER = WakamitiLogger.forClass(EventDispatcher.class);
+
+    /**
+     * Events published once per plan node. These are the only ones that can
+     * be discarded when the queue is full; any other event always waits.
+     */
+    private static final Set<String> DISCARDABLE_TYPES = Set.of(
+            Event.NODE_RUN_STARTED,
+            Event.NODE_RUN_FINISHED,
+            Event.BEFORE_RUN_BACKEND_STEP,
+            Event.AFTER_RUN_BACKEND_STEP
+    );
+
+    private final EventObserver observer;
+    private final BlockingDeque<Event> queue;
+    private final int batchSize;
+    private final EventDispatcher.Backpressure backpressure;
+    private final Thread worker;
+    private final Object lock = new Object();
+    private long pending;
+    private long discarded;
+    private volatile boolean closed;
+
+
+    ObserverQueue(EventObserver observer, int capacity, int batchSize, EventDispatcher.Backpressure backpressure) {
+        this.observer = observer;
+        this.queue = new LinkedBlockingDeque<>(capacity);
+        this.batchSize = batchSize;
+        this.backpressure = backpressure;
+        this.worker = new Thread(this::deliver, "wakamiti-events-" + observer.getClass().getSimpleName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+
+    /**
+     * Adds an event to the queue. If the queue is full, the event waits,
+     * is dropped or replaces the oldest pending event of the same type,
+     * depending on the backpressure policy.
+     *
+     * @param event The event to deliver.
+     */
+    void enqueue(Event event) {
+        synchronized (lock) {
+            pending++;
+        }
+        if (queue.offer(event)) {
+            return;
+        }
+        boolean discardable = DISCARDABLE_TYPES.contains(event.type());
+        if (discardable && backpressure == EventDispatcher.Backpressure.DROP) {
+            discard(1);
+            return;
+        }
+        if (discardable && backpressure == EventDispatcher.Backpressure.DROP_OLDEST && discardOldest(event.type())) {
+            if (queue.offer(event)) {
+                return;
+            }
+        }
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discard(1);
+        }
+    }
+
+
+    /**
+     * Waits until every event enqueued so far has been delivered.
+     */
+    void flush() {
+        long lost;
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            lost = discarded;
+            discarded = 0;
+        }
+        if (lost > 0) {
+            LOGGER.warn("{} events were discarded for observer {} because its queue was full",
+                    lost, observer.getClass().getName());
+        }
+    }
+
+
+    /**
+     * Delivers the pending events and stops the worker thread.
+     */
+    void close() {
+        flush();
+        closed = true;
+        worker.interrupt();
+    }
+
+
+    /**
+     * Discards the oldest pending event of the given type. An event already
+     * taken by the worker is not counted as discarded; the next pending one
+     * of the same type is tried instead.
+     */
+    private boolean discardOldest(String type) {
+        for (Event pendingEvent : queue) {
+            if (pendingEvent.type().equals(type)) {
+                synchronized (lock) {
+                    if (queue.removeFirstOccurrence(pendingEvent)) {
+                        discard(1);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+
+    private void discard(int events) {
+        synchronized (lock) {
+            discarded += events;
+            delivered(events);
+        }
+    }
+
+
+    private void delivered(int events) {
+        synchronized (lock) {
+            pending -= events;
+            if (pending <= 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+
+    private void deliver() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                observer.eventsReceived(List.copyOf(batch));
+            } catch (RuntimeException e) {
+                LOGGER.error("Error delivering events to observer {}: {}",
+                        observer.getClass().getName(), e.getMessage(), e);
+            } finally {
+                delivered(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+}
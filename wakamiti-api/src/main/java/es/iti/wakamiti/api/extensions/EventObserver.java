@@ -9,6 +9,8 @@ package es.iti.wakamiti.api.extensions;
 import es.iti.commons.jext.ExtensionPoint;
 import es.iti.wakamiti.api.event.Event;
 
+import java.util.List;
+
 
 /**
  * This interface defines a contract for observers that handle Wakamiti events.
@@ -26,6 +28,18 @@ public interface EventObserver extends Contributor {
      */
     void eventReceived(Event event);
 
+    /**
+     * Handles a batch of consecutive Wakamiti events, when they are
+     * delivered asynchronously. By default, each event is handled
+     * separately, in order.
+     *
+     * @param events The received events.
+     * @see #eventReceived(Event)
+     */
+    default void eventsReceived(List<Event> events) {
+        events.forEach(this::eventReceived);
+    }
+
     /**
      * Determines whether the observer accepts events of the specified type.
      *
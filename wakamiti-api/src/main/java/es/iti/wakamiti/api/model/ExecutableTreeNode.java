@@ -8,9 +8,14 @@ package es.iti.wakamiti.api.model;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
 import static java.util.Objects.isNull;
@@ -21,6 +26,12 @@ import static java.util.Objects.isNull;
  * provides functionality related to execution, such as
  * assigning an execution ID, preparing for execution,
  * and retrieving execution details.
+ * <p>
+ * The execution details of child-populated nodes are aggregated
+ * from their children and kept by each node. Whenever the execution
+ * state of a node changes, only the change of its details is applied
+ * to the aggregate of its parent, and so on up to the root, so they
+ * can be retrieved without traversing the tree.
  *
  * @param <S> The type of the executable tree node itself
  * @param <R> The type of the result that can be obtained
@@ -33,10 +44,17 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
 
     private String executionID;
     private ExecutionState<R> executionState;
+    private ExecutableTreeNode<S, R> parent;
+    private Aggregate<R> aggregate;
+    private volatile Details<R> details;
+    private Details<R> reportedDetails;
 
 
     protected ExecutableTreeNode(List<S> children) {
         super(children);
+        for (ExecutableTreeNode<S, R> child : children) {
+            child.parent = this;
+        }
     }
 
 
@@ -72,6 +90,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
     public ExecutionState<R> prepareExecution() {
         if (isNull(executionState)) {
             executionState = createExecutionState();
+            executionState.onChange(this::executionStateChanged);
         }
         return executionState;
     }
@@ -99,6 +118,21 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
     }
 
 
+    /**
+     * Checks whether this node is a test case, whose results and
+     * error classifiers are counted by its ancestors.
+     * Subclasses can override this method, since a generic tree
+     * node has no test cases.
+     *
+     * @return {@code true} if this node is a test case
+     * @see #testCaseResults()
+     * @see #testCaseErrorClassifiers()
+     */
+    protected boolean isTestCase() {
+        return false;
+    }
+
+
     /**
      * Gets the start instant of this node, if executed.
      * In the case of child-populated nodes returns the
@@ -108,11 +142,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public Optional<Instant> startInstant() {
         if (hasChildren()) {
-            return children()
-                    .map(S::startInstant)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .min(Comparator.naturalOrder());
+            return Optional.ofNullable(details().startInstant);
         }
         return executionState().flatMap(ExecutionState::startInstant);
     }
@@ -127,11 +157,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public Optional<Instant> finishInstant() {
         if (hasChildren()) {
-            return children()
-                    .map(S::finishInstant)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .max(Comparator.naturalOrder());
+            return Optional.ofNullable(details().finishInstant);
         }
         return executionState().flatMap(ExecutionState::finishInstant);
     }
@@ -146,11 +172,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public Optional<Duration> duration() {
         if (hasChildren()) {
-            return children()
-                    .map(S::duration)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .reduce(Duration::plus);
+            return Optional.ofNullable(details().duration);
         }
         return executionState().flatMap(ExecutionState::duration);
     }
@@ -166,11 +188,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
     public Optional<R> result() {
         Optional<R> result = executionState().flatMap(ExecutionState::result);
         if (result.isEmpty() && hasChildren()) {
-            return children()
-                    .map(S::result)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .max(Comparator.naturalOrder());
+            return Optional.ofNullable(details().result);
         }
         return result;
     }
@@ -185,7 +203,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public Stream<Throwable> errors() {
         if (hasChildren()) {
-            return children().flatMap(S::errors);
+            return children().filter(ExecutableTreeNode::hasErrors).flatMap(S::errors);
         }
         return executionState().flatMap(ExecutionState::error).stream();
     }
@@ -200,12 +218,44 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public Stream<String> errorClassifiers() {
         if (hasChildren()) {
-            return children().flatMap(S::errorClassifiers);
+            return children().filter(ExecutableTreeNode::hasErrorClassifiers).flatMap(S::errorClassifiers);
         }
         return executionState().flatMap(ExecutionState::errorClassifier).stream();
     }
 
 
+    /**
+     * Gets the number of test cases of this node, including itself,
+     * for every result.
+     *
+     * @return An unmodifiable map of results and number of test cases
+     * @see #isTestCase()
+     */
+    public Map<R, Long> testCaseResults() {
+        if (isTestCase()) {
+            return result().map(result -> Map.of(result, 1L)).orElse(Map.of());
+        }
+        return hasChildren() ? details().testCaseResults : Map.of();
+    }
+
+
+    /**
+     * Gets the number of test cases of this node, including itself,
+     * for every error classifier. Only the first error classifier of
+     * each test case is counted.
+     *
+     * @return An unmodifiable map of error classifiers and number of
+     * test cases
+     * @see #isTestCase()
+     */
+    public Map<String, Long> testCaseErrorClassifiers() {
+        if (isTestCase()) {
+            return errorClassifiers().findFirst().map(classifier -> Map.of(classifier, 1L)).orElse(Map.of());
+        }
+        return hasChildren() ? details().testCaseErrorClassifiers : Map.of();
+    }
+
+
     /**
      * Checks whether the execution of this node has been marked as
      * started. In the case of child-populated nodes, returns true
@@ -216,7 +266,7 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public boolean hasStarted() {
         if (hasChildren()) {
-            return children().allMatch(S::hasStarted);
+            return details().started;
         }
         return executionState().map(ExecutionState::hasStarted).orElse(false);
     }
@@ -232,8 +282,235 @@ public abstract class ExecutableTreeNode<S extends ExecutableTreeNode<S, R>, R e
      */
     public boolean hasFinished() {
         if (hasChildren()) {
-            return children().allMatch(S::hasFinished);
+            return details().finished;
         }
         return executionState().map(ExecutionState::hasFinished).orElse(false);
     }
-}
\ No newline at end of file
+
+
+    private boolean hasErrors() {
+        if (hasChildren()) {
+            return details().errors;
+        }
+        return executionState().flatMap(ExecutionState::error).isPresent();
+    }
+
+
+    private boolean hasErrorClassifiers() {
+        if (hasChildren()) {
+            return details().errorClassifiers;
+        }
+        return executionState().flatMap(ExecutionState::errorClassifier).isPresent();
+    }
+
+
+    /**
+     * Gets the aggregated details of the children, computing them the
+     * first time they are requested.
+     */
+    private Details<R> details() {
+        Details<R> current = details;
+        if (current == null) {
+            synchronized (this) {
+                current = details;
+                if (current == null) {
+                    aggregate = new Aggregate<>();
+                    children().forEach(child -> {
+                        ExecutableTreeNode<S, R> node = child;
+                        node.reportedDetails = new Details<>(node);
+                        aggregate.add(node.reportedDetails);
+                    });
+                    current = aggregate.details();
+                    details = current;
+                }
+            }
+        }
+        return current;
+    }
+
+
+    /**
+     * Replaces the details of the given child in the aggregate, unless
+     * it has not been computed yet or the details have not changed.
+     *
+     * @return {@code false} if the aggregate has not been updated
+     */
+    private synchronized boolean childChanged(ExecutableTreeNode<S, R> child) {
+        if (aggregate == null) {
+            return false;
+        }
+        Details<R> current = new Details<>(child);
+        if (current.equals(child.reportedDetails)) {
+            return false;
+        }
+        aggregate.remove(child.reportedDetails);
+        aggregate.add(current);
+        child.reportedDetails = current;
+        details = aggregate.details();
+        return true;
+    }
+
+
+    /**
+     * Applies the change of details to the ancestors, one node at a
+     * time. If an ancestor has not computed its aggregate yet, neither
+     * have the upper ones, since they are computed from their children;
+     * and if the details of an ancestor do not change, neither do the
+     * ones of the upper ones.
+     */
+    private void executionStateChanged() {
+        ExecutableTreeNode<S, R> node = this;
+        while (node.parent != null && node.parent.childChanged(node)) {
+            node = node.parent;
+        }
+    }
+
+
+    /**
+     * Execution details of a node, as they are aggregated by its parent.
+     */
+    private static final class Details<R extends Comparable<R>> {
+
+        private final Instant startInstant;
+        private final Instant finishInstant;
+        private final Duration duration;
+        private final R result;
+        private final boolean errors;
+        private final boolean errorClassifiers;
+        private final boolean started;
+        private final boolean finished;
+        private final Map<R, Long> testCaseResults;
+        private final Map<String, Long> testCaseErrorClassifiers;
+
+        private <S extends ExecutableTreeNode<S, R>> Details(ExecutableTreeNode<S, R> node) {
+            this(
+                node.startInstant().orElse(null),
+                node.finishInstant().orElse(null),
+                node.duration().orElse(null),
+                node.result().orElse(null),
+                node.hasErrors(),
+                node.hasErrorClassifiers(),
+                node.hasStarted(),
+                node.hasFinished(),
+                node.testCaseResults(),
+                node.testCaseErrorClassifiers()
+            );
+        }
+
+        private Details(
+            Instant startInstant,
+            Instant finishInstant,
+            Duration duration,
+            R result,
+            boolean errors,
+            boolean errorClassifiers,
+            boolean started,
+            boolean finished,
+            Map<R, Long> testCaseResults,
+            Map<String, Long> testCaseErrorClassifiers
+        ) {
+            this.startInstant = startInstant;
+            this.finishInstant = finishInstant;
+            this.duration = duration;
+            this.result = result;
+            this.errors = errors;
+            this.errorClassifiers = errorClassifiers;
+            this.started = started;
+            this.finished = finished;
+            this.testCaseResults = testCaseResults;
+            this.testCaseErrorClassifiers = testCaseErrorClassifiers;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Details<?> other = (Details<?>) o;
+            return errors == other.errors && errorClassifiers == other.errorClassifiers
+                    && started == other.started && finished == other.finished
+                    && Objects.equals(startInstant, other.startInstant)
+                    && Objects.equals(finishInstant, other.finishInstant)
+                    && Objects.equals(duration, other.duration)
+                    && Objects.equals(result, other.result)
+                    && testCaseResults.equals(other.testCaseResults)
+                    && testCaseErrorClassifiers.equals(other.testCaseErrorClassifiers);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(startInstant, finishInstant, duration, result, testCaseResults);
+        }
+    }
+
+
+    /**
+     * Running totals of the details of the children of a node, to
+     * which the details of a child are added and removed as they
+     * change. Instants and results are counted, so the minimum and
+     * maximum are kept when the details of a child are removed.
+     */
+    private static final class Aggregate<R extends Comparable<R>> {
+
+        private final NavigableMap<Instant, Integer> startInstants = new TreeMap<>();
+        private final NavigableMap<Instant, Integer> finishInstants = new TreeMap<>();
+        private final NavigableMap<R, Integer> results = new TreeMap<>();
+        private Duration duration = Duration.ZERO;
+        private int durations;
+        private int errors;
+        private int errorClassifiers;
+        private int notStarted;
+        private int notFinished;
+        private final Map<R, Long> testCaseResults = new LinkedHashMap<>();
+        private final Map<String, Long> testCaseErrorClassifiers = new LinkedHashMap<>();
+
+        private void add(Details<R> child) {
+            apply(child, 1);
+        }
+
+        private void remove(Details<R> child) {
+            apply(child, -1);
+        }
+
+        private void apply(Details<R> child, int sign) {
+            count(startInstants, child.startInstant, sign);
+            count(finishInstants, child.finishInstant, sign);
+            count(results, child.result, sign);
+            if (child.duration != null) {
+                duration = sign > 0 ? duration.plus(child.duration) : duration.minus(child.duration);
+                durations += sign;
+            }
+            errors += child.errors ? sign : 0;
+            errorClassifiers += child.errorClassifiers ? sign : 0;
+            notStarted += child.started ? 0 : sign;
+            notFinished += child.finished ? 0 : sign;
+            child.testCaseResults.forEach((key, count) -> sum(testCaseResults, key, sign * count));
+            child.testCaseErrorClassifiers.forEach((key, count) -> sum(testCaseErrorClassifiers, key, sign * count));
+        }
+
+        private Details<R> details() {
+            return new Details<>(
+                startInstants.isEmpty() ? null : startInstants.firstKey(),
+                finishInstants.isEmpty() ? null : finishInstants.lastKey(),
+                durations == 0 ? null : duration,
+                results.isEmpty() ? null : results.lastKey(),
+                errors > 0,
+                errorClassifiers > 0,
+                notStarted == 0,
+                notFinished == 0,
+                Collections.unmodifiableMap(new LinkedHashMap<>(testCaseResults)),
+                Collections.unmodifiableMap(new LinkedHashMap<>(testCaseErrorClassifiers))
+            );
+        }
+
+        private static <T> void count(Map<T, Integer> counts, T value, int sign) {
+            if (value != null) {
+                counts.merge(value, sign, (current, delta) -> current + delta == 0 ? null : current + delta);
+            }
+        }
+
+        private static <T> void sum(Map<T, Long> counts, T key, long delta) {
+            counts.merge(key, delta, (current, value) -> current + value == 0 ? null : current + value);
+        }
+    }
+
+}
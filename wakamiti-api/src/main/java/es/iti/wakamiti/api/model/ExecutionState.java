@@ -25,6 +25,17 @@ public class ExecutionState<R> {
     private Optional<Throwable> error = Optional.empty();
     private Optional<String> errorClassifier = Optional.empty();
     private Optional<String> response = Optional.empty();
+    private Runnable changeListener = () -> { };
+
+    /**
+     * Sets the action to perform every time the execution is marked as
+     * started or finished.
+     *
+     * @param changeListener The action to perform
+     */
+    void onChange(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
 
     /**
      * Get the start instant of this node, if executed.
@@ -117,6 +128,7 @@ public class ExecutionState<R> {
             throw new IllegalStateException("Node execution already started");
         }
         startInstant = Optional.of(instant);
+        changeListener.run();
     }
 
     /**
@@ -178,6 +190,7 @@ public class ExecutionState<R> {
         this.error = Optional.ofNullable(error);
         this.errorClassifier = Optional.ofNullable(errorClassifier);
         this.response = Optional.ofNullable(response);
+        changeListener.run();
     }
 
     /**
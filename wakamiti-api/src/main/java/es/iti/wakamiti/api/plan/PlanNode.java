@@ -70,6 +70,11 @@ public class PlanNode extends ExecutableTreeNode<PlanNode, Result> {
         return nodeType;
     }
 
+    @Override
+    protected boolean isTestCase() {
+        return nodeType == NodeType.TEST_CASE;
+    }
+
     public List<String> description() {
         return description;
     }
@@ -15,7 +15,6 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -71,6 +70,10 @@ public class PlanNodeSnapshot {
     }
 
     public PlanNodeSnapshot(PlanNode node, String snapshotInstant) {
+        this(node, snapshotInstant, true);
+    }
+
+    private PlanNodeSnapshot(PlanNode node, String snapshotInstant, boolean withChildren) {
         this.executionID = node.executionID();
         this.snapshotInstant = snapshotInstant;
         this.nodeType = node.nodeType();
@@ -102,16 +105,31 @@ public class PlanNodeSnapshot {
         } else if (node.nodeType == NodeType.STEP_AGGREGATOR || node.nodeType == NodeType.TEST_CASE) {
             this.errorClassifier = node.errorClassifiers().findFirst().orElse(null);
         } else if (node.nodeType == NodeType.AGGREGATOR && node.hasChildren()) {
-            this.errorClassifiers = countTestClassifiers(node);
+            this.errorClassifiers = new HashMap<>(node.testCaseErrorClassifiers());
         }
         if (node.hasChildren()) {
-            this.children = node.children().map(child -> new PlanNodeSnapshot(child, snapshotInstant))
-                    .collect(Collectors.toList());
-            this.testCaseResults = countTestCases(node);
+            if (withChildren) {
+                this.children = node.children().map(child -> new PlanNodeSnapshot(child, snapshotInstant))
+                        .collect(Collectors.toList());
+            }
+            this.testCaseResults = new LinkedHashMap<>(node.testCaseResults());
             this.childrenResults = countChildren(node);
         }
     }
 
+    /**
+     * Creates a snapshot of the given node alone, without copying its
+     * descendants. The result is the same as
+     * {@code new PlanNodeSnapshot(node).withoutChildren()}, so it is suitable
+     * for events published for every single node, such as steps.
+     *
+     * @param node The node.
+     * @return A new snapshot without children.
+     */
+    public static PlanNodeSnapshot shallow(PlanNode node) {
+        return new PlanNodeSnapshot(node, LocalDateTime.now().toString(), false);
+    }
+
     /**
      * Creates a new node descriptor as a parent of the specified nodes.
      *
@@ -149,35 +167,6 @@ public class PlanNodeSnapshot {
         return root;
     }
 
-    private static Map<Result, Long> countTestCases(PlanNode node) {
-        LinkedHashMap<Result, Long> results = new LinkedHashMap<>();
-        if (node.nodeType() == NodeType.TEST_CASE) {
-            node.result().ifPresent(testCaseResult -> results.put(testCaseResult, 1L));
-        } else if (node.hasChildren()) {
-            node.children().map(PlanNodeSnapshot::countTestCases).filter(Objects::nonNull)
-                    .flatMap(map -> map.entrySet().stream())
-                    .forEach(entry -> {
-                        results.computeIfAbsent(entry.getKey(), x -> 0L);
-                        results.put(entry.getKey(), results.get(entry.getKey()) + entry.getValue());
-                    });
-        }
-        return results;
-    }
-
-
-    private static Map<String, Long> countTestClassifiers(PlanNode node) {
-        LinkedHashMap<String, LongAdder> results = new LinkedHashMap<>();
-        if (node.nodeType() == NodeType.TEST_CASE) {
-            node.errorClassifiers().findFirst()
-                    .ifPresent(errorClassifier -> results.computeIfAbsent(errorClassifier, x -> new LongAdder()).add(1L));
-        } else if (node.nodeType() == NodeType.AGGREGATOR && node.hasChildren()) {
-            node.children().map(PlanNodeSnapshot::countTestClassifiers).filter(Objects::nonNull)
-                    .flatMap(map -> map.entrySet().stream())
-                    .forEach(entry -> results.computeIfAbsent(entry.getKey(), x -> new LongAdder()).add(entry.getValue()));
-        }
-        return results.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().longValue()));
-    }
-
     private static Map<Result, Long> countChildren(PlanNode node) {
         return node.children()
                 .filter(it -> it.result().isPresent())
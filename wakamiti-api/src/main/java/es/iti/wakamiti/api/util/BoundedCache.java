@@ -0,0 +1,159 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+/**
+ * A thread-safe cache with a maximum number of entries. When the limit is
+ * reached, the least recently used entry is discarded.
+ * <p>
+ * Values are computed outside the lock, so a slow computation does not
+ * block other threads; if two threads compute the same key at the same
+ * time, the first stored value wins and is returned to both.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > BoundedCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value associated to the given key, computing and storing it
+     * if it is not present.
+     *
+     * @param key    The key.
+     * @param loader The function computing the value. It must not return
+     *               {@code null}.
+     * @return The cached or computed value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        V computed = Objects.requireNonNull(loader.apply(key));
+        synchronized (entries) {
+            value = entries.putIfAbsent(key, computed);
+        }
+        return value == null ? computed : value;
+    }
+
+    /**
+     * Removes every entry of the cache. The statistics are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return The current statistics.
+     */
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), size, maxSize);
+    }
+
+
+    /**
+     * Usage statistics of a {@link BoundedCache}.
+     */
+    public static class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final int size;
+        private final int maxSize;
+
+        public Stats(long hits, long misses, int size, int maxSize) {
+            this.hits = hits;
+            this.misses = misses;
+            this.size = size;
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return The number of lookups resolved with a stored value.
+         */
+        public long hits() {
+            return hits;
+        }
+
+        /**
+         * @return The number of lookups that required computing the value.
+         */
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * @return The current number of entries.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return The maximum number of entries.
+         */
+        public int maxSize() {
+            return maxSize;
+        }
+
+        /**
+         * @return The ratio of lookups resolved with a stored value, or
+         * {@code 0} if there were no lookups.
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "hits=%d, misses=%d, hitRatio=%.2f, size=%d/%d",
+                    hits, misses, hitRatio(), size, maxSize
+            );
+        }
+    }
+
+}
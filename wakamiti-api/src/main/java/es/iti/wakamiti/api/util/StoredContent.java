@@ -0,0 +1,29 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util;
+
+
+import java.io.InputStream;
+
+
+/**
+ * A step result whose content is too large to be kept in memory, so it is
+ * stored elsewhere (for example, in a temporary file) and read on demand.
+ *
+ * <p>Step properties referencing a fragment of this result (such as
+ * {@code ${-1#[0].id}}) are resolved by reading the stored content as JSON
+ * or XML.</p>
+ */
+public interface StoredContent {
+
+    /**
+     * Opens a new stream reading the content from the beginning.
+     *
+     * @return The content stream
+     */
+    InputStream open();
+
+}
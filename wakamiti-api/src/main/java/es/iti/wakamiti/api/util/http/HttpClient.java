@@ -15,6 +15,7 @@ import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 
+import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
@@ -23,10 +24,11 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -42,6 +44,17 @@ import static org.apache.commons.lang3.StringUtils.join;
 import static org.apache.commons.text.StringEscapeUtils.escapeEcmaScript;
 
 
+/**
+ * Base class of the JSON API clients.
+ * <p>
+ * Requests are sent using long-lived {@link java.net.http.HttpClient}
+ * instances, shared by every client with the same origin, connect timeout
+ * and SSL context, so that open connections are reused and HTTP/2 requests
+ * are multiplexed. Asynchronous requests failing with a server error or an
+ * I/O exception are retried with an increasing delay.
+ *
+ * @param <SELF> The client type
+ */
 public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpClientInterface<SELF> {
 
     private static final long serialVersionUID = 674371982367L;
@@ -70,12 +83,23 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
     private static final boolean DEFAULT_THROW_WHEN_RETRY_ON_RESPONSE_EXCEEDED = true;
     private static final Map.Entry<java.net.http.HttpClient.Version, String> HTTP_VERSION =
             entry(java.net.http.HttpClient.Version.HTTP_2, "HTTP/2");
-    private static ExecutorService executor = executor();
-    private static final java.net.http.HttpClient.Builder CLIENT = java.net.http.HttpClient.newBuilder()
-            .executor(executor)
-            .version(HTTP_VERSION.getKey())
-            .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
-            .connectTimeout(Duration.ofSeconds(20));
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(20);
+
+    /**
+     * The delay before the first retry, doubled on each attempt.
+     */
+    private static final long RETRY_DELAY_MILLIS = 200;
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(daemonThreads("wakamiti-http"));
+    private static final ScheduledExecutorService RETRY_SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("wakamiti-http-retry"));
+    private static final Map<ClientKey, PooledClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder REUSED_REQUESTS = new LongAdder();
+    private static final LongAdder MULTIPLEXED_RESPONSES = new LongAdder();
+    private static final LongAdder RETRIES = new LongAdder();
+    private static final LongAdder FAILURES = new LongAdder();
+    private static final LongAdder TOTAL_LATENCY = new LongAdder();
+    private static final LongAccumulator MAX_LATENCY = new LongAccumulator(Math::max, 0);
     protected final Map<String, Object> finalQueryParams = new LinkedHashMap<>();
     protected final Map<String, Object> finalPathParams = new LinkedHashMap<>();
     protected final Map<String, Object> finalHeaders = new LinkedHashMap<>();
@@ -84,7 +108,8 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
     protected final Map<String, Object> headers = new LinkedHashMap<>();
     private final URL baseUrl;
     protected transient JsonNode body;
-    private final AtomicInteger attempts = new AtomicInteger(DEFAULT_MAX_ATTEMPTS);
+    private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private transient SSLContext sslContext;
     private transient Consumer<HttpResponse<Optional<JsonNode>>> postCall = response -> {
     };
 
@@ -93,15 +118,55 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
         finalHeaders.putAll(map("Content-Type", "application/json", "Accept", "application/json"));
     }
 
-    private static void renewExecutor() {
-        if (executor.isShutdown()) {
-            executor = executor();
-            CLIENT.executor(executor);
-        }
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Gets a snapshot of the usage statistics of the pooled clients.
+     *
+     * @return The current metrics.
+     */
+    public static HttpClientMetrics metrics() {
+        return new HttpClientMetrics(
+                CLIENTS.size(),
+                REQUESTS.sum(),
+                REUSED_REQUESTS.sum(),
+                MULTIPLEXED_RESPONSES.sum(),
+                RETRIES.sum(),
+                FAILURES.sum(),
+                TOTAL_LATENCY.sum(),
+                MAX_LATENCY.get()
+        );
+    }
+
+    /**
+     * Sets the connect timeout of the requests. Clients with different
+     * timeouts do not share connections.
+     *
+     * @param connectTimeout The connect timeout.
+     * @return This client
+     */
+    public SELF connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return self();
     }
 
-    private static ExecutorService executor() {
-        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 10);
+    /**
+     * Sets the SSL context used for HTTPS connections, instead of the default
+     * one. Clients with different SSL contexts do not share connections.
+     *
+     * @param sslContext The SSL context.
+     * @return This client
+     */
+    public SELF sslContext(SSLContext sslContext) {
+        this.sslContext = sslContext;
+        return self();
     }
 
     public SELF postCall(Consumer<HttpResponse<Optional<JsonNode>>> postCall) {
@@ -259,8 +324,16 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace("HTTP call => {} ", stringify(request));
             }
-            renewExecutor();
-            HttpResponse<Optional<JsonNode>> response = CLIENT.build().send(request, asJSON());
+            PooledClient client = pooledClient();
+            long start = client.started();
+            HttpResponse<Optional<JsonNode>> response;
+            try {
+                response = client.client.send(request, asJSON());
+            } catch (IOException | InterruptedException e) {
+                FAILURES.increment();
+                throw e;
+            }
+            completed(response, start);
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace("HTTP response => {}", stringify(response));
             }
@@ -320,10 +393,25 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
     }
 
     private CompletableFuture<HttpResponse<Optional<JsonNode>>> sendAsync(HttpRequest request) {
-        renewExecutor();
-        attempts.incrementAndGet();
-        return CLIENT.build()
+        return sendAsync(request, 1)
+                .thenApply(response -> {
+                    postCall.accept(response);
+                    return response;
+                });
+    }
+
+    private CompletableFuture<HttpResponse<Optional<JsonNode>>> sendAsync(HttpRequest request, int attempt) {
+        PooledClient client = pooledClient();
+        long start = client.started();
+        return client.client
                 .sendAsync(request, asJSON())
+                .whenComplete((response, ex) -> {
+                    if (ex == null) {
+                        completed(response, start);
+                    } else {
+                        FAILURES.increment();
+                    }
+                })
                 .thenApply(response -> {
                     if (LOGGER.isTraceEnabled()) {
                         LOGGER.trace("HTTP call => {} {}HTTP response => {} ", stringify(response.request()),
@@ -333,7 +421,7 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
                 })
                 .thenApply(response -> {
                     if (response.statusCode() >= 500) {
-                        return attemptRetry(response, null);
+                        return attemptRetry(request, attempt, response, null);
                     } else {
                         return CompletableFuture.completedFuture(response);
                     }
@@ -341,33 +429,40 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
                 .exceptionally(ex -> {
                     // All internal exceptions are wrapped by `CompletionException`
                     if (DEFAULT_RETRY_ON_THROWABLE.test(ex.getCause())) {
-                        return attemptRetry(null, ex);
+                        return attemptRetry(request, attempt, null, ex);
                     } else {
                         return CompletableFuture.failedFuture(ex);
                     }
                 })
-                .thenCompose(Function.identity())
-                .thenApply(response -> {
-                    postCall.accept(response);
-                    return response;
-                });
+                .thenCompose(Function.identity());
     }
 
     /**
-     * It tries to invoke the request again if there is any remaining attempt, or handle the situation
-     * when a threshold of maximum attempts was exceeded.
+     * It schedules the request again if there is any remaining attempt, or handle the situation
+     * when a threshold of maximum attempts was exceeded. The retry does not block any thread while
+     * waiting, and the delay is doubled on each attempt.
      *
+     * @param request   the request to retry.
+     * @param attempt   the number of the failed attempt.
      * @param response  a failed response or <b>NULL</b>.
      * @param throwable a thrown exception or <b>NULL</b>.
      * @return a new completable future with a next attempt, or a failed response/exception in a case
      * of exceeded attempts.
      */
     private CompletableFuture<HttpResponse<Optional<JsonNode>>> attemptRetry(
-            HttpResponse<Optional<JsonNode>> response, Throwable throwable) {
-        if (attempts.get() < DEFAULT_MAX_ATTEMPTS) {
-            LOGGER.warn("Retrying: attempt={} path={}", attempts.get() + 1, response.request().uri());
-            return CompletableFuture.supplyAsync(() -> sendAsync(response.request()), executor)
-                    .thenCompose(Function.identity());
+            HttpRequest request, int attempt, HttpResponse<Optional<JsonNode>> response, Throwable throwable) {
+        if (attempt < DEFAULT_MAX_ATTEMPTS) {
+            LOGGER.warn("Retrying: attempt={} path={}", attempt + 1, request.uri());
+            RETRIES.increment();
+            CompletableFuture<HttpResponse<Optional<JsonNode>>> retry = new CompletableFuture<>();
+            RETRY_SCHEDULER.schedule(() -> sendAsync(request, attempt + 1).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    retry.complete(result);
+                } else {
+                    retry.completeExceptionally(ex);
+                }
+            }), RETRY_DELAY_MILLIS << (attempt - 1), TimeUnit.MILLISECONDS);
+            return retry;
         } else {
             return handleRetryExceeded(response, throwable);
         }
@@ -457,11 +552,97 @@ public abstract class HttpClient<SELF extends HttpClient<SELF>> implements HttpC
     public SELF copy() {
         SELF clone = SerializationUtils.clone(self()).postCall(postCall);
         Optional.ofNullable(body).map(Objects::toString).ifPresent(clone::body);
+        Optional.ofNullable(sslContext).ifPresent(clone::sslContext);
         return clone;
     }
 
+    /**
+     * Releases the client. The pooled connections are shared with other
+     * clients, so they are kept open until the JVM exits.
+     */
     public void close() {
-        executor.shutdown();
+        LOGGER.debug("HTTP client metrics: {}", metrics());
+    }
+
+    private PooledClient pooledClient() {
+        ClientKey key = new ClientKey(baseUrl.getProtocol() + "://" + baseUrl.getAuthority(), connectTimeout, sslContext);
+        return CLIENTS.computeIfAbsent(key, PooledClient::new);
+    }
+
+    private static void completed(HttpResponse<?> response, long start) {
+        long latency = System.nanoTime() - start;
+        TOTAL_LATENCY.add(latency);
+        MAX_LATENCY.accumulate(latency);
+        if (response.version() == java.net.http.HttpClient.Version.HTTP_2) {
+            MULTIPLEXED_RESPONSES.increment();
+        }
+    }
+
+
+    /**
+     * The configuration that identifies a pooled client.
+     */
+    private static final class ClientKey {
+
+        private final String origin;
+        private final Duration connectTimeout;
+        private final SSLContext sslContext;
+
+        private ClientKey(String origin, Duration connectTimeout, SSLContext sslContext) {
+            this.origin = origin;
+            this.connectTimeout = connectTimeout;
+            this.sslContext = sslContext;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ClientKey that = (ClientKey) o;
+            return origin.equals(that.origin)
+                    && Objects.equals(connectTimeout, that.connectTimeout)
+                    && sslContext == that.sslContext;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origin, connectTimeout, System.identityHashCode(sslContext));
+        }
+    }
+
+
+    /**
+     * A long-lived client, kept with the number of requests sent through it.
+     */
+    private static final class PooledClient {
+
+        private final java.net.http.HttpClient client;
+        private final AtomicLong requests = new AtomicLong();
+
+        private PooledClient(ClientKey key) {
+            java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+                    .executor(EXECUTOR)
+                    .version(HTTP_VERSION.getKey())
+                    .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+                    .connectTimeout(key.connectTimeout);
+            if (key.sslContext != null) {
+                builder.sslContext(key.sslContext);
+            }
+            this.client = builder.build();
+        }
+
+        /**
+         * Records a new request sent through this client.
+         *
+         * @return The start time of the request, in nanoseconds
+         */
+        private long started() {
+            REQUESTS.increment();
+            if (requests.getAndIncrement() > 0) {
+                REUSED_REQUESTS.increment();
+            }
+            return System.nanoTime();
+        }
     }
 
 }
@@ -0,0 +1,127 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util.http;
+
+
+import java.time.Duration;
+
+
+/**
+ * Usage statistics of the pooled clients shared by every {@link HttpClient}.
+ *
+ * @see HttpClient#metrics()
+ */
+public class HttpClientMetrics {
+
+    private final long clients;
+    private final long requests;
+    private final long reusedRequests;
+    private final long multiplexedResponses;
+    private final long retries;
+    private final long failures;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+
+    public HttpClientMetrics(
+            long clients,
+            long requests,
+            long reusedRequests,
+            long multiplexedResponses,
+            long retries,
+            long failures,
+            long totalLatencyNanos,
+            long maxLatencyNanos
+    ) {
+        this.clients = clients;
+        this.requests = requests;
+        this.reusedRequests = reusedRequests;
+        this.multiplexedResponses = multiplexedResponses;
+        this.retries = retries;
+        this.failures = failures;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    /**
+     * @return The number of pooled clients created.
+     */
+    public long clients() {
+        return clients;
+    }
+
+    /**
+     * @return The number of requests sent, including retries.
+     */
+    public long requests() {
+        return requests;
+    }
+
+    /**
+     * @return The number of requests sent with a pooled client that was
+     * already used, so they could reuse its open connections.
+     */
+    public long reusedRequests() {
+        return reusedRequests;
+    }
+
+    /**
+     * @return The number of responses received over HTTP/2, which share a
+     * single connection per host.
+     */
+    public long multiplexedResponses() {
+        return multiplexedResponses;
+    }
+
+    /**
+     * @return The number of retried requests.
+     */
+    public long retries() {
+        return retries;
+    }
+
+    /**
+     * @return The number of requests failed without a response.
+     */
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * @return The average time between sending a request and receiving its
+     * response, or {@link Duration#ZERO} if there were no requests.
+     */
+    public Duration averageLatency() {
+        long completed = requests - failures;
+        return completed <= 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos / completed);
+    }
+
+    /**
+     * @return The maximum time between sending a request and receiving its
+     * response.
+     */
+    public Duration maxLatency() {
+        return Duration.ofNanos(maxLatencyNanos);
+    }
+
+    /**
+     * @return The ratio of requests sent with an already used client, or
+     * {@code 0} if there were no requests.
+     */
+    public double reuseRatio() {
+        return requests == 0 ? 0 : (double) reusedRequests / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "clients=%d, requests=%d, reuseRatio=%.2f, multiplexed=%d, retries=%d, failures=%d, "
+                        + "averageLatency=%dms, maxLatency=%dms",
+                clients, requests, reuseRatio(), multiplexedResponses, retries, failures,
+                averageLatency().toMillis(), maxLatency().toMillis()
+        );
+    }
+
+}
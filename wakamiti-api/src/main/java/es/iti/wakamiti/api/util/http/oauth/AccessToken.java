@@ -0,0 +1,67 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util.http.oauth;
+
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+
+/**
+ * An access token issued by an oauth2 service, along with its lifetime
+ * (the {@code expires_in} field of the response), if informed.
+ */
+public final class AccessToken {
+
+    public static final String EXPIRES_IN = "expires_in";
+
+    private final String value;
+    private final Duration expiresIn;
+
+    private AccessToken(String value, Duration expiresIn) {
+        this.value = Objects.requireNonNull(value, "The access token is needed");
+        this.expiresIn = expiresIn;
+    }
+
+    /**
+     * Creates an access token without a known lifetime, valid until the
+     * cache is cleared.
+     *
+     * @param value The token
+     * @return The access token
+     */
+    public static AccessToken of(String value) {
+        return new AccessToken(value, null);
+    }
+
+    /**
+     * Creates an access token.
+     *
+     * @param value            The token
+     * @param expiresInSeconds The lifetime of the token in seconds, or
+     *                         {@code null} if unknown
+     * @return The access token
+     */
+    public static AccessToken of(String value, Long expiresInSeconds) {
+        return new AccessToken(value, expiresInSeconds == null || expiresInSeconds <= 0
+                ? null : Duration.ofSeconds(expiresInSeconds));
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public Optional<Duration> expiresIn() {
+        return Optional.ofNullable(expiresIn);
+    }
+
+    @Override
+    public String toString() {
+        return "AccessToken[expiresIn=" + expiresIn + "]";
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util.http.oauth;
+
+
+import es.iti.wakamiti.api.WakamitiAPI;
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.util.WakamitiLogger;
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Access tokens shared by every {@link Oauth2Provider}, keyed by the whole
+ * provider configuration (url, client, grant type and parameters).
+ * <p>
+ * Concurrent requests of a missing token wait for a single call to the
+ * oauth2 service. Tokens with a known lifetime are refreshed by the first
+ * request made once the configured fraction of their lifetime has elapsed,
+ * using the retriever of that request, while concurrent requests keep
+ * getting the current token. If the refresh fails, the current token is
+ * used until it expires. Tokens are considered expired a little before
+ * their lifetime ends, to allow for clock skew with the oauth2 service.
+ */
+final class AccessTokenStore {
+
+    private static final Logger LOGGER = WakamitiLogger.forClass(WakamitiAPI.class);
+
+    private static final Duration EXPIRATION_MARGIN = Duration.ofSeconds(30);
+    private static final Map<List<Object>, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private static volatile Clock clock = Clock.systemUTC();
+
+    private AccessTokenStore() {
+        // utility class
+    }
+
+    /**
+     * Gets the current token for the given configuration, retrieving it if
+     * there is none or it has expired, and refreshing it if it is about to
+     * expire.
+     *
+     * @param config    The provider configuration
+     * @param retriever The token retriever
+     * @return The token
+     */
+    static String get(Oauth2ProviderConfig config, Oauth2Provider.AccessTokenRetriever retriever) {
+        return ENTRIES.computeIfAbsent(key(config), k -> new Entry(config.copy()))
+                .get(retriever, config.refreshRatio());
+    }
+
+    /**
+     * Gets the current token for the given configuration, if any and it
+     * does not need to be refreshed yet.
+     *
+     * @param config The provider configuration
+     * @return The token, or empty if there is none, it has expired or it is
+     * about to expire
+     */
+    static Optional<String> find(Oauth2ProviderConfig config) {
+        return Optional.ofNullable(ENTRIES.get(key(config)))
+                .filter(entry -> !entry.needsRefresh())
+                .map(Entry::current)
+                .map(AccessToken::value);
+    }
+
+    /**
+     * Stores the given token, just retrieved, for the given configuration,
+     * without refreshing it before it expires.
+     *
+     * @param config The provider configuration
+     * @param token  The token
+     */
+    static void store(Oauth2ProviderConfig config, AccessToken token) {
+        ENTRIES.computeIfAbsent(key(config), k -> new Entry(config.copy())).update(token, clock.instant(), 0);
+    }
+
+    /**
+     * Removes every stored token.
+     */
+    static void clear() {
+        ENTRIES.clear();
+    }
+
+    /**
+     * Sets the clock used to compute the expiration and refresh instants of
+     * the tokens.
+     *
+     * @param clock The clock
+     */
+    static void clock(Clock clock) {
+        AccessTokenStore.clock = clock;
+    }
+
+    private static List<Object> key(Oauth2ProviderConfig config) {
+        return Arrays.asList(
+                config.url() == null ? null : config.url().toString(),
+                config.clientId(),
+                config.clientSecret(),
+                Map.copyOf(config.parameters())
+        );
+    }
+
+
+    private static final class Entry {
+
+        private final Oauth2ProviderConfig config;
+        private volatile AccessToken token;
+        private volatile Instant expiration;
+        private volatile Instant refreshInstant;
+        private CompletableFuture<AccessToken> retrieval;
+
+        private Entry(Oauth2ProviderConfig config) {
+            this.config = config;
+        }
+
+        private AccessToken current() {
+            AccessToken current = token;
+            Instant expires = expiration;
+            return current == null || (expires != null && !clock.instant().isBefore(expires)) ? null : current;
+        }
+
+        private boolean needsRefresh() {
+            Instant refreshes = refreshInstant;
+            return refreshes != null && !clock.instant().isBefore(refreshes);
+        }
+
+        private String get(Oauth2Provider.AccessTokenRetriever retriever, double refreshRatio) {
+            AccessToken current = current();
+            if (current != null && !needsRefresh()) {
+                return current.value();
+            }
+            CompletableFuture<AccessToken> pending;
+            boolean owner = false;
+            synchronized (this) {
+                current = current();
+                if (current != null && (!needsRefresh() || retrieval != null)) {
+                    return current.value();
+                }
+                if (retrieval == null) {
+                    retrieval = new CompletableFuture<>();
+                    owner = true;
+                }
+                pending = retrieval;
+            }
+            if (owner) {
+                retrieve(pending, retriever, refreshRatio);
+            }
+            try {
+                return pending.join().value();
+            } catch (CompletionException e) {
+                if (current != null) {
+                    LOGGER.warn("Cannot refresh the oauth2 access token from {}: {}", config.url(),
+                            e.getCause().getMessage());
+                    return current.value();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new WakamitiException("Error retrieving oauth2 authentication", e.getCause());
+            }
+        }
+
+        private void retrieve(
+                CompletableFuture<AccessToken> pending,
+                Oauth2Provider.AccessTokenRetriever retriever,
+                double refreshRatio
+        ) {
+            try {
+                AccessToken result = retriever.retrieve(config);
+                update(result, clock.instant(), refreshRatio);
+                pending.complete(result);
+            } catch (RuntimeException | Error e) {
+                // a failed refresh is not retried until the current token expires
+                refreshInstant = null;
+                pending.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    retrieval = null;
+                }
+            }
+        }
+
+        private synchronized void update(AccessToken result, Instant retrieved, double refreshRatio) {
+            Optional<Duration> expiresIn = result.expiresIn();
+            token = result;
+            expiration = expiresIn
+                    .map(lifetime -> retrieved.plus(lifetime).minus(margin(lifetime)))
+                    .orElse(null);
+            refreshInstant = expiresIn
+                    .filter(lifetime -> refreshRatio > 0)
+                    .map(lifetime -> retrieved.plusMillis((long) (lifetime.toMillis() * refreshRatio)))
+                    .orElse(null);
+        }
+
+        private static Duration margin(Duration lifetime) {
+            Duration tenth = lifetime.dividedBy(10);
+            return tenth.compareTo(EXPIRATION_MARGIN) < 0 ? tenth : EXPIRATION_MARGIN;
+        }
+    }
+
+}
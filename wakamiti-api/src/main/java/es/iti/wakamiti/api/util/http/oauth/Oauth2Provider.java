@@ -6,6 +6,7 @@
 package es.iti.wakamiti.api.util.http.oauth;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
 import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.api.util.JsonUtils;
 import org.apache.http.NameValuePair;
@@ -22,6 +23,7 @@ import org.apache.http.util.EntityUtils;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static es.iti.wakamiti.api.util.JsonUtils.json;
@@ -51,23 +53,58 @@ public final class Oauth2Provider {
         return this;
     }
 
+    /**
+     * Gets an access token from the configured oauth2 service. When the
+     * cache is enabled, the token is shared by every provider with the same
+     * configuration and refreshed by the first request made once it is
+     * about to expire.
+     *
+     * @return The access token
+     * @see Oauth2ProviderConfig#cacheAuth(boolean)
+     * @see Oauth2ProviderConfig#refreshRatio(double)
+     */
     public String getAccessToken() {
-        return oauth2ProviderConfig.findCachedToken()
-                .orElseGet(() -> {
-                    oauth2ProviderConfig.checkParameters();
-                    String token = retriever.get(oauth2ProviderConfig);
-                    return oauth2ProviderConfig.storeTokenAndGet(token);
-                });
+        if (oauth2ProviderConfig.cacheAuth()) {
+            Optional<String> cached = oauth2ProviderConfig.findCachedToken();
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        oauth2ProviderConfig.checkParameters();
+        if (!oauth2ProviderConfig.cacheAuth()) {
+            AccessToken token = retriever.retrieve(oauth2ProviderConfig);
+            AccessTokenStore.store(oauth2ProviderConfig, token);
+            return token.value();
+        }
+        return AccessTokenStore.get(oauth2ProviderConfig, retriever);
     }
 
     public interface AccessTokenRetriever {
 
         String get(Oauth2ProviderConfig config);
+
+        /**
+         * Retrieves the access token along with its lifetime. By default,
+         * the lifetime is unknown, so the token is not refreshed.
+         *
+         * @param config The provider configuration
+         * @return The access token
+         */
+        default AccessToken retrieve(Oauth2ProviderConfig config) {
+            return AccessToken.of(get(config));
+        }
     }
 
     private static class DefaultAccessTokenRetriever implements AccessTokenRetriever {
 
+        private static final CloseableHttpClient HTTP_CLIENT = HttpClients.createDefault();
+
         public String get(Oauth2ProviderConfig config) {
+            return retrieve(config).value();
+        }
+
+        @Override
+        public AccessToken retrieve(Oauth2ProviderConfig config) {
             String auth = Base64.getEncoder()
                     .encodeToString((config.clientId() + ":" + config.clientSecret()).getBytes());
             List<NameValuePair> formData = config.parameters().entrySet().stream()
@@ -79,19 +116,18 @@ public final class Oauth2Provider {
                     .setEntity(new UrlEncodedFormEntity(formData, StandardCharsets.UTF_8))
                     .build();
 
-            CloseableHttpClient httpClient = HttpClients.createDefault();
-
-            try {
-                CloseableHttpResponse response = httpClient.execute(request);
+            try (CloseableHttpResponse response = HTTP_CLIENT.execute(request)) {
                 int status = response.getStatusLine().getStatusCode();
                 String body = EntityUtils.toString(response.getEntity());
                 if (status >= 400) {
                     throw new IllegalStateException(status + (isBlank(body) ? "" : ". " + body));
                 }
-                String token = JsonUtils.readStringValue(json(body), ACCESS_TOKEN);
-                httpClient.close();
-                response.close();
-                return token;
+                JsonNode json = json(body);
+                JsonNode expiresIn = json.get(AccessToken.EXPIRES_IN);
+                return AccessToken.of(
+                        JsonUtils.readStringValue(json, ACCESS_TOKEN),
+                        expiresIn == null ? null : expiresIn.asLong()
+                );
             } catch (Exception e) {
                 throw new WakamitiException("Error retrieving oauth2 authentication", e);
             }
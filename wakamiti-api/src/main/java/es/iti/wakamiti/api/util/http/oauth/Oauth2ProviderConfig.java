@@ -19,21 +19,22 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public class Oauth2ProviderConfig {
 
     private static final String GRANT_TYPE = "grant_type";
+    private static final double DEFAULT_REFRESH_RATIO = 0.8;
 
-    private static final Map<List<Object>, String> cachedToken = new HashMap<>();
     private final Map<String, String> parameters = new LinkedHashMap<>();
     private boolean cacheAuth;
+    private double refreshRatio = DEFAULT_REFRESH_RATIO;
     private GrantType type;
     private URL url;
     private String clientId;
     private String clientSecret;
 
     public Optional<String> findCachedToken() {
-        return Optional.ofNullable(cachedToken.get(getKey())).filter(x -> cacheAuth);
+        return cacheAuth ? AccessTokenStore.find(this) : Optional.empty();
     }
 
     public String storeTokenAndGet(String token) {
-        cachedToken.put(getKey(), token);
+        AccessTokenStore.store(this, AccessToken.of(token));
         return token;
     }
 
@@ -54,6 +55,33 @@ public class Oauth2ProviderConfig {
         return this;
     }
 
+    public boolean cacheAuth() {
+        return cacheAuth;
+    }
+
+    public double refreshRatio() {
+        return refreshRatio;
+    }
+
+    /**
+     * Sets the fraction of the token lifetime ({@code expires_in}) after
+     * which a cached token is refreshed by the next request, while
+     * concurrent requests keep using the current token. A value of
+     * {@code 0} disables the refresh, so the token is retrieved again once
+     * expired.
+     *
+     * @param refreshRatio The fraction, between {@code 0} and {@code 1}
+     * @return This configuration
+     */
+    public Oauth2ProviderConfig refreshRatio(double refreshRatio) {
+        if (refreshRatio < 0 || refreshRatio > 1) {
+            throw new WakamitiException("The oauth2 refresh ratio must be between 0 and 1, but was {}",
+                    refreshRatio);
+        }
+        this.refreshRatio = refreshRatio;
+        return this;
+    }
+
     public Oauth2ProviderConfig type(GrantType type) {
         parameters.putIfAbsent(GRANT_TYPE, type.name().toLowerCase());
         this.type = type;
@@ -117,11 +145,19 @@ public class Oauth2ProviderConfig {
         }
     }
 
-    private List<Object> getKey() {
-        return parameters.entrySet().stream()
-                .filter(e -> type.requiredFields().contains(e.getKey()))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
+    /**
+     * @return A copy of this configuration, unaffected by later changes
+     */
+    Oauth2ProviderConfig copy() {
+        Oauth2ProviderConfig copy = new Oauth2ProviderConfig();
+        copy.parameters.putAll(parameters);
+        copy.cacheAuth = cacheAuth;
+        copy.refreshRatio = refreshRatio;
+        copy.type = type;
+        copy.url = url;
+        copy.clientId = clientId;
+        copy.clientSecret = clientSecret;
+        return copy;
     }
 
 }
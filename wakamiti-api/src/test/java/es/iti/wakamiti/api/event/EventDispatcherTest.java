@@ -0,0 +1,223 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.event;
+
+
+import es.iti.wakamiti.api.extensions.EventObserver;
+import es.iti.wakamiti.api.plan.NodeType;
+import es.iti.wakamiti.api.plan.PlanNode;
+import es.iti.wakamiti.api.plan.PlanNodeBuilder;
+import es.iti.wakamiti.api.plan.PlanNodeSnapshot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class EventDispatcherTest {
+
+    @Test
+    public void testLazyEventDataIsComputedOnceWhenRequested() {
+        AtomicInteger computations = new AtomicInteger();
+        Event event = new EventDispatcher().newLazyEvent(Event.NODE_RUN_STARTED, computations::incrementAndGet);
+
+        assertThat(computations).hasValue(0);
+        assertThat(event.data()).isEqualTo(1);
+        assertThat(event.data()).isEqualTo(1);
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    public void testHasObserversForOnlyAcceptedTypes() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        assertThat(dispatcher.hasObserversFor(Event.NODE_RUN_FINISHED)).isFalse();
+
+        List<Object> received = new ArrayList<>();
+        dispatcher.addObserver(new EventObserver() {
+            @Override
+            public void eventReceived(Event event) {
+                received.add(event.data());
+            }
+
+            @Override
+            public boolean acceptType(String eventType) {
+                return Event.NODE_RUN_FINISHED.equals(eventType);
+            }
+        });
+        dispatcher.publishEvent(dispatcher.newLazyEvent(Event.NODE_RUN_FINISHED, () -> "finished"));
+
+        assertThat(dispatcher.hasObserversFor(Event.NODE_RUN_FINISHED)).isTrue();
+        assertThat(dispatcher.hasObserversFor(Event.NODE_RUN_STARTED)).isFalse();
+        assertThat(received).containsExactly("finished");
+    }
+
+    @Test
+    public void testShallowSnapshotDoesNotCopyChildren() {
+        PlanNode testCase = new PlanNodeBuilder(NodeType.TEST_CASE)
+                .setId("test1")
+                .setName("test case")
+                .addChild(new PlanNodeBuilder(NodeType.STEP).setName("step"))
+                .build();
+
+        PlanNodeSnapshot shallow = PlanNodeSnapshot.shallow(testCase);
+
+        assertThat(shallow.getId()).isEqualTo("test1");
+        assertThat(shallow.getName()).isEqualTo("test case");
+        assertThat(shallow.getChildren()).isNull();
+        assertThat(new PlanNodeSnapshot(testCase).getChildren()).hasSize(1);
+    }
+
+    @Test
+    public void testAsynchronousEventsAreDeliveredBeforePlanRunFinished() throws InterruptedException {
+        EventDispatcher dispatcher = new EventDispatcher();
+        BlockingObserver observer = new BlockingObserver();
+        dispatcher.addObserver(observer);
+        dispatcher.setAsynchronous(100, 10, EventDispatcher.Backpressure.BLOCK);
+
+        dispatcher.publishEvent(Event.PLAN_RUN_STARTED, "start");
+        for (int i = 0; i < 20; i++) {
+            dispatcher.publishEvent(Event.NODE_RUN_FINISHED, "node" + i);
+        }
+        assertThat(observer.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(observer.received).containsExactly("start");
+
+        observer.release.countDown();
+        dispatcher.publishEvent(Event.PLAN_RUN_FINISHED, "finish");
+
+        assertThat(observer.received).hasSize(22).startsWith("start", "node0", "node1").endsWith("node19", "finish");
+        dispatcher.setSynchronous();
+    }
+
+    @Test
+    public void testEventsAreNotQueuedAfterPlanAborted() throws InterruptedException {
+        EventDispatcher dispatcher = new EventDispatcher();
+        BlockingObserver observer = new BlockingObserver();
+        dispatcher.addObserver(observer);
+        dispatcher.setAsynchronous(100, 10, EventDispatcher.Backpressure.BLOCK);
+
+        dispatcher.publishEvent(Event.PLAN_RUN_STARTED, "start");
+        dispatcher.publishEvent(Event.NODE_RUN_FINISHED, "node");
+        assertThat(observer.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        observer.release.countDown();
+        dispatcher.planAborted();
+        dispatcher.publishEvent(Event.PLAN_CREATED, "created");
+
+        assertThat(observer.received).containsExactly("start", "node", "created");
+        dispatcher.setSynchronous();
+    }
+
+    @Test
+    public void testDeliveryCannotChangeWhilePlanIsRunning() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        dispatcher.setAsynchronous(100, 10, EventDispatcher.Backpressure.BLOCK);
+        dispatcher.publishEvent(Event.PLAN_RUN_STARTED, "start");
+
+        dispatcher.setAsynchronous(100, 10, EventDispatcher.Backpressure.BLOCK);
+        assertThatThrownBy(() -> dispatcher.setAsynchronous(10, 10, EventDispatcher.Backpressure.DROP))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(dispatcher::setSynchronous).isInstanceOf(IllegalStateException.class);
+        assertThat(dispatcher.isAsynchronous()).isTrue();
+
+        dispatcher.publishEvent(Event.PLAN_RUN_FINISHED, "finish");
+        dispatcher.setSynchronous();
+        assertThat(dispatcher.isAsynchronous()).isFalse();
+    }
+
+    @Test
+    public void testAsynchronousEventsAreDroppedWhenQueueIsFull() throws InterruptedException {
+        assertThat(publishWithFullQueue(EventDispatcher.Backpressure.DROP))
+                .containsExactly("start", "node1", "finish");
+    }
+
+    @Test
+    public void testAsynchronousOldestEventsAreDroppedWhenQueueIsFull() throws InterruptedException {
+        assertThat(publishWithFullQueue(EventDispatcher.Backpressure.DROP_OLDEST))
+                .containsExactly("start", "node3", "finish");
+    }
+
+    @Test
+    public void testAsynchronousEventsAreFlushedWhenOldestEventsAreDropped() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        List<Object> received = new CopyOnWriteArrayList<>();
+        dispatcher.addObserver(new EventObserver() {
+            @Override
+            public void eventReceived(Event event) {
+                received.add(event.data());
+                Thread.onSpinWait();
+            }
+
+            @Override
+            public boolean acceptType(String eventType) {
+                return true;
+            }
+        });
+        dispatcher.setAsynchronous(1, 1, EventDispatcher.Backpressure.DROP_OLDEST);
+
+        for (int run = 0; run < 200; run++) {
+            received.clear();
+            dispatcher.publishEvent(Event.PLAN_RUN_STARTED, "start");
+            for (int i = 0; i < 500; i++) {
+                dispatcher.publishEvent(Event.NODE_RUN_FINISHED, i);
+            }
+            dispatcher.publishEvent(Event.PLAN_RUN_FINISHED, "finish");
+
+            assertThat(received).startsWith("start").endsWith(499, "finish");
+            assertThat(received.subList(1, received.size() - 1))
+                    .isSortedAccordingTo((first, second) -> Integer.compare((Integer) first, (Integer) second));
+        }
+        dispatcher.setSynchronous();
+    }
+
+
+    private List<Object> publishWithFullQueue(EventDispatcher.Backpressure backpressure) throws InterruptedException {
+        EventDispatcher dispatcher = new EventDispatcher();
+        BlockingObserver observer = new BlockingObserver();
+        dispatcher.addObserver(observer);
+        dispatcher.setAsynchronous(1, 1, backpressure);
+
+        dispatcher.publishEvent(Event.PLAN_RUN_STARTED, "start");
+        assertThat(observer.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.publishEvent(Event.NODE_RUN_FINISHED, "node1");
+        dispatcher.publishEvent(Event.NODE_RUN_FINISHED, "node2");
+        dispatcher.publishEvent(Event.NODE_RUN_FINISHED, "node3");
+        observer.release.countDown();
+        dispatcher.publishEvent(Event.PLAN_RUN_FINISHED, "finish");
+        dispatcher.setSynchronous();
+        return observer.received;
+    }
+
+
+    private static class BlockingObserver implements EventObserver {
+
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void eventReceived(Event event) {
+            received.add(event.data());
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean acceptType(String eventType) {
+            return true;
+        }
+    }
+
+}
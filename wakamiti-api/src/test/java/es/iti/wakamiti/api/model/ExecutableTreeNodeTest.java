@@ -16,6 +16,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,4 +47,95 @@ public class ExecutableTreeNodeTest {
         assertThat(result.get().toMinutes()).isEqualTo(5);
     }
 
+    @Test
+    public void testAggregatesAreUpdatedWhenChildrenFinish() {
+        PlanNode step1 = new PlanNode(NodeType.STEP, new ArrayList<>());
+        PlanNode step2 = new PlanNode(NodeType.STEP, new ArrayList<>());
+        PlanNode testCase = new PlanNode(NodeType.TEST_CASE, new ArrayList<>(List.of(step1, step2)));
+        PlanNode feature = new PlanNode(NodeType.AGGREGATOR, new ArrayList<>(List.of(testCase)));
+        Instant start = Instant.parse("2018-11-30T18:00:24.00Z");
+
+        assertThat(feature.result()).isEmpty();
+        assertThat(feature.hasStarted()).isFalse();
+        assertThat(feature.testCaseResults()).isEmpty();
+
+        step1.prepareExecution().markStarted(start);
+        step1.prepareExecution().markFinished(start.plusSeconds(10), Result.PASSED);
+
+        assertThat(feature.result()).contains(Result.PASSED);
+        assertThat(feature.hasStarted()).isFalse();
+        assertThat(feature.testCaseResults()).isEqualTo(Map.of(Result.PASSED, 1L));
+
+        step2.prepareExecution().markStarted(start.plusSeconds(10));
+        step2.prepareExecution().markFinished(
+                start.plusSeconds(30), Result.FAILED, new AssertionError("failed"), "classifier"
+        );
+
+        assertThat(feature.result()).contains(Result.FAILED);
+        assertThat(feature.hasStarted()).isTrue();
+        assertThat(feature.hasFinished()).isTrue();
+        assertThat(feature.startInstant()).contains(start);
+        assertThat(feature.finishInstant()).contains(start.plusSeconds(30));
+        assertThat(feature.duration()).contains(Duration.ofSeconds(30));
+        assertThat(feature.errors()).extracting(Throwable::getMessage).containsExactly("failed");
+        assertThat(feature.testCaseResults()).isEqualTo(Map.of(Result.FAILED, 1L));
+        assertThat(feature.testCaseErrorClassifiers()).isEqualTo(Map.of("classifier", 1L));
+    }
+
+    @Test
+    public void testAggregatesAreUpdatedWhenDescendantsFinishInAnyOrder() {
+        PlanNode step1 = new PlanNode(NodeType.STEP, new ArrayList<>());
+        PlanNode step2 = new PlanNode(NodeType.STEP, new ArrayList<>());
+        PlanNode step3 = new PlanNode(NodeType.STEP, new ArrayList<>());
+        PlanNode testCase1 = new PlanNode(NodeType.TEST_CASE, new ArrayList<>(List.of(step1)));
+        PlanNode testCase2 = new PlanNode(NodeType.TEST_CASE, new ArrayList<>(List.of(step2, step3)));
+        PlanNode feature = new PlanNode(NodeType.AGGREGATOR, new ArrayList<>(List.of(testCase1, testCase2)));
+        PlanNode plan = new PlanNode(NodeType.AGGREGATOR, new ArrayList<>(List.of(feature)));
+        Instant start = Instant.parse("2018-11-30T18:00:24.00Z");
+
+        assertThat(plan.testCaseResults()).isEmpty();
+
+        step3.prepareExecution().markStarted(start.plusSeconds(20));
+        step3.prepareExecution().markFinished(start.plusSeconds(40), Result.FAILED);
+
+        assertThat(plan.startInstant()).contains(start.plusSeconds(20));
+        assertThat(plan.finishInstant()).contains(start.plusSeconds(40));
+        assertThat(plan.testCaseResults()).isEqualTo(Map.of(Result.FAILED, 1L));
+
+        step1.prepareExecution().markStarted(start);
+        step1.prepareExecution().markFinished(start.plusSeconds(10), Result.PASSED);
+        step2.prepareExecution().markStarted(start.plusSeconds(10));
+        step2.prepareExecution().markFinished(start.plusSeconds(20), Result.PASSED);
+
+        assertThat(plan.startInstant()).contains(start);
+        assertThat(plan.finishInstant()).contains(start.plusSeconds(40));
+        assertThat(plan.duration()).contains(Duration.ofSeconds(40));
+        assertThat(plan.result()).contains(Result.FAILED);
+        assertThat(plan.hasFinished()).isTrue();
+        assertThat(plan.testCaseResults()).isEqualTo(Map.of(Result.PASSED, 1L, Result.FAILED, 1L));
+
+        testCase2.prepareExecution().markFinished(start.plusSeconds(40), Result.PASSED);
+
+        assertThat(plan.result()).contains(Result.PASSED);
+        assertThat(plan.testCaseResults()).isEqualTo(Map.of(Result.PASSED, 2L));
+        assertThat(feature.testCaseResults()).isEqualTo(Map.of(Result.PASSED, 2L));
+    }
+
+    @Test
+    public void testAggregatorResultPrevailsOverChildren() {
+        PlanNode step = new PlanNode(NodeType.STEP, new ArrayList<>());
+        PlanNode testCase = new PlanNode(NodeType.TEST_CASE, new ArrayList<>(List.of(step)));
+        PlanNode feature = new PlanNode(NodeType.AGGREGATOR, new ArrayList<>(List.of(testCase)));
+        Instant start = Instant.parse("2018-11-30T18:00:24.00Z");
+        step.prepareExecution().markStarted(start);
+        step.prepareExecution().markFinished(start, Result.PASSED);
+
+        assertThat(feature.testCaseResults()).isEqualTo(Map.of(Result.PASSED, 1L));
+
+        testCase.prepareExecution().markFinished(start, Result.SKIPPED);
+
+        assertThat(feature.result()).contains(Result.SKIPPED);
+        assertThat(feature.testCaseResults()).isEqualTo(Map.of(Result.SKIPPED, 1L));
+    }
+
 }
@@ -0,0 +1,74 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util;
+
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testWhenKeyIsRepeatedThenValueIsComputedOnce() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        AtomicInteger computations = new AtomicInteger();
+
+        assertThat(cache.computeIfAbsent("abc", key -> computations.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.computeIfAbsent("abc", key -> computations.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.computeIfAbsent("abc", key -> computations.incrementAndGet())).isEqualTo(1);
+
+        BoundedCache.Stats stats = cache.stats();
+        assertThat(computations).hasValue(1);
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+        assertThat(stats.hitRatio()).isCloseTo(0.66, within(0.01));
+    }
+
+    @Test
+    public void testWhenLimitIsReachedThenLeastRecentlyUsedIsDiscarded() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.computeIfAbsent("a", String::toUpperCase);
+        cache.computeIfAbsent("b", String::toUpperCase);
+        cache.computeIfAbsent("a", String::toUpperCase);
+        cache.computeIfAbsent("c", String::toUpperCase);
+
+        assertThat(cache.stats().size()).isEqualTo(2);
+        cache.computeIfAbsent("a", String::toUpperCase);
+        assertThat(cache.stats().misses()).isEqualTo(3);
+        cache.computeIfAbsent("b", String::toUpperCase);
+        assertThat(cache.stats().misses()).isEqualTo(4);
+    }
+
+    @Test
+    public void testWhenAccessedConcurrentlyThenEveryThreadGetsTheSameValue() {
+        BoundedCache<Integer, Object> cache = new BoundedCache<>(100);
+        List<Object> values = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> cache.computeIfAbsent(i % 10, key -> new Object()))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(values.get(i)).isSameAs(cache.computeIfAbsent(i % 10, key -> new Object()));
+        }
+        assertThat(cache.stats().size()).isEqualTo(10);
+    }
+
+    @Test
+    public void testWhenSizeIsNotPositiveThenFail() {
+        assertThatThrownBy(() -> new BoundedCache<>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -29,6 +29,7 @@ import java.net.URL;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static es.iti.wakamiti.api.util.MapUtils.map;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -450,6 +451,39 @@ public class HttpClientTest {
         assertThat(response.statusCode()).isEqualTo(404);
     }
 
+    @Test
+    public void testGetWhenSeveralRequestsWithSuccess() throws MalformedURLException {
+        // prepare
+        mockServer(request().withMethod("GET").withPath("/reused"), response().withStatusCode(200), Times.exactly(2));
+        HttpClientMetrics before = HttpClient.metrics();
+
+        // act
+        abstractClient.get("/reused");
+        new TestApi(new URL(BASE_URL)).get("/reused");
+
+        // check
+        HttpClientMetrics after = HttpClient.metrics();
+        assertThat(after.requests() - before.requests()).isEqualTo(2);
+        assertThat(after.reusedRequests() - before.reusedRequests()).isEqualTo(2 - (after.clients() - before.clients()));
+        assertThat(after.clients() - before.clients()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void testGetAsyncWhenServerErrorWithRetries() throws Exception {
+        // prepare
+        mockServer(request().withMethod("GET").withPath("/retry"), response().withStatusCode(503), Times.exactly(2));
+        mockServer(request().withMethod("GET").withPath("/retry"), response().withStatusCode(200), Times.once());
+        HttpClientMetrics before = HttpClient.metrics();
+
+        // act
+        java.net.http.HttpResponse<Optional<JsonNode>> response = abstractClient.getAsync("/retry")
+                .get(10, TimeUnit.SECONDS);
+
+        // check
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(HttpClient.metrics().retries() - before.retries()).isEqualTo(2);
+    }
+
     private void mockServer(HttpRequest expected, HttpResponse response) {
         mockServer(expected, response, Times.once());
     }
@@ -467,6 +501,5 @@ public class HttpClientTest {
         public TestApi(URL baseUrl) {
             super(baseUrl);
         }
-
     }
 }
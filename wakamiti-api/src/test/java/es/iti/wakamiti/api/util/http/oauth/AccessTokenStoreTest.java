@@ -0,0 +1,294 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.api.util.http.oauth;
+
+
+import es.iti.wakamiti.api.WakamitiException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+
+public class AccessTokenStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Before
+    public void setUp() {
+        AccessTokenStore.clock(clock);
+    }
+
+    @After
+    public void tearDown() {
+        AccessTokenStore.clear();
+        AccessTokenStore.clock(Clock.systemUTC());
+    }
+
+    @Test
+    public void testGetWhenConcurrentMissesWithSuccess() throws Exception {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Oauth2Provider.AccessTokenRetriever retriever = config -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "token";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+
+        // act
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> provider("scope").setRetriever(retriever).getAccessToken()));
+            }
+            await(started);
+            release.countDown();
+
+            // check
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("token");
+            }
+            assertThat(calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetWhenDifferentConfigurationWithSuccess() throws MalformedURLException {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        Oauth2Provider.AccessTokenRetriever retriever =
+                config -> config.parameters().get("scope") + calls.incrementAndGet();
+
+        // act
+        String first = provider("read").setRetriever(retriever).getAccessToken();
+        String second = provider("write").setRetriever(retriever).getAccessToken();
+        String third = provider("read").setRetriever(retriever).getAccessToken();
+
+        // check
+        assertThat(first).isEqualTo("read1");
+        assertThat(second).isEqualTo("write2");
+        assertThat(third).isEqualTo("read1");
+    }
+
+    @Test
+    public void testGetWhenTokenIsAboutToExpireWithSuccess() throws MalformedURLException {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        Oauth2Provider provider = provider("scope").setRetriever(new Oauth2Provider.AccessTokenRetriever() {
+            @Override
+            public String get(Oauth2ProviderConfig config) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public AccessToken retrieve(Oauth2ProviderConfig config) {
+                return AccessToken.of("token" + calls.incrementAndGet(), 60L);
+            }
+        });
+        provider.configuration().refreshRatio(0.2);
+
+        // act
+        String first = provider.getAccessToken();
+        clock.advance(Duration.ofSeconds(15));
+        String second = provider.getAccessToken();
+
+        // check
+        assertThat(first).isEqualTo("token1");
+        assertThat(second).isEqualTo("token2");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void testGetWhenTokenIsNotUsedWithSuccess() throws MalformedURLException {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        Oauth2Provider provider = provider("scope").setRetriever(expiringRetriever(calls, 60L));
+        provider.configuration().refreshRatio(0.1);
+
+        // act
+        provider.getAccessToken();
+        clock.advance(Duration.ofSeconds(30));
+
+        // check
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void testGetWhenRefreshFailsWithSuccess() throws MalformedURLException {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        Oauth2Provider provider = provider("scope").setRetriever(new Oauth2Provider.AccessTokenRetriever() {
+            @Override
+            public String get(Oauth2ProviderConfig config) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public AccessToken retrieve(Oauth2ProviderConfig config) {
+                if (calls.incrementAndGet() > 1) {
+                    throw new WakamitiException("Service unavailable");
+                }
+                return AccessToken.of("token", 60L);
+            }
+        });
+        provider.configuration().refreshRatio(0.2);
+
+        // act
+        String first = provider.getAccessToken();
+        clock.advance(Duration.ofSeconds(15));
+        String second = provider.getAccessToken();
+        String third = provider.getAccessToken();
+        clock.advance(Duration.ofSeconds(40));
+        Throwable error = catchThrowable(provider::getAccessToken);
+
+        // check
+        assertThat(first).isEqualTo("token");
+        assertThat(second).isEqualTo("token");
+        assertThat(third).isEqualTo("token");
+        assertThat(error).isInstanceOf(WakamitiException.class).hasMessage("Service unavailable");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    public void testGetWhenTokenIsAboutToExpireWithoutRefreshWithSuccess() throws MalformedURLException {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        Oauth2Provider provider = provider("scope").setRetriever(expiringRetriever(calls, 60L));
+        provider.configuration().refreshRatio(0);
+
+        // act
+        String first = provider.getAccessToken();
+        clock.advance(Duration.ofSeconds(53));
+        String second = provider.getAccessToken();
+        clock.advance(Duration.ofSeconds(1));
+        String third = provider.getAccessToken();
+
+        // check
+        assertThat(first).isEqualTo("token1");
+        assertThat(second).isEqualTo("token1");
+        assertThat(third).isEqualTo("token2");
+    }
+
+    @Test
+    public void testGetWhenRetrievalFailsWithError() throws MalformedURLException {
+        // prepare
+        AtomicInteger calls = new AtomicInteger();
+        Oauth2Provider provider = provider("scope").setRetriever(config -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new WakamitiException("Service unavailable");
+            }
+            return "token";
+        });
+
+        // act
+        Throwable error = catchThrowable(provider::getAccessToken);
+        String result = provider.getAccessToken();
+
+        // check
+        assertThat(error).isInstanceOf(WakamitiException.class).hasMessage("Service unavailable");
+        assertThat(result).isEqualTo("token");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test(expected = WakamitiException.class)
+    public void testRefreshRatioWithError() throws MalformedURLException {
+        // prepare
+        Oauth2Provider provider = provider("scope");
+
+        // act
+        try {
+            provider.configuration().refreshRatio(1.5);
+        } catch (WakamitiException e) {
+            // check
+            assertThat(e).hasMessage("The oauth2 refresh ratio must be between 0 and 1, but was 1.5");
+            throw e;
+        }
+    }
+
+    private static Oauth2Provider provider(String scope) throws MalformedURLException {
+        Oauth2Provider provider = new Oauth2Provider();
+        provider.configuration()
+                .url(new URL("http://localhost:4322/token"))
+                .clientId("client")
+                .clientSecret("s3cr3t")
+                .type(GrantType.CLIENT_CREDENTIALS)
+                .addParameter("scope", scope)
+                .cacheAuth(true);
+        return provider;
+    }
+
+    private static Oauth2Provider.AccessTokenRetriever expiringRetriever(AtomicInteger calls, long expiresIn) {
+        return new Oauth2Provider.AccessTokenRetriever() {
+            @Override
+            public String get(Oauth2ProviderConfig config) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public AccessToken retrieve(Oauth2ProviderConfig config) {
+                return AccessToken.of("token" + calls.incrementAndGet(), expiresIn);
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import es.iti.wakamiti.api.util.ResourceLoader;
 import es.iti.wakamiti.api.util.ThrowableFunction;
 import es.iti.wakamiti.api.util.WakamitiLogger;
 import es.iti.wakamiti.core.backend.DefaultBackendFactory;
+import es.iti.wakamiti.core.runner.ParallelExecution;
 import es.iti.wakamiti.core.runner.PlanRunner;
 import es.iti.wakamiti.core.util.TagFilter;
 import es.iti.wakamiti.api.imconfig.Configuration;
@@ -33,6 +34,7 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -379,6 +381,41 @@ public class Wakamiti {
     public void configureEventObservers(Configuration configuration) {
         getEventDispatcher().observers()
                 .forEach(observer -> contributors.configure(observer, configuration));
+        configureEventDelivery(configuration);
+    }
+
+    private void configureEventDelivery(Configuration configuration) {
+        try {
+            setEventDelivery(configuration);
+        } catch (IllegalStateException e) {
+            // the dispatcher is shared, so other running plans keep their delivery
+            LOGGER.warn("The event delivery configuration is ignored while other plans are running: {}",
+                    e.getMessage());
+        }
+    }
+
+    private void setEventDelivery(Configuration configuration) {
+        if (!configuration.get(EVENTS_ASYNC, Boolean.class).orElse(Boolean.FALSE)) {
+            getEventDispatcher().setSynchronous();
+            return;
+        }
+        String backpressure = configuration.get(EVENTS_BACKPRESSURE, String.class)
+                .orElse(EventDispatcher.Backpressure.BLOCK.name());
+        try {
+            getEventDispatcher().setAsynchronous(
+                    configuration.get(EVENTS_QUEUE_SIZE, Integer.class).orElse(1024),
+                    configuration.get(EVENTS_BATCH_SIZE, Integer.class).orElse(64),
+                    EventDispatcher.Backpressure.valueOf(backpressure.trim().toUpperCase(Locale.ROOT))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new WakamitiException(
+                    "Invalid asynchronous event delivery configuration ({}={}, {}={}, {}={}); "
+                            + "sizes must be positive and backpressure one of: block, drop, drop_oldest",
+                    EVENTS_QUEUE_SIZE, configuration.get(EVENTS_QUEUE_SIZE, String.class).orElse(""),
+                    EVENTS_BATCH_SIZE, configuration.get(EVENTS_BATCH_SIZE, String.class).orElse(""),
+                    EVENTS_BACKPRESSURE, backpressure
+            );
+        }
     }
 
     /**
@@ -400,13 +437,37 @@ public class Wakamiti {
     }
 
     /**
-     * Publishes an event with the specified type and data.
+     * Publishes an event with the specified type and data. When published from
+     * a plan node running concurrently, the event is dispatched once the node
+     * output is merged following the plan order.
      *
      * @param eventType The type of the event.
      * @param data      The data associated with the event.
      */
     public void publishEvent(String eventType, Object data) {
-        getEventDispatcher().publishEvent(eventType, data);
+        Event event = getEventDispatcher().newEvent(eventType, data);
+        ParallelExecution.emit(() -> getEventDispatcher().publishEvent(event));
+    }
+
+    /**
+     * Publishes an event with the specified type, whose data is only built if
+     * some registered observer accepts the event type. When published from a
+     * plan node running concurrently, the data is built immediately, since it
+     * may change before the event is dispatched.
+     *
+     * @param eventType The type of the event.
+     * @param data      The supplier of the data associated with the event.
+     */
+    public void publishLazyEvent(String eventType, Supplier<?> data) {
+        EventDispatcher dispatcher = getEventDispatcher();
+        if (!dispatcher.hasObserversFor(eventType)) {
+            return;
+        }
+        Event event = dispatcher.newLazyEvent(eventType, data);
+        if (ParallelExecution.isDeferringOutput()) {
+            event.data();
+        }
+        ParallelExecution.emit(() -> dispatcher.publishEvent(event));
     }
 
     /**
@@ -47,11 +47,29 @@ public abstract class AbstractBackend implements Backend {
             Configuration configuration,
             WakamitiDataTypeRegistry typeRegistry,
             List<RunnableStep> steps
+    ) {
+        this(configuration, typeRegistry, steps, new RunnableStepResolver(typeRegistry, steps));
+    }
+
+    /**
+     * Constructs an abstract backend with the provided configuration, type registry,
+     * list of runnable steps and a step resolver for them.
+     *
+     * @param configuration The configuration for this backend.
+     * @param typeRegistry  The registry for Wakamiti data types.
+     * @param steps         The list of runnable steps associated with this backend.
+     * @param resolver      The resolver of the runnable steps.
+     */
+    protected AbstractBackend(
+            Configuration configuration,
+            WakamitiDataTypeRegistry typeRegistry,
+            List<RunnableStep> steps,
+            RunnableStepResolver resolver
     ) {
         this.configuration = configuration;
         this.typeRegistry = typeRegistry;
         this.runnableSteps = steps;
-        this.resolver = new RunnableStepResolver(typeRegistry, steps);
+        this.resolver = resolver;
         this.hinter = new StepHinter(runnableSteps, configuration, resolver, typeRegistry);
     }
 
@@ -89,18 +107,7 @@ public abstract class AbstractBackend implements Backend {
      */
     @Override
     public String getHintFor(String invalidStep, Locale locale) {
-        int maxSuggestions = 5;
-        StringBuilder hint = new StringBuilder(
-                "Perhaps you mean one of the following:\n\t----------\n\t"
-        );
-        var allSuggestions = getSuggestionsForInvalidStep(invalidStep, locale, -1, true);
-        if (allSuggestions.size() > maxSuggestions) {
-            allSuggestions = getSuggestionsForInvalidStep(invalidStep, locale, maxSuggestions, false);
-        }
-        for (String stepHint : allSuggestions) {
-            hint.append(stepHint).append("\n\t");
-        }
-        return hint.toString();
+        return hinter.getHintFor(invalidStep, locale, locale);
     }
 
     /**
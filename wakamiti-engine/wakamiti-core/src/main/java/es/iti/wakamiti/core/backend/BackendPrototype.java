@@ -0,0 +1,133 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.WakamitiDataTypeRegistry;
+import es.iti.wakamiti.api.util.ThrowableRunnable;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+
+/**
+ * Immutable part of a backend that can be shared by every backend created
+ * with the same modules and step contributor classes: the data type
+ * registry, the step definitions with their arguments, the set-up and
+ * tear-down methods, and the step indexes.
+ * <p>
+ * Since step contributors keep the state of a single test case, each
+ * backend binds the prototype to its own contributor instances.
+ *
+ * @see DefaultBackendFactory
+ */
+class BackendPrototype {
+
+    private final WakamitiDataTypeRegistry typeRegistry;
+    private final List<ContributorMethod> steps;
+    private final List<ContributorMethod> setUpMethods;
+    private final List<ContributorMethod> tearDownMethods;
+    private final Map<Locale, RunnableStepIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<List<Object>, StepHintIndex> hintIndexes = new ConcurrentHashMap<>();
+
+
+    BackendPrototype(
+            WakamitiDataTypeRegistry typeRegistry,
+            List<ContributorMethod> steps,
+            List<ContributorMethod> setUpMethods,
+            List<ContributorMethod> tearDownMethods
+    ) {
+        this.typeRegistry = typeRegistry;
+        this.steps = List.copyOf(steps);
+        this.setUpMethods = List.copyOf(setUpMethods);
+        this.tearDownMethods = List.copyOf(tearDownMethods);
+    }
+
+
+    /**
+     * @return The data type registry shared by every backend.
+     */
+    WakamitiDataTypeRegistry typeRegistry() {
+        return typeRegistry;
+    }
+
+
+    /**
+     * Creates the runnable steps bound to the given contributors.
+     *
+     * @param contributors The contributor instances of the backend, in the
+     *                     same order used to build the prototype.
+     * @return The runnable steps
+     */
+    List<RunnableStep> bindSteps(List<?> contributors) {
+        return steps.stream()
+                .map(step -> step.step.withExecutor(step.bindTo(contributors)))
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Creates the set-up operations bound to the given contributors.
+     *
+     * @param contributors The contributor instances of the backend.
+     * @return The set-up operations, sorted by their order
+     */
+    List<ThrowableRunnable> bindSetUpOperations(List<?> contributors) {
+        return setUpMethods.stream().map(method -> method.bindTo(contributors)).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Creates the tear-down operations bound to the given contributors.
+     *
+     * @param contributors The contributor instances of the backend.
+     * @return The tear-down operations, sorted by their order
+     */
+    List<ThrowableRunnable> bindTearDownOperations(List<?> contributors) {
+        return tearDownMethods.stream().map(method -> method.bindTo(contributors)).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Creates a step resolver that shares the step and hint indexes of the
+     * prototype.
+     *
+     * @param boundSteps The runnable steps obtained from {@link #bindSteps(List)}.
+     * @return The step resolver
+     */
+    RunnableStepResolver newResolver(List<RunnableStep> boundSteps) {
+        return new RunnableStepResolver(typeRegistry, boundSteps, indexes, hintIndexes);
+    }
+
+
+    /**
+     * A method declared by one of the step contributors.
+     */
+    static class ContributorMethod {
+
+        private final int contributor;
+        private final MethodInvoker invoker;
+        private final RunnableStep step;
+
+        /**
+         * @param contributor The position of the contributor declaring the method.
+         * @param method      The method.
+         * @param step        The step definition, if the method is a step.
+         */
+        ContributorMethod(int contributor, Method method, RunnableStep step) {
+            this.contributor = contributor;
+            this.invoker = new MethodInvoker(method);
+            this.step = step;
+        }
+
+        private ThrowableRunnable bindTo(List<?> contributors) {
+            return invoker.bindTo(contributors.get(contributor));
+        }
+    }
+
+}
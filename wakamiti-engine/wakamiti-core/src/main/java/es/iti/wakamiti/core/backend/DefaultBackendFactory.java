@@ -17,7 +17,6 @@ import es.iti.wakamiti.api.extensions.DataTypeContributor;
 import es.iti.wakamiti.api.extensions.StepContributor;
 import es.iti.wakamiti.api.plan.NodeType;
 import es.iti.wakamiti.api.plan.PlanNode;
-import es.iti.wakamiti.api.util.ThrowableRunnable;
 import es.iti.wakamiti.core.Wakamiti;
 import es.iti.wakamiti.api.imconfig.Configuration;
 import org.slf4j.Logger;
@@ -27,6 +26,8 @@ import java.lang.reflect.Method;
 import java.time.Clock;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -38,6 +39,10 @@ import java.util.stream.Stream;
  * It manages the loading of step contributors and data type contributors to support the creation of runnable steps.
  * The factory supports the creation of both RunnableBackend for executing test cases and NonRunnableBackend
  * for scenarios that don't involve test execution.
+ * <p>
+ * Step contributors are created for every backend, since they keep the state of a single test case, but
+ * everything derived from their classes (data types, step definitions and step indexes) is computed once
+ * and shared as a {@link BackendPrototype}.
  *
  * @author Luis Iñesta Gelabert - linesta@iti.es
  */
@@ -47,6 +52,7 @@ public class DefaultBackendFactory implements BackendFactory {
     private static final List<String> DEFAULT_MODULES = List.of("core-types", "assertion-types", "duration-types");
 
     private final WakamitiContributors contributors;
+    private final Map<List<Object>, BackendPrototype> prototypes = new ConcurrentHashMap<>();
 
     public DefaultBackendFactory(WakamitiContributors contributors) {
         this.contributors = contributors;
@@ -118,50 +124,78 @@ public class DefaultBackendFactory implements BackendFactory {
                 !runnableBackend
         );
 
-        Stream<DataTypeContributor> dataTypeContributors = resolveDataTypeContributors(
-                restrictedModules
-        );
-
-        WakamitiDataTypeRegistry typeRegistry = loadTypes(dataTypeContributors);
-        List<RunnableStep> steps = createSteps(stepContributors, typeRegistry);
+        BackendPrototype prototype = getPrototype(restrictedModules, stepContributors);
+        List<RunnableStep> steps = prototype.bindSteps(stepContributors);
+        RunnableStepResolver resolver = prototype.newResolver(steps);
         Clock clock = Clock.systemUTC();
         if (runnableBackend) {
             return new RunnableBackend(
                     testCase,
                     configuration,
-                    typeRegistry,
+                    prototype.typeRegistry(),
                     steps,
-                    getSetUpOperations(stepContributors),
-                    getTearDownOperations(stepContributors),
+                    resolver,
+                    prototype.bindSetUpOperations(stepContributors),
+                    prototype.bindTearDownOperations(stepContributors),
                     clock
             );
         } else {
-            return new NonRunnableBackend(configuration, typeRegistry, steps);
+            return new NonRunnableBackend(configuration, prototype.typeRegistry(), steps, resolver);
         }
     }
 
     /**
-     * Retrieves a list of setup operations from the provided StepContributors.
+     * Gets the backend prototype for the given modules and step contributors,
+     * creating it the first time. Prototypes only depend on the modules and
+     * the classes of the step contributors, so they are shared by every
+     * backend with the same ones.
      *
-     * @param stepContributors List of StepContributors to retrieve setup operations from.
-     * @return List of setup operations represented as ThrowableRunnable.
-     * @see SetUp
-     * @see ThrowableRunnable
+     * @param restrictedModules List of module names used to restrict the data types.
+     * @param stepContributors  The step contributors of the backend.
+     * @return The backend prototype.
+     * @see BackendPrototype
      */
-    private List<ThrowableRunnable> getSetUpOperations(List<StepContributor> stepContributors) {
-        return loadMethods(stepContributors, SetUp.class, SetUp::order);
+    private BackendPrototype getPrototype(
+            List<String> restrictedModules,
+            List<StepContributor> stepContributors
+    ) {
+        List<Object> key = List.of(
+                List.copyOf(restrictedModules),
+                stepContributors.stream().map(Object::getClass).collect(Collectors.toList())
+        );
+        return prototypes.computeIfAbsent(key, x -> createPrototype(restrictedModules, stepContributors));
     }
 
     /**
-     * Retrieves a list of teardown operations from the provided StepContributors.
+     * Creates a backend prototype, inspecting the data type contributors of
+     * the given modules and the step, set-up and tear-down methods of the
+     * given step contributors.
      *
-     * @param stepContributors List of StepContributors to retrieve teardown operations from.
-     * @return List of teardown operations represented as ThrowableRunnable.
-     * @see TearDown
-     * @see ThrowableRunnable
+     * @param restrictedModules List of module names used to restrict the data types.
+     * @param stepContributors  The step contributors used as template.
+     * @return The backend prototype.
      */
-    private List<ThrowableRunnable> getTearDownOperations(List<StepContributor> stepContributors) {
-        return loadMethods(stepContributors, TearDown.class, TearDown::order);
+    private BackendPrototype createPrototype(
+            List<String> restrictedModules,
+            List<StepContributor> stepContributors
+    ) {
+        LOGGER.debug("Creating backend prototype for modules {}", restrictedModules);
+        WakamitiDataTypeRegistry typeRegistry = loadTypes(resolveDataTypeContributors(restrictedModules));
+        List<BackendPrototype.ContributorMethod> steps = new ArrayList<>();
+        for (int i = 0; i < stepContributors.size(); i++) {
+            int contributor = i;
+            createContributorSteps(
+                    stepContributors.get(i),
+                    typeRegistry,
+                    (method, step) -> steps.add(new BackendPrototype.ContributorMethod(contributor, method, step))
+            );
+        }
+        return new BackendPrototype(
+                typeRegistry,
+                steps,
+                loadMethods(stepContributors, SetUp.class, SetUp::order),
+                loadMethods(stepContributors, TearDown.class, TearDown::order)
+        );
     }
 
     /**
@@ -274,38 +308,37 @@ public class DefaultBackendFactory implements BackendFactory {
     /**
      * Loads methods annotated with a specific annotation from a list of StepContributors.
      * Creates a mapping of methods to their corresponding annotation instances, sorts them based on the provided order,
-     * and returns a list of ThrowableRunnable instances that can invoke the methods.
+     * and returns a list of the methods along with the position of their contributor.
      *
      * @param <A>              The type of the annotation.
      * @param stepContributors List of StepContributors to inspect for annotated methods.
      * @param annotation       The annotation class to search for on the methods.
      * @param orderGetter      Function to extract the order value from the annotation.
-     * @return List of ThrowableRunnable instances representing annotated methods, sorted by the specified order.
+     * @return List of annotated methods, sorted by the specified order.
      * @see StepContributor
      * @see Annotation
-     * @see ThrowableRunnable
      */
-    private <A extends Annotation> List<ThrowableRunnable> loadMethods(
+    private <A extends Annotation> List<BackendPrototype.ContributorMethod> loadMethods(
             List<StepContributor> stepContributors,
             Class<A> annotation,
             ToIntFunction<A> orderGetter
     ) {
-        LinkedHashMap<ThrowableRunnable, A> runnable = new LinkedHashMap<>();
-        for (StepContributor stepContributor : stepContributors) {
-            for (Method method : stepContributor.getClass().getMethods()) {
+        LinkedHashMap<BackendPrototype.ContributorMethod, A> methods = new LinkedHashMap<>();
+        for (int i = 0; i < stepContributors.size(); i++) {
+            for (Method method : stepContributors.get(i).getClass().getMethods()) {
                 if (method.isAnnotationPresent(annotation)) {
-                    runnable.put(
-                            args -> method.invoke(stepContributor),
+                    methods.put(
+                            new BackendPrototype.ContributorMethod(i, method, null),
                             method.getAnnotation(annotation)
                     );
                 }
             }
         }
 
-        Comparator<? super Entry<ThrowableRunnable, A>> sorter = Comparator
+        Comparator<? super Entry<BackendPrototype.ContributorMethod, A>> sorter = Comparator
                 .comparingInt(e -> orderGetter.applyAsInt(e.getValue()));
 
-        return runnable.entrySet().stream()
+        return methods.entrySet().stream()
                 .sorted(sorter)
                 .map(Entry::getKey)
                 .collect(Collectors.toList());
@@ -445,6 +478,14 @@ public class DefaultBackendFactory implements BackendFactory {
             List<RunnableStep> output,
             Object stepProvider,
             WakamitiDataTypeRegistry typeRegistry
+    ) {
+        createContributorSteps(stepProvider, typeRegistry, (method, step) -> output.add(step));
+    }
+
+    private void createContributorSteps(
+            Object stepProvider,
+            WakamitiDataTypeRegistry typeRegistry,
+            BiConsumer<Method, RunnableStep> output
     ) {
         String stepProviderName = (stepProvider instanceof Contributor) ?
                 ((Contributor) stepProvider).info() :
@@ -457,7 +498,7 @@ public class DefaultBackendFactory implements BackendFactory {
                 String info = (stepClassifier.isBlank() ? stepProviderName : stepClassifier);
                 try {
                     RunnableStep step = createRunnableStep(stepProvider, method, typeRegistry, info);
-                    output.add(step);
+                    output.accept(method, step);
                     if (LOGGER.isTraceEnabled()) {
                         LOGGER.trace(
                                 "using step <{}@{}::'{}' {}>",
@@ -523,7 +564,7 @@ public class DefaultBackendFactory implements BackendFactory {
                 stepDefinitionFile.value(),
                 stepDefinition.value(),
                 new BackendArguments(runnableObject.getClass(), runnableMethod, typeRegistry),
-                (args -> runnableMethod.invoke(runnableObject, args)),
+                new MethodInvoker(runnableMethod).bindTo(runnableObject),
                 stepProvider
         );
     }
@@ -0,0 +1,129 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.util.ThrowableRunnable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+
+/**
+ * Invokes a step, set-up or tear-down method through a method handle
+ * resolved once, instead of using reflection on every call.
+ * <p>
+ * Exceptions thrown by the method are wrapped in an
+ * {@link InvocationTargetException}, the same way as
+ * {@link Method#invoke(Object, Object...)} does, while errors binding the
+ * instance and the arguments to the method (such as a
+ * {@link ClassCastException} or an {@link IllegalArgumentException}) are
+ * thrown as they are. If the method cannot be accessed using a method
+ * handle, reflection is used instead.
+ */
+final class MethodInvoker {
+
+    private static final MethodHandle TARGET_EXCEPTION = targetExceptionHandle();
+
+    private final Method method;
+    private final MethodHandle handle;
+
+
+    MethodInvoker(Method method) {
+        this.method = method;
+        this.handle = resolveHandle(method);
+    }
+
+
+    /**
+     * Creates a runnable that invokes the method on the given instance.
+     *
+     * @param instance The object declaring the method.
+     * @return The bound runnable
+     */
+    ThrowableRunnable bindTo(Object instance) {
+        return args -> invoke(instance, args);
+    }
+
+
+    /**
+     * Invokes the method.
+     *
+     * @param instance  The object declaring the method.
+     * @param arguments The method arguments.
+     * @return The value returned by the method, or {@code null} if it is
+     * {@code void}
+     * @throws InvocationTargetException If the method throws an exception.
+     * @throws IllegalAccessException    If the method is not accessible.
+     */
+    Object invoke(Object instance, Object[] arguments) throws InvocationTargetException, IllegalAccessException {
+        if (handle == null) {
+            return method.invoke(instance, arguments);
+        }
+        if (instance == null && !Modifier.isStatic(method.getModifiers())) {
+            throw new NullPointerException("Cannot invoke " + method + " on a null instance");
+        }
+        try {
+            return (Object) handle.invokeExact(instance, arguments);
+        } catch (InvocationTargetException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // not thrown by the handle adaptations, and the method ones are already wrapped
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Wraps the exceptions thrown by the method itself and adapts it to the
+     * generic type {@code (Object,Object[])Object} so it can be invoked with
+     * {@code invokeExact}. Since the adaptations are applied outside the
+     * wrapping, their errors are not wrapped.
+     */
+    private static MethodHandle resolveHandle(Method method) {
+        MethodHandle methodHandle;
+        try {
+            methodHandle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        MethodHandle handler = TARGET_EXCEPTION.asType(
+                MethodType.methodType(methodHandle.type().returnType(), Throwable.class)
+        );
+        handler = MethodHandles.dropArguments(handler, 1, methodHandle.type().parameterList());
+        methodHandle = MethodHandles.catchException(methodHandle, Throwable.class, handler);
+        int parameters = method.getParameterCount();
+        if (Modifier.isStatic(method.getModifiers())) {
+            methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+        }
+        return methodHandle
+                .asType(MethodType.genericMethodType(parameters + 1))
+                .asSpreader(Object[].class, parameters);
+    }
+
+
+    private static MethodHandle targetExceptionHandle() {
+        try {
+            return MethodHandles.lookup().findStatic(
+                    MethodInvoker.class,
+                    "targetException",
+                    MethodType.methodType(Object.class, Throwable.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+
+    private static Object targetException(Throwable e) throws InvocationTargetException {
+        throw new InvocationTargetException(e);
+    }
+
+}
@@ -31,6 +31,15 @@ public class NonRunnableBackend extends AbstractBackend {
         super(configuration, typeRegistry, steps);
     }
 
+    NonRunnableBackend(
+            Configuration configuration,
+            WakamitiDataTypeRegistry typeRegistry,
+            List<RunnableStep> steps,
+            RunnableStepResolver resolver
+    ) {
+        super(configuration, typeRegistry, steps, resolver);
+    }
+
     /**
      * {@inheritDoc}
      * This implementation throws an {@code UnsupportedOperationException}, as
@@ -75,7 +75,29 @@ public class RunnableBackend extends AbstractBackend {
             List<ThrowableRunnable> tearDownOperations,
             Clock clock
     ) {
-        super(configuration, typeRegistry, steps);
+        this(
+                testCase,
+                configuration,
+                typeRegistry,
+                steps,
+                new RunnableStepResolver(typeRegistry, steps),
+                setUpOperations,
+                tearDownOperations,
+                clock
+        );
+    }
+
+    RunnableBackend(
+            PlanNode testCase,
+            Configuration configuration,
+            WakamitiDataTypeRegistry typeRegistry,
+            List<RunnableStep> steps,
+            RunnableStepResolver resolver,
+            List<ThrowableRunnable> setUpOperations,
+            List<ThrowableRunnable> tearDownOperations,
+            Clock clock
+    ) {
+        super(configuration, typeRegistry, steps, resolver);
         this.testCase = testCase;
         this.setUpOperations = setUpOperations;
         this.tearDownOperations = tearDownOperations;
@@ -17,6 +17,7 @@ import org.slf4j.Logger;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 
 
@@ -30,7 +31,7 @@ public class RunnableStep {
     private static final Logger LOGGER = Wakamiti.LOGGER;
     private final String definitionFile;
     private final String definitionKey;
-    private final Map<Locale, String> translatedDefinitions = new HashMap<>();
+    private final Map<Locale, String> translatedDefinitions;
     private final BackendArguments arguments;
     private final ThrowableRunnable executor;
     private final ResourceLoader resourceLoader = WakamitiAPI.instance().resourceLoader();
@@ -49,6 +50,28 @@ public class RunnableStep {
         this.arguments = arguments;
         this.executor = stepExecutor;
         this.stepProvider = stepProvider;
+        this.translatedDefinitions = new ConcurrentHashMap<>();
+    }
+
+    private RunnableStep(RunnableStep prototype, ThrowableRunnable stepExecutor) {
+        this.definitionFile = prototype.definitionFile;
+        this.definitionKey = prototype.definitionKey;
+        this.arguments = prototype.arguments;
+        this.executor = stepExecutor;
+        this.stepProvider = prototype.stepProvider;
+        this.translatedDefinitions = prototype.translatedDefinitions;
+    }
+
+    /**
+     * Creates a copy of this step that runs using another executor, usually
+     * bound to a different instance of the step provider. The copy shares
+     * the definition, arguments and translations of this step.
+     *
+     * @param stepExecutor The executor of the copy.
+     * @return The new runnable step.
+     */
+    RunnableStep withExecutor(ThrowableRunnable stepExecutor) {
+        return new RunnableStep(this, stepExecutor);
     }
 
     /**
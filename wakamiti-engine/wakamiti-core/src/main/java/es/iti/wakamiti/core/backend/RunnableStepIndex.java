@@ -0,0 +1,142 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+
+/**
+ * Keyword index over the translated definitions of a list of runnable steps,
+ * for a given locale. The index refers to the steps by their position, so it
+ * can be shared by any list of steps with the same definitions in the same
+ * order.
+ * <p>
+ * Every definition is indexed by one of its <em>mandatory words</em>, that is,
+ * literal words outside any optional group, alternative, wildcard or argument.
+ * Such a word must appear as a whole word in any step matching the
+ * definition, so the definitions that may match a step are those indexed by
+ * any of the step words, plus the few definitions without mandatory words.
+ * The least frequent mandatory word is chosen for each definition in order to
+ * keep the candidate lists short, and candidates missing any other mandatory
+ * word are discarded. Remaining candidates still need to be checked using the
+ * complete regular expression.
+ */
+class RunnableStepIndex {
+
+    private static final String REGEX_SYMBOLS = "\\.?+*^$|()[]{}";
+    private static final List<String> UNSUPPORTED_SYNTAX = List.of("(?", "\\Q", ")|", "|(", "]|", "|[");
+
+    private final List<Set<String>> wordsByStep;
+    private final Map<String, BitSet> stepsByWord = new HashMap<>();
+    private final BitSet unindexedSteps = new BitSet();
+    private final Map<String, Integer> stepsByDefinition = new HashMap<>();
+
+
+    RunnableStepIndex(List<RunnableStep> runnableSteps, Locale locale) {
+        this.wordsByStep = new ArrayList<>(runnableSteps.size());
+        Map<String, Integer> wordFrequency = new HashMap<>();
+        for (RunnableStep runnableStep : runnableSteps) {
+            String definition = runnableStep.getTranslatedDefinition(locale);
+            stepsByDefinition.putIfAbsent(definition, wordsByStep.size());
+            Set<String> words = mandatoryWords(definition);
+            words.forEach(word -> wordFrequency.merge(word, 1, Integer::sum));
+            wordsByStep.add(words);
+        }
+        for (int i = 0; i < runnableSteps.size(); i++) {
+            Optional<String> keyword = wordsByStep.get(i).stream()
+                    .min(Comparator.comparing((String word) -> wordFrequency.get(word))
+                            .thenComparing(Comparator.comparing(String::length).reversed()));
+            if (keyword.isPresent()) {
+                stepsByWord.computeIfAbsent(keyword.get(), word -> new BitSet()).set(i);
+            } else {
+                unindexedSteps.set(i);
+            }
+        }
+    }
+
+
+    /**
+     * Gets the positions of the runnable steps that may match the given step,
+     * in ascending order.
+     *
+     * @param stepName The step text.
+     * @return The positions of the candidate runnable steps
+     */
+    IntStream candidates(String stepName) {
+        Set<String> stepWords = new HashSet<>(Arrays.asList(stepName.split("\\s+")));
+        BitSet candidates = (BitSet) unindexedSteps.clone();
+        for (String word : stepWords) {
+            BitSet steps = stepsByWord.get(word);
+            if (steps != null) {
+                candidates.or(steps);
+            }
+        }
+        return candidates.stream()
+                .filter(i -> stepWords.containsAll(wordsByStep.get(i)));
+    }
+
+
+    /**
+     * Gets the position of the first runnable step with exactly the given
+     * translated definition.
+     *
+     * @param definition The translated definition.
+     * @return The position of the runnable step, if any
+     */
+    OptionalInt byDefinition(String definition) {
+        Integer position = stepsByDefinition.get(definition);
+        return position == null ? OptionalInt.empty() : OptionalInt.of(position);
+    }
+
+
+    /**
+     * Extracts the words of a definition that must be present in every
+     * matching step. Words containing any regular expression symbol, or
+     * placed inside a group, are discarded. Definitions using inline flags,
+     * quotations or alternatives of groups are not analyzed at all, since
+     * their literal words may match different texts.
+     *
+     * @param definition The translated definition.
+     * @return The mandatory words
+     */
+    static Set<String> mandatoryWords(String definition) {
+        Set<String> words = new LinkedHashSet<>();
+        if (UNSUPPORTED_SYNTAX.stream().anyMatch(definition::contains)) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        boolean discarded = false;
+        int depth = 0;
+        for (int i = 0; i < definition.length(); i++) {
+            char c = definition.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (depth == 0 && !discarded && word.length() > 0) {
+                    words.add(word.toString());
+                }
+                word.setLength(0);
+                discarded = false;
+                continue;
+            }
+            boolean escaped = i > 0 && definition.charAt(i - 1) == '\\';
+            if (!escaped && (c == '(' || c == '[' || c == '{')) {
+                depth++;
+            } else if (!escaped && (c == ')' || c == ']' || c == '}')) {
+                depth = Math.max(0, depth - 1);
+            }
+            if (REGEX_SYMBOLS.indexOf(c) >= 0) {
+                discarded = true;
+            }
+            word.append(c);
+        }
+        if (depth == 0 && !discarded && word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+}
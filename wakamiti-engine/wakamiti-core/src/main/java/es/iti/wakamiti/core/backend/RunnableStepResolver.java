@@ -14,7 +14,10 @@ import es.iti.wakamiti.api.util.Pair;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.stream.Collectors;
@@ -23,6 +26,13 @@ import java.util.stream.Collectors;
 /**
  * This class is responsible for resolving RunnableSteps during test execution.
  * It helps locate the appropriate RunnableStep based on a given step definition.
+ * <p>
+ * The runnable steps are indexed by locale the first time they are required,
+ * so only a few candidates must be checked against every step. The hints
+ * suggested for undefined steps are indexed in the same way.
+ *
+ * @see RunnableStepIndex
+ * @see StepHintIndex
  *
  * @author Luis Iñesta Gelabert - linesta@iti.es
  */
@@ -30,14 +40,37 @@ public class RunnableStepResolver {
 
     private final WakamitiDataTypeRegistry typeRegistry;
     private final List<RunnableStep> runnableSteps;
+    private final Map<Locale, RunnableStepIndex> indexes;
+    private final Map<List<Object>, StepHintIndex> hintIndexes;
 
 
     RunnableStepResolver(
             WakamitiDataTypeRegistry typeRegistry,
             List<RunnableStep> runnableSteps
+    ) {
+        this(typeRegistry, runnableSteps, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Creates a resolver reusing the indexes of another list of runnable
+     * steps with the same definitions in the same order.
+     *
+     * @param typeRegistry  The data type registry.
+     * @param runnableSteps The runnable steps.
+     * @param indexes       The shared indexes, by step locale.
+     * @param hintIndexes   The shared hint indexes, by text locale, data
+     *                      locale and inclusion of variations.
+     */
+    RunnableStepResolver(
+            WakamitiDataTypeRegistry typeRegistry,
+            List<RunnableStep> runnableSteps,
+            Map<Locale, RunnableStepIndex> indexes,
+            Map<List<Object>, StepHintIndex> hintIndexes
     ) {
         this.typeRegistry = typeRegistry;
         this.runnableSteps = runnableSteps;
+        this.indexes = indexes;
+        this.hintIndexes = hintIndexes;
     }
 
     /**
@@ -105,7 +138,8 @@ public class RunnableStepResolver {
 
         String stepName = step.mapValueOrFallback(PlanNode::name);
 
-        List<Pair<RunnableStep, Matcher>> locatedSteps = runnableSteps.stream()
+        List<Pair<RunnableStep, Matcher>> locatedSteps = index(stepLocale).candidates(stepName)
+                .mapToObj(runnableSteps::get)
                 .map(Pair.compute(matcher))
                 .filter(pair -> pair.value().matches())
                 .collect(Collectors.toList());
@@ -141,9 +175,29 @@ public class RunnableStepResolver {
      * Optional if not found.
      */
     Optional<RunnableStep> obtainRunnableStepByDefinition(String stepDefinition, Locale stepLocale) {
-        return runnableSteps.stream()
-                .filter(runnableStep -> stepDefinition.equals(runnableStep.getTranslatedDefinition(stepLocale)))
-                .findAny();
+        OptionalInt position = index(stepLocale).byDefinition(stepDefinition);
+        return position.isPresent() ? Optional.of(runnableSteps.get(position.getAsInt())) : Optional.empty();
+    }
+
+    /**
+     * Obtains the index of the step hints for the given locales, creating it
+     * the first time it is required.
+     *
+     * @param textLocale        The locale for the step.
+     * @param dataLocale        The locale for the test data.
+     * @param includeVariations If true, the hints include the variations of
+     *                          every step using the data type hints.
+     * @return The hint index
+     */
+    StepHintIndex hintIndex(Locale textLocale, Locale dataLocale, boolean includeVariations) {
+        return hintIndexes.computeIfAbsent(
+                List.of(textLocale, dataLocale, includeVariations),
+                key -> StepHintIndex.of(runnableSteps, typeRegistry, textLocale, dataLocale, includeVariations)
+        );
+    }
+
+    private RunnableStepIndex index(Locale stepLocale) {
+        return indexes.computeIfAbsent(stepLocale, locale -> new RunnableStepIndex(runnableSteps, locale));
     }
 
 
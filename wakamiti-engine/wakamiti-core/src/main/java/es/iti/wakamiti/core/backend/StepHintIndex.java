@@ -0,0 +1,215 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.WakamitiDataType;
+import es.iti.wakamiti.api.WakamitiDataTypeRegistry;
+import es.iti.wakamiti.core.util.Simil;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+
+/**
+ * Index over the step hints of a list of runnable steps, for a given
+ * text locale and data locale. The hints are the translated definitions of
+ * the steps or, when variations are included, every variant obtained by
+ * replacing the step arguments with the hints of their data types.
+ * <p>
+ * The index keeps the number of occurrences of every character in every hint,
+ * so the hints that cannot be among the closest ones to a given text are
+ * discarded without computing their {@link Simil} similarity. Hints with the
+ * same similarity keep the order of the step definitions.
+ *
+ * @see StepHinter
+ */
+class StepHintIndex {
+
+    private final List<String> hints;
+    private final int[] lengths;
+    private final Map<Character, short[]> charCounts = new HashMap<>();
+
+
+    StepHintIndex(Collection<String> hints) {
+        this.hints = List.copyOf(new LinkedHashSet<>(hints));
+        this.lengths = new int[this.hints.size()];
+        for (int i = 0; i < this.hints.size(); i++) {
+            String hint = this.hints.get(i).toUpperCase();
+            lengths[i] = hint.length();
+            for (int c = 0; c < hint.length(); c++) {
+                short[] counts = charCounts.computeIfAbsent(hint.charAt(c), x -> new short[this.hints.size()]);
+                counts[i] = (short) Math.min(Short.MAX_VALUE, counts[i] + 1);
+            }
+        }
+    }
+
+
+    /**
+     * Creates the index of the hints of the given runnable steps.
+     *
+     * @param runnableSteps     The runnable steps.
+     * @param typeRegistry      The data type registry.
+     * @param textLocale        The text locale.
+     * @param dataLocale        The data locale.
+     * @param includeVariations If true, includes the variations of every step
+     *                          using the data type hints.
+     * @return The hint index
+     */
+    static StepHintIndex of(
+            List<RunnableStep> runnableSteps,
+            WakamitiDataTypeRegistry typeRegistry,
+            Locale textLocale,
+            Locale dataLocale,
+            boolean includeVariations
+    ) {
+        Map<WakamitiDataType<?>, Pattern> types = new LinkedHashMap<>();
+        for (WakamitiDataType<?> type : typeRegistry.getTypes()) {
+            types.put(type, Pattern.compile("\\{[^:]*:?" + type.getName() + "}"));
+        }
+        Set<String> stepHints = new LinkedHashSet<>();
+        for (RunnableStep runnableStep : runnableSteps) {
+            String stepHint = runnableStep.getTranslatedDefinition(textLocale);
+            if (includeVariations) {
+                stepHints.addAll(populateStepHintWithTypeHints(stepHint, dataLocale, types));
+            } else {
+                stepHints.add(stepHint);
+            }
+        }
+        return new StepHintIndex(stepHints);
+    }
+
+
+    /**
+     * @return Every hint, in order of the step definitions.
+     */
+    List<String> hints() {
+        return hints;
+    }
+
+
+    /**
+     * Finds the hints closer to the given text, sorted in descending order of
+     * similarity.
+     * <p>
+     * The number of characters shared by the text and every hint is an upper
+     * bound of their similarity, since the similarity only counts common
+     * substrings. Hints are checked in descending order of that bound, so the
+     * search stops as soon as no remaining hint can improve the results.
+     *
+     * @param text         The reference text.
+     * @param limitResults The maximum number of results to return. Use -1 to
+     *                     return all the hints.
+     * @return The closer hints
+     */
+    List<String> closest(String text, int limitResults) {
+        if (text.isEmpty() || limitResults == 0) {
+            return limitResults < 0 ? hints : hints.subList(0, Math.min(limitResults, hints.size()));
+        }
+        int limit = limitResults < 0 ? hints.size() : Math.min(limitResults, hints.size());
+        int[] bounds = upperBounds(text.toUpperCase());
+        Simil simil = new Simil(text);
+        double[] similarity = new double[hints.size()];
+        Comparator<Integer> bySimilarity = Comparator.comparingDouble((Integer i) -> similarity[i]).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        TreeSet<Integer> best = new TreeSet<>(bySimilarity);
+        for (int candidate : sortByBound(bounds)) {
+            if (best.size() == limit && bounds[candidate] < similarity[best.last()]) {
+                break;
+            }
+            similarity[candidate] = simil.getSimilarityInPercentFor(hints.get(candidate));
+            best.add(candidate);
+            if (best.size() > limit) {
+                best.pollLast();
+            }
+        }
+        return best.stream().map(hints::get).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Computes, for every hint, the greatest similarity it may have with the
+     * given text, according to their common characters.
+     *
+     * @param upperText The reference text, in upper case.
+     * @return The upper bounds, by hint position
+     */
+    private int[] upperBounds(String upperText) {
+        Map<Character, Integer> textCounts = new HashMap<>();
+        for (int c = 0; c < upperText.length(); c++) {
+            textCounts.merge(upperText.charAt(c), 1, Integer::sum);
+        }
+        int[] common = new int[hints.size()];
+        textCounts.forEach((character, count) -> {
+            short[] counts = charCounts.get(character);
+            if (counts != null) {
+                for (int i = 0; i < common.length; i++) {
+                    common[i] += Math.min(count, counts[i]);
+                }
+            }
+        });
+        int[] bounds = new int[hints.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = (int) Math.round(200.0 * common[i] / (upperText.length() + lengths[i]));
+        }
+        return bounds;
+    }
+
+
+    /**
+     * Sorts the hint positions in descending order of their upper bounds.
+     * Since bounds are percentages, a counting sort is used, keeping the
+     * definition order for hints with the same bound.
+     *
+     * @param bounds The upper bounds, by hint position
+     * @return The sorted hint positions
+     */
+    private static int[] sortByBound(int[] bounds) {
+        int[] starts = new int[102];
+        for (int bound : bounds) {
+            starts[101 - bound]++;
+        }
+        for (int b = 1; b < starts.length; b++) {
+            starts[b] += starts[b - 1];
+        }
+        int[] sorted = new int[bounds.length];
+        for (int i = bounds.length - 1; i >= 0; i--) {
+            sorted[--starts[101 - bounds[i]]] = i;
+        }
+        return sorted;
+    }
+
+
+    /**
+     * Populates a list of step hints with variations based on WakamitiDataType hints.
+     *
+     * @param stepHint   The original step hint.
+     * @param dataLocale The locale for which hints should be generated.
+     * @param types      A map of WakamitiDataType patterns to their corresponding regex patterns.
+     * @return A list of step hints with variations based on WakamitiDataType hints.
+     */
+    private static List<String> populateStepHintWithTypeHints(
+            String stepHint,
+            Locale dataLocale,
+            Map<WakamitiDataType<?>, Pattern> types
+    ) {
+        List<String> variants = new ArrayList<>();
+        for (var type : types.entrySet()) {
+            if (type.getValue().matcher(stepHint).find()) {
+                for (String typeHint : type.getKey().getHints(dataLocale)) {
+                    String variant = stepHint.replaceFirst(type.getValue().pattern(), typeHint);
+                    variants.addAll(populateStepHintWithTypeHints(variant, dataLocale, types));
+                }
+            }
+        }
+        if (variants.isEmpty()) {
+            variants.add(stepHint);
+        }
+        return variants;
+    }
+
+}
@@ -8,14 +8,11 @@ package es.iti.wakamiti.core.backend;
 
 import es.iti.wakamiti.api.Hinter;
 import es.iti.wakamiti.api.WakamitiConfiguration;
-import es.iti.wakamiti.api.WakamitiDataType;
 import es.iti.wakamiti.api.WakamitiDataTypeRegistry;
-import es.iti.wakamiti.core.util.StringDistance;
 import es.iti.wakamiti.api.imconfig.Configuration;
 
-import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Locale;
 
 import static java.util.stream.Collectors.toList;
 
@@ -169,22 +166,8 @@ public class StepHinter implements Hinter {
             int numberOfHints,
             boolean includeVariations
     ) {
-        Set<String> stepHints = new HashSet<>();
-        Map<? extends WakamitiDataType<?>, Pattern> types = typeRegistry.getTypes()
-                .stream()
-                .collect(Collectors.toMap(
-                        x -> x,
-                        type -> Pattern.compile("\\{[^:]*:?" + type.getName() + "}")
-                ));
-        for (RunnableStep runnableStep : runnableSteps) {
-            String stepHint = runnableStep.getTranslatedDefinition(textLocale);
-            if (includeVariations) {
-                stepHints.addAll(populateStepHintWithTypeHints(stepHint, dataLocale, types));
-            } else {
-                stepHints.add(stepHint);
-            }
-        }
-        return StringDistance.closerStrings(invalidStep, stepHints, numberOfHints);
+        return stepResolver.hintIndex(textLocale, dataLocale, includeVariations)
+                .closest(invalidStep, numberOfHints);
     }
 
     /**
@@ -200,47 +183,15 @@ public class StepHinter implements Hinter {
         StringBuilder hint = new StringBuilder(
                 "Perhaps you mean one of the following:\n\t----------\n\t"
         );
+        boolean includeVariations =
+                stepResolver.hintIndex(textLocale, dataLocale, true).hints().size() <= maxSuggestions;
         var allSuggestions = getHintsForInvalidStep(
-                invalidStep, textLocale, dataLocale, -1, true
+                invalidStep, textLocale, dataLocale, maxSuggestions, includeVariations
         );
-        if (allSuggestions.size() > maxSuggestions) {
-            allSuggestions = getHintsForInvalidStep(
-                    invalidStep, textLocale, dataLocale, maxSuggestions, false
-            );
-        }
         for (String stepHint : allSuggestions) {
             hint.append(stepHint).append("\n\t");
         }
         return hint.toString();
     }
 
-
-    /**
-     * Populates a list of step hints with variations based on WakamitiDataType hints.
-     *
-     * @param stepHint   The original step hint.
-     * @param dataLocale The locale for which hints should be generated.
-     * @param types      A map of WakamitiDataType patterns to their corresponding regex patterns.
-     * @return A list of step hints with variations based on WakamitiDataType hints.
-     */
-    private List<String> populateStepHintWithTypeHints(
-            String stepHint,
-            Locale dataLocale,
-            Map<? extends WakamitiDataType<?>, Pattern> types
-    ) {
-        List<String> variants = new ArrayList<>();
-        for (var type : types.entrySet()) {
-            if (type.getValue().matcher(stepHint).find()) {
-                for (String typeHint : type.getKey().getHints(dataLocale)) {
-                    String variant = stepHint.replaceFirst(type.getValue().pattern(), typeHint);
-                    variants.addAll(populateStepHintWithTypeHints(variant, dataLocale, types));
-                }
-            }
-        }
-        if (variants.isEmpty()) {
-            variants.add(stepHint);
-        }
-        return variants;
-    }
-
 }
\ No newline at end of file
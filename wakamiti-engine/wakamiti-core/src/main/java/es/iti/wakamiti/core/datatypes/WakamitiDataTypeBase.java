@@ -10,10 +10,10 @@ import es.iti.wakamiti.api.WakamitiDataType;
 import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.api.util.ThrowableFunction;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,9 +33,9 @@ public class WakamitiDataTypeBase<T> implements WakamitiDataType<T> {
     private final LocaleRegexProvider regexProvider;
     private final LocaleHintProvider hintProvider;
     private final LocaleTypeParser<T> parserProvider;
-    private final Map<Locale, String> regexByLocale = new HashMap<>();
-    private final Map<Locale, List<String>> hintsByLocale = new HashMap<>();
-    private final Map<Locale, TypeParser<T>> parserByLocale = new HashMap<>();
+    private final Map<Locale, String> regexByLocale = new ConcurrentHashMap<>();
+    private final Map<Locale, List<String>> hintsByLocale = new ConcurrentHashMap<>();
+    private final Map<Locale, TypeParser<T>> parserByLocale = new ConcurrentHashMap<>();
 
     /**
      * Creates a new instance of WakamitiDataTypeBase.
@@ -7,18 +7,45 @@
 package es.iti.wakamiti.core.gherkin.parser;
 
 import java.io.Reader;
+import java.util.List;
+import java.util.Optional;
 
 import es.iti.wakamiti.core.gherkin.parser.GherkinDocument;
 import es.iti.wakamiti.core.gherkin.parser.internal.GherkinAstBuilder;
+import es.iti.wakamiti.core.gherkin.parser.internal.GherkinReparser;
 import es.iti.wakamiti.core.gherkin.parser.internal.Parser;
 
 public class GherkinParser {
 
     private final Parser<es.iti.wakamiti.core.gherkin.parser.GherkinDocument> parser = new Parser<>(new GherkinAstBuilder());
+    private final GherkinReparser reparser = new GherkinReparser(parser);
 
     public GherkinDocument parse(Reader reader) {
         return parser.parse(reader);
     }
 
 
+    /**
+     * Reparses a previously parsed document after a change, restarting only
+     * from the scenarios around the changed lines.
+     *
+     * @param previous         The document parsed before the change
+     * @param lines            The lines of the changed document
+     * @param firstChangedLine The first changed line (1-based), in the previous document
+     * @param lastChangedLine  The last changed line (1-based), in the previous document
+     * @param lineDelta        The number of lines added (or removed, if negative) by the change
+     * @return The reparsed document, or empty if the change cannot be reparsed
+     * incrementally and the whole document must be parsed again
+     */
+    public Optional<GherkinDocument> reparse(
+        GherkinDocument previous,
+        List<String> lines,
+        int firstChangedLine,
+        int lastChangedLine,
+        int lineDelta
+    ) {
+        return reparser.reparse(previous, lines, firstChangedLine, lastChangedLine, lineDelta);
+    }
+
+
 }
\ No newline at end of file
@@ -0,0 +1,388 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.core.gherkin.parser.internal;
+
+import java.util.*;
+
+import es.iti.wakamiti.core.gherkin.parser.Background;
+import es.iti.wakamiti.core.gherkin.parser.Comment;
+import es.iti.wakamiti.core.gherkin.parser.DataTable;
+import es.iti.wakamiti.core.gherkin.parser.DocString;
+import es.iti.wakamiti.core.gherkin.parser.Examples;
+import es.iti.wakamiti.core.gherkin.parser.Feature;
+import es.iti.wakamiti.core.gherkin.parser.GherkinDocument;
+import es.iti.wakamiti.core.gherkin.parser.Location;
+import es.iti.wakamiti.core.gherkin.parser.Node;
+import es.iti.wakamiti.core.gherkin.parser.ParserException;
+import es.iti.wakamiti.core.gherkin.parser.Scenario;
+import es.iti.wakamiti.core.gherkin.parser.ScenarioDefinition;
+import es.iti.wakamiti.core.gherkin.parser.ScenarioOutline;
+import es.iti.wakamiti.core.gherkin.parser.Step;
+import es.iti.wakamiti.core.gherkin.parser.TableCell;
+import es.iti.wakamiti.core.gherkin.parser.TableRow;
+import es.iti.wakamiti.core.gherkin.parser.Tag;
+
+
+/**
+ * <p>
+ * Reparses a gherkin document after a change, restarting from the nearest scenario
+ * boundaries instead of parsing the whole document again.</p>
+ * <p>
+ * The changed lines are extended to the enclosing feature children, plus the previous
+ * and the next ones. Only that region is parsed (as if it were the body of the same
+ * feature), and the resulting children replace the old ones; the children after the
+ * region are kept, moving their locations when the number of lines has changed.</p>
+ * <p>
+ * Whenever the region cannot be parsed on its own exactly as it would be within the
+ * whole document (the change touches the feature header, the boundaries are not clean,
+ * the region is not valid, or some comment would be attached to a node outside the
+ * region), no document is returned and the whole document should be parsed again.</p>
+ */
+public class GherkinReparser {
+
+    private final Parser<GherkinDocument> parser;
+
+
+    public GherkinReparser(Parser<GherkinDocument> parser) {
+        this.parser = parser;
+    }
+
+
+    /**
+     * @param previous         The document parsed before the change
+     * @param lines            The lines of the changed document
+     * @param firstChangedLine The first changed line (1-based), in the previous document
+     * @param lastChangedLine  The last changed line (1-based), in the previous document
+     * @param lineDelta        The number of lines added (or removed, if negative) by the change
+     * @return The reparsed document, or empty if it cannot be reparsed incrementally
+     */
+    public Optional<GherkinDocument> reparse(
+        GherkinDocument previous,
+        List<String> lines,
+        int firstChangedLine,
+        int lastChangedLine,
+        int lineDelta
+    ) {
+        Feature feature = previous == null ? null : previous.getFeature();
+        if (feature == null || feature.getChildren().isEmpty()) {
+            return Optional.empty();
+        }
+        List<ScenarioDefinition> children = feature.getChildren();
+
+        int first = Math.max(childAt(children, firstChangedLine), 0);
+        if (firstChangedLine < start(children.get(first))) {
+            // the change touches the feature header
+            return Optional.empty();
+        }
+        int from = Math.max(first - 1, 0);
+        int to = Math.min(Math.max(childAt(children, lastChangedLine), 0) + 1, children.size() - 1);
+        boolean untilEnd = to == children.size() - 1;
+
+        int regionStart = start(children.get(from));
+        int regionEnd = lines.size();
+        if (!untilEnd) {
+            ScenarioDefinition next = children.get(to + 1);
+            if (lastChangedLine >= start(next)) {
+                return Optional.empty();
+            }
+            regionEnd = start(next) + lineDelta - 1;
+            if (!isLeadingBlock(lines, start(next) + lineDelta, next.getLocation().getLine() + lineDelta)) {
+                return Optional.empty();
+            }
+        }
+        if (from > 0 && !isLeadingBlock(lines, regionStart, children.get(from).getLocation().getLine())) {
+            return Optional.empty();
+        }
+
+        List<ScenarioDefinition> regionChildren = parseRegion(feature, lines, regionStart, regionEnd, untilEnd);
+        if (regionChildren == null) {
+            return Optional.empty();
+        }
+        if (from > 0 && regionChildren.stream().anyMatch(Background.class::isInstance)) {
+            return Optional.empty();
+        }
+
+        List<ScenarioDefinition> newChildren = new ArrayList<>(children.subList(0, from));
+        newChildren.addAll(regionChildren);
+        for (ScenarioDefinition child : children.subList(to + 1, children.size())) {
+            newChildren.add(lineDelta == 0 ? child : move(child, lineDelta));
+        }
+        return Optional.of(new GherkinDocument(new Feature(
+            feature.getTags(),
+            feature.getLocation(),
+            feature.getLanguage(),
+            feature.getKeyword(),
+            feature.getName(),
+            feature.getDescription(),
+            newChildren,
+            feature.getComments()
+        )));
+    }
+
+
+    private List<ScenarioDefinition> parseRegion(
+        Feature feature,
+        List<String> lines,
+        int regionStart,
+        int regionEnd,
+        boolean untilEnd
+    ) {
+        GherkinDocument region;
+        try {
+            region = parser.parse(
+                new RegionTokenScanner(feature.getKeyword() + ": " + feature.getName(), lines, regionStart, regionEnd),
+                new TokenMatcher(feature.getLanguage())
+            );
+        } catch (ParserException e) {
+            return null;
+        }
+        Feature regionFeature = region.getFeature();
+        if (regionFeature == null || regionFeature.getDescription() != null) {
+            // some text of the region would belong to the previous child
+            return null;
+        }
+        if (!untilEnd) {
+            // comments not attached within the region would belong to the next child
+            long regionComments = lines.subList(regionStart - 1, regionEnd).stream()
+                .filter(line -> line.strip().startsWith("#"))
+                .count();
+            long attachedComments = regionFeature.getChildren().stream()
+                .mapToLong(GherkinReparser::attachedComments)
+                .sum();
+            if (regionComments != attachedComments) {
+                return null;
+            }
+        }
+        return regionFeature.getChildren();
+    }
+
+
+    /*
+     * Index of the last child whose keyword line is not after the given line,
+     * or -1 if there is none
+     */
+    private static int childAt(List<ScenarioDefinition> children, int line) {
+        int low = 0;
+        int high = children.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (children.get(middle).getLocation().getLine() <= line) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+
+    /*
+     * First line of a child, including its leading tags and comments
+     */
+    private static int start(ScenarioDefinition child) {
+        int start = child.getLocation().getLine();
+        for (Comment comment : child.getComments()) {
+            start = Math.min(start, comment.getLocation().getLine());
+        }
+        if (child instanceof Scenario) {
+            start = Math.min(start, firstLine(((Scenario) child).getTags(), start));
+        } else if (child instanceof ScenarioOutline) {
+            start = Math.min(start, firstLine(((ScenarioOutline) child).getTags(), start));
+        }
+        return start;
+    }
+
+
+    private static int firstLine(List<Tag> tags, int defaultLine) {
+        return tags.isEmpty() ? defaultLine : tags.get(0).getLocation().getLine();
+    }
+
+
+    /*
+     * Whether the lines before a child keyword are only tags, comments or empty
+     * lines, so nothing from the previous child is mixed with them
+     */
+    private static boolean isLeadingBlock(List<String> lines, int start, int keywordLine) {
+        if (start < 1 || keywordLine > lines.size()) {
+            return false;
+        }
+        for (String line : lines.subList(start - 1, keywordLine - 1)) {
+            String strippedLine = line.strip();
+            if (!strippedLine.isEmpty() && !strippedLine.startsWith("#") && !strippedLine.startsWith("@")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static long attachedComments(ScenarioDefinition child) {
+        return child.getComments().size() + child.getSteps().stream()
+            .mapToLong(step -> step.getComments().size())
+            .sum();
+    }
+
+
+    private static ScenarioDefinition move(ScenarioDefinition child, int lineDelta) {
+        if (child instanceof Background) {
+            return new Background(
+                move(child.getLocation(), lineDelta),
+                child.getKeyword(),
+                child.getName(),
+                child.getDescription(),
+                moveSteps(child.getSteps(), lineDelta),
+                moveComments(child.getComments(), lineDelta)
+            );
+        } else if (child instanceof ScenarioOutline) {
+            ScenarioOutline outline = (ScenarioOutline) child;
+            List<Examples> examples = new ArrayList<>();
+            for (Examples example : outline.getExamples()) {
+                examples.add(new Examples(
+                    move(example.getLocation(), lineDelta),
+                    moveTags(example.getTags(), lineDelta),
+                    example.getKeyword(),
+                    example.getName(),
+                    example.getDescription(),
+                    example.getTableHeader() == null ? null : move(example.getTableHeader(), lineDelta),
+                    example.getTableBody() == null ? null : moveRows(example.getTableBody(), lineDelta)
+                ));
+            }
+            return new ScenarioOutline(
+                moveTags(outline.getTags(), lineDelta),
+                move(child.getLocation(), lineDelta),
+                child.getKeyword(),
+                child.getName(),
+                child.getDescription(),
+                moveSteps(child.getSteps(), lineDelta),
+                examples,
+                moveComments(child.getComments(), lineDelta)
+            );
+        } else {
+            return new Scenario(
+                moveTags(((Scenario) child).getTags(), lineDelta),
+                move(child.getLocation(), lineDelta),
+                child.getKeyword(),
+                child.getName(),
+                child.getDescription(),
+                moveSteps(child.getSteps(), lineDelta),
+                moveComments(child.getComments(), lineDelta)
+            );
+        }
+    }
+
+
+    private static List<Step> moveSteps(List<Step> steps, int lineDelta) {
+        List<Step> moved = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            Node argument = step.getArgument();
+            if (argument instanceof DataTable) {
+                argument = new DataTable(moveRows(((DataTable) argument).getRows(), lineDelta));
+            } else if (argument instanceof DocString) {
+                DocString docString = (DocString) argument;
+                argument = new DocString(
+                    move(docString.getLocation(), lineDelta),
+                    docString.getContentType(),
+                    docString.getContent()
+                );
+            }
+            moved.add(new Step(
+                move(step.getLocation(), lineDelta),
+                step.getKeyword(),
+                step.getText(),
+                argument,
+                moveComments(step.getComments(), lineDelta)
+            ));
+        }
+        return moved;
+    }
+
+
+    private static List<TableRow> moveRows(List<TableRow> rows, int lineDelta) {
+        List<TableRow> moved = new ArrayList<>(rows.size());
+        for (TableRow row : rows) {
+            moved.add(move(row, lineDelta));
+        }
+        return moved;
+    }
+
+
+    private static TableRow move(TableRow row, int lineDelta) {
+        List<TableCell> cells = new ArrayList<>(row.getCells().size());
+        for (TableCell cell : row.getCells()) {
+            cells.add(new TableCell(move(cell.getLocation(), lineDelta), cell.getValue()));
+        }
+        return new TableRow(move(row.getLocation(), lineDelta), cells);
+    }
+
+
+    private static List<Tag> moveTags(List<Tag> tags, int lineDelta) {
+        List<Tag> moved = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            moved.add(new Tag(move(tag.getLocation(), lineDelta), tag.getName()));
+        }
+        return moved;
+    }
+
+
+    private static List<Comment> moveComments(List<Comment> comments, int lineDelta) {
+        List<Comment> moved = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            moved.add(new Comment(move(comment.getLocation(), lineDelta), comment.getText()));
+        }
+        return moved;
+    }
+
+
+    private static Location move(Location location, int lineDelta) {
+        return new Location(location.getLine() + lineDelta, location.getColumn());
+    }
+
+
+
+    /**
+     * Scanner of a region of lines, preceded by a feature line so it can be
+     * parsed as a whole document. Tokens keep the line numbers of the document.
+     */
+    private static class RegionTokenScanner implements Parser.ITokenScanner {
+
+        private final String featureLine;
+        private final List<String> lines;
+        private final int endLine;
+        private int lineNumber;
+        private boolean featureLineRead;
+
+
+        private RegionTokenScanner(String featureLine, List<String> lines, int startLine, int endLine) {
+            this.featureLine = featureLine;
+            this.lines = lines;
+            this.lineNumber = startLine - 1;
+            this.endLine = endLine;
+        }
+
+
+        @Override
+        public Token read() {
+            if (!featureLineRead) {
+                featureLineRead = true;
+                return new Token(new GherkinLine(featureLine), new Location(lineNumber, 0));
+            }
+            lineNumber++;
+            Location location = new Location(lineNumber, 0);
+            if (lineNumber > endLine) {
+                return new Token(null, location);
+            }
+            String line = lines.get(lineNumber - 1);
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            return new Token(new GherkinLine(line), location);
+        }
+    }
+
+}
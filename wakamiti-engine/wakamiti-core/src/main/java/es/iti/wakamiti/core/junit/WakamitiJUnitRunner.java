@@ -89,23 +89,32 @@ public class WakamitiJUnitRunner extends Runner {
     public void run(RunNotifier notifier) {
         LOGGER.debug("{}", configuration);
         wakamiti.publishEvent(Event.PLAN_RUN_STARTED, new PlanNodeSnapshot(plan));
-        planNodeLogger.logTestPlanHeader(plan);
-        executeAnnotatedMethod(configurationClass, BeforeClass.class);
+        PlanNodeSnapshot snapshot;
+        boolean finished = false;
+        try {
+            planNodeLogger.logTestPlanHeader(plan);
+            executeAnnotatedMethod(configurationClass, BeforeClass.class);
 
-        for (JUnitPlanNodeRunner child : children) {
-            try {
-                Result result = child.runNode(notifier);
-            } catch (Exception e) {
-                LOGGER.error(e.toString(), e);
+            for (JUnitPlanNodeRunner child : children) {
+                try {
+                    Result result = child.runNode(notifier);
+                } catch (Exception e) {
+                    LOGGER.error(e.toString(), e);
+                }
             }
-        }
 
-        // refactor this line in the future when multithreading is supported
-        executeAnnotatedMethod(configurationClass, AfterClass.class);
+            // refactor this line in the future when multithreading is supported
+            executeAnnotatedMethod(configurationClass, AfterClass.class);
 
-        planNodeLogger.logTestPlanResult(plan);
-        var snapshot = new PlanNodeSnapshot(getPlan());
-        wakamiti.publishEvent(Event.PLAN_RUN_FINISHED, snapshot);
+            planNodeLogger.logTestPlanResult(plan);
+            snapshot = new PlanNodeSnapshot(getPlan());
+            wakamiti.publishEvent(Event.PLAN_RUN_FINISHED, snapshot);
+            finished = true;
+        } finally {
+            if (!finished) {
+                wakamiti.getEventDispatcher().planAborted();
+            }
+        }
         wakamiti.writeOutputFile(plan, configuration);
         wakamiti.generateReports(configuration, snapshot);
     }
@@ -12,10 +12,13 @@ import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.api.WakamitiStepRunContext;
 import es.iti.wakamiti.api.extensions.PropertyEvaluator;
 import es.iti.wakamiti.api.util.JsonUtils;
+import es.iti.wakamiti.api.util.StoredContent;
 import es.iti.wakamiti.api.util.XmlUtils;
 import es.iti.wakamiti.core.backend.RunnableBackend;
 import org.apache.xmlbeans.XmlObject;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -83,7 +86,9 @@ public class StepPropertyEvaluator extends PropertyEvaluator {
         String evaluation = Objects.toString(result);
         if (!fragment.isBlank()) {
             try {
-                if (isJson(result)) {
+                if (result instanceof StoredContent) {
+                    evaluation = readStoredValue((StoredContent) result, fragment);
+                } else if (isJson(result)) {
                     evaluation = JsonUtils.readStringValue(JsonUtils.json(result.toString()), fragment);
                 } else if (isXml(result)) {
                     evaluation = XmlUtils.readStringValue(XmlUtils.xml(result.toString()), fragment);
@@ -97,6 +102,30 @@ public class StepPropertyEvaluator extends PropertyEvaluator {
         return evaluation;
     }
 
+    /**
+     * Reads a fragment of a result stored outside memory, as JSON or, if
+     * it is not valid JSON, as XML.
+     *
+     * @param content  The stored result.
+     * @param fragment The xpath/jsonpath expression.
+     * @return The value of the fragment.
+     * @throws IOException If the stored result cannot be read.
+     */
+    private String readStoredValue(StoredContent content, String fragment) throws IOException {
+        JsonNode json;
+        try (InputStream input = content.open()) {
+            json = JsonUtils.json(input);
+        } catch (RuntimeException e) {
+            json = null;
+        }
+        if (json != null) {
+            return JsonUtils.readStringValue(json, fragment);
+        }
+        try (InputStream input = content.open()) {
+            return XmlUtils.readStringValue(XmlUtils.xml(input), fragment);
+        }
+    }
+
     /**
      * Checks if the given object is in JSON format.
      *
@@ -0,0 +1,252 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.runner;
+
+
+import es.iti.wakamiti.api.WakamitiConfiguration;
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.imconfig.Configuration;
+import es.iti.wakamiti.api.plan.NodeType;
+import es.iti.wakamiti.api.plan.PlanNode;
+import es.iti.wakamiti.api.plan.Result;
+import es.iti.wakamiti.api.util.Pair;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * Runs sibling plan nodes concurrently using a bounded pool of workers.
+ * <p>
+ * Every node executed by a worker keeps its side effects (published events
+ * and log entries) in a private buffer. Once the node has finished, the buffer
+ * is merged into the output of its parent following the plan order, so the
+ * resulting logs and events are the same as in a sequential execution.
+ * Nested nodes are executed using fork/join, so workers waiting for their
+ * children are able to take pending nodes instead of blocking the pool.
+ *
+ * @see WakamitiConfiguration#EXECUTION_PARALLELISM
+ * @see WakamitiConfiguration#EXECUTION_GRANULARITY
+ */
+public class ParallelExecution implements AutoCloseable {
+
+    private static final ThreadLocal<List<Runnable>> deferredOutput = new ThreadLocal<>();
+
+    private final ForkJoinPool pool;
+    private final Granularity granularity;
+
+    public ParallelExecution(int parallelism, Granularity granularity) {
+        this.pool = new ForkJoinPool(parallelism, workerFactory(), null, false);
+        this.granularity = granularity;
+    }
+
+    /**
+     * Creates a parallel execution according to the given configuration.
+     *
+     * @param configuration The execution configuration.
+     * @return The parallel execution, or empty if the configured parallelism
+     * implies a sequential execution
+     * @throws WakamitiException If the configured granularity is not valid.
+     */
+    public static Optional<ParallelExecution> fromConfiguration(Configuration configuration) {
+        int parallelism = configuration.get(WakamitiConfiguration.EXECUTION_PARALLELISM, Integer.class)
+                .orElse(1);
+        if (parallelism <= 1) {
+            return Optional.empty();
+        }
+        String granularity = configuration.get(WakamitiConfiguration.EXECUTION_GRANULARITY, String.class)
+                .orElse(Granularity.FEATURE.name());
+        try {
+            return Optional.of(new ParallelExecution(
+                    parallelism,
+                    Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT))
+            ));
+        } catch (IllegalArgumentException e) {
+            throw new WakamitiException(
+                    "Invalid value '{}' for property {}; expected one of: feature, scenario",
+                    granularity,
+                    WakamitiConfiguration.EXECUTION_GRANULARITY
+            );
+        }
+    }
+
+    /**
+     * Emits an output action. If the current thread is running a node
+     * concurrently, the action is deferred until the node output is merged
+     * following the plan order; otherwise, it is run immediately.
+     *
+     * @param action The output action, such as publishing an event or
+     *               writing a log entry.
+     */
+    public static void emit(Runnable action) {
+        List<Runnable> buffer = deferredOutput.get();
+        if (buffer == null) {
+            action.run();
+        } else {
+            buffer.add(action);
+        }
+    }
+
+    /**
+     * Checks whether the output of the current thread is being deferred,
+     * that is, whether it is running a node concurrently.
+     *
+     * @return {@code true} if emitted actions are not run immediately.
+     */
+    public static boolean isDeferringOutput() {
+        return deferredOutput.get() != null;
+    }
+
+    /**
+     * Gets the configured granularity.
+     *
+     * @return The granularity.
+     */
+    public Granularity granularity() {
+        return granularity;
+    }
+
+    /**
+     * Checks whether the children of the given node must be executed
+     * concurrently. Nodes below the test case level are always executed
+     * sequentially.
+     *
+     * @param node The parent node.
+     * @return {@code true} if the children can run concurrently,
+     * {@code false} otherwise
+     */
+    public boolean appliesToChildrenOf(PlanNode node) {
+        return granularity == Granularity.SCENARIO
+                && node.nodeType().isNoneOf(NodeType.TEST_CASE, NodeType.STEP, NodeType.VIRTUAL_STEP);
+    }
+
+    /**
+     * Runs the given runners concurrently and waits for all of them to finish.
+     * The output of every runner is merged in the order of the list as soon as
+     * the runner and all its predecessors have finished.
+     *
+     * @param runners The runners to execute.
+     * @param action  The execution of a single runner.
+     * @return The finish instant and result of every runner with result, in
+     * the order of the list
+     * @throws RuntimeException The first error thrown by any runner, once
+     *                          every runner has finished.
+     */
+    public Stream<Pair<Instant, Result>> run(
+            List<PlanNodeRunner> runners,
+            Function<PlanNodeRunner, Result> action
+    ) {
+        List<NodeTask> tasks = runners.stream()
+                .map(runner -> new NodeTask(runner, action))
+                .collect(Collectors.toList());
+        for (NodeTask task : tasks) {
+            if (ForkJoinTask.getPool() == pool) {
+                task.fork();
+            } else {
+                pool.execute(task);
+            }
+        }
+        List<Pair<Instant, Result>> results = new ArrayList<>();
+        RuntimeException runtimeException = null;
+        Error error = null;
+        for (NodeTask task : tasks) {
+            try {
+                Pair<Instant, Result> result = task.join();
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (RuntimeException e) {
+                runtimeException = (runtimeException == null ? e : runtimeException);
+            } catch (Error e) {
+                error = (error == null ? e : error);
+            } finally {
+                task.output.forEach(ParallelExecution::emit);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        if (runtimeException != null) {
+            throw runtimeException;
+        }
+        return results.stream();
+    }
+
+    /**
+     * Releases the workers once every running node has finished.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory workerFactory() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger counter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("wakamiti-runner-" + counter.incrementAndGet());
+            // plugins may be loaded from a different class loader than the system one
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        };
+    }
+
+
+    /**
+     * The plan level at which nodes are executed concurrently.
+     */
+    public enum Granularity {
+        /** Only the top-level nodes of the plan run concurrently */
+        FEATURE,
+        /** Every test case can run concurrently with any other */
+        SCENARIO
+    }
+
+
+    private static class NodeTask extends RecursiveTask<Pair<Instant, Result>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient PlanNodeRunner runner;
+        private final transient Function<PlanNodeRunner, Result> action;
+        private final transient List<Runnable> output = new ArrayList<>();
+
+        private NodeTask(PlanNodeRunner runner, Function<PlanNodeRunner, Result> action) {
+            this.runner = runner;
+            this.action = action;
+        }
+
+        @Override
+        protected Pair<Instant, Result> compute() {
+            // a worker waiting for a child may execute another node in the meantime
+            List<Runnable> previous = deferredOutput.get();
+            deferredOutput.set(output);
+            try {
+                Result result = action.apply(runner);
+                return result == null ? null : new Pair<>(Instant.now(), result);
+            } finally {
+                if (previous == null) {
+                    deferredOutput.remove();
+                } else {
+                    deferredOutput.set(previous);
+                }
+            }
+        }
+    }
+
+}
@@ -46,6 +46,7 @@ public class PlanNodeRunner {
     private final boolean dryRun;
     private List<PlanNodeRunner> children;
     private Optional<Backend> backend;
+    private ParallelExecution parallelExecution;
     private State state;
 
     public PlanNodeRunner(
@@ -145,6 +146,18 @@ public class PlanNodeRunner {
         return logger;
     }
 
+    /**
+     * Sets the parallel execution used to run the children of this node
+     * concurrently, according to its granularity. Child runners created
+     * afterwards inherit it.
+     *
+     * @param parallelExecution The parallel execution, or {@code null} to
+     *                          run the children sequentially.
+     */
+    protected void setParallelExecution(ParallelExecution parallelExecution) {
+        this.parallelExecution = parallelExecution;
+    }
+
     /**
      * Runs the associated PlanNode and returns the result.
      *
@@ -157,7 +170,7 @@ public class PlanNodeRunner {
         }
         Result result = null;
         state = State.RUNNING;
-        Wakamiti.instance().publishEvent(Event.NODE_RUN_STARTED, new PlanNodeSnapshot(node));
+        Wakamiti.instance().publishLazyEvent(Event.NODE_RUN_STARTED, this::snapshot);
 
         if (node.nodeType() == NodeType.TEST_CASE) {
             result = runTestCaseNode();
@@ -167,10 +180,21 @@ public class PlanNodeRunner {
             result = runStep();
         }
         state = State.FINISHED;
-        Wakamiti.instance().publishEvent(Event.NODE_RUN_FINISHED, new PlanNodeSnapshot(node));
+        Wakamiti.instance().publishLazyEvent(Event.NODE_RUN_FINISHED, this::snapshot);
         return result;
     }
 
+    /**
+     * Steps are published for every single node, so their snapshots do not
+     * copy any descendant.
+     */
+    private PlanNodeSnapshot snapshot() {
+        if (node.nodeType().isAnyOf(NodeType.STEP, NodeType.VIRTUAL_STEP)) {
+            return PlanNodeSnapshot.shallow(node);
+        }
+        return new PlanNodeSnapshot(node);
+    }
+
     private Result runTestCaseNode() {
         Result result = null;
         if (node.filtered()) {
@@ -182,7 +206,7 @@ public class PlanNodeRunner {
         } else if (!getChildren().isEmpty()) {
             Stream<Pair<Instant, Result>> results = Stream.empty();
             if (dryRun) {
-                logger.logTestCaseHeader(node);
+                ParallelExecution.emit(() -> logger.logTestCaseHeader(node));
             } else {
                 try {
                     testCasePreExecution(node);
@@ -217,6 +241,9 @@ public class PlanNodeRunner {
     }
 
     protected Stream<Pair<Instant, Result>> runChildren() {
+        if (parallelExecution != null && parallelExecution.appliesToChildrenOf(node)) {
+            return parallelExecution.run(getChildren(), PlanNodeRunner::runNode);
+        }
         return getChildren().stream()
                 .map(PlanNodeRunner::runNode)
                 .filter(Objects::nonNull)
@@ -264,15 +291,19 @@ public class PlanNodeRunner {
     protected List<PlanNodeRunner> createChildren() {
         List<PlanNode> childNodes = node.children().collect(Collectors.toList());
         return IntStream.range(0, childNodes.size())
-                .mapToObj(index -> new PlanNodeRunner(
-                        childNodes.get(index),
-                        configuration,
-                        backendFactory,
-                        getBackend(),
-                        logger,
-                        dryRun,
-                        childNodePath(index)
-                ))
+                .mapToObj(index -> {
+                    PlanNodeRunner child = new PlanNodeRunner(
+                            childNodes.get(index),
+                            configuration,
+                            backendFactory,
+                            getBackend(),
+                            logger,
+                            dryRun,
+                            childNodePath(index)
+                    );
+                    child.setParallelExecution(parallelExecution);
+                    return child;
+                })
                 .collect(Collectors.toList());
     }
 
@@ -281,7 +312,7 @@ public class PlanNodeRunner {
     }
 
     protected void testCasePreExecution(PlanNode node) {
-        logger.logTestCaseHeader(node);
+        ParallelExecution.emit(() -> logger.logTestCaseHeader(node));
         getBackend().ifPresent(Backend::setUp);
     }
 
@@ -294,7 +325,7 @@ public class PlanNodeRunner {
     }
 
     protected void stepPostExecution(PlanNode step) {
-        logger.logStepResult(step);
+        ParallelExecution.emit(() -> logger.logStepResult(step));
     }
 
     protected enum State {
@@ -7,6 +7,7 @@ package es.iti.wakamiti.core.runner;
 
 
 import es.iti.wakamiti.api.BackendFactory;
+import es.iti.wakamiti.api.ExpressionMatcher;
 import es.iti.wakamiti.api.WakamitiConfiguration;
 import es.iti.wakamiti.api.event.Event;
 import es.iti.wakamiti.api.plan.PlanNode;
@@ -19,14 +20,16 @@ import org.slf4j.Logger;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 
 /**
  * Executes a test plan represented by a PlanNode. It manages
- * the execution of child nodes using PlanNodeRunners and provides
- * logging and event handling.
+ * the execution of child nodes using PlanNodeRunners, either
+ * sequentially or concurrently, and provides logging and event
+ * handling.
  *
  * @author Luis Iñesta Gelabert - linesta@iti.es
  */
@@ -76,22 +79,47 @@ public class PlanRunner {
                         .orElse(UUID.randomUUID().toString())
         );
         wakamiti.publishEvent(Event.PLAN_RUN_STARTED, new PlanNodeSnapshot(plan));
-        planNodeLogger.logTestPlanHeader(plan);
-        List<PlanNodeRunner> runners = dryRun ? buildRunners(true) : getChildren();
-        for (PlanNodeRunner child : runners) {
-            try {
-                child.runNode();
-            } catch (Exception e) {
-                LOGGER.error("{error}", e.getMessage(), e);
-                if (child.getNode().result().isEmpty())
-                    child.getNode().prepareExecution().markFinished(Instant.now(), Result.ERROR, e, null);
+        boolean finished = false;
+        try {
+            planNodeLogger.logTestPlanHeader(plan);
+            List<PlanNodeRunner> runners = dryRun ? buildRunners(true) : getChildren();
+            Optional<ParallelExecution> parallelExecution = ParallelExecution.fromConfiguration(configuration);
+            if (parallelExecution.isPresent()) {
+                try (ParallelExecution parallel = parallelExecution.get()) {
+                    LOGGER.debug(
+                            "Running test plan with parallelism {} at {} level",
+                            configuration.get(WakamitiConfiguration.EXECUTION_PARALLELISM, Integer.class).orElse(1),
+                            parallel.granularity()
+                    );
+                    runners.forEach(child -> child.setParallelExecution(parallel));
+                    parallel.run(runners, this::runChild);
+                }
+            } else {
+                runners.forEach(this::runChild);
+            }
+            LOGGER.debug("Step expression cache: {}", ExpressionMatcher.cacheStats());
+            planNodeLogger.logTestPlanResult(plan);
+            wakamiti.publishEvent(Event.PLAN_RUN_FINISHED, new PlanNodeSnapshot(plan));
+            finished = true;
+        } finally {
+            if (!finished) {
+                wakamiti.getEventDispatcher().planAborted();
             }
         }
-        planNodeLogger.logTestPlanResult(plan);
-        wakamiti.publishEvent(Event.PLAN_RUN_FINISHED, new PlanNodeSnapshot(plan));
         return plan;
     }
 
+    private Result runChild(PlanNodeRunner child) {
+        try {
+            return child.runNode();
+        } catch (Exception e) {
+            ParallelExecution.emit(() -> LOGGER.error("{error}", e.getMessage(), e));
+            if (child.getNode().result().isEmpty())
+                child.getNode().prepareExecution().markFinished(Instant.now(), Result.ERROR, e, null);
+            return Result.ERROR;
+        }
+    }
+
     /**
      * Gets the list of PlanNodeRunners representing the child nodes of the test plan.
      *
@@ -8,7 +8,6 @@ package es.iti.wakamiti.core.util;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.regex.Pattern;
 
 
 /**
@@ -38,6 +37,9 @@ public class Simil {
      * largest substring which both have in common. The fragments of the two
      * strings which do not belong to the common substring are pushed on the
      * stacks. The size of the common substring is returned.
+     * <p>
+     * When several common substrings have the largest size, the one placed
+     * first in the base input fragment is chosen.
      *
      * @param baseInputStack the stack with the remaining portions of the base
      *                       input string which await examination
@@ -51,55 +53,48 @@ public class Simil {
         String comp1 = baseInputStack.pop();
         String comp2 = inputStack.pop();
 
-        // we start with the largest possible size
-        int windowSize = Math.min(comp1.length(), comp2.length());
-
-        // loop over the decrementing size until we find
-        // a common substring
-        while (windowSize > 0) {
-
-            // we start to compare substrings of the current window size
-            // from the beginning of the base input fragment
-            // and move forward with this window by one-character-steps until
-            // we find a match
-            int pos = 0;
-            while (pos + windowSize - 1 < comp1.length()) {
-
-                // is this a common substring?
-                if (comp2.contains(comp1.substring(pos, pos + windowSize))) {
-
-                    compareLength(baseInputStack, inputStack, comp1, comp2, windowSize, pos);
-                    // this is the size of the first largest substring we could find
-                    return windowSize;
+        // length of the common suffixes of every prefix of both strings,
+        // keeping only the previous row of the table
+        int[] previous = new int[comp2.length() + 1];
+        int[] current = new int[comp2.length() + 1];
+        int windowSize = 0;
+        int end = 0;
+        for (int i = 1; i <= comp1.length(); i++) {
+            for (int j = 1; j <= comp2.length(); j++) {
+                current[j] = comp1.charAt(i - 1) == comp2.charAt(j - 1) ? previous[j - 1] + 1 : 0;
+                // the first end position has the first start position for the same size
+                if (current[j] > windowSize) {
+                    windowSize = current[j];
+                    end = i;
                 }
-                // nothing so far, so we move the window one character forward
-                pos++;
             }
-            // nothing so far, so we make the window (substring size) smaller
-            windowSize--;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
 
-        return 0;
+        if (windowSize > 0) {
+            compareLength(baseInputStack, inputStack, comp1, comp2, windowSize, end - windowSize);
+        }
+        return windowSize;
     }
 
     private void compareLength(Deque<String> baseInputStack, Deque<String> inputStack, String comp1, String comp2, int windowSize, int pos) {
-        // yes, so we take the parts that do not belong to our matching
-        // string and push them onto the stack for later examination
-        String[] comp2Rest = comp2.split(Pattern.quote(comp1.substring(pos, pos + windowSize)), 2);
-        String[] comp1Rest = comp1.split(Pattern.quote(comp1.substring(pos, pos + windowSize)), 2);
-
-        // both rest-arrays should have at least one entry to compare to next time
-        int resultLen = Math.min(comp1Rest.length, comp2Rest.length);
-        if (resultLen > 1) {
-            // we do not push empty fragments onto the stack
-            // but everything else
-            for (int idx = 0; idx < resultLen; idx++) {
-                if (!"".equals(comp1Rest[idx])) {
-                    baseInputStack.push(comp1Rest[idx]);
-                }
-                if (!"".equals(comp2Rest[idx])) {
-                    inputStack.push(comp2Rest[idx]);
-                }
+        // we take the parts that do not belong to our matching string
+        // and push them onto the stack for later examination
+        String common = comp1.substring(pos, pos + windowSize);
+        int pos2 = comp2.indexOf(common);
+        String[] comp1Rest = {comp1.substring(0, pos), comp1.substring(pos + windowSize)};
+        String[] comp2Rest = {comp2.substring(0, pos2), comp2.substring(pos2 + windowSize)};
+
+        // we do not push empty fragments onto the stack
+        // but everything else
+        for (int idx = 0; idx < comp1Rest.length; idx++) {
+            if (!"".equals(comp1Rest[idx])) {
+                baseInputStack.push(comp1Rest[idx]);
+            }
+            if (!"".equals(comp2Rest[idx])) {
+                inputStack.push(comp2Rest[idx]);
             }
         }
     }
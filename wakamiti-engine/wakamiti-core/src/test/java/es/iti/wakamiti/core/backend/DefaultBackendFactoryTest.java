@@ -0,0 +1,52 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.BackendFactory;
+import es.iti.wakamiti.api.imconfig.Configuration;
+import es.iti.wakamiti.core.Wakamiti;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static es.iti.wakamiti.api.WakamitiConfiguration.NON_REGISTERED_STEP_PROVIDERS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class DefaultBackendFactoryTest {
+
+    private final Configuration configuration = Wakamiti.defaultConfiguration().appendFromPairs(
+            NON_REGISTERED_STEP_PROVIDERS, "es.iti.wakamiti.test.gherkin.WakamitiSteps"
+    );
+
+    @Test
+    public void testBackendsShareThePrototypeButNotTheSteps() {
+        BackendFactory factory = Wakamiti.instance().newBackendFactory();
+        AbstractBackend first = (AbstractBackend) factory.createNonRunnableBackend(configuration);
+        AbstractBackend second = (AbstractBackend) factory.createNonRunnableBackend(configuration);
+
+        assertThat(second.getTypeRegistry()).isSameAs(first.getTypeRegistry());
+        assertThat(second.runnableSteps).hasSameSizeAs(first.runnableSteps).isNotEmpty();
+        for (int i = 0; i < first.runnableSteps.size(); i++) {
+            RunnableStep firstStep = first.runnableSteps.get(i);
+            RunnableStep secondStep = second.runnableSteps.get(i);
+            assertThat(secondStep).isNotSameAs(firstStep);
+            assertThat(secondStep.getDefinitionKey()).isEqualTo(firstStep.getDefinitionKey());
+            assertThat(secondStep.getTranslatedDefinition(Locale.ENGLISH))
+                    .isEqualTo(firstStep.getTranslatedDefinition(Locale.ENGLISH));
+        }
+    }
+
+    @Test
+    public void testBackendsFromDifferentFactoriesDoNotShareThePrototype() {
+        var first = Wakamiti.instance().newBackendFactory().createNonRunnableBackend(configuration);
+        var second = Wakamiti.instance().newBackendFactory().createNonRunnableBackend(configuration);
+
+        assertThat(second.getTypeRegistry()).isNotSameAs(first.getTypeRegistry());
+    }
+
+}
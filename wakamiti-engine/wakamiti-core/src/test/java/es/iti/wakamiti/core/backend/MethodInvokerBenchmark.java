@@ -0,0 +1,105 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.plan.DataTable;
+import es.iti.wakamiti.api.plan.Document;
+import es.iti.wakamiti.api.util.ThrowableRunnable;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the overhead of invoking a step method using a bound
+ * {@link MethodInvoker} against {@link Method#invoke(Object, Object...)},
+ * for the usual step signatures: steps without arguments, steps with a few
+ * simple arguments (as most core and REST steps), and steps receiving a
+ * document or a data table (as REST and database steps).
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark=MethodInvokerBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MethodInvokerBenchmark {
+
+    @Param({"noArguments", "simpleArguments", "document", "dataTable"})
+    public String step;
+
+    private Object[] arguments;
+    private Method method;
+    private ThrowableRunnable reflective;
+    private ThrowableRunnable handle;
+
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        StepProvider provider = new StepProvider();
+        switch (step) {
+            case "noArguments":
+                method = StepProvider.class.getMethod(step);
+                arguments = new Object[0];
+                break;
+            case "simpleArguments":
+                method = StepProvider.class.getMethod(step, String.class, Long.class);
+                arguments = new Object[] {"users", 3L};
+                break;
+            case "document":
+                method = StepProvider.class.getMethod(step, String.class, Document.class);
+                arguments = new Object[] {"POST", new Document("{\"name\":\"John\"}")};
+                break;
+            default:
+                method = StepProvider.class.getMethod(step, String.class, DataTable.class);
+                arguments = new Object[] {"USERS", new DataTable(new String[][] {{"id", "name"}, {"1", "John"}})};
+        }
+        reflective = args -> method.invoke(provider, args);
+        handle = new MethodInvoker(method).bindTo(provider);
+    }
+
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return reflective.run(arguments);
+    }
+
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return handle.run(arguments);
+    }
+
+
+    public static class StepProvider {
+
+        private int calls;
+
+        public void noArguments() {
+            calls++;
+        }
+
+        public Object simpleArguments(String resource, Long id) {
+            calls++;
+            return resource.length() + id;
+        }
+
+        public Object document(String method, Document body) {
+            calls++;
+            return method.length() + body.getContent().length();
+        }
+
+        public Object dataTable(String table, DataTable data) {
+            calls++;
+            return table.length() + data.rows();
+        }
+    }
+
+}
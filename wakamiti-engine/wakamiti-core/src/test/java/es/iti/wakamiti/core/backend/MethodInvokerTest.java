@@ -0,0 +1,90 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class MethodInvokerTest {
+
+    @Test
+    public void testInvokeMethodWithArguments() throws Exception {
+        MethodInvoker invoker = new MethodInvoker(Steps.class.getMethod("concat", String.class, Integer.class));
+        assertThat(invoker.bindTo(new Steps()).run("a", 1)).isEqualTo("a1");
+    }
+
+    @Test
+    public void testInvokeVoidMethod() throws Exception {
+        Steps steps = new Steps();
+        MethodInvoker invoker = new MethodInvoker(Steps.class.getMethod("setUp"));
+        assertThat(invoker.bindTo(steps).run()).isNull();
+        assertThat(steps.ready).isTrue();
+    }
+
+    @Test
+    public void testInvokeStaticMethod() throws Exception {
+        MethodInvoker invoker = new MethodInvoker(Steps.class.getMethod("twice", Integer.class));
+        assertThat(invoker.bindTo(new Steps()).run(2)).isEqualTo(4);
+    }
+
+    @Test
+    public void testExceptionsAreWrappedLikeReflection() throws Exception {
+        MethodInvoker invoker = new MethodInvoker(Steps.class.getMethod("fail"));
+        assertThatThrownBy(() -> invoker.bindTo(new Steps()).run())
+                .isInstanceOf(InvocationTargetException.class)
+                .extracting(e -> ((InvocationTargetException) e).getTargetException())
+                .isInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    public void testBindingErrorsAreNotWrapped() throws Exception {
+        MethodInvoker invoker = new MethodInvoker(Steps.class.getMethod("concat", String.class, Integer.class));
+        assertThatThrownBy(() -> invoker.bindTo(new Steps()).run("a", "b"))
+                .isInstanceOf(ClassCastException.class);
+        assertThatThrownBy(() -> invoker.bindTo(new Steps()).run("a"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> invoker.bindTo(null).run("a", 1))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void testRuntimeExceptionsOfTheMethodAreWrapped() throws Exception {
+        MethodInvoker invoker = new MethodInvoker(Steps.class.getMethod("twice", Integer.class));
+        assertThatThrownBy(() -> invoker.bindTo(new Steps()).run((Object) null))
+                .isInstanceOf(InvocationTargetException.class)
+                .extracting(e -> ((InvocationTargetException) e).getTargetException())
+                .isInstanceOf(NullPointerException.class);
+    }
+
+
+    public static class Steps {
+
+        private boolean ready;
+
+        public static Integer twice(Integer value) {
+            return value * 2;
+        }
+
+        public String concat(String text, Integer number) {
+            return text + number;
+        }
+
+        public void setUp() {
+            ready = true;
+        }
+
+        public void fail() {
+            throw new AssertionError("expected");
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class RunnableStepIndexTest {
+
+    @Test
+    public void testMandatoryWordsExcludeOptionalPartsAndArguments() {
+        assertThat(RunnableStepIndex.mandatoryWords(
+                "(que) el|la|lo|los|las siguiente(s) * se inserta(n) en la tabla de BBDD {word}:"
+        )).containsExactly("se", "en", "la", "tabla", "de", "BBDD");
+        assertThat(RunnableStepIndex.mandatoryWords(
+                "(se recupera(n)) (el|los) valor(es) de"
+        )).containsExactly("de");
+        assertThat(RunnableStepIndex.mandatoryWords(
+                "the following SQL query value(s) (is|are retrieved):"
+        )).containsExactly("the", "following", "SQL", "query");
+        assertThat(RunnableStepIndex.mandatoryWords(
+                "the (first user of) the {name:word} table (!is empty)"
+        )).containsExactly("the", "table");
+    }
+
+    @Test
+    public void testMandatoryWordsWithUnsupportedSyntaxAreNotExtracted() {
+        assertThat(RunnableStepIndex.mandatoryWords("(?i)the user is created")).isEmpty();
+        assertThat(RunnableStepIndex.mandatoryWords("the (user)|(role) is created")).isEmpty();
+        assertThat(RunnableStepIndex.mandatoryWords("the user \\. is created")).containsExactly("the", "user", "is", "created");
+    }
+
+    @Test
+    public void testCandidatesKeepDefinitionOrder() {
+        List<RunnableStep> steps = List.of(
+                step("the user {word} is created"),
+                step("* user {word} is deleted"),
+                step("(a) request is sent"),
+                step("*")
+        );
+        RunnableStepIndex index = new RunnableStepIndex(steps, Locale.ENGLISH);
+
+        assertThat(candidates(index, steps, "the user john is deleted"))
+                .containsExactly("* user {word} is deleted", "*");
+        assertThat(candidates(index, steps, "the user john is created"))
+                .containsExactly("the user {word} is created", "*");
+        assertThat(candidates(index, steps, "a request is sent"))
+                .containsExactly("(a) request is sent", "*");
+        assertThat(index.byDefinition("(a) request is sent")).hasValue(2);
+        assertThat(index.byDefinition("a request is sent")).isEmpty();
+    }
+
+
+    private List<String> candidates(RunnableStepIndex index, List<RunnableStep> steps, String step) {
+        return index.candidates(step)
+                .mapToObj(steps::get)
+                .map(runnableStep -> runnableStep.getTranslatedDefinition(Locale.ENGLISH))
+                .collect(Collectors.toList());
+    }
+
+    private RunnableStep step(String definition) {
+        return new RunnableStep("test", definition, null, arguments -> null, "test") {
+            @Override
+            public String getTranslatedDefinition(Locale locale) {
+                return definition;
+            }
+        };
+    }
+
+}
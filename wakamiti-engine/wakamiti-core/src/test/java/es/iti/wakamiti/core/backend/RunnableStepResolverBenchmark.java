@@ -0,0 +1,116 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.WakamitiDataType;
+import es.iti.wakamiti.api.WakamitiDataTypeRegistry;
+import es.iti.wakamiti.api.util.Either;
+import es.iti.wakamiti.core.Wakamiti;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+
+
+/**
+ * Compares the step resolution using the keyword index against a linear scan
+ * over every runnable step, as the number of step definitions grows.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark=RunnableStepResolverBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunnableStepResolverBenchmark {
+
+    private static final String[] WORDS = {
+            "user", "account", "order", "invoice", "product", "service", "request", "response", "table",
+            "record", "file", "message", "queue", "session", "token", "header", "body", "status",
+            "document", "report", "customer", "payment", "address", "item", "category", "role",
+            "group", "event", "task", "job"
+    };
+
+    @Param({"50", "500", "2000"})
+    public int definitions;
+
+    private List<RunnableStep> steps;
+    private WakamitiDataTypeRegistry typeRegistry;
+    private RunnableStepResolver resolver;
+    private List<String> modelSteps;
+
+
+    @Setup
+    public void setup() {
+        Map<String, WakamitiDataType<?>> types = new HashMap<>();
+        Wakamiti.contributors().allDataTypeContributors()
+                .forEach(contributor -> contributor.contributeTypes().forEach(type -> types.put(type.getName(), type)));
+        typeRegistry = new WakamitiDataTypeRegistry(types);
+        steps = new ArrayList<>();
+        for (int i = 0; i < definitions; i++) {
+            steps.add(new SyntheticStep(String.format(
+                    "(that) the %s %s is|are %s with {int}",
+                    WORDS[i % WORDS.length],
+                    WORDS[(i / WORDS.length) % WORDS.length],
+                    WORDS[(i / (WORDS.length * WORDS.length)) % WORDS.length]
+            )));
+        }
+        Random random = new Random(42);
+        modelSteps = random.ints(100, 0, definitions)
+                .mapToObj(i -> String.format(
+                        "the %s %s is %s with %d",
+                        WORDS[i % WORDS.length],
+                        WORDS[(i / WORDS.length) % WORDS.length],
+                        WORDS[(i / (WORDS.length * WORDS.length)) % WORDS.length],
+                        i
+                ))
+                .collect(Collectors.toList());
+        resolver = new RunnableStepResolver(typeRegistry, steps);
+    }
+
+
+    @Benchmark
+    public void indexed(Blackhole blackhole) {
+        for (String modelStep : modelSteps) {
+            blackhole.consume(resolver.locateRunnableStep(modelStep, Locale.ENGLISH, Locale.ENGLISH, null));
+        }
+    }
+
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (String modelStep : modelSteps) {
+            List<Matcher> matchers = steps.stream()
+                    .map(step -> step.matcher(Either.fallback(modelStep), Locale.ENGLISH, Locale.ENGLISH, typeRegistry))
+                    .filter(Matcher::matches)
+                    .collect(Collectors.toList());
+            blackhole.consume(matchers);
+        }
+    }
+
+
+    private static class SyntheticStep extends RunnableStep {
+
+        private final String definition;
+
+        private SyntheticStep(String definition) {
+            super("synthetic", definition, null, arguments -> null, "benchmark");
+            this.definition = definition;
+        }
+
+        @Override
+        public String getTranslatedDefinition(Locale locale) {
+            return definition;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.core.util.StringDistance;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+
+/**
+ * Compares the step hint search using the hint index against computing the
+ * similarity of every hint, as the number of hints grows.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Pbenchmark -Dbenchmark=StepHintIndexBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StepHintIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "user", "account", "order", "invoice", "product", "service", "request", "response", "table",
+            "record", "file", "message", "queue", "session", "token", "header", "body", "status",
+            "document", "report", "customer", "payment", "address", "item", "category", "role",
+            "group", "event", "task", "job"
+    };
+
+    @Param({"500", "5000", "20000"})
+    public int hints;
+
+    private List<String> corpus;
+    private StepHintIndex index;
+    private List<String> invalidSteps;
+
+
+    @Setup
+    public void setup() {
+        corpus = new ArrayList<>();
+        for (int i = 0; i < hints; i++) {
+            corpus.add(String.format(
+                    "(that) the %s %s is|are %s with {int}",
+                    WORDS[i % WORDS.length],
+                    WORDS[(i / WORDS.length) % WORDS.length],
+                    WORDS[(i / (WORDS.length * WORDS.length)) % WORDS.length]
+            ));
+        }
+        index = new StepHintIndex(corpus);
+        Random random = new Random(42);
+        invalidSteps = random.ints(10, 0, hints)
+                .mapToObj(i -> String.format(
+                        "the %s %s are %s with %d",
+                        WORDS[(i / WORDS.length) % WORDS.length],
+                        WORDS[i % WORDS.length],
+                        WORDS[(i / (WORDS.length * WORDS.length)) % WORDS.length],
+                        i
+                ))
+                .collect(Collectors.toList());
+    }
+
+
+    @Benchmark
+    public void indexed(Blackhole blackhole) {
+        for (String invalidStep : invalidSteps) {
+            blackhole.consume(index.closest(invalidStep, 5));
+        }
+    }
+
+
+    @Benchmark
+    public void fullScan(Blackhole blackhole) {
+        for (String invalidStep : invalidSteps) {
+            blackhole.consume(StringDistance.closerStrings(invalidStep, corpus, 5));
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package es.iti.wakamiti.core.backend;
+
+
+import es.iti.wakamiti.api.WakamitiDataType;
+import es.iti.wakamiti.api.WakamitiDataTypeRegistry;
+import es.iti.wakamiti.core.Wakamiti;
+import es.iti.wakamiti.core.util.StringDistance;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class StepHintIndexTest {
+
+    private static final String[] WORDS = {
+            "user", "account", "order", "invoice", "product", "service", "request", "response", "table",
+            "record", "file", "message", "queue", "session", "token", "header", "body", "status"
+    };
+
+    @Test
+    public void testClosestMatchesTheFullRanking() {
+        List<String> hints = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            hints.add(String.format(
+                    "the %s %s is %s with {int}",
+                    WORDS[i % WORDS.length],
+                    WORDS[(i / WORDS.length) % WORDS.length],
+                    WORDS[(i / (WORDS.length * WORDS.length)) % WORDS.length]
+            ));
+        }
+        StepHintIndex index = new StepHintIndex(hints);
+
+        for (String step : List.of(
+                "the usr acount is ordr with 5",
+                "THE INVOICE PRODUCT IS SERVICE",
+                "a token heder is stauts",
+                "response"
+        )) {
+            assertThat(index.closest(step, 5)).containsExactlyElementsOf(
+                    StringDistance.closerStrings(step, hints, 5)
+            );
+        }
+    }
+
+    @Test
+    public void testClosestWithEmptyTextKeepsDefinitionOrder() {
+        StepHintIndex index = new StepHintIndex(List.of("b step", "a step", "b step", "c step"));
+
+        assertThat(index.hints()).containsExactly("b step", "a step", "c step");
+        assertThat(index.closest("", -1)).containsExactly("b step", "a step", "c step");
+        assertThat(index.closest("", 2)).containsExactly("b step", "a step");
+        assertThat(index.closest("c step", -1)).startsWith("c step").hasSize(3);
+    }
+
+    @Test
+    public void testHintsIncludeDataTypeVariations() {
+        List<RunnableStep> steps = List.of(step("the user has {int} roles"), step("the user is deleted"));
+
+        StepHintIndex compact = StepHintIndex.of(steps, coreTypes(), Locale.ENGLISH, Locale.ENGLISH, false);
+        StepHintIndex expanded = StepHintIndex.of(steps, coreTypes(), Locale.ENGLISH, Locale.ENGLISH, true);
+
+        assertThat(compact.hints()).containsExactly("the user has {int} roles", "the user is deleted");
+        assertThat(expanded.hints())
+                .contains("the user is deleted")
+                .noneMatch(hint -> hint.contains("{int}"));
+    }
+
+    @Test
+    public void testClosestWithoutLimitSortsEveryHint() {
+        List<String> hints = List.of("the user is deleted", "the role is created", "the user is created");
+        StepHintIndex index = new StepHintIndex(hints);
+
+        assertThat(index.closest("the user is created", -1))
+                .containsExactlyElementsOf(StringDistance.closerStrings("the user is created", hints, -1));
+        assertThat(index.closest("the user is created", 0)).isEmpty();
+    }
+
+
+    private RunnableStep step(String definition) {
+        return new RunnableStep("test", definition, null, arguments -> null, "test") {
+            @Override
+            public String getTranslatedDefinition(Locale locale) {
+                return definition;
+            }
+        };
+    }
+
+    private WakamitiDataTypeRegistry coreTypes() {
+        Map<String, WakamitiDataType<?>> types = new HashMap<>();
+        Wakamiti.contributors().allDataTypeContributors().forEach(contributor -> {
+            for (WakamitiDataType<?> type : contributor.contributeTypes()) {
+                types.put(type.getName(), type);
+            }
+        });
+        return new WakamitiDataTypeRegistry(types);
+    }
+
+}
@@ -9,6 +9,7 @@ package es.iti.wakamiti.test.core.types;
 import es.iti.wakamiti.api.ExpressionMatcher;
 import es.iti.wakamiti.api.WakamitiDataType;
 import es.iti.wakamiti.api.WakamitiDataTypeRegistry;
+import es.iti.wakamiti.api.util.BoundedCache;
 import es.iti.wakamiti.api.util.Either;
 import es.iti.wakamiti.core.Wakamiti;
 import org.junit.Test;
@@ -18,6 +19,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Matcher;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 
@@ -129,6 +131,26 @@ public class TestExpressionMatcher {
     }
 
 
+    @Test
+    public void testExpressionPatternIsReused() {
+        WakamitiDataTypeRegistry types = coreTypes();
+        String expression = "se consulta el registro {int} de la tabla";
+        ExpressionMatcher.matcherFor(expression, types, new Locale("es"), Either.fallback("x"));
+        BoundedCache.Stats before = ExpressionMatcher.cacheStats();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(ExpressionMatcher.matcherFor(
+                    expression, types, new Locale("es"),
+                    Either.fallback("se consulta el registro " + i + " de la tabla")
+            ).matches());
+        }
+
+        BoundedCache.Stats after = ExpressionMatcher.cacheStats();
+        assertEquals(before.misses(), after.misses());
+        assertEquals(before.hits() + 10, after.hits());
+    }
+
+
     private void assertExpression(Locale locale, String expression, String... steps) {
         for (String step : steps) {
             Matcher matcher = ExpressionMatcher.matcherFor(
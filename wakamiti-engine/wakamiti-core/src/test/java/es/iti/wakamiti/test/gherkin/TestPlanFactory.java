@@ -8,8 +8,11 @@ package es.iti.wakamiti.test.gherkin;
 
 import es.iti.wakamiti.api.WakamitiConfiguration;
 import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.event.Event;
+import es.iti.wakamiti.api.extensions.EventObserver;
 import es.iti.wakamiti.api.plan.NodeType;
 import es.iti.wakamiti.api.plan.PlanNode;
+import es.iti.wakamiti.api.plan.PlanNodeSnapshot;
 import es.iti.wakamiti.api.plan.Result;
 import es.iti.wakamiti.api.util.WakamitiLogger;
 import es.iti.wakamiti.core.Wakamiti;
@@ -28,6 +31,8 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
@@ -282,6 +287,54 @@ public class TestPlanFactory {
         }
     }
 
+    @Test
+    public void testParallelExecutionKeepsPlanOrder() {
+        List<String> sequentialEvents = new ArrayList<>();
+        PlanNode sequentialPlan = runPlanObservingEvents(
+                Configuration.factory().fromPairs(WakamitiConfiguration.EXECUTION_PARALLELISM, "1"),
+                sequentialEvents
+        );
+        List<String> parallelEvents = new ArrayList<>();
+        PlanNode parallelPlan = runPlanObservingEvents(
+                Configuration.factory().fromPairs(
+                        WakamitiConfiguration.EXECUTION_PARALLELISM, "3",
+                        WakamitiConfiguration.EXECUTION_GRANULARITY, "scenario"
+                ),
+                parallelEvents
+        );
+
+        assertThat(parallelPlan.result()).isEqualTo(sequentialPlan.result()).contains(Result.PASSED);
+        assertThat(parallelPlan.numDescendants(NodeType.TEST_CASE, Result.PASSED)).isEqualTo(3);
+        assertThat(parallelEvents).isNotEmpty().isEqualTo(sequentialEvents);
+    }
+
+    private PlanNode runPlanObservingEvents(Configuration extraConfig, List<String> events) {
+        EventObserver observer = new EventObserver() {
+            @Override
+            public void eventReceived(Event event) {
+                events.add(event.type() + ":" + ((PlanNodeSnapshot) event.data()).getDisplayName());
+            }
+
+            @Override
+            public boolean acceptType(String eventType) {
+                return eventType.equals(Event.NODE_RUN_STARTED) || eventType.equals(Event.NODE_RUN_FINISHED);
+            }
+        };
+        Wakamiti.instance().addEventDispatcherObserver(observer);
+        try {
+            return runPlan(
+                    "src/test/resources/features/noExecution.feature",
+                    "parallel_plan.json",
+                    Configuration.factory().fromPairs(
+                            WakamitiConfiguration.NON_REGISTERED_STEP_PROVIDERS,
+                            "es.iti.wakamiti.test.gherkin.WakamitiSteps"
+                    ).append(extraConfig)
+            );
+        } finally {
+            Wakamiti.instance().removeEventDispatcherObserver(observer);
+        }
+    }
+
     @Test(expected = WakamitiException.class)
     public void testStrictIDWhenError() {
         runPlan(
@@ -6,17 +6,18 @@
 package es.iti.wakamiti.test.gherkin.parser;
 
 
-import es.iti.wakamiti.core.gherkin.parser.GherkinDocument;
-import es.iti.wakamiti.core.gherkin.parser.GherkinParser;
-import es.iti.wakamiti.core.gherkin.parser.ParserException;
+import es.iti.wakamiti.core.gherkin.parser.*;
 import org.junit.Test;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Objects;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 
 public class TestParser {
@@ -73,4 +74,144 @@ public class TestParser {
             assertNotNull(document);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReparseChangedStep() throws IOException {
+        GherkinParser parser = new GherkinParser();
+        List<String> lines = lines("parser/gherkinDocument.feature");
+        GherkinDocument previous = parser.parse(new StringReader(String.join("\n", lines)));
+
+        lines.set(11, " Cuando se suman ambos números");
+        Optional<GherkinDocument> reparsed = parser.reparse(previous, lines, 12, 12, 0);
+
+        assertTrue(reparsed.isPresent());
+        assertEquals(
+                "se suman ambos números",
+                reparsed.get().getFeature().getChildren().get(1).getSteps().get(1).getText()
+        );
+        assertSame(
+                previous.getFeature().getChildren().get(4),
+                reparsed.get().getFeature().getChildren().get(4)
+        );
+    }
+
+    @Test
+    public void testReparseFeatureHeaderRequiresFullParsing() throws IOException {
+        GherkinParser parser = new GherkinParser();
+        List<String> lines = lines("parser/gherkinDocument.feature");
+        GherkinDocument previous = parser.parse(new StringReader(String.join("\n", lines)));
+
+        lines.add(4, "  Una línea más de descripción.");
+
+        assertFalse(parser.reparse(previous, lines, 5, 5, 1).isPresent());
+    }
+
+    @Test
+    public void testReparseIsEquivalentToFullParsing() throws IOException {
+        List<String> edits = List.of(
+                "", "# comentario", "@ID-9", "@tag1 @tag2", " Dado otro paso", " Y otro paso más",
+                "Escenario: nuevo escenario", "Antecedentes: otros", "texto libre", " | 7,0 | 8 |",
+                " | a | b |  c |", " \"\"\"", "Característica: otra"
+        );
+        GherkinParser parser = new GherkinParser();
+        List<String> lines = lines("parser/gherkinDocument.feature");
+        GherkinDocument previous = parser.parse(new StringReader(String.join("\n", lines)));
+        Random random = new Random(7);
+        int incremental = 0;
+
+        for (int i = 0; i < 2000; i++) {
+            List<String> changed = new ArrayList<>(lines);
+            int first = random.nextInt(changed.size() + 1);
+            int removed = Math.min(random.nextInt(3), changed.size() - first);
+            int added = random.nextInt(3);
+            changed.subList(first, first + removed).clear();
+            for (int j = 0; j < added; j++) {
+                changed.add(first, edits.get(random.nextInt(edits.size())));
+            }
+            if (added == 0 && removed == 0) {
+                changed.add(first, edits.get(random.nextInt(edits.size())));
+                added = 1;
+            }
+
+            GherkinDocument expected;
+            try {
+                expected = parser.parse(new StringReader(String.join("\n", changed)));
+            } catch (ParserException e) {
+                expected = null;
+            }
+            int lastChangedLine = first + Math.max(removed, 1);
+            Optional<GherkinDocument> reparsed = parser.reparse(
+                    previous, changed, first + 1, lastChangedLine, added - removed
+            );
+            if (reparsed.isPresent()) {
+                incremental++;
+                assertNotNull("edit " + i + " is not valid", expected);
+                assertEquals("edit " + i, dump(expected), dump(reparsed.get()));
+            }
+            if (expected != null) {
+                lines = changed;
+                previous = expected;
+            }
+        }
+        assertTrue(incremental > 100);
+    }
+
+
+    private List<String> lines(String resource) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(classLoader.getResourceAsStream(resource)),
+                StandardCharsets.UTF_8
+        ))) {
+            return reader.lines().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private String dump(GherkinDocument document) {
+        StringBuilder dump = new StringBuilder();
+        Feature feature = document.getFeature();
+        dump(dump, feature, feature.getName(), feature.getDescription());
+        feature.getTags().forEach(tag -> dump(dump, tag, tag.getName()));
+        feature.getComments().forEach(comment -> dump(dump, comment, comment.getText()));
+        for (ScenarioDefinition child : feature.getChildren()) {
+            dump(dump, child, child.getKeyword(), child.getName(), child.getDescription());
+            child.getComments().forEach(comment -> dump(dump, comment, comment.getText()));
+            if (child instanceof TaggedNode) {
+                ((TaggedNode) child).getTags().forEach(tag -> dump(dump, tag, tag.getName()));
+            }
+            for (Step step : child.getSteps()) {
+                dump(dump, step, step.getKeyword(), step.getText());
+                step.getComments().forEach(comment -> dump(dump, comment, comment.getText()));
+                if (step.getArgument() instanceof DataTable) {
+                    ((DataTable) step.getArgument()).getRows().forEach(row -> dumpRow(dump, row));
+                } else if (step.getArgument() instanceof DocString) {
+                    dump(dump, step.getArgument(), ((DocString) step.getArgument()).getContent());
+                }
+            }
+            if (child instanceof ScenarioOutline) {
+                for (Examples examples : ((ScenarioOutline) child).getExamples()) {
+                    dump(dump, examples, examples.getKeyword(), examples.getName(), examples.getDescription());
+                    examples.getTags().forEach(tag -> dump(dump, tag, tag.getName()));
+                    if (examples.getTableHeader() != null) {
+                        dumpRow(dump, examples.getTableHeader());
+                    }
+                    if (examples.getTableBody() != null) {
+                        examples.getTableBody().forEach(row -> dumpRow(dump, row));
+                    }
+                }
+            }
+        }
+        return dump.toString();
+    }
+
+    private void dumpRow(StringBuilder dump, TableRow row) {
+        dump(dump, row);
+        row.getCells().forEach(cell -> dump(dump, cell, cell.getValue()));
+    }
+
+    private void dump(StringBuilder dump, Node node, String... values) {
+        dump.append(node.getClass().getSimpleName())
+                .append(node.getLocation().getLine()).append(':').append(node.getLocation().getColumn())
+                .append(Arrays.toString(values)).append('\n');
+    }
+
+}
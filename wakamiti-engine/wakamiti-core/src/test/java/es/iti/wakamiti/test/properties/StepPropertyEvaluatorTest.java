@@ -12,12 +12,15 @@ import es.iti.wakamiti.api.WakamitiException;
 import es.iti.wakamiti.api.WakamitiStepRunContext;
 import es.iti.wakamiti.api.extensions.PropertyEvaluator;
 import es.iti.wakamiti.api.util.JsonUtils;
+import es.iti.wakamiti.api.util.StoredContent;
 import es.iti.wakamiti.api.util.XmlUtils;
 import es.iti.wakamiti.core.properties.StepPropertyEvaluator;
 import org.apache.xmlbeans.XmlObject;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -214,6 +217,25 @@ public class StepPropertyEvaluatorTest {
         ));
     }
 
+    @Test
+    public void testResolverWhenStoredResponseWithSuccess() {
+        LinkedHashMap<String, Object> results = new LinkedHashMap<>();
+        results.put("results", map(
+                "s1", stored("[" + json + "]"),
+                "s2", stored(xml.toString())
+        ));
+        when(WakamitiStepRunContext.current().backend().getExtraProperties()).thenReturn(results);
+
+        PropertyEvaluator.Result result = resolver.eval("${1#[0].user}");
+        assertThat(result.value()).isEqualTo("pepe");
+
+        result = resolver.eval("${-1#//id/text()}");
+        assertThat(result.value()).isEqualTo("3");
+
+        result = resolver.eval("${1#}");
+        assertThat(result.value()).isEqualTo("[stored]");
+    }
+
     @Test(expected = WakamitiException.class)
     public void testResolveWhenResultNullWithError() {
         resolver.eval("'${1#$.user}'");
@@ -223,4 +245,18 @@ public class StepPropertyEvaluatorTest {
     public void testResolveWhenNotValidOperationWithError() {
         resolver.eval("'${2#//user}'");
     }
+
+    private static StoredContent stored(String content) {
+        return new StoredContent() {
+            @Override
+            public ByteArrayInputStream open() {
+                return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String toString() {
+                return "[stored]";
+            }
+        };
+    }
 }
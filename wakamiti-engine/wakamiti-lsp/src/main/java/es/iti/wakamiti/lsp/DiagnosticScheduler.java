@@ -0,0 +1,80 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.lsp;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.*;
+import java.util.stream.Stream;
+
+import es.iti.wakamiti.lsp.internal.DocumentDiagnostics;
+import org.slf4j.*;
+
+
+/**
+ * Computes diagnostics in a background thread once the documents have not
+ * been changed for a while.
+ * <p>
+ * Every new request cancels the previous one: if it has not started yet it
+ * is discarded, and if it is running it stops as soon as it checks the
+ * cancellation flag. Only the last request is completed and delivered.
+ */
+class DiagnosticScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosticScheduler.class);
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wakamiti-lsp-diagnostics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long delayMillis;
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+
+
+    DiagnosticScheduler(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+
+    /**
+     * Cancels the pending and running computations, if any.
+     */
+    synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+
+    /**
+     * Schedules a new computation of diagnostics, cancelling the previous one.
+     *
+     * @param computation The diagnostics computation, receiving whether it
+     *                    has been cancelled
+     * @param publisher   The consumer of the computed diagnostics
+     */
+    synchronized void schedule(
+        Function<BooleanSupplier, Stream<DocumentDiagnostics>> computation,
+        Consumer<Stream<DocumentDiagnostics>> publisher
+    ) {
+        cancel();
+        long current = generation.get();
+        BooleanSupplier cancelled = () -> generation.get() != current;
+        pending = executor.schedule(() -> {
+            try {
+                publisher.accept(computation.apply(cancelled));
+            } catch (RuntimeException e) {
+                LOGGER.error("Cannot compute diagnostics", e);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -26,10 +26,12 @@ import java.util.stream.Stream;
 public class WakamitiLanguageServer implements LanguageServer, LanguageClientAware {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WakamitiLanguageServer.class);
+    private static final long DIAGNOSTICS_DELAY_MILLIS = 300;
 
     private final WakamitiTextDocumentService textDocumentService;
     private final WakamitiWorkspaceService workspaceService;
     private final GherkinWorkspace workspace;
+    private final DiagnosticScheduler diagnosticScheduler = new DiagnosticScheduler(DIAGNOSTICS_DELAY_MILLIS);
 
     LanguageClient client;
 
@@ -145,7 +147,17 @@ public class WakamitiLanguageServer implements LanguageServer, LanguageClientAwa
 
 
     void sendWorkspaceDiagnostics() {
-    	sendDiagnostics(workspace.computeWorkspaceDiagnostics());
+    	scheduleDiagnostics();
+    }
+
+
+    void scheduleDiagnostics() {
+    	diagnosticScheduler.schedule(workspace::computePendingDiagnostics, this::sendDiagnostics);
+    }
+
+
+    void cancelDiagnostics() {
+    	diagnosticScheduler.cancel();
     }
 
 
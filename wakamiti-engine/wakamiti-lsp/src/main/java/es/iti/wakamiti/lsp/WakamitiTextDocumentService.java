@@ -84,9 +84,11 @@ public class WakamitiTextDocumentService implements TextDocumentService {
         String type = params.getTextDocument().getLanguageId();
         String content = params.getTextDocument().getText();
         if (FILE_TYPE_GHERKIN.equals(type)) {
-            server.sendDiagnostics(workspace.addGherkin(uri, content) );
+            workspace.addGherkinWithoutDiagnostics(uri, content);
+            server.scheduleDiagnostics();
         } else if (FILE_TYPE_CONFIGURATION.equals(type)) {
-            server.sendDiagnostics(workspace.addConfiguration(uri, content));
+            workspace.addConfigurationWithoutDiagnostics(uri, content);
+            server.scheduleDiagnostics();
         }
     }
 
@@ -95,11 +97,12 @@ public class WakamitiTextDocumentService implements TextDocumentService {
     public void didChange(DidChangeTextDocumentParams params) {
         LoggerUtil.logEntry("textDocument.didChange", params);
         var uri = params.getTextDocument().getUri();
+        // stale diagnostics are discarded before waiting for the workspace
+        server.cancelDiagnostics();
         for (var event : params.getContentChanges()) {
-            server.sendDiagnostics(
-                workspace.update(uri, textRange(event.getRange()), event.getText())
-            );
+            workspace.applyChange(uri, textRange(event.getRange()), event.getText());
         }
+        server.scheduleDiagnostics();
     }
 
 
@@ -175,10 +175,11 @@ public class GherkinDocumentAssessor {
 
 
     public synchronized GherkinDocumentAssessor updateDocument(TextRange range, String delta) {
-    	boolean requiresParsing = documentMap.replace(range,delta);
-        //if (parsingError != null || requiresParsing) {
+    	int previousLines = documentMap.document().lines().size();
+    	documentMap.replace(range,delta);
+        if (!reparseDocument(range, previousLines)) {
         	resetDocument(documentMap.rawContent());
-       // }
+        }
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("{}{}{}",DOTS,documentMap.document().rawText(),DOTS);
         }
@@ -187,6 +188,34 @@ public class GherkinDocumentAssessor {
 
 
 
+    /*
+     * Reparses only the scenarios around the changed lines. The configuration,
+     * the hinter and the additional info are kept, since the feature header
+     * is not changed. Returns false if the whole document must be reset.
+     */
+    private boolean reparseDocument(TextRange range, int previousLines) {
+    	if (parsingError != null || parsedDocument == null) {
+    		return false;
+    	}
+    	List<String> lines = documentMap.document().lines();
+    	try {
+    		var reparsed = parser.reparse(
+				parsedDocument,
+				lines,
+				Math.min(range.startLine(), previousLines - 1) + 1,
+				Math.min(range.endLine(), previousLines - 1) + 1,
+				lines.size() - previousLines
+			);
+    		reparsed.ifPresent(document -> this.parsedDocument = document);
+    		return reparsed.isPresent();
+    	} catch (RuntimeException e) {
+    		LOGGER.debug("Cannot reparse document {}: {}", uri, e.toString());
+    		return false;
+    	}
+    }
+
+
+
     private Configuration extractDocumentConfiguration(String document) {
         // TODO: parsing is an intensive operation, it should work if we just
         //       take the lines starting with # until the first keyword appears
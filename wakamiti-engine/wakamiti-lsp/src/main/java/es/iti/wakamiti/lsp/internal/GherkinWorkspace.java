@@ -9,6 +9,8 @@ package es.iti.wakamiti.lsp.internal;
 import static java.util.stream.Collectors.*;
 
 import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 import java.util.stream.*;
 
 import es.iti.wakamiti.api.imconfig.Configuration;
@@ -17,9 +19,26 @@ import org.eclipse.lsp4j.*;
 import org.yaml.snakeyaml.Yaml;
 
 
-
+/**
+ * Set of Gherkin documents and workspace configuration managed by the
+ * language server.
+ * <p>
+ * Diagnostics are computed incrementally: the diagnostics of every document
+ * and its redefinition IDs are kept, and only the documents added or changed
+ * since the last computation (or every document, if the workspace
+ * configuration actually changes) are assessed again. Inter-document
+ * diagnostics are computed from the kept IDs, and only the documents whose
+ * diagnostics differ from the last computed ones are returned.
+ * <p>
+ * The workspace lock only guards the set of documents and the workspace
+ * state, while each document is read and changed holding its own lock. This
+ * way, documents are assessed without holding the workspace lock, and
+ * requests about other documents (such as completions or symbols) do not
+ * wait for a running computation of diagnostics.
+ */
 public class GherkinWorkspace {
 
+    private static final BooleanSupplier NOT_CANCELLED = () -> false;
 
     final Map<String, GherkinDocumentAssessor> documentAssessors = new HashMap<>();
     final int baseIndex;
@@ -27,8 +46,15 @@ public class GherkinWorkspace {
     final Map<String, Pair<DocumentSegment,DocumentSegment>> linkMap = new HashMap<>();
     final WorkspaceDiagnosticHelper diagnosticHelper;
 
+    private final Set<String> pendingDocuments = new LinkedHashSet<>();
+    private final Map<String, DocumentDiagnostics> documentDiagnostics = new LinkedHashMap<>();
+    private final Map<String, DocumentLinks> documentLinks = new LinkedHashMap<>();
+    private final Map<String, List<Diagnostic>> computedDiagnostics = new HashMap<>();
+
     private String configurationUri;
     private TextDocument configurationDocument;
+    private boolean pendingConfiguration;
+    private Configuration workspaceConfiguration = Configuration.factory().empty();
 
     public GherkinWorkspace(int baseIndex) {
         this.baseIndex = baseIndex;
@@ -36,107 +62,252 @@ public class GherkinWorkspace {
     }
 
     public Stream<DocumentDiagnostics> addGherkin(String uri, String content) {
-        documentAssessors.computeIfAbsent(uri, x-> new GherkinDocumentAssessor(uri,content));
-        return computeAllDiagnostics();
-
-
+        addGherkinWithoutDiagnostics(uri, content);
+        return computePendingDiagnostics(NOT_CANCELLED);
     }
 
 
     public Stream<DocumentDiagnostics> addConfiguration(String uri, String content) {
-        this.configurationUri = uri;
-        this.configurationDocument = new TextDocument(content);
+        addConfigurationWithoutDiagnostics(uri, content);
         return computeWorkspaceDiagnostics();
     }
 
 
-    public void addGherkinWithoutDiagnostics(String uri, String content) {
-        documentAssessors.computeIfAbsent(uri, x-> new GherkinDocumentAssessor(uri,content));
+    public synchronized void addGherkinWithoutDiagnostics(String uri, String content) {
+        documentAssessors.computeIfAbsent(uri, x-> {
+            pendingDocuments.add(uri);
+            return new GherkinDocumentAssessor(uri, content, workspaceConfiguration);
+        });
     }
 
 
-    public void addConfigurationWithoutDiagnostics(String uri, String content) {
+    public synchronized void addConfigurationWithoutDiagnostics(String uri, String content) {
         this.configurationUri = uri;
         this.configurationDocument = new TextDocument(content);
+        this.pendingConfiguration = true;
     }
 
 
 
 
     public Stream<DocumentDiagnostics> updateConfiguration(TextRange range, String text) {
-        this.configurationDocument.replaceRange(range, text);
+        synchronized (this) {
+            this.configurationDocument.replaceRange(range, text);
+            this.pendingConfiguration = true;
+        }
         return computeWorkspaceDiagnostics();
     }
 
     public DocumentDiagnostics computeDiagnostics(String uri) {
-        return document(uri).collectDiagnostics();
+        var document = lockedDocument(uri);
+        synchronized (document) {
+            return document.collectDiagnostics();
+        }
     }
 
 
     public Stream<DocumentDiagnostics> computeWorkspaceDiagnostics() {
-        try {
-            var workspaceConfiguration = Configuration.factory().fromMap(
-                yaml.load(configurationDocument.rawText())
-            );
-            documentAssessors.values().forEach(
-                document->document.setWorkspaceConfiguration(workspaceConfiguration)
-            );
-            return computeAllDiagnostics();
-
-        } catch (RuntimeException e) {
-            return Stream.empty();
+        synchronized (this) {
+            if (!refreshWorkspaceConfiguration()) {
+                return Stream.empty();
+            }
         }
+        return computePendingDiagnostics(NOT_CANCELLED);
     }
 
 
 
     public Stream<DocumentDiagnostics> update(String uri, TextRange range, String text) {
-        if (uri.equals(configurationUri)) {
+        if (isConfiguration(uri)) {
             return updateConfiguration(range, text);
         } else {
-            document(uri).updateDocument(range, text);
-            return computeAllDiagnostics();
+            applyChange(uri, range, text);
+            return computePendingDiagnostics(NOT_CANCELLED);
         }
     }
 
 
-    public List<CodeAction> obtainCodeActions(String uri, List<Diagnostic> diagnostics) {
-        var document = document(uri);
+    /**
+     * Applies a change to a document without computing any diagnostics. The
+     * changed document will be assessed by the next call to
+     * {@link #computePendingDiagnostics(BooleanSupplier)}.
+     *
+     * @param uri   The document URI
+     * @param range The replaced range
+     * @param text  The new text
+     */
+    public void applyChange(String uri, TextRange range, String text) {
+        synchronized (this) {
+            if (uri.equals(configurationUri)) {
+                this.configurationDocument.replaceRange(range, text);
+                this.pendingConfiguration = true;
+                return;
+            }
+        }
+        lockedDocument(uri).updateDocument(range, text);
+        synchronized (this) {
+            pendingDocuments.add(uri);
+        }
+    }
+
+
+    /**
+     * Computes the diagnostics affected by the changes applied since the
+     * last computation.
+     * <p>
+     * The computation stops as soon as it is cancelled, keeping the
+     * documents already assessed, so the next computation continues with
+     * the remaining ones. Each document is assessed holding only its own
+     * lock; a document changed meanwhile remains pending.
+     *
+     * @param cancelled Whether the computation has been cancelled
+     * @return The diagnostics of the documents whose diagnostics have
+     * changed, or nothing if the computation was cancelled
+     */
+    public Stream<DocumentDiagnostics> computePendingDiagnostics(BooleanSupplier cancelled) {
+        synchronized (this) {
+            if (pendingConfiguration) {
+                refreshWorkspaceConfiguration();
+            }
+        }
+        for (String uri = nextPendingDocument(); uri != null; uri = nextPendingDocument()) {
+            if (cancelled.getAsBoolean()) {
+                return Stream.empty();
+            }
+            assess(uri);
+        }
+        synchronized (this) {
+            if (cancelled.getAsBoolean()) {
+                return Stream.empty();
+            }
+            return computeInterDocumentDiagnostics();
+        }
+    }
+
+
+    private synchronized String nextPendingDocument() {
+        return pendingDocuments.isEmpty() ? null : pendingDocuments.iterator().next();
+    }
+
+
+    private void assess(String uri) {
+        GherkinDocumentAssessor document;
+        synchronized (this) {
+            // removed beforehand, so any change applied meanwhile marks it as pending again
+            pendingDocuments.remove(uri);
+            document = document(uri);
+        }
+        DocumentDiagnostics diagnostics;
+        DocumentLinks links;
+        try {
+            synchronized (document) {
+                diagnostics = document.collectDiagnostics();
+                links = new DocumentLinks(document);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDocuments.add(uri);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            documentDiagnostics.put(uri, diagnostics);
+            documentLinks.put(uri, links);
+        }
+    }
+
 
-        Stream<CodeAction> codeActionsFromDocument = diagnostics.stream()
-            .map(document::retrieveQuickFixes)
-            .flatMap(List::stream);
+    private Stream<DocumentDiagnostics> computeInterDocumentDiagnostics() {
+        var allDiagnostics = diagnosticHelper.computeInterDocumentDiagnostics(
+            new ArrayList<>(documentDiagnostics.values()),
+            documentLinks.values().stream().flatMap(links -> links.definitionIds.stream()).collect(toList()),
+            documentLinks.values().stream().flatMap(links -> links.implementationIds.stream()).collect(toList())
+        );
+        return allDiagnostics
+            .filter(document -> !document.diagnostics().equals(computedDiagnostics.get(document.uri())))
+            .peek(document -> computedDiagnostics.put(document.uri(), document.diagnostics()))
+            .collect(toList())
+            .stream();
+    }
+
+
+    public List<CodeAction> obtainCodeActions(String uri, List<Diagnostic> diagnostics) {
+        var document = lockedDocument(uri);
+
+        List<CodeAction> codeActionsFromDocument;
+        synchronized (document) {
+            codeActionsFromDocument = diagnostics.stream()
+                .map(document::retrieveQuickFixes)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        }
 
-        Stream<CodeAction> codeActionsFromWorkspace = diagnosticHelper
-            .retrieveCodeActions(uri, diagnostics);
+        List<CodeAction> codeActionsFromWorkspace;
+        synchronized (this) {
+            synchronized (document) {
+                codeActionsFromWorkspace = diagnosticHelper
+                    .retrieveCodeActions(uri, diagnostics)
+                    .collect(Collectors.toList());
+            }
+        }
 
         return Stream
-            .concat(codeActionsFromDocument, codeActionsFromWorkspace)
+            .concat(codeActionsFromDocument.stream(), codeActionsFromWorkspace.stream())
             .collect(Collectors.toList());
     }
 
 
 
     public List<CompletionItem> computeCompletions(String uri, Position position) {
-        return document(uri).collectCompletions(
-            position.getLine()- baseIndex,
-            position.getCharacter() - baseIndex
-        );
+        var document = lockedDocument(uri);
+        synchronized (document) {
+            return document.collectCompletions(
+                position.getLine()- baseIndex,
+                position.getCharacter() - baseIndex
+            );
+        }
     }
 
 
 
     public List<DocumentSymbol> documentSymbols(String uri) {
-        return document(uri).collectSymbols();
+        var document = lockedDocument(uri);
+        synchronized (document) {
+            return document.collectSymbols();
+        }
     }
 
 
 
-    private Stream<DocumentDiagnostics> computeAllDiagnostics() {
-        var documentDiagnostics = documentAssessors.values().stream()
-            .map(GherkinDocumentAssessor::collectDiagnostics)
-            .collect(toList());
-        return diagnosticHelper.computeInterDocumentDiagnostics(documentDiagnostics);
+    /**
+     * Reloads the workspace configuration from the configuration document.
+     * Documents are only reset, and assessed again, when the configuration
+     * has actually changed.
+     *
+     * @return false if the configuration document cannot be read
+     */
+    private boolean refreshWorkspaceConfiguration() {
+        if (configurationDocument == null) {
+            return true;
+        }
+        try {
+            var configuration = Configuration.factory().fromMap(
+                yaml.load(configurationDocument.rawText())
+            );
+            pendingConfiguration = false;
+            if (!configuration.asMap().equals(workspaceConfiguration.asMap())) {
+                workspaceConfiguration = configuration;
+                documentAssessors.forEach((uri, document) -> {
+                    synchronized (document) {
+                        document.setWorkspaceConfiguration(configuration);
+                    }
+                    pendingDocuments.add(uri);
+                });
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
     }
 
 
@@ -146,45 +317,90 @@ public class GherkinWorkspace {
 
 
 
-
-
     public Optional<DocumentSegment> resolveImplementationLink(String uri, Position position) {
-        return Optional.of(document(uri))
-            .filter(GherkinDocumentAssessor::isDefinition)
-            .flatMap(document -> document.obtainIdAt(position))
-            .map(TextSegment::content)
-            .map(linkMap::get)
+        return obtainIdAt(uri, position, GherkinDocumentAssessor::isDefinition)
+            .map(this::link)
             .map(Pair::value);
     }
 
 
     public Optional<DocumentSegment> resolveDefinitionLink(String uri, Position position) {
-        return Optional.of(document(uri))
-            .filter(GherkinDocumentAssessor::isImplementation)
-            .flatMap(document -> document.obtainIdAt(position))
-            .map(TextSegment::content)
-            .map(linkMap::get)
+        return obtainIdAt(uri, position, GherkinDocumentAssessor::isImplementation)
+            .map(this::link)
             .map(Pair::key);
     }
 
 
+    private Optional<String> obtainIdAt(
+        String uri,
+        Position position,
+        Predicate<GherkinDocumentAssessor> filter
+    ) {
+        var document = lockedDocument(uri);
+        synchronized (document) {
+            return Optional.of(document)
+                .filter(filter)
+                .flatMap(it -> it.obtainIdAt(position))
+                .map(TextSegment::content);
+        }
+    }
+
+
+    private synchronized Pair<DocumentSegment,DocumentSegment> link(String id) {
+        return linkMap.get(id);
+    }
+
+
     public Pair<Range, String> format(String uri, int tabSize) {
-        var document = document(uri);
-        int numberOfLines = document.documentMap.document().numberOfLines();
-        int lastPosition = document.documentMap.document().extractLine(numberOfLines-1).length();
-        Range range = new Range(new Position(0,0), new Position(numberOfLines, lastPosition));
-        String formatted = GherkinFormatter.format(document.documentMap, tabSize);
-        return new Pair<>(range,formatted);
+        var document = lockedDocument(uri);
+        synchronized (document) {
+            int numberOfLines = document.documentMap.document().numberOfLines();
+            int lastPosition = document.documentMap.document().extractLine(numberOfLines-1).length();
+            Range range = new Range(new Position(0,0), new Position(numberOfLines, lastPosition));
+            String formatted = GherkinFormatter.format(document.documentMap, tabSize);
+            return new Pair<>(range,formatted);
+        }
+    }
+
+
+
+    private synchronized boolean isConfiguration(String uri) {
+        return uri.equals(configurationUri);
     }
 
 
+    private synchronized GherkinDocumentAssessor lockedDocument(String uri) {
+        return document(uri);
+    }
+
 
+    /**
+     * Gets the assessor of the given document, creating an empty one if it
+     * does not exist. It must be called holding the workspace lock.
+     */
     GherkinDocumentAssessor document(String uri) {
-        return documentAssessors.computeIfAbsent(uri, x-> new GherkinDocumentAssessor(uri,""));
+        return documentAssessors.computeIfAbsent(uri, x-> new GherkinDocumentAssessor(uri,"",workspaceConfiguration));
     }
 
 
 
+    /**
+     * Redefinition IDs declared by a document when it was last assessed.
+     */
+    private static class DocumentLinks {
+
+        private final List<DocumentSegment> definitionIds;
+        private final List<DocumentSegment> implementationIds;
+
+        private DocumentLinks(GherkinDocumentAssessor document) {
+            this.definitionIds = document.isDefinition() ?
+                document.retriveIdTagSegment().collect(toList()) :
+                List.of();
+            this.implementationIds = document.isImplementation() ?
+                document.retriveIdTagSegment().collect(toList()) :
+                List.of();
+        }
+    }
 
 
 
@@ -192,4 +408,4 @@ public class GherkinWorkspace {
 
 
 
-}
\ No newline at end of file
+}
@@ -12,43 +12,62 @@ import java.util.regex.*;
 /**
  * Store a text document allowing the manipulation of the text
  * using text ranges.
+ * <p>
+ * The text is kept as a list of lines, so replacing a range only splits and
+ * joins the affected lines instead of rebuilding the whole text, and the
+ * lines are directly indexed. The raw text is only built when requested.
  */
 public class TextDocument {
 
     private static final char EOL = '\n';
 
-    // the raw text document, including eol characters
+    // the lines of the document, without eol characters (the last one is
+    // empty when the document ends with a eol character)
+    private final List<String> lines;
+    // the raw text document, including eol characters; computed on demand
     private String rawDocument;
-    // the positions of each eol character in the overall raw document
-    private int[] endOfLines;
 
 
     public TextDocument(String rawDocument) {
+        this.lines = splitLines(rawDocument);
         this.rawDocument = rawDocument;
-        this.endOfLines = locateEndOfLines(rawDocument);
     }
 
+
+    private TextDocument(TextDocument document) {
+        this.lines = new ArrayList<>(document.lines);
+        this.rawDocument = document.rawDocument;
+    }
+
+
     public String extractLine(int lineNumber) {
-        int start = start(lineNumber);
-        int end = start(lineNumber+1);
-        if (lineNumber < endOfLines.length) {
-            end--;
-        }
-        return rawDocument.substring(start,end);
+        return lineNumber < lines.size() ? lines.get(lineNumber) : "";
     }
 
+
     public String extractRange(TextRange range) {
-        int start = start(range.startLine()) + range.startLinePosition();
-        int end = start(range.endLine()) + range.endLinePosition();
-        return rawDocument.substring(start,end);
+        int[] start = locate(range.startLine(), range.startLinePosition());
+        int[] end = locate(range.endLine(), range.endLinePosition());
+        if (start[0] == end[0]) {
+            return lines.get(start[0]).substring(start[1], end[1]);
+        }
+        StringBuilder text = new StringBuilder(lines.get(start[0]).substring(start[1]));
+        for (int line = start[0] + 1; line < end[0]; line++) {
+            text.append(EOL).append(lines.get(line));
+        }
+        return text.append(EOL).append(lines.get(end[0]), 0, end[1]).toString();
     }
 
 
     public TextDocument replaceRange(TextRange range, String text) {
-        int start = start(range.startLine()) + range.startLinePosition();
-        int end = start(range.endLine()) + range.endLinePosition();
-        this.rawDocument = rawDocument.substring(0,start) + text + rawDocument.substring(end);
-        this.endOfLines = locateEndOfLines(rawDocument);
+        int[] start = locate(range.startLine(), range.startLinePosition());
+        int[] end = locate(range.endLine(), range.endLinePosition());
+        String replacedLines =
+            lines.get(start[0]).substring(0, start[1]) + text + lines.get(end[0]).substring(end[1]);
+        List<String> affectedLines = lines.subList(start[0], end[0] + 1);
+        affectedLines.clear();
+        affectedLines.addAll(splitLines(replacedLines));
+        this.rawDocument = null;
         return this;
     }
 
@@ -62,23 +81,34 @@ public class TextDocument {
 
 
     public String rawText() {
+        if (rawDocument == null) {
+            rawDocument = String.join(String.valueOf(EOL), lines);
+        }
         return rawDocument;
     }
 
 
+    /**
+     * @return An unmodifiable view of the current lines of the document. The
+     * last line is empty if the document ends with a eol character.
+     */
+    public List<String> lines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+
     public boolean isEmpty() {
         return numberOfLines() == 0;
     }
 
 
     public int numberOfLines() {
-        if (endOfLines.length == 0) {
+        int endOfLines = lines.size() - 1;
+        if (endOfLines == 0) {
             return 0;
         }
         // the text may or not end with a eol char
-        return endOfLines[endOfLines.length-1] < rawDocument.length()-1 ?
-            endOfLines.length + 1 :
-            endOfLines.length;
+        return lines.get(endOfLines).isEmpty() ? endOfLines : endOfLines + 1;
     }
 
 
@@ -124,38 +154,41 @@ public class TextDocument {
     }
 
 
-    private int start(int line) {
-        if (line > endOfLines.length) {
-            return rawDocument.length();
+    /*
+     * Locates a position as a line and a position within that line, as if
+     * the position were an offset from the start of the given line
+     */
+    private int[] locate(int line, int position) {
+        if (line >= lines.size()) {
+            int lastLine = lines.size() - 1;
+            return new int[] { lastLine, lines.get(lastLine).length() };
         }
-        return line == 0 ? 0 : endOfLines[line-1]+1;
+        while (position > lines.get(line).length() && line < lines.size() - 1) {
+            position -= lines.get(line).length() + 1;
+            line++;
+        }
+        return new int[] { line, position };
     }
 
 
 
-
-    private static int[] locateEndOfLines(String rawDocument) {
-        int index = 0;
+    private static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
         int start = 0;
-        int occurrences = -1;
+        int index = text.indexOf(EOL);
         while (index != -1) {
-            occurrences ++;
-            index = rawDocument.indexOf(EOL,start);
+            lines.add(text.substring(start, index));
             start = index + 1;
+            index = text.indexOf(EOL, start);
         }
-        int[] indexes = new int[occurrences];
-        index = -1;
-        for (int i=0;i<occurrences;i++) {
-            index = rawDocument.indexOf(EOL,index+1);
-            indexes[i] = index;
-        }
-        return indexes;
+        lines.add(text.substring(start));
+        return lines;
     }
 
 
 
     public TextDocument copy() {
-    	return new TextDocument(rawDocument);
+    	return new TextDocument(this);
     }
 
 	public TextRange wholeRange() {
@@ -61,26 +61,18 @@ public class WorkspaceDiagnosticHelper {
 
 
     public Stream<DocumentDiagnostics>  computeInterDocumentDiagnostics(
-        List<DocumentDiagnostics> documentDiagnostics
+        List<DocumentDiagnostics> documentDiagnostics,
+        List<DocumentSegment> definitionIds,
+        List<DocumentSegment> implementationIds
     ) {
 
+        // document diagnostics are copied, since they are kept by the workspace
         Map<String,List<Diagnostic>> diagnosticsPerDocument = new HashMap<>();
         documentDiagnostics.forEach(document->
-            diagnosticsPerDocument.put(document.uri(), document.diagnostics())
+            diagnosticsPerDocument.put(document.uri(), new ArrayList<>(document.diagnostics()))
         );
 
 
-        var definitionIds = workspace.documentAssessors.values().stream()
-            .filter(GherkinDocumentAssessor::isDefinition)
-            .flatMap(GherkinDocumentAssessor::retriveIdTagSegment)
-            .collect(toList())
-        ;
-        var implementationIds = workspace.documentAssessors.values().stream()
-            .filter(GherkinDocumentAssessor::isImplementation)
-            .flatMap(GherkinDocumentAssessor::retriveIdTagSegment)
-            .collect(toList())
-        ;
-
         var repeatedDefs = computeRepeatedID(diagnosticsPerDocument, definitionIds);
         var repeatedImpls = computeRepeatedID(diagnosticsPerDocument, implementationIds);
         var nonLinkedDefs = computeNonLinkedID(
@@ -120,11 +112,10 @@ public class WorkspaceDiagnosticHelper {
         List<DocumentSegment> definitionIds
     ) {
         Set<String> repeatedIds = new HashSet<>();
+        Map<String,Long> occurrences = definitionIds.stream()
+            .collect(groupingBy(DocumentSegment::content, counting()));
         for (var segment : definitionIds) {
-            boolean idIsRepeated = definitionIds.stream()
-                .filter(id -> segment != id)
-                .map(DocumentSegment::content)
-                .anyMatch(segment.content()::equals);
+            boolean idIsRepeated = occurrences.get(segment.content()) > 1;
 
             if (idIsRepeated) {
                 diagnosticsPerDocument
@@ -151,8 +142,9 @@ public class WorkspaceDiagnosticHelper {
         String message
     ) {
         Set<String> nonLinkedIds = new HashSet<>();
+        Set<String> destinationIds = destinations.stream().map(DocumentSegment::content).collect(toSet());
         sources.stream()
-        .filter(id -> destinations.stream().map(DocumentSegment::content).noneMatch(id.content()::equals))
+        .filter(id -> !destinationIds.contains(id.content()))
         .forEach(segment -> {
             diagnosticsPerDocument
                 .computeIfAbsent(segment.uri(), x->new ArrayList<>())
@@ -178,8 +170,8 @@ public class WorkspaceDiagnosticHelper {
         Set<String> linkableIds
     ) {
         workspace.linkMap.clear();
-        var definitionsMap = definitionIds.stream().collect(toMap(DocumentSegment::content,x->x));
-        var implementationsMap = implementationIds.stream().collect(toMap(DocumentSegment::content,x->x));
+        var definitionsMap = definitionIds.stream().collect(toMap(DocumentSegment::content,x->x,(x,y)->x));
+        var implementationsMap = implementationIds.stream().collect(toMap(DocumentSegment::content,x->x,(x,y)->x));
         for (String id : linkableIds) {
             var definitionId = definitionsMap.get(id);
             var implementationId = implementationsMap.get(id);
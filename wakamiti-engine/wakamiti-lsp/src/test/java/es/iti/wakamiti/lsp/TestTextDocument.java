@@ -8,6 +8,8 @@ package es.iti.wakamiti.lsp;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+import java.util.Random;
 import java.util.regex.Pattern;
 
 import es.iti.wakamiti.lsp.internal.TextDocument;
@@ -92,6 +94,45 @@ public class TestTextDocument {
     }
 
 
+    @Test
+    public void testReplaceIsEquivalentToReplaceRawText() {
+        var random = new Random(3);
+        var document = document();
+        var copy = document.copy();
+        var text = document.rawText();
+        for (int i = 0; i < 500; i++) {
+            var lines = text.split("\n", -1);
+            int startLine = random.nextInt(lines.length);
+            int endLine = startLine + random.nextInt(Math.min(3, lines.length - startLine));
+            int startPosition = random.nextInt(lines[startLine].length() + 1);
+            int endPosition = endLine == startLine ?
+                startPosition + random.nextInt(lines[endLine].length() - startPosition + 1) :
+                random.nextInt(lines[endLine].length() + 1);
+            var replacement = List.of("", "a", "\n", "bc\nd", "\n\n", "efg").get(random.nextInt(6));
+
+            int start = offset(lines, startLine, startPosition);
+            int end = offset(lines, endLine, endPosition);
+            var range = TextRange.of(startLine, startPosition, endLine, endPosition);
+            assertThat(document.extractRange(range)).isEqualTo(text.substring(start, end));
+            text = text.substring(0, start) + replacement + text.substring(end);
+            document.replaceRange(range, replacement);
+
+            assertThat(document.rawText()).isEqualTo(text);
+            assertThat(document.numberOfLines()).isEqualTo(new TextDocument(text).numberOfLines());
+        }
+        assertThat(copy.rawText()).isEqualTo("line0\nline1\nline2\nx");
+    }
+
+
+    private int offset(String[] lines, int line, int position) {
+        int offset = position;
+        for (int i = 0; i < line; i++) {
+            offset += lines[i].length() + 1;
+        }
+        return offset;
+    }
+
+
     private TextDocument document() {
         return new TextDocument("line0\nline1\nline2\nx");
     }
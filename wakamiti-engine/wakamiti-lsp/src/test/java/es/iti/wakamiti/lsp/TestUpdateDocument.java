@@ -148,6 +148,31 @@ public class TestUpdateDocument {
     }
 
 
+    @Test
+    public void updatedScenariosKeepTheSameStructureAsAFullParse() {
+    	GherkinDocumentAssessor document = new GherkinDocumentAssessor(lines(
+			"# language: en",
+			"Feature: Test",
+			"",
+			"   Scenario: first",
+			"      Given a step",
+			"",
+			"   @tag",
+			"   Scenario: second",
+			"      Given another step",
+			"",
+			"   Scenario: third",
+			"      Given a last step"
+		));
+        document.updateDocument(TextRange.of(4,18,4,18), "\n      When a new step");
+        document.updateDocument(TextRange.of(11,0,11,0), "   # comment\n");
+        document.updateDocument(TextRange.of(12,13,12,18), "final");
+        assertThat(document.collectSymbols())
+            .isEqualTo(new GherkinDocumentAssessor(document.content()).collectSymbols());
+        assertThat(document.content()).contains("When a new step", "Scenario: final");
+    }
+
+
     private String lines(String...lines) {
         return Stream.of(lines).collect(Collectors.joining("\n"));
     }
@@ -0,0 +1,175 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.lsp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import es.iti.wakamiti.lsp.internal.DocumentDiagnostics;
+import es.iti.wakamiti.lsp.internal.GherkinWorkspace;
+import es.iti.wakamiti.lsp.internal.TextRange;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.junit.Test;
+
+
+public class TestWorkspaceDiagnostics {
+
+    private static final String DEFINITION = "file:///definition.feature";
+    private static final String IMPLEMENTATION = "file:///implementation.feature";
+    private static final String OTHER = "file:///other.feature";
+    private static final String CONFIGURATION = "file:///wakamiti.yaml";
+
+
+    @Test
+    public void onlyChangedDocumentsAreReturned() {
+        GherkinWorkspace workspace = workspace();
+        assertThat(diagnostics(workspace.computePendingDiagnostics(() -> false)))
+            .containsOnlyKeys(DEFINITION, IMPLEMENTATION, OTHER)
+            .allSatisfy((uri, messages) -> assertThat(messages).isEmpty());
+
+        // the scenario name does not change any diagnostic
+        workspace.applyChange(DEFINITION, TextRange.of(4, 13, 4, 16), "uno");
+        assertThat(diagnostics(workspace.computePendingDiagnostics(() -> false))).isEmpty();
+
+        // the ID changes the diagnostics of the linked document
+        workspace.applyChange(IMPLEMENTATION, TextRange.of(3, 7, 3, 8), "2");
+        assertThat(diagnostics(workspace.computePendingDiagnostics(() -> false))).containsOnly(
+            Map.entry(DEFINITION, List.of("There is no implementation scenario with this ID")),
+            Map.entry(IMPLEMENTATION, List.of("There is no definition scenario with this ID"))
+        );
+    }
+
+
+    @Test
+    public void cancelledComputationKeepsPendingDocuments() {
+        GherkinWorkspace workspace = workspace();
+        assertThat(workspace.computePendingDiagnostics(() -> true)).isEmpty();
+        assertThat(diagnostics(workspace.computePendingDiagnostics(() -> false)))
+            .containsOnlyKeys(DEFINITION, IMPLEMENTATION, OTHER);
+    }
+
+
+    @Test
+    public void requestsDoNotWaitForRunningComputation() throws Exception {
+        GherkinWorkspace workspace = workspace();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch answered = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            var computation = executor.submit(() -> diagnostics(workspace.computePendingDiagnostics(() -> {
+                computing.countDown();
+                try {
+                    // cancelled if the requests had to wait for the computation
+                    return !answered.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            })));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(workspace.computeCompletions(OTHER, new Position(1, 0))).isNotEmpty();
+            assertThat(workspace.documentSymbols(DEFINITION)).isNotEmpty();
+            answered.countDown();
+
+            assertThat(computation.get(5, TimeUnit.SECONDS)).containsOnlyKeys(DEFINITION, IMPLEMENTATION, OTHER);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void documentsAreOnlyAssessedAgainWhenConfigurationChanges() {
+        GherkinWorkspace workspace = workspace();
+        workspace.addConfigurationWithoutDiagnostics(CONFIGURATION, "idTagPattern: ID([\\w-]+)\n");
+        assertThat(diagnostics(workspace.computeWorkspaceDiagnostics()))
+            .containsOnlyKeys(DEFINITION, IMPLEMENTATION, OTHER);
+
+        assertThat(workspace.update(CONFIGURATION, TextRange.of(1, 0, 1, 0), "# comment\n")).isEmpty();
+
+        assertThat(diagnostics(workspace.update(CONFIGURATION, TextRange.of(0, 14, 0, 16), "TC")))
+            .containsOnlyKeys(DEFINITION, IMPLEMENTATION, OTHER)
+            .allSatisfy((uri, messages) -> assertThat(messages).contains("This scenario should have an ID tag"));
+    }
+
+
+    @Test
+    public void schedulerOnlyDeliversLastRequest() throws InterruptedException {
+        DiagnosticScheduler scheduler = new DiagnosticScheduler(50);
+        List<String> published = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        scheduler.schedule(cancelled -> {
+            started.countDown();
+            while (!cancelled.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return Stream.of(new DocumentDiagnostics("cancelled", List.of()));
+        }, result -> result.map(DocumentDiagnostics::uri).forEach(published::add));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        for (String uri : List.of("stale", "last")) {
+            scheduler.schedule(
+                cancelled -> Stream.of(new DocumentDiagnostics(uri, List.of())),
+                result -> {
+                    result.map(DocumentDiagnostics::uri).forEach(published::add);
+                    finished.countDown();
+                }
+            );
+        }
+
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(published).containsExactly("cancelled", "last");
+    }
+
+
+
+    private GherkinWorkspace workspace() {
+        GherkinWorkspace workspace = new GherkinWorkspace(0);
+        workspace.addGherkinWithoutDiagnostics(DEFINITION, lines(
+            "# language: en",
+            "@definition",
+            "Feature: Definition",
+            "   @ID-1",
+            "   Scenario: one",
+            "      Given a definition step"
+        ));
+        workspace.addGherkinWithoutDiagnostics(IMPLEMENTATION, lines(
+            "# language: en",
+            "@implementation",
+            "Feature: Implementation",
+            "   @ID-1",
+            "   Scenario: one"
+        ));
+        workspace.addGherkinWithoutDiagnostics(OTHER, lines(
+            "# language: en",
+            "Feature: Other",
+            "   @ID-3",
+            "   Scenario: three"
+        ));
+        return workspace;
+    }
+
+
+    private Map<String, List<String>> diagnostics(Stream<DocumentDiagnostics> diagnostics) {
+        return diagnostics.collect(Collectors.toMap(
+            DocumentDiagnostics::uri,
+            document -> document.diagnostics().stream().map(Diagnostic::getMessage).collect(Collectors.toList())
+        ));
+    }
+
+
+    private String lines(String...lines) {
+        return Stream.of(lines).collect(Collectors.joining("\n"));
+    }
+
+}
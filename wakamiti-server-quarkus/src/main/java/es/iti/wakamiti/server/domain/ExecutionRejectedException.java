@@ -0,0 +1,24 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.server.domain;
+
+import es.iti.wakamiti.api.WakamitiException;
+
+
+/**
+ * Thrown when a new execution is not accepted because the execution limits
+ * have been reached.
+ */
+public class ExecutionRejectedException extends WakamitiException {
+
+    private static final long serialVersionUID = -2749104727319357826L;
+
+    public ExecutionRejectedException(String message, Object... args) {
+        super(message, args);
+    }
+
+}
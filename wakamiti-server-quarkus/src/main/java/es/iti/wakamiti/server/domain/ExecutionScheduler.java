@@ -0,0 +1,212 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.server.domain;
+
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import es.iti.wakamiti.api.plan.PlanNode;
+import es.iti.wakamiti.server.domain.model.WakamitiExecution;
+
+
+/**
+ * Runs the executions in a bounded pool of workers.
+ * <p>
+ * Executions exceeding the number of workers wait in a FIFO queue. New
+ * executions are rejected when the queue is full or when the owner already
+ * has the maximum number of running and queued executions. Queued executions
+ * can be cancelled; once an execution finishes its plan is discarded, so it
+ * must be retrieved from the repository.
+ */
+public class ExecutionScheduler {
+
+    public enum State { QUEUED, RUNNING }
+
+
+    public static class AliveExecution {
+
+        private final String owner;
+        private final String executionID;
+        private final PlanNode plan;
+        private final Instant queuedInstant;
+        private volatile State state = State.QUEUED;
+        private Future<WakamitiExecution> future;
+
+        private AliveExecution(String owner, String executionID, PlanNode plan) {
+            this.owner = owner;
+            this.executionID = executionID;
+            this.plan = plan;
+            this.queuedInstant = Instant.now();
+        }
+
+        public String owner() {
+            return owner;
+        }
+
+        public String executionID() {
+            return executionID;
+        }
+
+        public PlanNode plan() {
+            return plan;
+        }
+
+        public Instant queuedInstant() {
+            return queuedInstant;
+        }
+
+        public State state() {
+            return state;
+        }
+    }
+
+
+
+    private final int maxAlive;
+    private final int maxPerOwner;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, AliveExecution> aliveExecutions = new LinkedHashMap<>();
+    private final Map<String, Integer> executionsPerOwner = new HashMap<>();
+
+
+    /**
+     * @param maxRunning  The maximum number of executions running at the same time
+     * @param maxQueued   The maximum number of executions waiting to run
+     * @param maxPerOwner The maximum number of running and queued executions of a single owner
+     */
+    public ExecutionScheduler(int maxRunning, int maxQueued, int maxPerOwner) {
+        if (maxRunning < 1 || maxQueued < 0 || maxPerOwner < 1) {
+            throw new IllegalArgumentException("Invalid execution limits");
+        }
+        this.maxAlive = maxRunning + maxQueued;
+        this.maxPerOwner = maxPerOwner;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            maxRunning,
+            maxRunning,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> new Thread(runnable, "wakamiti-execution-" + threadNumber.incrementAndGet())
+        );
+    }
+
+
+    /**
+     * Checks whether a new execution of the given owner would be accepted,
+     * so the plan is not created if it would be rejected anyway.
+     *
+     * @throws ExecutionRejectedException if the execution would be rejected
+     */
+    public synchronized void checkAdmission(String owner) {
+        if (aliveExecutions.size() >= maxAlive) {
+            throw new ExecutionRejectedException(
+                "Too many executions waiting to run ({}), try again later",
+                aliveExecutions.size() - executor.getMaximumPoolSize()
+            );
+        }
+        if (executionsPerOwner.getOrDefault(owner, 0) >= maxPerOwner) {
+            throw new ExecutionRejectedException(
+                "Too many alive executions of user {} ({}), try again later", owner, maxPerOwner
+            );
+        }
+    }
+
+
+    /**
+     * Submits a new execution.
+     *
+     * @param owner       The owner of the execution
+     * @param executionID The execution ID
+     * @param plan        The plan to be executed
+     * @param task        The actual execution of the plan
+     * @return The future result of the execution
+     * @throws ExecutionRejectedException if the execution is not accepted
+     */
+    public synchronized Future<WakamitiExecution> submit(
+        String owner,
+        String executionID,
+        PlanNode plan,
+        Callable<WakamitiExecution> task
+    ) {
+        checkAdmission(owner);
+        AliveExecution execution = new AliveExecution(owner, executionID, plan);
+        aliveExecutions.put(executionID, execution);
+        executionsPerOwner.merge(owner, 1, Integer::sum);
+        try {
+            execution.future = executor.submit(() -> run(execution, task));
+        } catch (RejectedExecutionException e) {
+            finished(execution);
+            throw new ExecutionRejectedException("The execution scheduler is shut down", e);
+        }
+        return execution.future;
+    }
+
+
+    /**
+     * Cancels a queued execution. Running executions cannot be cancelled.
+     *
+     * @return true if the execution was queued and it has been cancelled
+     */
+    public synchronized boolean cancel(String owner, String executionID) {
+        AliveExecution execution = aliveExecutions.get(executionID);
+        if (execution == null || !execution.owner.equals(owner) || execution.state != State.QUEUED) {
+            return false;
+        }
+        execution.future.cancel(false);
+        executor.remove((Runnable) execution.future);
+        finished(execution);
+        return true;
+    }
+
+
+    public synchronized Optional<AliveExecution> aliveExecution(String owner, String executionID) {
+        return Optional.ofNullable(aliveExecutions.get(executionID))
+            .filter(execution -> execution.owner.equals(owner));
+    }
+
+
+    public synchronized List<AliveExecution> aliveExecutions(String owner) {
+        return aliveExecutions.values().stream()
+            .filter(execution -> execution.owner.equals(owner))
+            .collect(Collectors.toList());
+    }
+
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    private WakamitiExecution run(AliveExecution execution, Callable<WakamitiExecution> task)
+    throws Exception {
+        synchronized (this) {
+            if (execution.future.isCancelled()) {
+                return null;
+            }
+            execution.state = State.RUNNING;
+        }
+        try {
+            return task.call();
+        } finally {
+            synchronized (this) {
+                finished(execution);
+            }
+        }
+    }
+
+
+    private void finished(AliveExecution execution) {
+        aliveExecutions.remove(execution.executionID);
+        executionsPerOwner.computeIfPresent(execution.owner, (owner, count) -> count > 1 ? count - 1 : null);
+    }
+
+}
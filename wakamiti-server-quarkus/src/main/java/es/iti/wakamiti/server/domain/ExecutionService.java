@@ -16,6 +16,7 @@ import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.validation.constraints.Null;
@@ -38,13 +39,18 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 @ApplicationScoped
 public class ExecutionService {
 
-    private static Map<String,Map<String, PlanNode>> aliveExecutions = new ConcurrentHashMap<>();
-    private static Set<String> runningExecutions = new ConcurrentSkipListSet<>();
-    private static Set<String> finishedExecutions = new ConcurrentSkipListSet<>();
-
     @ConfigProperty(name = "wakamiti.executions.oldestAge")
     int executionsOldestAge;
 
+    @ConfigProperty(name = "wakamiti.executions.maxRunning", defaultValue = "4")
+    int maxRunningExecutions;
+
+    @ConfigProperty(name = "wakamiti.executions.maxQueued", defaultValue = "100")
+    int maxQueuedExecutions;
+
+    @ConfigProperty(name = "wakamiti.executions.maxPerOwner", defaultValue = "20")
+    int maxExecutionsPerOwner;
+
     @Inject
     ExecutionRepository executionRepository;
 
@@ -52,7 +58,7 @@ public class ExecutionService {
     ApplicationContext context;
 
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private ExecutionScheduler scheduler;
 
     private Configuration defaultConfiguration;
 
@@ -74,10 +80,20 @@ public class ExecutionService {
 
 
     @PostConstruct
-    void fillFinishedExecutions() {
+    void prepareExecutions() {
         executionRepository.removeOldExecutions(executionsOldestAge);
-        finishedExecutions.addAll(executionRepository.getAllExecutionIDs(user()));
-	}
+        this.scheduler = new ExecutionScheduler(
+            maxRunningExecutions,
+            maxQueuedExecutions,
+            maxExecutionsPerOwner
+        );
+    }
+
+
+    @PreDestroy
+    void stopScheduler() {
+        scheduler.shutdown();
+    }
 
 
     public WakamitiExecution runSingleResource(String resourceType, String content, boolean async) {
@@ -160,8 +176,8 @@ public class ExecutionService {
     private WakamitiExecution run(Configuration configuration, @Null String content, boolean async) {
 
         String executionID = UUID.randomUUID().toString();
-        runningExecutions.add(executionID);
         String owner = user();
+        scheduler.checkAdmission(owner);
 
     	Configuration effectiveConfiguration = this.defaultConfiguration
 			.append(configuration)
@@ -175,11 +191,11 @@ public class ExecutionService {
             Wakamiti.instance().createPlanFromContent(effectiveConfiguration, toInputStream(content))
         ;
         if (async) {
-        	executorService.submit(()->run(owner, executionID, plan, effectiveConfiguration));
-            var instant = executionRepository.prepareExecution(executionID, owner);
+            scheduler.submit(owner, executionID, plan, ()->run(owner, plan, effectiveConfiguration));
+            var instant = executionRepository.prepareExecution(owner, executionID);
         	return WakamitiExecution.fromPlan(plan, executionID, instant.toString(), owner);
         } else {
-        	return run(owner,executionID, plan, effectiveConfiguration);
+        	return await(scheduler.submit(owner, executionID, plan, ()->run(owner, plan, effectiveConfiguration)));
         }
 
     }
@@ -189,16 +205,27 @@ public class ExecutionService {
 
 
 
-	private WakamitiExecution run(String owner, String executionID, PlanNode plan, Configuration configuration) {
-    	try {
-            aliveExecutions(owner).put(executionID, plan);
-            var result = Wakamiti.instance().executePlan(plan, configuration);
-            var execution = WakamitiExecution.fromResult(result, owner);
-	        executionRepository.saveExecution(execution);
-	        return execution;
-    	} finally {
-            runningExecutions.remove(executionID);
-            finishedExecutions.add(executionID);
+	private WakamitiExecution run(String owner, PlanNode plan, Configuration configuration) {
+        var result = Wakamiti.instance().executePlan(plan, configuration);
+        var execution = WakamitiExecution.fromResult(result, owner);
+        executionRepository.saveExecution(execution);
+        return execution;
+    }
+
+
+    private WakamitiExecution await(Future<WakamitiExecution> execution) {
+        try {
+            return execution.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WakamitiException("Interrupted while waiting for the execution", e);
+        } catch (CancellationException e) {
+            throw new WakamitiException("The execution was cancelled", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new WakamitiException(e.getCause());
         }
     }
 
@@ -222,16 +249,46 @@ public class ExecutionService {
 
 
     public Optional<WakamitiExecution> getExecution(String executionID) {
-        if (runningExecutions.contains(executionID)) {
-            return Optional.of(aliveExecution(executionID, user()));
+        String owner = user();
+        var aliveExecution = scheduler.aliveExecution(owner, executionID);
+        if (aliveExecution.isPresent()) {
+            return aliveExecution.map(this::toExecution);
         } else {
-            return executionRepository.getExecution(user(), executionID);
+            return executionRepository.getExecution(owner, executionID);
         }
     }
 
 
-    private WakamitiExecution aliveExecution(String executionID, String owner) {
-        return WakamitiExecution.fromPlan(aliveExecutions.get(owner).get(executionID),owner);
+    /**
+     * Cancels an execution that is waiting to run, and removes its prepared record.
+     *
+     * @return false if the execution is already running (or it does not exist)
+     */
+    public boolean cancelExecution(String executionID) {
+        String owner = user();
+        if (!scheduler.cancel(owner, executionID)) {
+            return false;
+        }
+        executionRepository.removeExecution(owner, executionID);
+        return true;
+    }
+
+
+    public boolean isExecutionAlive(String executionID) {
+        return scheduler.aliveExecution(user(), executionID).isPresent();
+    }
+
+
+    private WakamitiExecution toExecution(ExecutionScheduler.AliveExecution execution) {
+        if (execution.state() == ExecutionScheduler.State.QUEUED) {
+            return WakamitiExecution.fromPlan(
+                execution.plan(),
+                execution.executionID(),
+                execution.queuedInstant().toString(),
+                execution.owner()
+            );
+        }
+        return WakamitiExecution.fromPlan(execution.plan(), execution.owner());
     }
 
 
@@ -241,7 +298,8 @@ public class ExecutionService {
 
 
     public List<WakamitiExecution> getAliveExecutions() {
-        return aliveExecutions(user()).values().stream()
+        return scheduler.aliveExecutions(user()).stream()
+            .map(ExecutionScheduler.AliveExecution::plan)
 	        .map(PlanNodeSnapshot::new)
 	        .map(PlanNodeSnapshot::withoutChildren)
 	        .map(snapshot -> WakamitiExecution.fromSnapshot(snapshot, user()))
@@ -258,9 +316,4 @@ public class ExecutionService {
         return context.user().orElse("anonymous");
     }
 
-
-	private Map<String, PlanNode> aliveExecutions(String owner) {
-		return aliveExecutions.computeIfAbsent(owner, it -> new HashMap<>() );
-	}
-
 }
\ No newline at end of file
@@ -36,33 +36,18 @@ public class ExecutionResource {
     @POST
     @Consumes("text/plain;charset=UTF-8,*/*")
     @Produces("application/json;charset=UTF-8")
-    @SuppressWarnings("unchecked")
-	public WakamitiExecution run(
+	public Response run(
         @QueryParam("resourceType") String resourceType,
         @QueryParam("workspace") String workspace,
         @QueryParam("async") Boolean async,
         String body
     ) throws IOException {
-
-    	if (body == null || body.isEmpty()) {
-    		return executionManager.runWorkspace(
-				Objects.requireNonNull(workspace),
-				Objects.requireNonNullElse(async, false)
-			);
-    	} else if (body.startsWith("{")) {
-            Map<String,String> files = mapper.readValue(body, HashMap.class);
-            return executionManager.runMultipleResources(
-        		files,
-        		Objects.requireNonNullElse(async, false)
-    		);
-        } else {
-            Objects.requireNonNull(resourceType);
-            return executionManager.runSingleResource(
-        		resourceType,
-        		body,
-        		Objects.requireNonNullElse(async, false)
-    		);
-        }
+    	boolean runAsync = Objects.requireNonNullElse(async, false);
+    	WakamitiExecution execution = execute(resourceType, workspace, runAsync, body);
+    	// asynchronous executions are accepted and may be waiting to run
+    	return Response.status(runAsync ? Response.Status.ACCEPTED : Response.Status.OK)
+			.entity(execution)
+			.build();
     }
 
 
@@ -86,5 +71,35 @@ public class ExecutionResource {
 
 
 
+    @DELETE
+    @Path("{executionID}")
+    public void cancelExecution(@PathParam("executionID") String executionID) {
+        Objects.requireNonNull(executionID);
+        if (!executionManager.cancelExecution(executionID)) {
+            if (executionManager.isExecutionAlive(executionID)) {
+                throw new ClientErrorException("The execution is already running", Response.Status.CONFLICT);
+            }
+            throw new NotFoundException();
+        }
+    }
+
+
+
+    @SuppressWarnings("unchecked")
+    private WakamitiExecution execute(String resourceType, String workspace, boolean async, String body)
+    throws IOException {
+    	if (body == null || body.isEmpty()) {
+    		return executionManager.runWorkspace(Objects.requireNonNull(workspace), async);
+    	} else if (body.startsWith("{")) {
+            Map<String,String> files = mapper.readValue(body, HashMap.class);
+            return executionManager.runMultipleResources(files, async);
+        } else {
+            Objects.requireNonNull(resourceType);
+            return executionManager.runSingleResource(resourceType, body, async);
+        }
+    }
+
+
+
 
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import org.slf4j.*;
 
 import io.jsonwebtoken.JwtException;
 import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.server.domain.ExecutionRejectedException;
 
 @Provider
 public class ExceptionHandler implements ExceptionMapper<Exception> {
@@ -27,7 +28,9 @@ public class ExceptionHandler implements ExceptionMapper<Exception> {
         if (exception instanceof WebApplicationException) {
             return ((WebApplicationException) exception).getResponse();
         }
-        if (exception instanceof WakamitiException) {
+        if (exception instanceof ExecutionRejectedException) {
+            return error(Response.Status.TOO_MANY_REQUESTS, exception);
+        } else if (exception instanceof WakamitiException) {
         	return error(Response.Status.BAD_REQUEST, exception);
         } else if (exception instanceof JwtException) {
             return error(Response.Status.UNAUTHORIZED, exception);
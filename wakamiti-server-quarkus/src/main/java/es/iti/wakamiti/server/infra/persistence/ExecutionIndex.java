@@ -0,0 +1,408 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.server.infra.persistence;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.plan.Result;
+import org.slf4j.*;
+
+
+/**
+ * Index of the execution metadata, kept apart from the execution results.
+ * <p>
+ * Every change is appended as a JSON line to a log file, which is replayed
+ * when the index is opened. In memory, the entries are sorted by execution
+ * instant, so pages and retention sweeps are resolved without touching the
+ * stored results. The log is compacted when it is opened, after every sweep
+ * and whenever most of its records are obsolete.
+ */
+public class ExecutionIndex implements Closeable {
+
+    public static class Entry {
+
+        private final String owner;
+        private final String executionID;
+        private final LocalDateTime executionInstant;
+        private final LocalDateTime saveInstant;
+        private final Result result;
+        private final Map<Result, Long> testCaseResults;
+
+        /**
+         * @param owner            The owner of the execution
+         * @param executionID      The execution ID
+         * @param executionInstant The instant the execution was registered
+         * @param saveInstant      The instant the result was stored, if it has been stored
+         * @param result           The result of the execution, if finished
+         * @param testCaseResults  The number of test cases per result, if finished
+         */
+        public Entry(
+            String owner,
+            String executionID,
+            LocalDateTime executionInstant,
+            LocalDateTime saveInstant,
+            Result result,
+            Map<Result, Long> testCaseResults
+        ) {
+            this.owner = owner;
+            this.executionID = executionID;
+            this.executionInstant = executionInstant;
+            this.saveInstant = saveInstant;
+            this.result = result;
+            this.testCaseResults = testCaseResults == null ? Map.of() : Map.copyOf(testCaseResults);
+        }
+
+        public String owner() {
+            return owner;
+        }
+
+        public String executionID() {
+            return executionID;
+        }
+
+        public LocalDateTime executionInstant() {
+            return executionInstant;
+        }
+
+        public Optional<LocalDateTime> saveInstant() {
+            return Optional.ofNullable(saveInstant);
+        }
+
+        public Optional<Result> result() {
+            return Optional.ofNullable(result);
+        }
+
+        public Map<Result, Long> testCaseResults() {
+            return testCaseResults;
+        }
+
+        public boolean isSaved() {
+            return saveInstant != null;
+        }
+    }
+
+
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionIndex.class);
+
+    private static final String PUT = "put";
+    private static final String REMOVE = "remove";
+    private static final int MIN_RECORDS_TO_COMPACT = 1000;
+
+    /* bounds (null owner and ID) are placed before any entry of the same instant */
+    private static final Comparator<Entry> CHRONOLOGICAL = Comparator
+        .comparing(Entry::executionInstant)
+        .thenComparing(Entry::owner, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(Entry::executionID, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+
+    private final Path logFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Map<String, Entry>> entriesByOwner = new HashMap<>();
+    private final Map<String, NavigableSet<Entry>> timelineByOwner = new HashMap<>();
+    private final NavigableSet<Entry> timeline = new TreeSet<>(CHRONOLOGICAL);
+    private Writer writer;
+    private int records;
+
+
+    /**
+     * Opens the index stored in the given file, creating it if it does not exist.
+     */
+    public static ExecutionIndex open(Path logFile) throws IOException {
+        ExecutionIndex index = new ExecutionIndex(logFile);
+        index.load();
+        return index;
+    }
+
+
+    private ExecutionIndex(Path logFile) {
+        this.logFile = logFile;
+    }
+
+
+    public synchronized void put(Entry entry) {
+        remove(entry.owner(), entry.executionID());
+        add(entry);
+        append(toRecord(PUT, entry));
+        compactIfNeeded();
+    }
+
+
+    /**
+     * Adds the given entry unless there is already an entry with the same
+     * owner and execution ID.
+     *
+     * @return The entry kept in the index
+     */
+    public synchronized Entry putIfAbsent(Entry entry) {
+        Optional<Entry> existing = get(entry.owner(), entry.executionID());
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        add(entry);
+        append(toRecord(PUT, entry));
+        compactIfNeeded();
+        return entry;
+    }
+
+
+    /**
+     * Removes the entry of the given execution, if any.
+     *
+     * @return The removed entry
+     */
+    public synchronized Optional<Entry> delete(String owner, String executionID) {
+        Optional<Entry> entry = get(owner, executionID);
+        entry.ifPresent(existing -> {
+            remove(owner, executionID);
+            append(toRecord(REMOVE, existing));
+            compactIfNeeded();
+        });
+        return entry;
+    }
+
+
+    public synchronized Optional<Entry> get(String owner, String executionID) {
+        return Optional.ofNullable(entriesByOwner.getOrDefault(owner, Map.of()).get(executionID));
+    }
+
+
+    public synchronized int size() {
+        return timeline.size();
+    }
+
+
+    /**
+     * Finds the entries of an owner within an interval, the newest first.
+     *
+     * @param owner     The owner of the executions
+     * @param from      The lower bound of the execution instant (inclusive), or null
+     * @param to        The upper bound of the execution instant (exclusive), or null
+     * @param savedOnly Whether executions without stored result are ignored
+     * @param skip      The number of entries to skip
+     * @param limit     The maximum number of entries
+     */
+    public synchronized List<Entry> find(
+        String owner,
+        LocalDateTime from,
+        LocalDateTime to,
+        boolean savedOnly,
+        int skip,
+        int limit
+    ) {
+        NavigableSet<Entry> entries = timelineByOwner.get(owner);
+        if (entries == null || (from != null && to != null && !from.isBefore(to))) {
+            return List.of();
+        }
+        if (from != null && to != null) {
+            entries = entries.subSet(bound(from), true, bound(to), false);
+        } else if (from != null) {
+            entries = entries.tailSet(bound(from), true);
+        } else if (to != null) {
+            entries = entries.headSet(bound(to), false);
+        }
+        List<Entry> result = new ArrayList<>();
+        Iterator<Entry> iterator = entries.descendingIterator();
+        int skipped = 0;
+        while (iterator.hasNext() && result.size() < limit) {
+            Entry entry = iterator.next();
+            if (savedOnly && !entry.isSaved()) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Removes the entries of every owner registered before the given instant.
+     *
+     * @return The removed entries
+     */
+    public synchronized List<Entry> removeOlderThan(LocalDateTime instant) {
+        List<Entry> removed = new ArrayList<>(timeline.headSet(bound(instant), false));
+        if (!removed.isEmpty()) {
+            removed.forEach(entry -> remove(entry.owner(), entry.executionID()));
+            compact();
+        }
+        return removed;
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+
+    private void load() throws IOException {
+        if (Files.exists(logFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    replay(line);
+                }
+            }
+        }
+        if (records > timeline.size() || !Files.exists(logFile)) {
+            compact();
+        } else {
+            openWriter();
+        }
+        LOGGER.debug("Loaded {} executions from index {}", timeline.size(), logFile);
+    }
+
+
+    private void replay(String line) {
+        if (line.isBlank()) {
+            return;
+        }
+        records++;
+        try {
+            JsonNode record = mapper.readTree(line);
+            String owner = record.path("owner").asText();
+            String executionID = record.path("id").asText();
+            remove(owner, executionID);
+            if (PUT.equals(record.path("op").asText())) {
+                add(fromRecord(record));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // a partially written record is expected if the server stopped while appending
+            LOGGER.warn("Ignoring invalid record in execution index {}: {}", logFile, e.getMessage());
+        }
+    }
+
+
+    private void add(Entry entry) {
+        entriesByOwner.computeIfAbsent(entry.owner(), x -> new HashMap<>()).put(entry.executionID(), entry);
+        timelineByOwner.computeIfAbsent(entry.owner(), x -> new TreeSet<>(CHRONOLOGICAL)).add(entry);
+        timeline.add(entry);
+    }
+
+
+    private void remove(String owner, String executionID) {
+        Map<String, Entry> entries = entriesByOwner.get(owner);
+        Entry entry = entries == null ? null : entries.remove(executionID);
+        if (entry == null) {
+            return;
+        }
+        timelineByOwner.get(owner).remove(entry);
+        timeline.remove(entry);
+        if (entries.isEmpty()) {
+            entriesByOwner.remove(owner);
+            timelineByOwner.remove(owner);
+        }
+    }
+
+
+    private void append(String record) {
+        try {
+            writer.write(record);
+            writer.write('\n');
+            writer.flush();
+            records++;
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot write the execution index {}", logFile, e);
+        }
+    }
+
+
+    private void compactIfNeeded() {
+        if (records > MIN_RECORDS_TO_COMPACT && records > 2 * timeline.size()) {
+            compact();
+        }
+    }
+
+
+    private void compact() {
+        Path compacted = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        try {
+            close();
+            try (Writer output = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (Entry entry : timeline) {
+                    output.write(toRecord(PUT, entry));
+                    output.write('\n');
+                }
+            }
+            Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = timeline.size();
+            openWriter();
+        } catch (IOException e) {
+            throw new WakamitiException("Cannot compact the execution index {}", logFile, e);
+        }
+    }
+
+
+    private void openWriter() throws IOException {
+        this.writer = Files.newBufferedWriter(
+            logFile,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND
+        );
+    }
+
+
+    private String toRecord(String operation, Entry entry) {
+        ObjectNode record = mapper.createObjectNode()
+            .put("op", operation)
+            .put("owner", entry.owner())
+            .put("id", entry.executionID())
+            .put("executionInstant", entry.executionInstant().toString());
+        entry.saveInstant().ifPresent(instant -> record.put("saveInstant", instant.toString()));
+        entry.result().ifPresent(result -> record.put("result", result.name()));
+        if (!entry.testCaseResults().isEmpty()) {
+            ObjectNode testCaseResults = record.putObject("testCaseResults");
+            entry.testCaseResults().forEach((result, count) -> testCaseResults.put(result.name(), count));
+        }
+        try {
+            return mapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new WakamitiException(e);
+        }
+    }
+
+
+    private Entry fromRecord(JsonNode record) {
+        Map<Result, Long> testCaseResults = new EnumMap<>(Result.class);
+        record.path("testCaseResults").fields().forEachRemaining(
+            field -> testCaseResults.put(Result.valueOf(field.getKey()), field.getValue().asLong())
+        );
+        return new Entry(
+            record.path("owner").asText(),
+            record.path("id").asText(),
+            LocalDateTime.parse(record.path("executionInstant").asText()),
+            record.hasNonNull("saveInstant") ? LocalDateTime.parse(record.get("saveInstant").asText()) : null,
+            record.hasNonNull("result") ? Result.valueOf(record.get("result").asText()) : null,
+            testCaseResults
+        );
+    }
+
+
+    private static Entry bound(LocalDateTime instant) {
+        return new Entry(null, null, instant, null, null, null);
+    }
+
+}
@@ -10,35 +10,42 @@ import java.io.*;
 import java.nio.file.*;
 import java.time.*;
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.stream.*;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 
 import es.iti.wakamiti.server.domain.model.ExecutionCriteria;
 import es.iti.wakamiti.server.domain.model.WakamitiExecution;
 import es.iti.wakamiti.core.Wakamiti;
 import es.iti.wakamiti.api.WakamitiException;
+import es.iti.wakamiti.api.plan.PlanNodeSnapshot;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.*;
 
 import es.iti.wakamiti.server.spi.ExecutionRepository;
 
+/**
+ * Stores the execution results as files, one folder per owner and execution.
+ * <p>
+ * The metadata of the executions (instants, result and test case counts) is
+ * kept in an {@link ExecutionIndex}, so searches and retention sweeps do not
+ * need to walk the folders nor read the results.
+ */
 @ApplicationScoped
 public class FileBasedExecutionRepository implements ExecutionRepository {
 
     private static final String OUTPUT_FILE = "wakamiti.json";
+    private static final String INDEX_FILE = "executions.log";
 	private static final Logger LOGGER = LoggerFactory.getLogger(FileBasedExecutionRepository.class);
 
-	private static final Comparator<File> FILE_COMPARATOR = Comparator
-		.comparing(File::lastModified)
-		.reversed();
-
     @ConfigProperty(name = "wakamiti.executions.path")
     Optional<String> executionPath;
 
+    private ExecutionIndex index;
+
     @PostConstruct
     void prepareExecutionPath() throws IOException {
     	if (executionPath.isEmpty()) {
@@ -55,6 +62,13 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
     		throw new IOException(outputFilePath+" is not a redable directory");
     	}
     	LOGGER.info("Using {} as execution storage", executionPath);
+    	openIndex(outputFilePath);
+    }
+
+
+    @PreDestroy
+    void closeIndex() throws IOException {
+        index.close();
     }
 
 
@@ -65,6 +79,10 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
     	Path file = resultFile(owner, executionID);
     	writeFile(execution,file);
     	LOGGER.debug("Written file {}", file);
+    	var executionInstant = index.get(owner, executionID)
+    		.map(ExecutionIndex.Entry::executionInstant)
+    		.orElseGet(() -> startInstant(execution.getData()).orElseGet(LocalDateTime::now));
+    	index.put(toEntry(owner, executionInstant, LocalDateTime.now(), execution.getData()));
     }
 
 
@@ -85,13 +103,13 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
 
     @Override
     public List<WakamitiExecution> getAllExecutions(String owner) {
-        return findExecutions(owner,x->true,0,Integer.MAX_VALUE);
+        return findExecutions(owner, null, null, 0, Integer.MAX_VALUE);
     }
 
 
     @Override
     public List<String> getAllExecutionIDs(String owner) {
-        return findExecutionIDs(owner, x->true,0,Integer.MAX_VALUE);
+        return findExecutionIDs(owner, null, null, 0, Integer.MAX_VALUE);
     }
 
 
@@ -99,8 +117,9 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
     public List<WakamitiExecution> getExecutions(ExecutionCriteria criteria) {
         return findExecutions(
             criteria.getOwner(),
-            toPredicate(criteria),
-            (criteria.getPage()-1)*criteria.getSize(),
+            lowerBound(criteria),
+            upperBound(criteria),
+            skip(criteria),
             criteria.getSize()
         );
     }
@@ -110,8 +129,9 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
     public List<String> getExecutionIDs(ExecutionCriteria criteria) {
         return findExecutionIDs(
             criteria.getOwner(),
-            toPredicate(criteria),
-            (criteria.getPage()-1)*criteria.getSize(),
+            lowerBound(criteria),
+            upperBound(criteria),
+            skip(criteria),
             criteria.getSize()
         );
     }
@@ -119,67 +139,153 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
 
     @Override
     public void removeOldExecutions(int age) {
-        var executionRootFolder = executionPath.map(Path::of).orElseThrow();
-        try (Stream<Path> allFiles = Files.walk(executionRootFolder)) {
-            allFiles
-                .map(Path::toFile)
-                .filter(File::isFile)
-                .filter(file -> FileUtils.isFileOlder(file, LocalDateTime.now().minusDays(age)))
-                .forEach(File::delete);
-        } catch (IOException e) {
-            LOGGER.error("Error removing old executions : {}",  e.getMessage());
-            LOGGER.debug(e.toString(),e);
-        }
-        try (Stream<Path> allFiles = Files.walk(executionRootFolder)) {
-            allFiles
-                .map(Path::toFile)
-                .filter(File::isDirectory)
-                .filter(folder -> folder.list().length == 0)
-                .forEach(File::delete);
-        } catch (IOException e) {
-            LOGGER.error("Error removing empty folders : {}",  e.getMessage());
-            LOGGER.debug(e.toString(),e);
+        var removed = index.removeOlderThan(LocalDateTime.now().minusDays(age));
+        for (var entry : removed) {
+            try {
+                FileUtils.deleteDirectory(executionFolder(entry.owner(), entry.executionID()).toFile());
+            } catch (IOException e) {
+                LOGGER.error("Error removing old execution {} : {}", entry.executionID(), e.getMessage());
+                LOGGER.debug(e.toString(),e);
+            }
         }
+        LOGGER.info("Removed {} executions older than {} days", removed.size(), age);
     }
 
 
+    /**
+     * Registers an execution that has not been saved yet. If the execution has
+     * already been saved (it may finish before being prepared), it is kept as is.
+     */
     @Override
     public Instant prepareExecution(String owner, String executionID) {
-    	try {
-    		var dir = Files.createDirectory(executionPath(owner).resolve(executionID));
-    		return Files.getLastModifiedTime(dir).toInstant();
-    	} catch (IOException e) {
-            throw new WakamitiException(e);
+        var entry = index.putIfAbsent(new ExecutionIndex.Entry(
+            owner,
+            executionID,
+            LocalDateTime.now(),
+            null,
+            null,
+            null
+        ));
+        return entry.executionInstant().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+
+    @Override
+    public void removeExecution(String owner, String executionID) {
+        if (index.delete(owner, executionID).isPresent()) {
+            try {
+                FileUtils.deleteDirectory(executionFolder(owner, executionID).toFile());
+            } catch (IOException e) {
+                LOGGER.error("Error removing execution {} : {}", executionID, e.getMessage());
+                LOGGER.debug(e.toString(),e);
+            }
         }
     }
 
 
-    private Predicate<File> toPredicate(ExecutionCriteria criteria) {
-        Predicate<File> filter = x->true;
-        if (criteria.getExecutionDate() != null) {
-            filter = filter.and(
-        		file -> lastModified(file).toLocalDate().equals(criteria.getExecutionDate())
-    		);
+    private void openIndex(Path root) throws IOException {
+        Path indexFile = root.resolve(INDEX_FILE);
+        boolean existing = Files.exists(indexFile);
+        this.index = ExecutionIndex.open(indexFile);
+        if (!existing) {
+            importExistingExecutions(root.resolve("users"));
+        }
+    }
+
+
+    /*
+     * Executions stored before the index existed are registered once, using
+     * the folder modification time as the previous versions did
+     */
+    private void importExistingExecutions(Path usersFolder) throws IOException {
+        if (!Files.isDirectory(usersFolder)) {
+            return;
+        }
+        try (Stream<Path> executionFolders = Files.walk(usersFolder, 3)) {
+            executionFolders
+                .filter(folder -> usersFolder.relativize(folder).getNameCount() == 3)
+                .filter(folder -> folder.getParent().getFileName().toString().equals("executions"))
+                .filter(Files::isDirectory)
+                .forEach(this::importExistingExecution);
+        }
+        LOGGER.info("Indexed {} existing executions", index.size());
+    }
+
+
+    private void importExistingExecution(Path folder) {
+        String owner = folder.getParent().getParent().getFileName().toString();
+        String executionID = folder.getFileName().toString();
+        LocalDateTime instant = lastModified(folder.toFile());
+        Path file = folder.resolve(OUTPUT_FILE);
+        try {
+            if (Files.exists(file)) {
+                index.put(toEntry(owner, instant, instant, readFile(file, owner).getData()));
+            } else {
+                index.put(new ExecutionIndex.Entry(owner, executionID, instant, null, null, null));
+            }
+        } catch (WakamitiException e) {
+            LOGGER.warn("Cannot index execution {} : {}", folder, e.getMessage());
         }
-        if (criteria.getExecutionIntervalFrom() != null) {
-            filter = filter.and(
-        		file -> lastModified(file).compareTo(criteria.getExecutionIntervalFrom()) >= 0
-    		);
+    }
+
+
+    private ExecutionIndex.Entry toEntry(
+        String owner,
+        LocalDateTime executionInstant,
+        LocalDateTime saveInstant,
+        PlanNodeSnapshot data
+    ) {
+        return new ExecutionIndex.Entry(
+            owner,
+            data.getExecutionID(),
+            executionInstant,
+            saveInstant,
+            data.getResult(),
+            data.getTestCaseResults()
+        );
+    }
+
+
+    private Optional<LocalDateTime> startInstant(PlanNodeSnapshot data) {
+        return Optional.ofNullable(data.getStartInstant()).map(LocalDateTime::parse);
+    }
+
+
+    private LocalDateTime lowerBound(ExecutionCriteria criteria) {
+        LocalDateTime from = criteria.getExecutionIntervalFrom();
+        if (criteria.getExecutionDate() != null) {
+            LocalDateTime startOfDay = criteria.getExecutionDate().atStartOfDay();
+            from = from == null || from.isBefore(startOfDay) ? startOfDay : from;
         }
-        if (criteria.getExecutionIntervalTo() != null) {
-            filter = filter.and(
-        		file -> lastModified(file).compareTo(criteria.getExecutionIntervalTo()) <= 0
-    		);
+        return from;
+    }
+
+
+    private LocalDateTime upperBound(ExecutionCriteria criteria) {
+        LocalDateTime to = criteria.getExecutionIntervalTo() == null ?
+            null : criteria.getExecutionIntervalTo().plusNanos(1);
+        if (criteria.getExecutionDate() != null) {
+            LocalDateTime endOfDay = criteria.getExecutionDate().plusDays(1).atStartOfDay();
+            to = to == null || to.isAfter(endOfDay) ? endOfDay : to;
         }
-        return filter;
+        return to;
     }
 
 
+    private int skip(ExecutionCriteria criteria) {
+        return (int) Math.min(Integer.MAX_VALUE, (criteria.getPage()-1L)*criteria.getSize());
+    }
+
 
 
     private Path resultFile(String owner, String executionID) {
+        return executionFolder(owner, executionID).resolve(OUTPUT_FILE);
+    }
+
+
+    private Path executionFolder(String owner, String executionID) {
         try {
-            return executionPath(owner).resolve(executionID).resolve(OUTPUT_FILE);
+            return executionPath(owner).resolve(executionID);
         } catch (IOException e) {
             throw new WakamitiException(e);
         }
@@ -218,39 +324,31 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
     }
 
 
-    private Stream<File> executionFolders(String owner) {
-        try {
-            return Files.walk(executionPath(owner), 1).map(Path::toFile);
-        } catch (IOException e) {
-            throw new WakamitiException(e.toString(),e);
-        }
-    }
-
-
-
-
-    private Stream<File> filteredExecutionFolders(String owner, Predicate<File> predicate, int skip, int limit) {
-        return executionFolders(owner)
-        		.filter(predicate)
-                .sorted(FILE_COMPARATOR)
-                .skip(skip)
-                .limit(limit);
-    }
-
-
 
-    private List<WakamitiExecution> findExecutions(String owner, Predicate<File> predicate, int skip, int limit) {
-        return filteredExecutionFolders(owner, predicate,skip,limit)
-            .map(File::toPath)
-            .map(path -> readOutputFileInExecutionFolder(path, owner))
+    private List<WakamitiExecution> findExecutions(
+        String owner,
+        LocalDateTime from,
+        LocalDateTime to,
+        int skip,
+        int limit
+    ) {
+        return index.find(owner, from, to, true, skip, limit).stream()
+            .map(entry -> executionFolder(owner, entry.executionID()))
+            .map(folder -> readOutputFileInExecutionFolder(folder, owner))
             .flatMap(Optional::stream)
             .collect(Collectors.toList());
     }
 
 
-    private List<String> findExecutionIDs(String owner, Predicate<File> predicate, int skip, int limit) {
-        return filteredExecutionFolders(owner,predicate,skip,limit)
-            .map(File::getName)
+    private List<String> findExecutionIDs(
+        String owner,
+        LocalDateTime from,
+        LocalDateTime to,
+        int skip,
+        int limit
+    ) {
+        return index.find(owner, from, to, false, skip, limit).stream()
+            .map(ExecutionIndex.Entry::executionID)
             .collect(Collectors.toList());
     }
 
@@ -280,4 +378,4 @@ public class FileBasedExecutionRepository implements ExecutionRepository {
     }
 
 
-}
\ No newline at end of file
+}
@@ -33,4 +33,6 @@ public interface ExecutionRepository {
 
 	Instant prepareExecution(String owner, String executionID);
 
+	void removeExecution(String owner, String executionID);
+
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.server;
+
+import es.iti.wakamiti.api.plan.Result;
+import es.iti.wakamiti.server.infra.persistence.ExecutionIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 10, 0, 0);
+
+    @TempDir
+    Path folder;
+
+
+    @Test
+    void entriesArePagedFromTheNewest() throws IOException {
+        try (ExecutionIndex index = ExecutionIndex.open(folder.resolve("executions.log"))) {
+            for (int i = 0; i < 10; i++) {
+                index.put(entry("user1", "e" + i, DAY.plusHours(i), i % 2 == 0));
+            }
+            index.put(entry("user2", "other", DAY.plusHours(5), true));
+
+            assertThat(ids(index.find("user1", null, null, false, 0, 3))).containsExactly("e9", "e8", "e7");
+            assertThat(ids(index.find("user1", null, null, false, 3, 3))).containsExactly("e6", "e5", "e4");
+            assertThat(ids(index.find("user1", null, null, true, 1, 2))).containsExactly("e6", "e4");
+            assertThat(ids(index.find("user1", DAY.plusHours(2), DAY.plusHours(5), false, 0, 10)))
+                .containsExactly("e4", "e3", "e2");
+            assertThat(index.find("user3", null, null, false, 0, 10)).isEmpty();
+        }
+    }
+
+
+    @Test
+    void indexIsRestoredFromTheLog() throws IOException {
+        Path log = folder.resolve("executions.log");
+        try (ExecutionIndex index = ExecutionIndex.open(log)) {
+            index.put(entry("user1", "e1", DAY, false));
+            index.put(entry("user1", "e2", DAY.plusHours(1), false));
+            index.put(entry("user1", "e1", DAY, true));
+        }
+        Files.writeString(log, Files.readString(log) + "{\"op\":\"put\",\"own");
+
+        try (ExecutionIndex index = ExecutionIndex.open(log)) {
+            assertThat(index.size()).isEqualTo(2);
+            assertThat(index.get("user1", "e1")).get().satisfies(entry -> {
+                assertThat(entry.executionInstant()).isEqualTo(DAY);
+                assertThat(entry.saveInstant()).contains(DAY.plusMinutes(1));
+                assertThat(entry.result()).contains(Result.PASSED);
+                assertThat(entry.testCaseResults()).containsEntry(Result.PASSED, 3L);
+            });
+            assertThat(index.get("user1", "e2")).get()
+                .satisfies(entry -> assertThat(entry.isSaved()).isFalse());
+        }
+        assertThat(Files.readAllLines(log)).hasSize(2);
+    }
+
+
+    @Test
+    void preparedEntriesDoNotReplaceSavedOnesAndCanBeDeleted() throws IOException {
+        Path log = folder.resolve("executions.log");
+        try (ExecutionIndex index = ExecutionIndex.open(log)) {
+            index.put(entry("user1", "saved", DAY, true));
+
+            assertThat(index.putIfAbsent(entry("user1", "saved", DAY.plusHours(1), false)).isSaved()).isTrue();
+            assertThat(index.putIfAbsent(entry("user1", "cancelled", DAY.plusHours(2), false)).isSaved()).isFalse();
+            assertThat(index.delete("user1", "cancelled")).isPresent();
+            assertThat(index.delete("user1", "unknown")).isEmpty();
+        }
+
+        try (ExecutionIndex index = ExecutionIndex.open(log)) {
+            assertThat(ids(index.find("user1", null, null, false, 0, 10))).containsExactly("saved");
+        }
+    }
+
+
+    @Test
+    void oldEntriesAreSwept() throws IOException {
+        Path log = folder.resolve("executions.log");
+        try (ExecutionIndex index = ExecutionIndex.open(log)) {
+            index.put(entry("user1", "old", DAY.minusDays(40), true));
+            index.put(entry("user2", "old", DAY.minusDays(31), false));
+            index.put(entry("user1", "new", DAY.minusDays(1), true));
+
+            assertThat(index.removeOlderThan(DAY.minusDays(30)))
+                .extracting(ExecutionIndex.Entry::owner)
+                .containsExactly("user1", "user2");
+            assertThat(ids(index.find("user1", null, null, false, 0, 10))).containsExactly("new");
+            assertThat(index.find("user2", null, null, false, 0, 10)).isEmpty();
+        }
+        assertThat(Files.readAllLines(log)).hasSize(1);
+    }
+
+
+
+    private ExecutionIndex.Entry entry(String owner, String executionID, LocalDateTime instant, boolean saved) {
+        return saved ?
+            new ExecutionIndex.Entry(
+                owner, executionID, instant, instant.plusMinutes(1), Result.PASSED, Map.of(Result.PASSED, 3L)
+            ) :
+            new ExecutionIndex.Entry(owner, executionID, instant, null, null, null);
+    }
+
+
+    private List<String> ids(List<ExecutionIndex.Entry> entries) {
+        return entries.stream().map(ExecutionIndex.Entry::executionID).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package es.iti.wakamiti.server;
+
+import es.iti.wakamiti.server.domain.ExecutionRejectedException;
+import es.iti.wakamiti.server.domain.ExecutionScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionSchedulerTest {
+
+    private final ExecutionScheduler scheduler = new ExecutionScheduler(1, 1, 2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+
+    @Test
+    void executionsExceedingTheLimitsAreRejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit("user1", "1", null, () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.submit("user2", "2", null, () -> null);
+
+        assertThat(scheduler.aliveExecution("user1", "1")).get()
+            .extracting(ExecutionScheduler.AliveExecution::state).isEqualTo(ExecutionScheduler.State.RUNNING);
+        assertThat(scheduler.aliveExecution("user2", "2")).get()
+            .extracting(ExecutionScheduler.AliveExecution::state).isEqualTo(ExecutionScheduler.State.QUEUED);
+        assertThatThrownBy(() -> scheduler.submit("user3", "3", null, () -> null))
+            .isInstanceOf(ExecutionRejectedException.class);
+    }
+
+
+    @Test
+    void executionsOfTheSameOwnerAreLimited() {
+        ExecutionScheduler scheduler = new ExecutionScheduler(1, 10, 2);
+        try {
+            scheduler.submit("user1", "1", null, () -> { release.await(); return null; });
+            scheduler.submit("user1", "2", null, () -> null);
+
+            assertThatThrownBy(() -> scheduler.submit("user1", "3", null, () -> null))
+                .isInstanceOf(ExecutionRejectedException.class);
+            scheduler.submit("user2", "3", null, () -> null);
+        } finally {
+            release.countDown();
+            scheduler.shutdown();
+        }
+    }
+
+
+    @Test
+    void onlyQueuedExecutionsCanBeCancelled() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> running = scheduler.submit("user1", "1", null, () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<?> queued = scheduler.submit("user1", "2", null, () -> null);
+
+        assertThat(scheduler.cancel("user2", "2")).isFalse();
+        assertThat(scheduler.cancel("user1", "1")).isFalse();
+        assertThat(scheduler.cancel("user1", "2")).isTrue();
+        assertThat(queued.isCancelled()).isTrue();
+        assertThat(scheduler.aliveExecutions("user1")).hasSize(1);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertThat(scheduler.aliveExecutions("user1")).isEmpty();
+    }
+
+}